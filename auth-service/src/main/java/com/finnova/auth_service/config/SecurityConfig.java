@@ -1,5 +1,6 @@
 package com.finnova.auth_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,8 +9,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * BCrypt encoder with the configured cost factor. Passwords hashed with another cost
+     * are hashed again on their next successful login.
+     *
+     * @param cost the BCrypt cost factor, 4 to 31
+     * @return the password encoder
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt.cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 }
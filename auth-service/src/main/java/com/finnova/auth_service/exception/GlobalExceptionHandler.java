@@ -1,6 +1,7 @@
 package com.finnova.auth_service.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -62,6 +63,22 @@ public class GlobalExceptionHandler {
                 .body(buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage())));
     }
 
+    /**
+     * Handles ServiceBusyException.
+     *
+     * @param ex the exception
+     * @return Mono of ResponseEntity with error details
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleServiceBusyException(
+            ServiceBusyException ex) {
+        log.warn("Service busy: {}", ex.getMessage());
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage())));
+    }
+
     /**
      * Handles validation exceptions.
      *
@@ -0,0 +1,13 @@
+package com.finnova.auth_service.exception;
+
+public class ServiceBusyException extends RuntimeException {
+
+    /**
+     * Constructs a new ServiceBusyException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.finnova.auth_service.service;
+
+import reactor.core.publisher.Mono;
+
+public interface PasswordHashingService {
+
+    /**
+     * Hashes a password off the event loop.
+     *
+     * @param rawPassword the password to hash
+     * @return Mono containing the hash, or a ServiceBusyException when the hashing queue is full
+     */
+    Mono<String> encode(String rawPassword);
+
+    /**
+     * Checks a password against its hash off the event loop.
+     *
+     * @param rawPassword the password to check
+     * @param encodedPassword the stored hash
+     * @return Mono of Boolean - true if it matches, or a ServiceBusyException when the hashing queue is full
+     */
+    Mono<Boolean> matches(String rawPassword, String encodedPassword);
+
+    /**
+     * Checks if a hash was made with a different cost factor than the configured one.
+     *
+     * @param encodedPassword the stored hash
+     * @return true if the password should be hashed again
+     */
+    boolean needsRehash(String encodedPassword);
+}
@@ -11,10 +11,9 @@ import com.finnova.auth_service.model.entity.User;
 import com.finnova.auth_service.repository.UserRepository;
 import com.finnova.auth_service.service.AuthService;
 import com.finnova.auth_service.service.JwtService;
+import com.finnova.auth_service.service.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -29,7 +28,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final JwtService jwtService;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
 
     @Override
     public Mono<AuthResponse> register(RegisterRequest request) {
@@ -51,9 +50,12 @@ public class AuthServiceImpl implements AuthService {
                                 "Email already exists: " + request.getEmail()));
                     }
 
+                    return passwordHashingService.encode(request.getPassword());
+                })
+                .flatMap(encodedPassword -> {
                     // Create user entity
                     User user = userMapper.toEntity(request);
-                    user.setPassword(passwordEncoder.encode(request.getPassword()));
+                    user.setPassword(encodedPassword);
                     user.setActive(true);
                     user.setCreatedAt(LocalDateTime.now());
                     user.setUpdatedAt(LocalDateTime.now());
@@ -88,18 +90,49 @@ public class AuthServiceImpl implements AuthService {
                                 "User account is inactive"));
                     }
 
-                    if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                        log.warn("Invalid password for user: {}", request.getUsername());
-                        return Mono.error(new InvalidCredentialsException(
-                                "Invalid credentials"));
-                    }
-
-                    log.info("User authenticated successfully: {}", user.getUsername());
-                    return jwtService.generateToken(user)
-                            .map(token -> buildAuthResponse(token, user));
+                    return passwordHashingService.matches(request.getPassword(), user.getPassword())
+                            .flatMap(matches -> {
+                                if (Boolean.FALSE.equals(matches)) {
+                                    log.warn("Invalid password for user: {}", request.getUsername());
+                                    return Mono.error(new InvalidCredentialsException(
+                                            "Invalid credentials"));
+                                }
+
+                                log.info("User authenticated successfully: {}", user.getUsername());
+                                return rehashIfNeeded(user, request.getPassword())
+                                        .then(jwtService.generateToken(user))
+                                        .map(token -> buildAuthResponse(token, user));
+                            });
                 });
     }
 
+    /**
+     * Hashes the password again when its hash was made with another cost factor.
+     * A failed re-hash does not fail the login, it is retried on the next one.
+     *
+     * @param user the authenticated user
+     * @param rawPassword the password the user logged in with
+     * @return Mono completing once the new hash is saved
+     */
+    private Mono<Void> rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return Mono.empty();
+        }
+        return passwordHashingService.encode(rawPassword)
+                .flatMap(encodedPassword -> {
+                    user.setPassword(encodedPassword);
+                    user.setUpdatedAt(LocalDateTime.now());
+                    return userRepository.save(user);
+                })
+                .doOnNext(savedUser -> log.info("Password re-hashed with the current cost for user: {}",
+                        savedUser.getUsername()))
+                .onErrorResume(e -> {
+                    log.warn("Could not re-hash password for user {}: {}", user.getUsername(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
     @Override
     public Mono<Boolean> validateToken(String token) {
         log.debug("Validating token");
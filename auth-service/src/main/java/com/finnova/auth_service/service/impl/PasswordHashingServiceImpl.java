@@ -0,0 +1,135 @@
+package com.finnova.auth_service.service.impl;
+
+import com.finnova.auth_service.exception.ServiceBusyException;
+import com.finnova.auth_service.service.PasswordHashingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a dedicated pool so a burst of logins never blocks the Netty event loop.
+ * The pool has a bounded queue; once it is full new requests are shed with a
+ * ServiceBusyException instead of piling up behind hashes that take tens of milliseconds each.
+ */
+@Service
+@Slf4j
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    public static final String HASH_METRIC = "auth.password.hash";
+
+    private final PasswordEncoder passwordEncoder;
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${auth.password.bcrypt.cost:10}") int cost,
+                                      @Value("${auth.password.hashing.threads:0}") int threads,
+                                      @Value("${auth.password.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.cost = cost;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hashing");
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchTimer = hashTimer(meterRegistry, "matches");
+        this.queueWaitTimer = Timer.builder(HASH_METRIC + ".queue.wait")
+                .description("Time password hashes wait for a hashing thread")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(HASH_METRIC + ".rejected")
+                .description("Password hashes shed because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder(HASH_METRIC + ".queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder(HASH_METRIC + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes running")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started with {} threads, queue capacity {}, BCrypt cost {}",
+                poolSize, queueCapacity, cost);
+    }
+
+    @Override
+    public Mono<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        // BCrypt hashes look like $2a$10$..., the two digits being the cost
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || !encodedPassword.startsWith("$2") || encodedPassword.charAt(6) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != cost;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.dispose();
+    }
+
+    private <T> Mono<T> submit(Timer timer, Supplier<T> hash) {
+        return Mono.defer(() -> {
+                    long queuedAt = System.nanoTime();
+                    return Mono.fromSupplier(() -> {
+                                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                                return timer.record(hash);
+                            })
+                            .subscribeOn(scheduler);
+                })
+                .onErrorMap(RejectedExecutionException.class, e -> {
+                    rejectedCounter.increment();
+                    log.warn("Password hashing queue is full, shedding request");
+                    return new ServiceBusyException("Authentication service is busy, please retry shortly");
+                });
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(HASH_METRIC)
+                .description("Time spent hashing or checking passwords")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.finnova.auth_service.service.impl;
+
+import com.finnova.auth_service.exception.InvalidCredentialsException;
+import com.finnova.auth_service.exception.ServiceBusyException;
+import com.finnova.auth_service.mapper.UserMapper;
+import com.finnova.auth_service.model.dto.LoginRequest;
+import com.finnova.auth_service.model.entity.User;
+import com.finnova.auth_service.repository.UserRepository;
+import com.finnova.auth_service.service.JwtService;
+import com.finnova.auth_service.service.PasswordHashingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login paths that go through the password hashing pool: shedding and re-hashing on login.
+ */
+class AuthServiceImplTest {
+
+    private static final String OLD_HASH = "$2a$12$old";
+    private static final String CURRENT_HASH = "$2a$10$current";
+
+    private User user;
+    private UserRepository userRepository;
+    private PasswordHashingService passwordHashingService;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("user-1", "alice", CURRENT_HASH, "alice@finnova.com", List.of("USER"), true,
+                LocalDateTime.now(), LocalDateTime.now());
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenAnswer(inv -> Mono.just(user));
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken(any(User.class))).thenReturn(Mono.just("token"));
+
+        passwordHashingService = mock(PasswordHashingService.class);
+        when(passwordHashingService.matches("secret", OLD_HASH)).thenReturn(Mono.just(true));
+        when(passwordHashingService.matches("secret", CURRENT_HASH)).thenReturn(Mono.just(true));
+        when(passwordHashingService.needsRehash(OLD_HASH)).thenReturn(true);
+        when(passwordHashingService.encode("secret")).thenReturn(Mono.just(CURRENT_HASH));
+
+        authService = new AuthServiceImpl(userRepository, jwtService, mock(UserMapper.class), passwordHashingService);
+    }
+
+    @Test
+    void loginWithAHashOfAnotherCostSavesANewHash() {
+        user.setPassword(OLD_HASH);
+
+        StepVerifier.create(authService.login(login("secret")))
+                .assertNext(response -> assertThat(response.getToken()).isEqualTo("token"))
+                .verifyComplete();
+
+        assertThat(user.getPassword()).isEqualTo(CURRENT_HASH);
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void loginWithACurrentHashSavesNothing() {
+        StepVerifier.create(authService.login(login("secret"))).expectNextCount(1).verifyComplete();
+
+        verify(passwordHashingService, never()).encode(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void failedRehashDoesNotFailTheLogin() {
+        user.setPassword(OLD_HASH);
+        doReturn(Mono.error(new ServiceBusyException("Authentication service is busy")))
+                .when(passwordHashingService).encode("secret");
+
+        StepVerifier.create(authService.login(login("secret"))).expectNextCount(1).verifyComplete();
+
+        assertThat(user.getPassword()).isEqualTo(OLD_HASH);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void wrongPasswordIsNeverRehashed() {
+        user.setPassword(OLD_HASH);
+        when(passwordHashingService.matches("wrong", OLD_HASH)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(authService.login(login("wrong")))
+                .expectError(InvalidCredentialsException.class)
+                .verify();
+
+        verify(passwordHashingService, never()).encode(anyString());
+    }
+
+    @Test
+    void loginShedByTheHashingPoolIsReportedAsBusy() {
+        doReturn(Mono.error(new ServiceBusyException("Authentication service is busy")))
+                .when(passwordHashingService).matches("secret", CURRENT_HASH);
+
+        StepVerifier.create(authService.login(login("secret")))
+                .expectError(ServiceBusyException.class)
+                .verify();
+    }
+
+    private static LoginRequest login(String password) {
+        return LoginRequest.builder().username("alice").password(password).build();
+    }
+}
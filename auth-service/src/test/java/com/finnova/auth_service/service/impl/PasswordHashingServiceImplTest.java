@@ -0,0 +1,105 @@
+package com.finnova.auth_service.service.impl;
+
+import com.finnova.auth_service.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceImplTest {
+
+    private static final int COST = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void encodedPasswordMatchesOnlyItself() {
+        service = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(COST), meterRegistry, COST, 2, 8);
+
+        String hash = service.encode("secret").block();
+
+        StepVerifier.create(service.matches("secret", hash)).expectNext(true).verifyComplete();
+        StepVerifier.create(service.matches("wrong", hash)).expectNext(false).verifyComplete();
+        assertThat(meterRegistry.get(PasswordHashingServiceImpl.HASH_METRIC).tag("operation", "encode")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(PasswordHashingServiceImpl.HASH_METRIC).tag("operation", "matches")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void hashingRunsOffTheCallerThread() {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(inv -> Thread.currentThread().getName());
+        service = new PasswordHashingServiceImpl(passwordEncoder, meterRegistry, COST, 1, 8);
+
+        StepVerifier.create(service.encode("secret"))
+                .assertNext(thread -> assertThat(thread).startsWith("password-hashing-"))
+                .verifyComplete();
+    }
+
+    @Test
+    void requestBeyondTheQueueIsShed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "hash-" + inv.getArgument(0);
+        });
+        // One thread and one queue slot: the first hash runs, the second waits, the third is shed
+        service = new PasswordHashingServiceImpl(passwordEncoder, meterRegistry, COST, 1, 1);
+
+        CompletableFuture<String> running = service.encode("a").toFuture();
+        CompletableFuture<String> queued = service.encode("b").toFuture();
+
+        StepVerifier.create(service.encode("c"))
+                .expectError(ServiceBusyException.class)
+                .verify();
+        assertThat(meterRegistry.get(PasswordHashingServiceImpl.HASH_METRIC + ".rejected").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash-a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash-b");
+
+        // Once the queue drains, requests are accepted again
+        StepVerifier.create(service.encode("d")).expectNext("hash-d").verifyComplete();
+    }
+
+    @Test
+    void hashWithAnotherCostNeedsRehash() {
+        service = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(COST), meterRegistry, COST, 1, 8);
+
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(COST).encode("secret"))).isFalse();
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret"))).isTrue();
+        assertThat(service.needsRehash("$2b$12$abcdefghijklmnopqrstuv")).isTrue();
+    }
+
+    @Test
+    void valueThatIsNotABcryptHashIsLeftAlone() {
+        service = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(COST), meterRegistry, COST, 1, 8);
+
+        assertThat(service.needsRehash(null)).isFalse();
+        assertThat(service.needsRehash("plain")).isFalse();
+        assertThat(service.needsRehash("$2a$xx$abcdefghijklmnopqrstuv")).isFalse();
+        assertThat(service.needsRehash("{noop}secret")).isFalse();
+    }
+}
@@ -0,0 +1,102 @@
+package com.finnova.cache_support;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Keeps expiring cache keys from sending a burst of loads to the database:
+ * concurrent misses of a key share one load, hot keys are refreshed shortly before
+ * they expire (XFetch), and TTLs are jittered so keys written together expire apart.
+ *
+ * <p>Early refresh needs the expiry of the entry that was read. Callers store it in the entry
+ * itself, see {@link com.finnova.cache_support.codec.VersionedCacheCodec#encode(Object, Instant)},
+ * so a hit costs a single GET.</p>
+ */
+public class CacheStampedeProtection {
+
+    private static final double LOAD_TIME_SMOOTHING = 0.2;
+
+    private final Map<String, Mono<?>> inFlightLoads = new ConcurrentHashMap<>();
+    private final double earlyRefreshBeta;
+    private final double ttlJitter;
+    private volatile double averageLoadMillis;
+
+    /**
+     * Creates the protection of one cache.
+     *
+     * @param earlyRefreshBeta how eagerly keys are refreshed before expiry, 1.0 being the XFetch default
+     * @param ttlJitter the ratio TTLs are spread by
+     * @param initialLoadMillis the load time assumed until loads have been measured
+     */
+    public CacheStampedeProtection(double earlyRefreshBeta, double ttlJitter, double initialLoadMillis) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.ttlJitter = ttlJitter;
+        this.averageLoadMillis = initialLoadMillis;
+    }
+
+    /**
+     * Runs the loader once for all concurrent callers of the same key.
+     *
+     * @param key the cache key
+     * @param loader loads and caches the value
+     * @return Mono shared by every caller that arrives while the load is running
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> singleFlight(String key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> (Mono<T>) inFlightLoads.computeIfAbsent(key, k -> {
+            Mono<?>[] load = new Mono<?>[1];
+            load[0] = Mono.defer(() -> {
+                        long start = System.nanoTime();
+                        return loader.get()
+                                .doOnSuccess(value -> recordLoadTime(System.nanoTime() - start));
+                    })
+                    // Only this load's own entry, a newer load of the key may already be in flight
+                    .doFinally(signal -> inFlightLoads.remove(k, load[0]))
+                    .cache();
+            return load[0];
+        }));
+    }
+
+    /**
+     * XFetch: the closer the key is to expiry, and the slower loads are, the more likely
+     * a read refreshes it early. Spreads refreshes of a hot key over its last moments
+     * instead of letting every reader miss at once.
+     *
+     * @param expiresAt when the cached entry expires, null if unknown
+     * @return true if the caller should refresh the key now
+     */
+    public boolean shouldRefreshEarly(Instant expiresAt) {
+        if (expiresAt == null) {
+            return false;
+        }
+        Duration remainingTtl = Duration.between(Instant.now(), expiresAt);
+        if (remainingTtl.isNegative() || remainingTtl.isZero()) {
+            return false;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        double earlyByMillis = -averageLoadMillis * earlyRefreshBeta * Math.log(random);
+        return earlyByMillis >= remainingTtl.toMillis();
+    }
+
+    /**
+     * Spreads a TTL uniformly by the configured ratio, e.g. 1h ± 6 min for a 0.1 jitter.
+     *
+     * @param baseTtl the nominal TTL
+     * @return the jittered TTL
+     */
+    public Duration jitteredTtl(Duration baseTtl) {
+        double factor = 1 + ttlJitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Duration.ofMillis((long) (baseTtl.toMillis() * factor));
+    }
+
+    private void recordLoadTime(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        averageLoadMillis = averageLoadMillis + LOAD_TIME_SMOOTHING * (millis - averageLoadMillis);
+    }
+}
@@ -0,0 +1,39 @@
+package com.finnova.cache_support.codec;
+
+import java.io.IOException;
+
+/**
+ * Serialization format for values stored in a Redis cache.
+ * Each format owns a version byte that {@link VersionedCacheCodec} writes in front
+ * of the payload, so replicas running different formats can read each other's entries.
+ */
+public interface CacheCodec {
+
+    /**
+     * Gets the version byte identifying this format.
+     *
+     * @return the version byte, unique per codec
+     */
+    byte version();
+
+    /**
+     * Encodes a value, without the version byte.
+     *
+     * @param value the value to encode
+     * @return the encoded payload
+     * @throws IOException if the value cannot be encoded
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * Decodes a payload written by {@link #encode(Object)}.
+     *
+     * @param payload the buffer holding the payload
+     * @param offset the start of the payload in the buffer
+     * @param length the payload length
+     * @param type the type to decode
+     * @return the decoded value
+     * @throws IOException if the payload cannot be decoded
+     */
+    <T> T decode(byte[] payload, int offset, int length, Class<T> type) throws IOException;
+}
@@ -0,0 +1,34 @@
+package com.finnova.cache_support.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Plain UTF-8 JSON, as written by the application ObjectMapper.
+ */
+public class JsonCacheCodec implements CacheCodec {
+
+    public static final byte VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+
+    public JsonCacheCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, int offset, int length, Class<T> type) throws IOException {
+        return objectMapper.readValue(payload, offset, length, type);
+    }
+}
@@ -0,0 +1,39 @@
+package com.finnova.cache_support.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+
+/**
+ * Jackson Smile, the binary JSON encoding. Same data model and annotations as JSON,
+ * but with back-referenced property names and binary numbers, so it is both smaller
+ * and cheaper to parse. Unknown properties are ignored so that a newer replica may add fields.
+ */
+public class SmileCacheCodec implements CacheCodec {
+
+    public static final byte VERSION = 2;
+
+    private final ObjectMapper smileMapper;
+
+    public SmileCacheCodec(ObjectMapper objectMapper) {
+        this.smileMapper = objectMapper.copyWith(new SmileFactory())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return smileMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, int offset, int length, Class<T> type) throws IOException {
+        return smileMapper.readValue(payload, offset, length, type);
+    }
+}
@@ -0,0 +1,133 @@
+package com.finnova.cache_support.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes cache entries as {@code [version][payload]} with the configured codec and reads
+ * any known version, so the format can be changed with a rolling upgrade.
+ *
+ * <p>Entries written before the version byte existed are still readable in both legacy forms:
+ * a plain JSON document, starting with {@code '{'}, and a JSON document wrapped in a JSON
+ * string by Jackson2JsonRedisSerializer, starting with {@code '"'}. Neither byte is a codec
+ * version, so the forms cannot be confused.</p>
+ *
+ * <p>An entry may start with an expiry header, {@code [0x7F][expires-at epoch millis]}, so that
+ * readers can refresh it before it expires without asking Redis for the key's TTL.</p>
+ */
+@Slf4j
+public class VersionedCacheCodec {
+
+    private static final byte LEGACY_JSON_OBJECT = '{';
+    private static final byte LEGACY_JSON_STRING = '"';
+    private static final byte EXPIRY_HEADER = Byte.MAX_VALUE;
+    private static final int EXPIRY_HEADER_LENGTH = 1 + Long.BYTES;
+
+    private final CacheCodec[] codecsByVersion = new CacheCodec[Byte.MAX_VALUE + 1];
+    private final CacheCodec writeCodec;
+    private final ObjectMapper objectMapper;
+    private final JsonCacheCodec jsonCodec;
+
+    /**
+     * Creates the codec.
+     *
+     * @param objectMapper the application ObjectMapper
+     * @param codecName the format new entries are written in, {@code json} or {@code smile}
+     */
+    public VersionedCacheCodec(ObjectMapper objectMapper, String codecName) {
+        this.objectMapper = objectMapper;
+        this.jsonCodec = new JsonCacheCodec(objectMapper);
+        SmileCacheCodec smileCodec = new SmileCacheCodec(objectMapper);
+        for (CacheCodec codec : List.of(jsonCodec, smileCodec)) {
+            codecsByVersion[codec.version()] = codec;
+        }
+        this.writeCodec = switch (codecName.toLowerCase()) {
+            case "json" -> jsonCodec;
+            case "smile" -> smileCodec;
+            default -> throw new IllegalArgumentException("Unknown cache codec: " + codecName);
+        };
+        log.info("Cache codec: {} (version {})", codecName, writeCodec.version());
+    }
+
+    /**
+     * Encodes a value with the configured codec, prefixed with its version byte.
+     *
+     * @param value the value to encode
+     * @return the cache entry
+     * @throws IOException if the value cannot be encoded
+     */
+    public byte[] encode(Object value) throws IOException {
+        byte[] payload = writeCodec.encode(value);
+        byte[] entry = new byte[payload.length + 1];
+        entry[0] = writeCodec.version();
+        System.arraycopy(payload, 0, entry, 1, payload.length);
+        return entry;
+    }
+
+    /**
+     * Encodes a value with the configured codec behind an expiry header.
+     *
+     * @param value the value to encode
+     * @param expiresAt when the entry expires in Redis
+     * @return the cache entry
+     * @throws IOException if the value cannot be encoded
+     */
+    public byte[] encode(Object value, Instant expiresAt) throws IOException {
+        byte[] payload = writeCodec.encode(value);
+        return ByteBuffer.allocate(EXPIRY_HEADER_LENGTH + 1 + payload.length)
+                .put(EXPIRY_HEADER)
+                .putLong(expiresAt.toEpochMilli())
+                .put(writeCodec.version())
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * Reads the expiry stored in a cache entry.
+     *
+     * @param entry the cache entry
+     * @return when the entry expires, null if it was written without an expiry header
+     */
+    public Instant expiresAt(byte[] entry) {
+        if (entry == null || entry.length < EXPIRY_HEADER_LENGTH || entry[0] != EXPIRY_HEADER) {
+            return null;
+        }
+        return Instant.ofEpochMilli(ByteBuffer.wrap(entry, 1, Long.BYTES).getLong());
+    }
+
+    /**
+     * Decodes a cache entry written by any known codec version or legacy form.
+     *
+     * @param entry the cache entry
+     * @param type the type to decode
+     * @return the decoded value
+     * @throws IOException if the entry is empty, of an unknown version or corrupt
+     */
+    public <T> T decode(byte[] entry, Class<T> type) throws IOException {
+        if (entry == null || entry.length == 0) {
+            throw new IOException("Empty cache entry");
+        }
+        int offset = entry[0] == EXPIRY_HEADER ? EXPIRY_HEADER_LENGTH : 0;
+        if (entry.length <= offset) {
+            throw new IOException("Truncated cache entry");
+        }
+        byte version = entry[offset];
+        if (version == LEGACY_JSON_OBJECT) {
+            return jsonCodec.decode(entry, offset, entry.length - offset, type);
+        }
+        if (version == LEGACY_JSON_STRING) {
+            String json = objectMapper.readValue(entry, offset, entry.length - offset, String.class);
+            return objectMapper.readValue(json, type);
+        }
+        CacheCodec codec = version > 0 && version != EXPIRY_HEADER ? codecsByVersion[version] : null;
+        if (codec == null) {
+            throw new IOException("Unknown cache codec version: " + version);
+        }
+        return codec.decode(entry, offset + 1, entry.length - offset - 1, type);
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -61,6 +63,26 @@ public class ProductClient {
                 .doOnError(error -> log.error("Error fetching account balance for {}: {}", accountId, error.getMessage()));
     }
 
+    /**
+     * Gets the balances of several passive products in one call.
+     * Unknown accounts are missing from the result.
+     */
+    @CircuitBreaker(name = "productService", fallbackMethod = "fallbackGetAccountBalances")
+    @TimeLimiter(name = "productService")
+    public Mono<Map<String, BigDecimal>> getAccountBalances(List<String> accountIds) {
+        log.info("Fetching account balances for: {}", accountIds);
+
+        return webClient
+                .post()
+                .uri(productServiceUrl + "/passive-products/balances")
+                .bodyValue(Map.of("ids", accountIds))
+                .retrieve()
+                .bodyToFlux(BalanceDto.class)
+                .collectMap(BalanceDto::getProductId, BalanceDto::getBalance)
+                .doOnSuccess(balances -> log.info("Fetched {} account balances", balances.size()))
+                .doOnError(error -> log.error("Error fetching account balances for {}: {}", accountIds, error.getMessage()));
+    }
+
     /**
      * Convert PassiveProductDto to ProductDto for compatibility.
      */
@@ -85,4 +107,9 @@ public class ProductClient {
         log.error("Fallback: cannot get balance for account: {}", accountId, ex);
         return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
     }
+
+    public Mono<Map<String, BigDecimal>> fallbackGetAccountBalances(List<String> accountIds, Exception ex) {
+        log.error("Fallback: cannot get balances for accounts: {}", accountIds, ex);
+        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
+    }
 }
@@ -10,5 +10,6 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BalanceDto {
+    private String productId;
     private BigDecimal balance;
 }
@@ -24,6 +24,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 @Service
@@ -329,26 +330,25 @@ public class DebitCardService {
      * Find account with sufficient balance trying main account first, then associated accounts
      */
     private Mono<String> findAccountWithBalance(DebitCard card, BigDecimal amount) {
-        // Try main account first
-        return productClient.getAccountBalance(card.getMainAccountId())
-                .flatMap(balance -> {
-                    if (balance.compareTo(amount) >= 0) {
-                        return Mono.just(card.getMainAccountId());
-                    }
+        // Main account first, then the other associated accounts in order
+        List<String> accountIds = new ArrayList<>();
+        accountIds.add(card.getMainAccountId());
+        if (card.getAssociatedAccountIds() != null) {
+            card.getAssociatedAccountIds().stream()
+                    .filter(accountId -> !accountIds.contains(accountId))
+                    .forEach(accountIds::add);
+        }
 
-                    // Try other associated accounts in order
-                    return Flux.fromIterable(card.getAssociatedAccountIds())
-                            .filter(accountId -> !accountId.equals(card.getMainAccountId()))
-                            .flatMap(accountId ->
-                                    productClient.getAccountBalance(accountId)
-                                            .map(bal -> new AccountBalance(accountId, bal))
-                            )
-                            .filter(ab -> ab.balance.compareTo(amount) >= 0)
-                            .next()
-                            .map(ab -> ab.accountId)
-                            .switchIfEmpty(Mono.error(new InsufficientBalanceException(
-                                    "Insufficient balance in all associated accounts")));
-                });
+        // All balances come from a single batch call
+        return productClient.getAccountBalances(accountIds)
+                .flatMap(balances -> Mono.justOrEmpty(accountIds.stream()
+                        .filter(accountId -> {
+                            BigDecimal balance = balances.get(accountId);
+                            return balance != null && balance.compareTo(amount) >= 0;
+                        })
+                        .findFirst()))
+                .switchIfEmpty(Mono.error(new InsufficientBalanceException(
+                        "Insufficient balance in all associated accounts")));
     }
 
     /**
@@ -384,11 +384,4 @@ public class DebitCardService {
         Random random = new Random();
         return String.format("%03d", random.nextInt(1000));
     }
-
-    // Helper class for account balance
-    @lombok.AllArgsConstructor
-    private static class AccountBalance {
-        String accountId;
-        BigDecimal balance;
-    }
 }
@@ -2,12 +2,16 @@ package com.finnova.customer_service.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finnova.cache_support.CacheStampedeProtection;
+import com.finnova.cache_support.codec.VersionedCacheCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -33,10 +37,56 @@ public class RedisConfig {
         return new ReactiveRedisTemplate<>(factory, context);
     }
 
+    /**
+     * Template for cache entries, which are encoded by VersionedCacheCodec and stored as raw bytes.
+     *
+     * @param factory the reactive connection factory
+     * @return the template
+     */
+    @Bean(name = "customerCacheRedisTemplate")
+    public ReactiveRedisTemplate<String, byte[]> customerCacheRedisTemplate(
+            ReactiveRedisConnectionFactory factory) {
+
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build();
+
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         return mapper;
     }
+
+    /**
+     * Codec of customer cache entries; new entries are written in the format of
+     * {@code customers.cache.codec}, entries of any known format are read.
+     *
+     * @param objectMapper the application ObjectMapper
+     * @param codecName json or smile
+     * @return the codec
+     */
+    @Bean
+    public VersionedCacheCodec customerCacheCodec(ObjectMapper objectMapper,
+            @Value("${customers.cache.codec:smile}") String codecName) {
+        return new VersionedCacheCodec(objectMapper, codecName);
+    }
+
+    /**
+     * Stampede protection of the customer cache, tuned by {@code customers.cache.early-refresh-beta},
+     * {@code customers.cache.ttl-jitter} and {@code customers.cache.initial-load-time-ms}.
+     *
+     * @return the stampede protection
+     */
+    @Bean
+    public CacheStampedeProtection customerCacheStampedeProtection(
+            @Value("${customers.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+            @Value("${customers.cache.ttl-jitter:0.1}") double ttlJitter,
+            @Value("${customers.cache.initial-load-time-ms:20}") double initialLoadMillis) {
+        return new CacheStampedeProtection(earlyRefreshBeta, ttlJitter, initialLoadMillis);
+    }
 }
@@ -1,6 +1,7 @@
 package com.finnova.customer_service.event.model;
 
 import com.finnova.customer_service.model.enums.CustomerType;
+import com.finnova.customer_service.model.enums.DocumentType;
 import com.finnova.customer_service.model.enums.ProfileType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,9 +17,13 @@ import java.time.LocalDateTime;
 public class CustomerCreatedEvent {
 
     private String customerId;
+    private DocumentType documentType;
     private String documentNumber;
     private CustomerType customerType;
     private ProfileType profileType;
+    private String firstName;
+    private String lastName;
     private String email;
+    private String phone;
     private LocalDateTime timestamp;
 }
@@ -18,6 +18,7 @@ public class CustomerUpdatedEvent {
     private String documentNumber;
     private ProfileType profileType;
     private String email;
+    private String phone;
     private Boolean active;
     private LocalDateTime timestamp;
 }
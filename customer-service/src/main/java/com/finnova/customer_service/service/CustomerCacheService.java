@@ -3,6 +3,8 @@ package com.finnova.customer_service.service;
 import com.finnova.customer_service.model.entity.Customer;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Supplier;
+
 public interface CustomerCacheService {
 
     /**
@@ -21,6 +23,16 @@ public interface CustomerCacheService {
      */
     Mono<Customer> getFromCache(String customerId);
 
+    /**
+     * Gets a customer from cache, loading and caching it on a miss.
+     * Concurrent misses for the same customer share a single load.
+     *
+     * @param customerId the customer ID
+     * @param loader loads the customer from the database
+     * @return Mono of Customer, empty if the loader finds nothing
+     */
+    Mono<Customer> getOrLoad(String customerId, Supplier<Mono<Customer>> loader);
+
     /**
      * Evicts a customer from cache.
      *
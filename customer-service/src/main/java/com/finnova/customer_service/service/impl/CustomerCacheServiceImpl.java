@@ -1,7 +1,7 @@
 package com.finnova.customer_service.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.cache_support.CacheStampedeProtection;
+import com.finnova.cache_support.codec.VersionedCacheCodec;
 import com.finnova.customer_service.model.entity.Customer;
 import com.finnova.customer_service.service.CustomerCacheService;
 import lombok.extern.slf4j.Slf4j;
@@ -10,22 +10,28 @@ import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class CustomerCacheServiceImpl implements CustomerCacheService {
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final VersionedCacheCodec cacheCodec;
+    private final CacheStampedeProtection stampedeProtection;
 
     private static final String CACHE_PREFIX = "customer:";
     private static final Duration CACHE_TTL = Duration.ofHours(1);
 
     public CustomerCacheServiceImpl(
-            @Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
-            ObjectMapper objectMapper) {
+            @Qualifier("customerCacheRedisTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate,
+            VersionedCacheCodec cacheCodec,
+            CacheStampedeProtection stampedeProtection) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.cacheCodec = cacheCodec;
+        this.stampedeProtection = stampedeProtection;
     }
 
     /**
@@ -41,10 +47,11 @@ public class CustomerCacheServiceImpl implements CustomerCacheService {
     @Override
     public Mono<Customer> cacheCustomer(Customer customer) {
         String key = buildCacheKey(customer.getId());
+        Duration ttl = stampedeProtection.jitteredTtl(CACHE_TTL);
 
-        return Mono.fromCallable(() -> objectMapper.writeValueAsString(customer))
-                .flatMap(json -> redisTemplate.opsForValue()
-                        .set(key, json, CACHE_TTL)
+        return Mono.fromCallable(() -> cacheCodec.encode(customer, Instant.now().plus(ttl)))
+                .flatMap(entry -> redisTemplate.opsForValue()
+                        .set(key, entry, ttl)
                         .thenReturn(customer))
                 .doOnSuccess(c -> log.debug("Cached customer: {}", customer.getId()))
                 .doOnError(e -> log.error("Error caching customer: {}", e.getMessage()));
@@ -56,16 +63,37 @@ public class CustomerCacheServiceImpl implements CustomerCacheService {
 
         return redisTemplate.opsForValue()
                 .get(key)
-                .flatMap(json -> {
-                    try {
-                        Customer customer = objectMapper.readValue(json, Customer.class);
-                        log.debug("Retrieved customer from cache: {}", customerId);
-                        return Mono.just(customer);
-                    } catch (JsonProcessingException e) {
-                        log.error("Error deserializing customer from cache: {}", e.getMessage());
-                        return Mono.empty();
-                    }
-                });
+                .flatMap(entry -> deserialize(customerId, entry));
+    }
+
+    @Override
+    public Mono<Customer> getOrLoad(String customerId, Supplier<Mono<Customer>> loader) {
+        String key = buildCacheKey(customerId);
+        Supplier<Mono<Customer>> loadAndCache = () -> loader.get().flatMap(this::cacheCustomer);
+
+        return redisTemplate.opsForValue()
+                .get(key)
+                .flatMap(entry -> deserialize(customerId, entry)
+                        .doOnNext(customer -> {
+                            if (stampedeProtection.shouldRefreshEarly(cacheCodec.expiresAt(entry))) {
+                                log.debug("Refreshing customer cache entry early: {}", customerId);
+                                stampedeProtection.singleFlight(key, loadAndCache)
+                                        .subscribe(null, e -> log.warn("Early refresh of customer {} failed: {}",
+                                                customerId, e.getMessage()));
+                            }
+                        }))
+                .switchIfEmpty(Mono.defer(() -> stampedeProtection.singleFlight(key, loadAndCache)));
+    }
+
+    private Mono<Customer> deserialize(String customerId, byte[] entry) {
+        try {
+            Customer customer = cacheCodec.decode(entry, Customer.class);
+            log.debug("Retrieved customer from cache: {}", customerId);
+            return Mono.just(customer);
+        } catch (IOException e) {
+            log.error("Error deserializing customer from cache: {}", e.getMessage());
+            return Mono.empty();
+        }
     }
 
     @Override
@@ -76,10 +76,14 @@ public class CustomerServiceImpl implements CustomerService {
                     // Publish event
                     CustomerCreatedEvent event = CustomerCreatedEvent.builder()
                             .customerId(savedCustomer.getId())
+                            .documentType(savedCustomer.getDocumentType())
                             .documentNumber(savedCustomer.getDocumentNumber())
                             .customerType(savedCustomer.getCustomerType())
                             .profileType(savedCustomer.getProfileType())
+                            .firstName(savedCustomer.getFirstName())
+                            .lastName(savedCustomer.getLastName())
                             .email(savedCustomer.getEmail())
+                            .phone(savedCustomer.getPhone())
                             .timestamp(LocalDateTime.now())
                             .build();
 
@@ -130,6 +134,7 @@ public class CustomerServiceImpl implements CustomerService {
                             .documentNumber(updatedCustomer.getDocumentNumber())
                             .profileType(updatedCustomer.getProfileType())
                             .email(updatedCustomer.getEmail())
+                            .phone(updatedCustomer.getPhone())
                             .active(updatedCustomer.getActive())
                             .timestamp(LocalDateTime.now())
                             .build();
@@ -173,17 +178,8 @@ public class CustomerServiceImpl implements CustomerService {
     public Mono<CustomerDto> findById(String id) {
         log.debug("Finding customer by ID: {}", id);
 
-        // Try to get from cache first
-        return cacheService.getFromCache(id)
-                .switchIfEmpty(
-                        // If not in cache, get from database
-                        customerRepository.findById(id)
-                                .flatMap(customer ->
-                                        // Cache it for next time
-                                        cacheService.cacheCustomer(customer)
-                                                .then(Mono.just(customer))
-                                )
-                )
+        // Read through the cache, concurrent misses share one database load
+        return cacheService.getOrLoad(id, () -> customerRepository.findById(id))
                 .map(customerMapper::toDto)
                 .switchIfEmpty(Mono.error(new CustomerNotFoundException(
                         "Customer not found with ID: " + id)));
@@ -12,6 +12,9 @@ import org.springframework.context.annotation.Configuration;
  * <p>Routes are configured to use Eureka service discovery for
  * dynamic service resolution and load balancing.</p>
  *
+ * <p>Every route is rate limited by {@code RateLimitFilter}; limits are configured
+ * per route ID under {@code gateway.rate-limit.routes}.</p>
+ *
  * @author Andre Gallegos
  * @version 1.0.0
  */
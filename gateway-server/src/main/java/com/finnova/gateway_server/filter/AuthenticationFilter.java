@@ -1,10 +1,10 @@
 package com.finnova.gateway_server.filter;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.finnova.gateway_server.util.JwtPrincipal;
 import com.finnova.gateway_server.util.JwtUtil;
 import com.finnova.gateway_server.util.RouteValidator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
@@ -40,11 +40,9 @@ import java.time.Instant;
 @Slf4j
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
-    @Autowired
-    private RouteValidator validator;
+    private final RouteValidator validator;
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final JwtUtil jwtUtil;
 
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String HEADER_USERNAME = "X-User-Username";
@@ -53,18 +51,30 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
     /**
      * Constructor for AuthenticationFilter.
+     *
+     * @param validator decides which routes are secured
+     * @param jwtUtil verifies tokens
      */
-    public AuthenticationFilter() {
+    public AuthenticationFilter(RouteValidator validator, JwtUtil jwtUtil) {
         super(Config.class);
+        this.validator = validator;
+        this.jwtUtil = jwtUtil;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return ((exchange, chain) -> {
-            ServerHttpRequest request = exchange.getRequest();
+            // Identity headers only ever come from a verified token, never from the client
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> {
+                        headers.remove(HEADER_USERNAME);
+                        headers.remove(HEADER_USER_ID);
+                        headers.remove(HEADER_ROLES);
+                    })
+                    .build();
 
             // Check if route is secured
-            if (validator.isSecured.test(request)) {
+            if (validator.isSecured(exchange)) {
                 log.info("Secured route detected: {} {}",
                         request.getMethod(),
                         request.getURI().getPath());
@@ -93,57 +103,38 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 String token = authHeader.substring(BEARER_PREFIX.length());
 
                 try {
-                    // Validate token using Auth0 JWT
-                    if (!jwtUtil.validateToken(token)) {
-                        log.warn("Invalid or expired JWT token for route: {}",
-                                request.getURI().getPath());
-                        return onError(exchange,
-                                "Invalid or expired token",
-                                HttpStatus.UNAUTHORIZED);
-                    }
-
-                    // Extract username from token
-                    String username = jwtUtil.extractUsername(token);
-                    if (username == null || username.isEmpty()) {
-                        log.warn("Token does not contain valid username");
-                        return onError(exchange,
-                                "Invalid token: missing username",
-                                HttpStatus.UNAUTHORIZED);
-                    }
+                    // Verify the token once, the principal carries every claim we forward
+                    JwtPrincipal principal = jwtUtil.verify(token);
+                    String username = principal.username();
 
                     log.info("Authenticated user: {} for route: {}",
                             username,
                             request.getURI().getPath());
 
-                    // Extract additional claims
-                    String userId = jwtUtil.extractClaim(token, "userId");
-                    String[] roles = jwtUtil.extractRoles(token);
-
                     // Log token expiration info
-                    long remainingSeconds = jwtUtil.getRemainingValidityInSeconds(token);
-                    log.debug("Token remaining validity: {} seconds", remainingSeconds);
+                    log.debug("Token remaining validity: {} seconds", principal.remainingValidityInSeconds());
 
                     // Build new request with user information in headers
-                    ServerHttpRequest.Builder mutatedRequest = exchange.getRequest().mutate()
+                    ServerHttpRequest.Builder mutatedRequest = request.mutate()
                             .header(HEADER_USERNAME, username);
 
-                    if (userId != null && !userId.isEmpty()) {
-                        mutatedRequest.header(HEADER_USER_ID, userId);
+                    if (principal.userId() != null && !principal.userId().isEmpty()) {
+                        mutatedRequest.header(HEADER_USER_ID, principal.userId());
                     }
 
-                    if (roles != null && roles.length > 0) {
-                        mutatedRequest.header(HEADER_ROLES, String.join(",", roles));
-                        log.debug("User roles: {}", String.join(",", roles));
+                    if (!principal.roles().isEmpty()) {
+                        mutatedRequest.header(HEADER_ROLES, String.join(",", principal.roles()));
+                        log.debug("User roles: {}", String.join(",", principal.roles()));
                     }
 
                     request = mutatedRequest.build();
 
                 } catch (JWTVerificationException e) {
-                    log.error("JWT verification failed for route {}: {}",
+                    log.warn("Invalid or expired JWT token for route {}: {}",
                             request.getURI().getPath(),
                             e.getMessage());
                     return onError(exchange,
-                            "Token verification failed: " + e.getMessage(),
+                            "Invalid or expired token",
                             HttpStatus.UNAUTHORIZED);
                 } catch (Exception e) {
                     log.error("Unexpected error during token validation for route {}: {}",
@@ -0,0 +1,129 @@
+package com.finnova.gateway_server.filter;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.finnova.gateway_server.util.JwtPrincipal;
+import com.finnova.gateway_server.util.JwtUtil;
+import com.finnova.gateway_server.util.TokenBucketRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Rate Limit Filter for API Gateway.
+ * Applies the per-user and per-route token buckets of {@link TokenBucketRateLimiter} to every
+ * routed request and answers 429 Too Many Requests with Retry-After once they run out.
+ *
+ * <p>The caller is the user of the verified bearer token, never a client-supplied X-User-Id;
+ * requests without a valid token are limited by client address. Tokens are verified through
+ * the cache of {@link JwtUtil}, so this costs one hash per request.</p>
+ *
+ * @author Andre Gallegos
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final JwtUtil jwtUtil;
+
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter, JwtUtil jwtUtil) {
+        this.rateLimiter = rateLimiter;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !rateLimiter.isEnabled(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        String callerId = callerId(exchange.getRequest());
+        return rateLimiter.tryAcquire(route.getId(), callerId)
+                .flatMap(decision -> {
+                    if (decision.allowed()) {
+                        return chain.filter(exchange);
+                    }
+                    log.warn("Rate limit exceeded for {} on route {}, retry after {} ms",
+                            callerId, route.getId(), decision.retryAfter().toMillis());
+                    return onTooManyRequests(exchange, decision.retryAfter().toMillis());
+                });
+    }
+
+    /**
+     * The bucket a request is charged to: the user of its verified token, else its client address.
+     *
+     * @param request the request
+     * @return the caller ID
+     */
+    private String callerId(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            try {
+                JwtPrincipal principal = jwtUtil.verify(authHeader.substring(BEARER_PREFIX.length()));
+                return "user:" + (principal.userId() != null && !principal.userId().isEmpty()
+                        ? principal.userId()
+                        : principal.username());
+            } catch (JWTVerificationException e) {
+                // An invalid token identifies nobody
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return "ip:" + (remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown");
+    }
+
+    /**
+     * Writes a 429 response with the seconds to wait in Retry-After.
+     *
+     * @param exchange the server web exchange
+     * @param retryAfterMillis milliseconds until a token is available
+     * @return a Mono of Void
+     */
+    private Mono<Void> onTooManyRequests(ServerWebExchange exchange, long retryAfterMillis) {
+        long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+        String errorResponse = String.format(
+                "{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\",\"path\":\"%s\"}",
+                Instant.now().toString(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                "Rate limit exceeded, retry in " + retryAfterSeconds + " seconds",
+                exchange.getRequest().getURI().getPath()
+        );
+
+        byte[] bytes = errorResponse.getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    /**
+     * After route filters and the response cache, before load balancing and routing.
+     */
+    @Override
+    public int getOrder() {
+        return 1000;
+    }
+}
@@ -0,0 +1,160 @@
+package com.finnova.gateway_server.filter;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.finnova.gateway_server.util.JwtPrincipal;
+import com.finnova.gateway_server.util.JwtUtil;
+import com.finnova.gateway_server.util.ResponseCache;
+import com.finnova.gateway_server.util.RouteValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Response Cache Filter for API Gateway.
+ * Answers authenticated GETs on cached routes from {@link ResponseCache}, with 304 Not Modified
+ * when the client's If-None-Match is current, and evicts cached responses when a write on the
+ * same resource goes through.
+ *
+ * <p>Entries are keyed by the user of the verified token, never by a client-supplied X-User-Id.
+ * Runs after authentication, so rejected requests never reach the cache, and before rate
+ * limiting, so polling clients answered from the cache do not spend their quota. On a miss the response is cached by {@link ResponseCacheWriteFilter}.</p>
+ *
+ * @author Andre Gallegos
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Exchange attribute holding the {@link ResponseCache.Entry} a missed response is cached in.
+     */
+    public static final String CACHE_ENTRY_ATTR = ResponseCacheFilter.class.getName() + ".entry";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HEADER_CACHE = "X-Cache";
+
+    private final ResponseCache responseCache;
+
+    private final RouteValidator validator;
+
+    private final JwtUtil jwtUtil;
+
+    public ResponseCacheFilter(ResponseCache responseCache, RouteValidator validator, JwtUtil jwtUtil) {
+        this.responseCache = responseCache;
+        this.validator = validator;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        // The path the client sent: StripPrefix has already run, and cache keys must hold
+        // the /api/{resource}/{id} prefix that writes on the same resource evict
+        String path = RouteValidator.originalPath(exchange);
+
+        if (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+                || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method)) {
+            return chain.filter(exchange)
+                    .then(Mono.defer(() -> isSuccessful(exchange.getResponse().getStatusCode())
+                            ? responseCache.evict(path)
+                            : Mono.empty()));
+        }
+
+        Duration ttl = responseCache.ttl(route.getId());
+        if (!HttpMethod.GET.equals(method) || ttl == null || !validator.isSecured(exchange)) {
+            return chain.filter(exchange);
+        }
+        String userId = verifiedUserId(request);
+        if (userId == null) {
+            return chain.filter(exchange);
+        }
+
+        ResponseCache.Entry entry = responseCache.entry(path, request.getURI().getRawQuery(), userId, ttl);
+        return responseCache.get(entry)
+                .flatMap(cached -> {
+                    log.debug("Response cache hit for {}", path);
+                    return writeCached(exchange, cached).thenReturn(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    exchange.getAttributes().put(CACHE_ENTRY_ATTR, entry);
+                    exchange.getResponse().getHeaders().set(HEADER_CACHE, "MISS");
+                    return chain.filter(exchange).thenReturn(true);
+                }))
+                .then();
+    }
+
+    /**
+     * The user the cache is keyed by, taken from the verified token rather than from any
+     * X-User-Id header, which the client could have set itself.
+     *
+     * @param request the request
+     * @return the userId claim, else the subject; null if the token is missing or invalid
+     */
+    private String verifiedUserId(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        try {
+            JwtPrincipal principal = jwtUtil.verify(authHeader.substring(BEARER_PREFIX.length()));
+            return principal.userId() != null && !principal.userId().isEmpty()
+                    ? principal.userId()
+                    : principal.username();
+        } catch (JWTVerificationException e) {
+            return null;
+        }
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, ResponseCache.CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(cached.etag());
+        response.getHeaders().set(HEADER_CACHE, "HIT");
+
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ResponseCache.matches(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            response.getHeaders().setContentType(MediaType.parseMediaType(cached.contentType()));
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean isSuccessful(HttpStatusCode status) {
+        return status == null || status.is2xxSuccessful();
+    }
+
+    /**
+     * After route filters such as authentication, before {@link RateLimitFilter}.
+     */
+    @Override
+    public int getOrder() {
+        return 999;
+    }
+}
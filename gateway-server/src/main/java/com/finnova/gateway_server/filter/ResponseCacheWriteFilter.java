@@ -0,0 +1,106 @@
+package com.finnova.gateway_server.filter;
+
+import com.finnova.gateway_server.util.ResponseCache;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches the responses of GETs {@link ResponseCacheFilter} missed, tagging them with an ETag
+ * and answering 304 Not Modified when the client already holds the body.
+ *
+ * <p>The response has to be decorated before {@link NettyWriteResponseFilter} writes it, which
+ * is before authentication has run; only exchanges marked with
+ * {@link ResponseCacheFilter#CACHE_ENTRY_ATTR} after authentication are cached.</p>
+ *
+ * @author Andre Gallegos
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class ResponseCacheWriteFilter implements GlobalFilter, Ordered {
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheWriteFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate()
+                .response(new CachingResponse(exchange))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        CachingResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            ResponseCache.Entry entry = exchange.getAttribute(ResponseCacheFilter.CACHE_ENTRY_ATTR);
+            HttpHeaders headers = getHeaders();
+            if (entry == null || !HttpStatus.OK.equals(getStatusCode())
+                    || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    || headers.getContentLength() > responseCache.maxBodySize()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+
+                        String etag = ResponseCache.etag(bytes);
+                        headers.setETag(etag);
+                        MediaType contentType = headers.getContentType();
+                        Mono<Void> store = bytes.length <= responseCache.maxBodySize()
+                                ? responseCache.put(entry, new ResponseCache.CachedResponse(
+                                        contentType != null ? contentType.toString() : null, etag, bytes))
+                                : Mono.empty();
+
+                        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+                        if (ResponseCache.matches(ifNoneMatch, etag)) {
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            headers.remove(HttpHeaders.CONTENT_LENGTH);
+                            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                            return getDelegate().setComplete().then(store);
+                        }
+
+                        headers.setContentLength(bytes.length);
+                        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                        return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes))).then(store);
+                    });
+        }
+    }
+}
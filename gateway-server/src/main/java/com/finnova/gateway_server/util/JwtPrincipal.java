@@ -0,0 +1,28 @@
+package com.finnova.gateway_server.util;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a verified JWT token that the gateway forwards to downstream services.
+ *
+ * @param username the subject of the token
+ * @param userId the userId claim, or null if absent
+ * @param roles the roles claim, empty if absent
+ * @param expiresAt the expiration of the token, or null if it never expires
+ */
+public record JwtPrincipal(String username, String userId, List<String> roles, Instant expiresAt) {
+
+    /**
+     * Gets the remaining time until token expiration in seconds.
+     *
+     * @return remaining seconds, or -1 if expired or without expiration
+     */
+    public long remainingValidityInSeconds() {
+        if (expiresAt == null) {
+            return -1;
+        }
+        long remainingMs = expiresAt.toEpochMilli() - System.currentTimeMillis();
+        return remainingMs > 0 ? remainingMs / 1000 : -1;
+    }
+}
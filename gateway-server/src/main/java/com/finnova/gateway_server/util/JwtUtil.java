@@ -5,11 +5,21 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
 
 /**
  * JWT Utility class for token operations.
@@ -22,30 +32,67 @@ import java.util.Date;
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JWTVerifier verifier;
 
-    @Value("${jwt.issuer:banking-system}")
-    private String issuer;
+    private final Cache<String, JwtPrincipal> verifiedTokens;
 
     /**
-     * Gets the algorithm for signing/verifying tokens.
+     * Builds the verifier once; Algorithm and JWTVerifier are immutable and thread-safe.
      *
-     * @return the HMAC256 algorithm with the secret
+     * @param secret the HMAC256 secret
+     * @param issuer the expected issuer
+     * @param cacheMaxSize the maximum number of verified tokens to remember, 0 to disable
+     * @param cacheMaxTtl the longest time a verified token is remembered
      */
-    private Algorithm getAlgorithm() {
-        return Algorithm.HMAC256(secret);
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.issuer:banking-system}") String issuer,
+                   @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                   @Value("${jwt.cache.max-ttl:15m}") Duration cacheMaxTtl) {
+        this.verifier = JWT.require(Algorithm.HMAC256(secret))
+                .withIssuer(issuer)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.creating((String tokenHash, JwtPrincipal principal) ->
+                        timeToLive(principal, cacheMaxTtl)))
+                .build();
     }
 
     /**
-     * Creates a JWT verifier with the configured algorithm and issuer.
+     * Verifies the token once and returns its claims. Tokens verified before are answered
+     * from a cache keyed by the SHA-256 of the token until they expire, so a client
+     * reusing its token costs one hash per request instead of an HMAC verification.
      *
-     * @return the JWT verifier
+     * @param token the JWT token
+     * @return the principal of the token
+     * @throws JWTVerificationException if the token is invalid, expired or has no subject
      */
-    private JWTVerifier getVerifier() {
-        return JWT.require(getAlgorithm())
-                .withIssuer(issuer)
-                .build();
+    public JwtPrincipal verify(String token) throws JWTVerificationException {
+        String tokenHash = sha256(token);
+
+        JwtPrincipal cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            // An entry may outlive its expiration by the cache clock granularity
+            if (cached.expiresAt() == null || cached.expiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(tokenHash);
+        }
+
+        DecodedJWT decodedJWT = decodeToken(token);
+        if (decodedJWT.getSubject() == null || decodedJWT.getSubject().isEmpty()) {
+            throw new JWTVerificationException("Token has no subject (username)");
+        }
+
+        String[] roles = decodedJWT.getClaim("roles").asArray(String.class);
+        JwtPrincipal principal = new JwtPrincipal(
+                decodedJWT.getSubject(),
+                decodedJWT.getClaim("userId").asString(),
+                roles == null ? List.of() : List.of(roles),
+                decodedJWT.getExpiresAtAsInstant());
+
+        verifiedTokens.put(tokenHash, principal);
+        return principal;
     }
 
     /**
@@ -56,10 +103,31 @@ public class JwtUtil {
      * @throws JWTVerificationException if token is invalid
      */
     private DecodedJWT decodeToken(String token) throws JWTVerificationException {
-        JWTVerifier verifier = getVerifier();
         return verifier.verify(token);
     }
 
+    private static Duration timeToLive(JwtPrincipal principal, Duration maxTtl) {
+        if (principal.expiresAt() == null) {
+            return maxTtl;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), principal.expiresAt());
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Extracts the username (subject) from the token.
      *
@@ -0,0 +1,238 @@
+package com.finnova.gateway_server.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Redis-backed cache of GET responses, shared by every gateway instance.
+ *
+ * <p>Entries of a resource prefix ({@code /api/customers/123} for
+ * {@code /api/customers/123/products}) live in one Redis hash, one field per user and path,
+ * each field expiring after the TTL of its route. A write on the resource deletes the hash of
+ * the resource and of its collection, evicting every user's entries in one command.</p>
+ *
+ * <p>Routes are cached only when {@code gateway.response-cache.routes.{routeId}.ttl} is set.</p>
+ *
+ * @author Andre Gallegos
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private static final String KEY_PREFIX = "response_cache:";
+
+    /**
+     * Number of path segments of a resource prefix: /api/{resource}/{id}.
+     */
+    private static final int RESOURCE_SEGMENTS = 3;
+
+    private static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('HPEXPIRE', KEYS[1], ARGV[3], 'FIELDS', 1, ARGV[1])
+            if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[3]) then
+              redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            end
+            return 1
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final long maxBodySize;
+
+    /**
+     * A cached response.
+     *
+     * @param contentType the Content-Type header, null if none
+     * @param etag the strong ETag of the body
+     * @param body the response body
+     */
+    public record CachedResponse(String contentType, String etag, byte[] body) {
+    }
+
+    /**
+     * Where the response of a request is cached.
+     *
+     * @param key the Redis hash of the resource prefix
+     * @param field the field of the user and path
+     * @param ttl how long the response stays cached
+     */
+    public record Entry(String key, String field, Duration ttl) {
+    }
+
+    public ResponseCache(ReactiveStringRedisTemplate redisTemplate,
+                         ObjectMapper objectMapper,
+                         Environment environment,
+                         @Value("${gateway.response-cache.max-body-size:256KB}") DataSize maxBodySize) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.maxBodySize = maxBodySize.toBytes();
+    }
+
+    /**
+     * TTL of the responses of a route.
+     *
+     * @param routeId the route ID
+     * @return the TTL, null if the route is not cached
+     */
+    public Duration ttl(String routeId) {
+        Duration ttl = environment.getProperty(
+                "gateway.response-cache.routes." + routeId + ".ttl", Duration.class);
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    /**
+     * Largest body that is cached, in bytes.
+     */
+    public long maxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Where the response of a user's GET is cached.
+     *
+     * @param path the request path
+     * @param query the raw query, null if none
+     * @param userId the user ID
+     * @param ttl the TTL of the route
+     * @return the entry
+     */
+    public Entry entry(String path, String query, String userId, Duration ttl) {
+        String pathAndQuery = query == null || query.isEmpty() ? path : path + "?" + query;
+        return new Entry(KEY_PREFIX + resourcePrefix(path), userId + "|" + pathAndQuery, ttl);
+    }
+
+    /**
+     * Looks up a cached response. A failing Redis counts as a miss.
+     *
+     * @param entry the entry
+     * @return Mono of the response, empty on a miss
+     */
+    public Mono<CachedResponse> get(Entry entry) {
+        return redisTemplate.<String, String>opsForHash().get(entry.key(), entry.field())
+                .flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CachedResponse.class)))
+                .onErrorResume(e -> {
+                    log.warn("Response cache lookup failed for {}: {}", entry.field(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Caches a response until the TTL of its entry.
+     *
+     * @param entry the entry
+     * @param response the response
+     * @return Mono completing once stored, or once storing failed
+     */
+    public Mono<Void> put(Entry entry, CachedResponse response) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            return Mono.empty();
+        }
+        return redisTemplate.execute(PUT_SCRIPT, List.of(entry.key()),
+                        List.of(entry.field(), json, String.valueOf(entry.ttl().toMillis())))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Response cache store failed for {}: {}", entry.field(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Evicts the cached responses a write on a path can make stale: those of its resource
+     * and those of the collection it belongs to, for every user.
+     *
+     * @param path the path of the write
+     * @return Mono completing once evicted, or once evicting failed
+     */
+    public Mono<Void> evict(String path) {
+        List<String> keys = new ArrayList<>();
+        String prefix = resourcePrefix(path);
+        keys.add(KEY_PREFIX + prefix);
+        int lastSlash = prefix.lastIndexOf('/');
+        if (lastSlash > 0 && prefix.indexOf('/', 1) != lastSlash) {
+            // /api/customers/123 also evicts the /api/customers collection
+            keys.add(KEY_PREFIX + prefix.substring(0, lastSlash));
+        }
+        return redisTemplate.delete(keys.toArray(String[]::new))
+                .doOnNext(deleted -> log.debug("Evicted {} cached resources for write on {}", deleted, path))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Response cache eviction failed for {}: {}", path, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Strong ETag of a body.
+     *
+     * @param body the body
+     * @return the quoted ETag
+     */
+    public static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header matches an ETag. Weak validators match too, as
+     * RFC 9110 requires for If-None-Match.
+     *
+     * @param ifNoneMatch the header value, null if absent
+     * @param etag the quoted ETag
+     * @return true if the client's copy is current
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String resourcePrefix(String path) {
+        int end = 0;
+        for (int segments = 0; segments < RESOURCE_SEGMENTS; segments++) {
+            int next = path.indexOf('/', end + 1);
+            if (next < 0) {
+                end = path.length();
+                break;
+            }
+            end = next;
+        }
+        String prefix = path.substring(0, end);
+        return prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+    }
+}
@@ -0,0 +1,173 @@
+package com.finnova.gateway_server.util;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled matcher of request paths against route rules.
+ *
+ * <p>A rule is a path pattern optionally preceded by the methods it applies to, e.g.
+ * {@code POST /api/auth/login}, {@code GET|HEAD /api/products/{id}} or {@code /actuator/**}.
+ * Patterns made of literal segments, {@code *} or {@code {variable}} segments and a trailing
+ * {@code /**} are compiled into a segment trie, so a match walks the segments of the path
+ * once whatever the number of rules. Any other pattern is matched with its {@link PathPattern}.</p>
+ *
+ * @author Andre Gallegos
+ * @version 1.0.0
+ */
+public final class RouteMatcher {
+
+    private static final String ANY_METHOD = "*";
+    private static final Set<String> ANY_METHODS = Set.of(ANY_METHOD);
+
+    private final Node root = new Node();
+    private final List<PatternRule> patternRules = new ArrayList<>();
+
+    /**
+     * A rule matched with its {@link PathPattern}.
+     */
+    private record PatternRule(Set<String> methods, PathPattern pattern) {
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        // Methods of rules ending at this node, null if none
+        private Set<String> methods;
+        // Methods of rules ending at this node with /**, null if none
+        private Set<String> remainderMethods;
+    }
+
+    /**
+     * Compiles the rules.
+     *
+     * @param rules the rules
+     * @throws org.springframework.web.util.pattern.PatternParseException if a pattern is invalid
+     */
+    public RouteMatcher(List<String> rules) {
+        rules.forEach(this::add);
+    }
+
+    /**
+     * Whether a request matches any rule.
+     *
+     * @param method the request method
+     * @param path the request path
+     * @return true if a rule covers the method and path
+     */
+    public boolean matches(String method, String path) {
+        if (match(root, path, 0, method)) {
+            return true;
+        }
+        if (patternRules.isEmpty()) {
+            return false;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PatternRule rule : patternRules) {
+            if (allows(rule.methods(), method) && rule.pattern().matches(pathContainer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(String rule) {
+        String trimmed = rule.trim();
+        int space = trimmed.indexOf(' ');
+        Set<String> methods = ANY_METHODS;
+        String pattern = trimmed;
+        if (space > 0) {
+            methods = Set.of(trimmed.substring(0, space).toUpperCase(Locale.ROOT).split("\\|"));
+            pattern = trimmed.substring(space + 1).trim();
+        }
+
+        // Parsed even for the trie, to reject invalid patterns at startup
+        PathPattern pathPattern = PathPatternParser.defaultInstance.parse(pattern);
+
+        String[] segments = pattern.split("/");
+        Node node = root;
+        for (int i = 1; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**") && i == segments.length - 1) {
+                node.remainderMethods = merge(node.remainderMethods, methods);
+                return;
+            }
+            if (isWildcard(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else if (isLiteral(segment)) {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            } else {
+                patternRules.add(new PatternRule(methods, pathPattern));
+                return;
+            }
+        }
+        node.methods = merge(node.methods, methods);
+    }
+
+    private static boolean match(Node node, String path, int from, String method) {
+        if (allows(node.remainderMethods, method)) {
+            return true;
+        }
+        // End of path, a trailing separator included
+        if (from >= path.length() - 1) {
+            return allows(node.methods, method);
+        }
+
+        int start = from + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+
+        Node literal = node.literals.get(segment);
+        if (literal != null && match(literal, path, end, method)) {
+            return true;
+        }
+        return node.wildcard != null && !segment.isEmpty() && match(node.wildcard, path, end, method);
+    }
+
+    private static boolean isWildcard(String segment) {
+        return segment.equals("*")
+                || (segment.startsWith("{") && segment.endsWith("}") && segment.indexOf(':') < 0
+                && !segment.startsWith("{*"));
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allows(Set<String> methods, String method) {
+        return methods != null && (methods.contains(ANY_METHOD) || methods.contains(method));
+    }
+
+    private static Set<String> merge(Set<String> current, Set<String> added) {
+        if (current == null) {
+            return added;
+        }
+        if (current.contains(ANY_METHOD) || added.contains(ANY_METHOD)) {
+            return ANY_METHODS;
+        }
+        Set<String> merged = new HashSet<>(current);
+        merged.addAll(added);
+        return Set.copyOf(merged);
+    }
+}
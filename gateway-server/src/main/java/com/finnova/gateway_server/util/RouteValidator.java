@@ -1,15 +1,26 @@
 package com.finnova.gateway_server.util;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
  * Route Validator utility.
  * Determines which routes are public (don't require authentication).
  *
+ * <p>Public routes are read from {@code gateway.public-routes} as {@link RouteMatcher} rules,
+ * e.g. {@code POST /api/auth/login} or {@code /actuator/**}, and compiled once at startup.</p>
+ *
  * @author Andre Gallegos
  * @version 1.0.0
  */
@@ -17,21 +28,78 @@ import java.util.function.Predicate;
 public class RouteValidator {
 
     /**
-     * List of open/public API endpoints that don't require authentication.
+     * Open/public API endpoints used when {@code gateway.public-routes} is not configured.
      */
-    public static final List<String> OPEN_API_ENDPOINTS = List.of(
-            "/api/auth/register",
-            "/api/auth/login",
+    public static final List<String> DEFAULT_PUBLIC_ROUTES = List.of(
+            "POST /api/auth/register",
+            "POST /api/auth/login",
             "/api/auth/validate",
             "/actuator/**",
             "/eureka/**"
     );
 
+    private final RouteMatcher publicRoutes;
+
     /**
      * Predicate to check if the request is secured (requires authentication).
      */
-    public Predicate<ServerHttpRequest> isSecured =
-            request -> OPEN_API_ENDPOINTS
-                    .stream()
-                    .noneMatch(uri -> request.getURI().getPath().contains(uri));
+    public final Predicate<ServerHttpRequest> isSecured =
+            request -> !isPublic(request.getMethod().name(), request.getURI().getPath());
+
+    /**
+     * Creates the validator from {@code gateway.public-routes}.
+     *
+     * @param environment the environment
+     */
+    @Autowired
+    public RouteValidator(Environment environment) {
+        this(Binder.get(environment)
+                .bind("gateway.public-routes", Bindable.listOf(String.class))
+                .orElse(DEFAULT_PUBLIC_ROUTES));
+    }
+
+    /**
+     * Creates the validator from explicit rules.
+     *
+     * @param publicRoutes the public route rules
+     */
+    public RouteValidator(List<String> publicRoutes) {
+        this.publicRoutes = new RouteMatcher(publicRoutes);
+    }
+
+    /**
+     * Checks if the request of an exchange is secured, judged on the path the client sent
+     * rather than the one left by route filters such as StripPrefix.
+     *
+     * @param exchange the server web exchange
+     * @return true if authentication is required
+     */
+    public boolean isSecured(ServerWebExchange exchange) {
+        return !isPublic(exchange.getRequest().getMethod().name(), originalPath(exchange));
+    }
+
+    /**
+     * Path the client sent, before route filters such as StripPrefix rewrote it.
+     *
+     * @param exchange the server web exchange
+     * @return the original request path
+     */
+    public static String originalPath(ServerWebExchange exchange) {
+        Set<URI> originalUrls = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originalUrls != null && !originalUrls.isEmpty()) {
+            return originalUrls.iterator().next().getPath();
+        }
+        return exchange.getRequest().getURI().getPath();
+    }
+
+    /**
+     * Checks if a request is public.
+     *
+     * @param method the request method
+     * @param path the request path
+     * @return true if no authentication is required
+     */
+    public boolean isPublic(String method, String path) {
+        return publicRoutes.matches(method, path);
+    }
 }
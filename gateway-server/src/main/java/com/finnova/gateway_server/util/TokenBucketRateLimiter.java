@@ -0,0 +1,221 @@
+package com.finnova.gateway_server.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter shared by every gateway instance through Redis.
+ *
+ * <p>Each request takes a token from the bucket of its caller on the route and from the bucket
+ * of the whole route, both in one Lua script so concurrent gateways cannot overdraw them.
+ * To keep callers well under their limit off Redis, a call leases up to
+ * {@code gateway.rate-limit.local.lease-size} tokens from the caller's bucket only, and the
+ * following requests spend them locally. The route bucket is charged one token per call plus,
+ * on the caller's next call, one per leased token spent, so unused leased tokens never count
+ * against the route. A caller that was refused is refused locally until a token is due.</p>
+ *
+ * <p>Limits are read per route as {@code gateway.rate-limit.routes.{routeId}.user.replenish-rate},
+ * {@code .user.burst-capacity}, {@code .route.replenish-rate} and {@code .route.burst-capacity},
+ * falling back to the same keys under {@code gateway.rate-limit.default}.</p>
+ *
+ * @author Andre Gallegos
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Environment environment;
+    private final RedisScript<List<Long>> script;
+    private final Cache<String, LocalBucket> localBuckets;
+    private final long leaseSize;
+    private final Duration leaseTtl;
+    private final Duration redisTimeout;
+
+    /**
+     * Outcome of a rate limit check.
+     *
+     * @param allowed whether the request may proceed
+     * @param retryAfter how long to wait before retrying, zero when allowed
+     */
+    public record Decision(boolean allowed, Duration retryAfter) {
+
+        static final Decision ALLOWED = new Decision(true, Duration.ZERO);
+    }
+
+    /**
+     * Limits of one route.
+     *
+     * @param userReplenishRate tokens per second of each caller
+     * @param userBurstCapacity most tokens a caller can hold
+     * @param routeReplenishRate tokens per second of the route across all callers
+     * @param routeBurstCapacity most tokens the route can hold
+     */
+    public record Limits(long userReplenishRate, long userBurstCapacity,
+                         long routeReplenishRate, long routeBurstCapacity) {
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TokenBucketRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                  Environment environment,
+                                  @Value("${gateway.rate-limit.local.lease-size:5}") long leaseSize,
+                                  @Value("${gateway.rate-limit.local.lease-ttl:1s}") Duration leaseTtl,
+                                  @Value("${gateway.rate-limit.local.max-size:100000}") long localMaxSize,
+                                  @Value("${gateway.rate-limit.redis-timeout:100ms}") Duration redisTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+        this.script = (RedisScript) RedisScript.of(
+                new ClassPathResource("scripts/token_bucket_rate_limiter.lua"), List.class);
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfter(Expiry.writing((String key, LocalBucket bucket) ->
+                        Duration.ofNanos(Math.max(0, bucket.retainUntilNanos() - System.nanoTime()))))
+                .build();
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtl = leaseTtl;
+        this.redisTimeout = redisTimeout;
+    }
+
+    /**
+     * Whether rate limiting applies to a route, from {@code gateway.rate-limit.routes.{routeId}.enabled}.
+     *
+     * @param routeId the route ID
+     * @return true unless disabled for the route or globally
+     */
+    public boolean isEnabled(String routeId) {
+        return environment.getProperty("gateway.rate-limit.routes." + routeId + ".enabled", Boolean.class,
+                environment.getProperty("gateway.rate-limit.enabled", Boolean.class, true));
+    }
+
+    /**
+     * Takes one token for a caller on a route. When Redis cannot be reached in time the
+     * request is allowed, the backends' own circuit breakers still protect them.
+     *
+     * @param routeId the route ID
+     * @param callerId the user ID, or the client address for anonymous callers
+     * @return Mono of the decision
+     */
+    public Mono<Decision> tryAcquire(String routeId, String callerId) {
+        String key = routeId + ":" + callerId;
+
+        LocalBucket local = localBuckets.getIfPresent(key);
+        long spent = 0;
+        if (local != null) {
+            long now = System.nanoTime();
+            if (local.isRefused(now)) {
+                return Mono.just(new Decision(false, Duration.ofNanos(local.expiresAtNanos() - now)));
+            }
+            if (local.tryTake(now)) {
+                return Mono.just(Decision.ALLOWED);
+            }
+            // Lease used up or expired, its spent tokens are charged to the route now
+            spent = local.claimSpent();
+        }
+
+        Limits limits = limits(routeId);
+        long requested = Math.min(leaseSize, limits.userBurstCapacity());
+
+        return redisTemplate.execute(script,
+                        List.of(KEY_PREFIX + routeId + ":user:" + callerId, KEY_PREFIX + routeId + ":route"),
+                        List.of(String.valueOf(limits.userReplenishRate()),
+                                String.valueOf(limits.userBurstCapacity()),
+                                String.valueOf(limits.routeReplenishRate()),
+                                String.valueOf(limits.routeBurstCapacity()),
+                                String.valueOf(requested),
+                                String.valueOf(spent)))
+                .next()
+                .timeout(redisTimeout)
+                .map(result -> {
+                    long granted = result.get(0);
+                    long now = System.nanoTime();
+                    if (granted < 1) {
+                        Duration retryAfter = Duration.ofMillis(result.get(1));
+                        localBuckets.put(key, LocalBucket.refused(now + retryAfter.toNanos()));
+                        return new Decision(false, retryAfter);
+                    }
+                    if (granted > 1) {
+                        // This request spends one token, the rest of the lease serves the next ones
+                        localBuckets.put(key, LocalBucket.leased(granted - 1, now + leaseTtl.toNanos(),
+                                now + 2 * leaseTtl.toNanos()));
+                    }
+                    return Decision.ALLOWED;
+                })
+                .onErrorResume(e -> {
+                    log.warn("Rate limit check failed for route {}, allowing request: {}", routeId, e.toString());
+                    return Mono.just(Decision.ALLOWED);
+                });
+    }
+
+    /**
+     * Limits of a route, configured values falling back to the defaults.
+     *
+     * @param routeId the route ID
+     * @return the limits
+     */
+    public Limits limits(String routeId) {
+        return new Limits(
+                limit(routeId, "user.replenish-rate", 10),
+                limit(routeId, "user.burst-capacity", 20),
+                limit(routeId, "route.replenish-rate", 500),
+                limit(routeId, "route.burst-capacity", 1000));
+    }
+
+    private long limit(String routeId, String name, long defaultValue) {
+        Long value = environment.getProperty("gateway.rate-limit.routes." + routeId + "." + name, Long.class);
+        if (value == null) {
+            value = environment.getProperty("gateway.rate-limit.default." + name, Long.class, defaultValue);
+        }
+        return Math.max(1, value);
+    }
+
+    /**
+     * Tokens leased from the caller's bucket to this gateway, or a refusal, valid until
+     * {@code expiresAtNanos}. Leased tokens left over when it expires are dropped, so the caller's
+     * limit is never exceeded. The bucket is kept until {@code retainUntilNanos} so the next call
+     * can charge the route for the tokens it spent.
+     */
+    private record LocalBucket(AtomicLong tokens, AtomicLong spent, long expiresAtNanos,
+                               long retainUntilNanos, boolean refused) {
+
+        static LocalBucket leased(long tokens, long expiresAtNanos, long retainUntilNanos) {
+            return new LocalBucket(new AtomicLong(tokens), new AtomicLong(), expiresAtNanos,
+                    retainUntilNanos, false);
+        }
+
+        static LocalBucket refused(long expiresAtNanos) {
+            return new LocalBucket(new AtomicLong(), new AtomicLong(), expiresAtNanos, expiresAtNanos, true);
+        }
+
+        boolean isRefused(long now) {
+            return refused && now - expiresAtNanos < 0;
+        }
+
+        boolean tryTake(long now) {
+            if (refused || now - expiresAtNanos >= 0 || tokens.getAndUpdate(t -> t > 0 ? t - 1 : t) <= 0) {
+                return false;
+            }
+            spent.incrementAndGet();
+            return true;
+        }
+
+        long claimSpent() {
+            return spent.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+-- Token buckets of one caller and of the whole route, refilled continuously and checked
+-- together: a request is only let through when both buckets have a token. The caller may
+-- lease extra tokens from its own bucket to spend locally; the route is charged one token
+-- now and, on the caller's next call, one per leased token it actually spent.
+--
+-- KEYS[1] the caller bucket, KEYS[2] the route bucket
+-- ARGV[1] caller tokens per second, ARGV[2] caller burst capacity
+-- ARGV[3] route tokens per second, ARGV[4] route burst capacity
+-- ARGV[5] caller tokens requested, at least one
+-- ARGV[6] leased tokens spent locally since the last call, charged to the route
+--
+-- Returns {tokens granted, milliseconds until a token is available when none was granted}
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+
+local function available(key, rate, capacity)
+  local bucket = redis.call('HMGET', key, 'tokens', 'updated_at')
+  local tokens = tonumber(bucket[1])
+  local updated_at = tonumber(bucket[2])
+  if tokens == nil or updated_at == nil then
+    return capacity
+  end
+  local elapsed = math.max(0, now - updated_at)
+  return math.min(capacity, tokens + elapsed * rate / 1000000)
+end
+
+local function wait_millis(tokens, rate)
+  if tokens >= 1 then
+    return 0
+  end
+  return math.ceil((1 - tokens) * 1000 / rate)
+end
+
+local function store(key, tokens, rate, capacity)
+  redis.call('HSET', key, 'tokens', tokens, 'updated_at', now)
+  -- A bucket idle long enough to be full again carries no state
+  redis.call('PEXPIRE', key, math.ceil(capacity * 1000 / rate) + 1000)
+end
+
+local caller_rate = tonumber(ARGV[1])
+local caller_capacity = tonumber(ARGV[2])
+local route_rate = tonumber(ARGV[3])
+local route_capacity = tonumber(ARGV[4])
+local requested = tonumber(ARGV[5])
+local spent = tonumber(ARGV[6])
+
+local caller_tokens = available(KEYS[1], caller_rate, caller_capacity)
+local route_tokens = math.max(0, available(KEYS[2], route_rate, route_capacity) - spent)
+
+local granted = math.min(requested, math.floor(caller_tokens))
+if granted < 1 or route_tokens < 1 then
+  if spent > 0 then
+    store(KEYS[2], route_tokens, route_rate, route_capacity)
+  end
+  return {0, math.max(wait_millis(caller_tokens, caller_rate), wait_millis(route_tokens, route_rate))}
+end
+
+store(KEYS[1], caller_tokens - granted, caller_rate, caller_capacity)
+store(KEYS[2], route_tokens - 1, route_rate, route_capacity)
+return {granted, 0}
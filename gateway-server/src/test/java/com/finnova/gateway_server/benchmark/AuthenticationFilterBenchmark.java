@@ -0,0 +1,118 @@
+package com.finnova.gateway_server.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.finnova.gateway_server.filter.AuthenticationFilter;
+import com.finnova.gateway_server.util.JwtPrincipal;
+import com.finnova.gateway_server.util.JwtUtil;
+import com.finnova.gateway_server.util.RouteValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request. "legacy" reproduces the filter before tokens were verified
+ * once per request: six verifications, each building its own Algorithm and verifier.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.finnova.gateway_server.benchmark.AuthenticationFilterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark";
+    private static final String ISSUER = "banking-system";
+
+    private static final GatewayFilterChain NO_OP_CHAIN = exchange -> Mono.empty();
+
+    private String token;
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private GatewayFilter filter;
+
+    @Setup
+    public void setUp() {
+        token = JWT.create()
+                .withSubject("benchmark-user")
+                .withIssuer(ISSUER)
+                .withClaim("userId", "6650f1c2a1b2c3d4e5f60718")
+                .withArrayClaim("roles", new String[]{"ROLE_USER", "ROLE_ADMIN"})
+                .withIssuedAt(Instant.now())
+                .withExpiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        uncachedJwtUtil = new JwtUtil(SECRET, ISSUER, 0, Duration.ofMinutes(15));
+        cachedJwtUtil = new JwtUtil(SECRET, ISSUER, 10_000, Duration.ofMinutes(15));
+        filter = new AuthenticationFilter(new RouteValidator(RouteValidator.DEFAULT_PUBLIC_ROUTES), cachedJwtUtil)
+                .apply(new AuthenticationFilter.Config());
+    }
+
+    @Benchmark
+    public Object legacySixVerifications() {
+        // validateToken, extractUsername, extractClaim, extractRoles and getRemainingValidityInSeconds,
+        // the latter two going through isTokenExpired/extractExpiration
+        Object[] results = new Object[6];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = legacyDecode(token).getSubject();
+        }
+        return results;
+    }
+
+    @Benchmark
+    public JwtPrincipal singleVerification() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal cachedVerification() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Void filterWithCachedVerification() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/products/customer/6650f1c2a1b2c3d4e5f60718")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        return filter.filter(exchange, NO_OP_CHAIN).block();
+    }
+
+    private static DecodedJWT legacyDecode(String token) {
+        return JWT.require(Algorithm.HMAC256(SECRET))
+                .withIssuer(ISSUER)
+                .build()
+                .verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthenticationFilterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
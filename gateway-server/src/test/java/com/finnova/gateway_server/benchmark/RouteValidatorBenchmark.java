@@ -0,0 +1,77 @@
+package com.finnova.gateway_server.benchmark;
+
+import com.finnova.gateway_server.util.RouteValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of classifying one request path as public or secured as the number of public routes
+ * grows. "legacy" reproduces the substring scan RouteValidator used before its rules were
+ * compiled into a trie; it grows with the rules while the trie stays flat.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.finnova.gateway_server.benchmark.RouteValidatorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteValidatorBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int ruleCount;
+
+    @Param({"/api/customers/6650f1c2a1b2c3d4e5f60718/products", "/api/auth/login", "/actuator/health"})
+    public String path;
+
+    private List<String> legacyEndpoints;
+    private RouteValidator validator;
+
+    @Setup
+    public void setUp() {
+        List<String> rules = new ArrayList<>(RouteValidator.DEFAULT_PUBLIC_ROUTES);
+        List<String> endpoints = new ArrayList<>(List.of(
+                "/api/auth/register", "/api/auth/login", "/api/auth/validate", "/actuator/**", "/eureka/**"));
+        for (int i = rules.size(); i < ruleCount; i++) {
+            rules.add("GET /api/public-" + i + "/{id}/**");
+            endpoints.add("/api/public-" + i + "/**");
+        }
+        legacyEndpoints = endpoints;
+        validator = new RouteValidator(rules);
+    }
+
+    @Benchmark
+    public boolean legacySubstringScan() {
+        return legacyEndpoints.stream().noneMatch(path::contains);
+    }
+
+    @Benchmark
+    public boolean trieMatch() {
+        return !validator.isPublic("POST", path);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteValidatorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
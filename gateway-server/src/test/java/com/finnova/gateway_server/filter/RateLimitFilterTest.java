@@ -0,0 +1,99 @@
+package com.finnova.gateway_server.filter;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.finnova.gateway_server.util.JwtPrincipal;
+import com.finnova.gateway_server.util.JwtUtil;
+import com.finnova.gateway_server.util.TokenBucketRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private static final String ROUTE_ID = "transaction-service";
+
+    private final List<String> callers = new ArrayList<>();
+    private TokenBucketRateLimiter rateLimiter;
+    private JwtUtil jwtUtil;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = mock(TokenBucketRateLimiter.class);
+        when(rateLimiter.isEnabled(ROUTE_ID)).thenReturn(true);
+        when(rateLimiter.tryAcquire(anyString(), anyString())).thenAnswer(inv -> {
+            callers.add(inv.getArgument(1));
+            return Mono.just(new TokenBucketRateLimiter.Decision(true, Duration.ZERO));
+        });
+
+        jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.verify("valid")).thenReturn(new JwtPrincipal("alice", "user-1", List.of(),
+                Instant.now().plusSeconds(3600)));
+        when(jwtUtil.verify("forged")).thenThrow(new JWTVerificationException("bad signature"));
+
+        filter = new RateLimitFilter(rateLimiter, jwtUtil);
+    }
+
+    @Test
+    void verifiedCallerIsLimitedByTheUserOfItsToken() {
+        filter(MockServerHttpRequest.get("/transactions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer valid")
+                .header("X-User-Id", "someone-else"));
+
+        assertThat(callers).containsExactly("user:user-1");
+    }
+
+    @Test
+    void spoofedUserIdIsLimitedByClientAddress() {
+        filter(MockServerHttpRequest.get("/transactions")
+                .header("X-User-Id", "someone-else"));
+        filter(MockServerHttpRequest.get("/transactions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer forged")
+                .header("X-User-Id", "someone-else"));
+
+        assertThat(callers).containsExactly("ip:10.0.0.7", "ip:10.0.0.7");
+    }
+
+    @Test
+    void exhaustedBucketAnswersTooManyRequests() {
+        doReturn(Mono.just(new TokenBucketRateLimiter.Decision(false, Duration.ofMillis(1500))))
+                .when(rateLimiter).tryAcquire(anyString(), anyString());
+
+        MockServerWebExchange exchange = filter(MockServerHttpRequest.get("/transactions"));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    private MockServerWebExchange filter(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 52000))
+                .build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri("lb://TRANSACTION-SERVICE")
+                .predicate(e -> true)
+                .build());
+        StepVerifier.create(filter.filter(exchange, e -> Mono.empty())).verifyComplete();
+        return exchange;
+    }
+}
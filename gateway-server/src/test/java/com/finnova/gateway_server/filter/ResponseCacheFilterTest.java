@@ -0,0 +1,118 @@
+package com.finnova.gateway_server.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.gateway_server.util.JwtPrincipal;
+import com.finnova.gateway_server.util.JwtUtil;
+import com.finnova.gateway_server.util.ResponseCache;
+import com.finnova.gateway_server.util.RouteValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheFilterTest {
+
+    private static final String ROUTE_ID = "passive-product-service";
+    private static final String TOKEN = "token";
+
+    private final List<String> deletedKeys = new ArrayList<>();
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        ReactiveHashOperations<String, Object, Object> hashOperations = mock(ReactiveHashOperations.class);
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+        when(hashOperations.get(anyString(), any())).thenReturn(Mono.empty());
+        when(redisTemplate.delete(any(String[].class))).thenAnswer(inv -> {
+            for (Object key : inv.getArguments()) {
+                deletedKeys.add((String) key);
+            }
+            return Mono.just((long) inv.getArguments().length);
+        });
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("gateway.response-cache.routes." + ROUTE_ID + ".ttl", "30s");
+        ResponseCache responseCache = new ResponseCache(redisTemplate, new ObjectMapper(), environment,
+                DataSize.ofKilobytes(256));
+
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.verify(TOKEN)).thenReturn(new JwtPrincipal("alice", "user-1", List.of(),
+                Instant.now().plusSeconds(3600)));
+
+        filter = new ResponseCacheFilter(responseCache, new RouteValidator(RouteValidator.DEFAULT_PUBLIC_ROUTES),
+                jwtUtil);
+    }
+
+    @Test
+    void writeOnASubResourceEvictsCachedGetsOfItsSiblings() {
+        MockServerWebExchange get = routed(MockServerHttpRequest.get("/passive-products/abc/balance"));
+        StepVerifier.create(filter.filter(get, chain(HttpStatus.OK))).verifyComplete();
+        ResponseCache.Entry cached = get.getAttribute(ResponseCacheFilter.CACHE_ENTRY_ATTR);
+        assertThat(cached).isNotNull();
+
+        MockServerWebExchange post = routed(MockServerHttpRequest.post("/passive-products/abc/deposit"));
+        StepVerifier.create(filter.filter(post, chain(HttpStatus.OK))).verifyComplete();
+
+        assertThat(deletedKeys).contains(cached.key());
+    }
+
+    @Test
+    void failedWriteEvictsNothing() {
+        MockServerWebExchange post = routed(MockServerHttpRequest.post("/passive-products/abc/deposit"));
+        StepVerifier.create(filter.filter(post, chain(HttpStatus.BAD_REQUEST))).verifyComplete();
+
+        assertThat(deletedKeys).isEmpty();
+    }
+
+    /**
+     * An exchange as the global filters see it: StripPrefix has removed /api and kept the
+     * URL the client sent.
+     */
+    private static MockServerWebExchange routed(MockServerHttpRequest.BaseBuilder<?> strippedRequest) {
+        MockServerHttpRequest request = strippedRequest
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri("lb://PRODUCTS-SERVICE")
+                .predicate(e -> true)
+                .build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR,
+                new LinkedHashSet<>(List.of(URI.create("http://localhost/api" + request.getURI().getPath()))));
+        return exchange;
+    }
+
+    private static GatewayFilterChain chain(HttpStatus status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+}
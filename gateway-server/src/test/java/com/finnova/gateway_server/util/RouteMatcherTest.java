@@ -0,0 +1,101 @@
+package com.finnova.gateway_server.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteMatcherTest {
+
+    @Test
+    void methodScopedRuleMatchesOnlyItsMethod() {
+        RouteMatcher matcher = new RouteMatcher(List.of("POST /api/auth/login"));
+
+        assertThat(matcher.matches("POST", "/api/auth/login")).isTrue();
+        assertThat(matcher.matches("GET", "/api/auth/login")).isFalse();
+        assertThat(matcher.matches("POST", "/api/auth/logout")).isFalse();
+    }
+
+    @Test
+    void ruleWithSeveralMethodsMatchesEachOfThem() {
+        RouteMatcher matcher = new RouteMatcher(List.of("get|HEAD /api/products/{id}"));
+
+        assertThat(matcher.matches("GET", "/api/products/1")).isTrue();
+        assertThat(matcher.matches("HEAD", "/api/products/1")).isTrue();
+        assertThat(matcher.matches("DELETE", "/api/products/1")).isFalse();
+    }
+
+    @Test
+    void trailingDoubleWildcardMatchesThePathAndEverythingBelowIt() {
+        RouteMatcher matcher = new RouteMatcher(List.of("/actuator/**"));
+
+        assertThat(matcher.matches("GET", "/actuator")).isTrue();
+        assertThat(matcher.matches("GET", "/actuator/health")).isTrue();
+        assertThat(matcher.matches("POST", "/actuator/health/liveness")).isTrue();
+        assertThat(matcher.matches("GET", "/actuatorx")).isFalse();
+        assertThat(matcher.matches("GET", "/api/actuator")).isFalse();
+    }
+
+    @Test
+    void variableSegmentMatchesExactlyOneSegment() {
+        RouteMatcher matcher = new RouteMatcher(List.of("/api/customers/{id}/products", "/api/files/*"));
+
+        assertThat(matcher.matches("GET", "/api/customers/123/products")).isTrue();
+        assertThat(matcher.matches("GET", "/api/customers/products")).isFalse();
+        assertThat(matcher.matches("GET", "/api/customers/1/2/products")).isFalse();
+        assertThat(matcher.matches("GET", "/api/files/report.pdf")).isTrue();
+        assertThat(matcher.matches("GET", "/api/files/")).isFalse();
+    }
+
+    @Test
+    void literalRuleDoesNotHideAVariableOneOnTheSameSegment() {
+        RouteMatcher matcher = new RouteMatcher(List.of("POST /api/products/special", "GET /api/products/{id}"));
+
+        assertThat(matcher.matches("GET", "/api/products/special")).isTrue();
+        assertThat(matcher.matches("POST", "/api/products/special")).isTrue();
+        assertThat(matcher.matches("POST", "/api/products/1")).isFalse();
+    }
+
+    @Test
+    void rulesOnTheSamePathMergeTheirMethods() {
+        RouteMatcher matcher = new RouteMatcher(List.of("GET /api/auth/validate", "POST /api/auth/validate"));
+
+        assertThat(matcher.matches("GET", "/api/auth/validate")).isTrue();
+        assertThat(matcher.matches("POST", "/api/auth/validate")).isTrue();
+        assertThat(matcher.matches("PUT", "/api/auth/validate")).isFalse();
+    }
+
+    @Test
+    void trailingSlashIsIgnored() {
+        RouteMatcher matcher = new RouteMatcher(List.of("POST /api/auth/login", "/api/products/{id}"));
+
+        assertThat(matcher.matches("POST", "/api/auth/login/")).isTrue();
+        assertThat(matcher.matches("GET", "/api/products/1/")).isTrue();
+        assertThat(matcher.matches("GET", "/api/products/")).isFalse();
+    }
+
+    @Test
+    void otherPatternsFallBackToPathPattern() {
+        RouteMatcher matcher = new RouteMatcher(List.of("/api/docs/*.pdf", "DELETE /api/accounts/{id:\\d+}"));
+
+        assertThat(matcher.matches("GET", "/api/docs/terms.pdf")).isTrue();
+        assertThat(matcher.matches("GET", "/api/docs/terms.txt")).isFalse();
+        assertThat(matcher.matches("DELETE", "/api/accounts/42")).isTrue();
+        assertThat(matcher.matches("DELETE", "/api/accounts/abc")).isFalse();
+        assertThat(matcher.matches("GET", "/api/accounts/42")).isFalse();
+    }
+
+    @Test
+    void pathWithoutMatchingRuleIsNotMatched() {
+        assertThat(new RouteMatcher(List.of()).matches("GET", "/api/products")).isFalse();
+    }
+
+    @Test
+    void invalidPatternIsRejectedWhenCompiled() {
+        assertThatThrownBy(() -> new RouteMatcher(List.of("/api/{id")))
+                .isInstanceOf(PatternParseException.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.finnova.gateway_server.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteValidatorTest {
+
+    private final RouteValidator validator = new RouteValidator(RouteValidator.DEFAULT_PUBLIC_ROUTES);
+
+    @Test
+    void publicRouteIsRecognisedAfterStripPrefix() {
+        MockServerWebExchange exchange = stripped(MockServerHttpRequest.post("/auth/login"));
+
+        assertThat(validator.isSecured(exchange)).isFalse();
+    }
+
+    @Test
+    void publicRuleKeepsItsMethodAfterStripPrefix() {
+        MockServerWebExchange exchange = stripped(MockServerHttpRequest.get("/auth/login"));
+
+        assertThat(validator.isSecured(exchange)).isTrue();
+    }
+
+    @Test
+    void securedRouteStaysSecuredAfterStripPrefix() {
+        MockServerWebExchange exchange = stripped(MockServerHttpRequest.get("/customers/123"));
+
+        assertThat(validator.isSecured(exchange)).isTrue();
+        assertThat(RouteValidator.originalPath(exchange)).isEqualTo("/api/customers/123");
+    }
+
+    @Test
+    void requestWithoutRoutingIsJudgedOnItsOwnPath() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/actuator/health").build());
+
+        assertThat(validator.isSecured(exchange)).isFalse();
+    }
+
+    /**
+     * An exchange whose /api prefix StripPrefix has removed, keeping the URL the client sent.
+     */
+    private static MockServerWebExchange stripped(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR,
+                new LinkedHashSet<>(List.of(URI.create(
+                        "http://localhost/api" + exchange.getRequest().getURI().getPath()))));
+        return exchange;
+    }
+}
@@ -13,6 +13,7 @@ const databases = [
     'passive_product_db',
     'active_product_db',
     'transaction_db',
+    'report_db',
     'debit_card_db',
     'transfer_db',
     'yanki_db',
@@ -144,6 +145,8 @@ passiveProductDb.passive_products.createIndex({"accountNumber": 1}, {unique: tru
 passiveProductDb.passive_products.createIndex({"customerId": 1});
 passiveProductDb.passive_products.createIndex({"productType": 1});
 passiveProductDb.passive_products.createIndex({"status": 1});
+// Keyed balance operations, kept long enough to fence every retry of their operation
+passiveProductDb.balance_operations.createIndex({"createdAt": 1}, {expireAfterSeconds: 2592000});
 
 // Insert seed data
 passiveProductDb.passive_products.insertMany([
@@ -235,6 +238,9 @@ passiveProductDb.passive_products.insertMany([
     }
 ]);
 
+// Optimistic locking starts at version 0 for seeded documents
+passiveProductDb.passive_products.updateMany({version: {$exists: false}}, {$set: {version: NumberLong(0)}});
+
 print('passive_product_db initialized with seed data');
 
 // ========================================
@@ -340,6 +346,9 @@ activeProductDb.active_products.insertMany([
     }
 ]);
 
+// Optimistic locking starts at version 0 for seeded documents
+activeProductDb.active_products.updateMany({version: {$exists: false}}, {$set: {version: NumberLong(0)}});
+
 print('active_product_db initialized with seed data');
 
 // ========================================
@@ -353,6 +362,23 @@ transactionDb.transactions.createIndex({"productId": 1});
 transactionDb.transactions.createIndex({"transactionType": 1});
 transactionDb.transactions.createIndex({"status": 1});
 transactionDb.transactions.createIndex({"transactionDate": -1});
+transactionDb.transactions.createIndex(
+    {"productId": 1, "status": 1, "transactionType": 1, "transactionDate": 1},
+    {name: "product_status_type_date_idx"}
+);
+transactionDb.transactions.createIndex(
+    {"productId": 1, "transactionDate": -1, "_id": -1},
+    {name: "product_date_idx"}
+);
+transactionDb.transactions.createIndex(
+    {"customerId": 1, "transactionDate": -1, "_id": -1},
+    {name: "customer_date_idx"}
+);
+transactionDb.idempotency_keys.createIndex({"createdAt": 1}, {expireAfterSeconds: 86400});
+transactionDb.outbox_events.createIndex({"status": 1, "createdAt": 1}, {name: "status_created_idx"});
+transactionDb.outbox_events.createIndex({"sentAt": 1}, {expireAfterSeconds: 604800});
+transactionDb.transfer_sagas.createIndex({"state": 1, "lockedUntil": 1}, {name: "state_locked_idx"});
+transactionDb.transfer_sagas.createIndex({"finishedAt": 1}, {expireAfterSeconds: 2592000});
 
 // Insert seed data
 transactionDb.transactions.insertMany([
@@ -425,6 +451,22 @@ transactionDb.transactions.insertMany([
 
 print('transaction_db initialized with seed data');
 
+// ========================================
+// REPORT_DB
+// ========================================
+const reportDb = db.getSiblingDB('report_db');
+
+// Create indexes
+reportDb.report_products.createIndex({"customerId": 1, "status": 1});
+reportDb.report_products.createIndex({"productType": 1, "status": 1});
+reportDb.report_transactions.createIndex({"customerId": 1, "transactionDate": -1});
+reportDb.report_transactions.createIndex({"productId": 1, "transactionDate": 1});
+reportDb.report_transactions.createIndex({"productType": 1, "transactionDate": 1});
+reportDb.product_monthly_stats.createIndex({"customerId": 1});
+reportDb.product_daily_balances.createIndex({"productId": 1, "date": 1});
+
+print('report_db initialized');
+
 // ========================================
 // DEBIT_CARD_DB
 // ========================================
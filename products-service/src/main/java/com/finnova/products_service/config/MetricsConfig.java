@@ -0,0 +1,25 @@
+package com.finnova.products_service.config;
+
+import com.finnova.products_service.service.impl.OptimisticLockRetrySupport;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Caps the number of distinct products tracked by the conflict metric.
+     * Hot accounts show up first, so the cap keeps them while bounding cardinality.
+     *
+     * @param maxProducts the maximum number of product tags
+     * @return the meter filter
+     */
+    @Bean
+    public MeterFilter optimisticLockConflictCardinalityFilter(
+            @Value("${products.optimistic-lock.max-tracked-products:500}") int maxProducts) {
+        return MeterFilter.maximumAllowableTags(OptimisticLockRetrySupport.CONFLICTS_METRIC,
+                "product.id", maxProducts, MeterFilter.deny());
+    }
+}
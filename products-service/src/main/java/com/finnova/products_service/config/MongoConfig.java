@@ -0,0 +1,37 @@
+package com.finnova.products_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions.BigDecimalRepresentation;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+public class MongoConfig {
+
+    /**
+     * Stores BigDecimal values as Decimal128 so balances can be compared and
+     * incremented server-side by conditional updates.
+     *
+     * @return the Mongo custom conversions
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return MongoCustomConversions.create(adapter ->
+                adapter.bigDecimal(BigDecimalRepresentation.DECIMAL128));
+    }
+
+    /**
+     * Runs a reactive chain in a multi-document transaction, used to move money between
+     * two accounts atomically. Requires MongoDB to run as a replica set.
+     *
+     * @param databaseFactory the reactive database factory
+     * @return the transactional operator
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveMongoDatabaseFactory databaseFactory) {
+        return TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory));
+    }
+}
@@ -0,0 +1,62 @@
+package com.finnova.products_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.cache_support.CacheStampedeProtection;
+import com.finnova.cache_support.codec.VersionedCacheCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@Configuration
+public class ProductCacheRedisConfig {
+
+    /**
+     * Template for cache entries, which are encoded by VersionedCacheCodec and stored as raw bytes.
+     *
+     * @param factory the reactive connection factory
+     * @return the template
+     */
+    @Bean(name = "productCacheRedisTemplate")
+    public ReactiveRedisTemplate<String, byte[]> productCacheRedisTemplate(
+            ReactiveRedisConnectionFactory factory) {
+
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build();
+
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
+
+    /**
+     * Codec of product cache entries; new entries are written in the format of
+     * {@code products.cache.codec}, entries of any known format are read.
+     *
+     * @param objectMapper the application ObjectMapper
+     * @param codecName json or smile
+     * @return the codec
+     */
+    @Bean
+    public VersionedCacheCodec productCacheCodec(ObjectMapper objectMapper,
+            @Value("${products.cache.codec:smile}") String codecName) {
+        return new VersionedCacheCodec(objectMapper, codecName);
+    }
+
+    /**
+     * Stampede protection of the product cache, tuned by {@code products.cache.early-refresh-beta},
+     * {@code products.cache.ttl-jitter} and {@code products.cache.initial-load-time-ms}.
+     *
+     * @return the stampede protection
+     */
+    @Bean
+    public CacheStampedeProtection productCacheStampedeProtection(
+            @Value("${products.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+            @Value("${products.cache.ttl-jitter:0.1}") double ttlJitter,
+            @Value("${products.cache.initial-load-time-ms:20}") double initialLoadMillis) {
+        return new CacheStampedeProtection(earlyRefreshBeta, ttlJitter, initialLoadMillis);
+    }
+}
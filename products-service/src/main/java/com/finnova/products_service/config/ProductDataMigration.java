@@ -0,0 +1,91 @@
+package com.finnova.products_service.config;
+
+import com.finnova.products_service.model.entity.ActiveProduct;
+import com.finnova.products_service.model.entity.PassiveProduct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject.Type;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Brings product documents written by earlier versions of the service up to the current
+ * mapping when the service starts. Every step is idempotent, so concurrent instances and
+ * restarts are safe.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductDataMigration implements ApplicationRunner {
+
+    private static final Duration MIGRATION_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final List<String> PASSIVE_AMOUNTS = List.of(
+            "balance", "openingAmount", "maintenanceFee", "feePerExtraTransaction", "minimumDailyAverage");
+    private static final List<String> ACTIVE_AMOUNTS = List.of(
+            "creditLimit", "availableCredit", "usedCredit", "interestRate", "minimumPayment",
+            "outstandingBalance", "overdueAmount");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        initialiseVersions(PassiveProduct.class)
+                .then(initialiseVersions(ActiveProduct.class))
+                .then(convertToDecimal128(PassiveProduct.class, PASSIVE_AMOUNTS))
+                .then(convertToDecimal128(ActiveProduct.class, ACTIVE_AMOUNTS))
+                .block(MIGRATION_TIMEOUT);
+    }
+
+    /**
+     * Documents written before optimistic locking have no version, which Spring Data takes
+     * for a new entity, so saving one would insert it again and fail on its ID. They start
+     * at version 0, as seeded documents do.
+     */
+    private Mono<Void> initialiseVersions(Class<?> entityClass) {
+        return mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L),
+                        entityClass)
+                .doOnNext(result -> {
+                    if (result.getModifiedCount() > 0) {
+                        log.info("Initialised the version of {} {} documents",
+                                result.getModifiedCount(), entityClass.getSimpleName());
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Amounts used to be stored as strings, which the conditional balance updates can neither
+     * compare with a Decimal128 amount nor increment, so a withdrawal would never match.
+     * String and double amounts are converted to Decimal128 in place.
+     */
+    private Mono<Void> convertToDecimal128(Class<?> entityClass, List<String> fields) {
+        return Flux.fromIterable(fields)
+                .concatMap(field -> mongoTemplate.updateMulti(
+                                Query.query(Criteria.where(field).type(Type.stringType(), Type.doubleType())),
+                                AggregationUpdate.update().set(field)
+                                        .toValue(ConvertOperators.valueOf(field).convertToDecimal()),
+                                entityClass)
+                        .doOnNext(result -> {
+                            if (result.getModifiedCount() > 0) {
+                                log.info("Converted {} of {} {} documents to Decimal128",
+                                        field, result.getModifiedCount(), entityClass.getSimpleName());
+                            }
+                        }))
+                .then();
+    }
+}
@@ -3,6 +3,8 @@ package com.finnova.products_service.controller;
 import com.finnova.products_service.model.dto.BalanceDto;
 import com.finnova.products_service.model.dto.CreatePassiveProductRequest;
 import com.finnova.products_service.model.dto.PassiveProductDto;
+import com.finnova.products_service.model.dto.ProductLookupRequest;
+import com.finnova.products_service.model.dto.TransferResultDto;
 import com.finnova.products_service.model.dto.UpdatePassiveProductRequest;
 import com.finnova.products_service.service.PassiveProductService;
 import jakarta.validation.Valid;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -30,6 +33,8 @@ import java.util.Map;
 @Slf4j
 public class PassiveProductController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final PassiveProductService passiveProductService;
 
     /**
@@ -154,20 +159,34 @@ public class PassiveProductController {
                 .doOnError(e -> log.error("Error getting balance: {}", e.getMessage()));
     }
 
+    /**
+     * Gets balances of several passive products in one call. Unknown IDs are skipped.
+     *
+     * @param request the product IDs
+     * @return Flux of BalanceDto
+     */
+    @PostMapping("/balances")
+    public Flux<BalanceDto> getBalances(@Valid @RequestBody ProductLookupRequest request) {
+        log.info("POST /passive-products/balances - Getting {} balances", request.getIds().size());
+        return passiveProductService.getBalances(request.getIds());
+    }
+
     /**
      * Deposits money into a passive product.
      *
      * @param id the product ID
+     * @param idempotencyKey optional key, a repeated key does not deposit again
      * @param request the deposit request containing amount
      * @return Mono of ResponseEntity with PassiveProductDto
      */
     @PostMapping("/{id}/deposit")
     public Mono<ResponseEntity<PassiveProductDto>> deposit(
             @PathVariable String id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, BigDecimal> request) {
         BigDecimal amount = request.get("amount");
         log.info("POST /passive-products/{}/deposit - Depositing amount: {}", id, amount);
-        return passiveProductService.deposit(id, amount)
+        return passiveProductService.deposit(id, amount, idempotencyKey)
                 .map(ResponseEntity::ok)
                 .doOnSuccess(r -> log.info("Deposit successful for product: {}", id))
                 .doOnError(e -> log.error("Error depositing: {}", e.getMessage()));
@@ -177,37 +196,58 @@ public class PassiveProductController {
      * Withdraws money from a passive product.
      *
      * @param id the product ID
+     * @param idempotencyKey optional key, a repeated key does not withdraw again
      * @param request the withdrawal request containing amount
      * @return Mono of ResponseEntity with PassiveProductDto
      */
     @PostMapping("/{id}/withdraw")
     public Mono<ResponseEntity<PassiveProductDto>> withdraw(
             @PathVariable String id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, BigDecimal> request) {
         BigDecimal amount = request.get("amount");
         log.info("POST /passive-products/{}/withdraw - Withdrawing amount: {}", id, amount);
-        return passiveProductService.withdraw(id, amount)
+        return passiveProductService.withdraw(id, amount, idempotencyKey)
                 .map(ResponseEntity::ok)
                 .doOnSuccess(r -> log.info("Withdrawal successful for product: {}", id))
                 .doOnError(e -> log.error("Error withdrawing: {}", e.getMessage()));
     }
 
     /**
-     * Transfers money between passive products.
+     * Fences off a keyed deposit or withdrawal so it can no longer be applied.
+     *
+     * @param id the product ID
+     * @param operationId the Idempotency-Key of the operation
+     * @return Mono of ResponseEntity with whether the operation had already been applied
+     */
+    @PostMapping("/{id}/operations/{operationId}/fence")
+    public Mono<ResponseEntity<Map<String, Boolean>>> fenceOperation(
+            @PathVariable String id,
+            @PathVariable String operationId) {
+        log.info("POST /passive-products/{}/operations/{}/fence - Fencing operation", id, operationId);
+        return passiveProductService.fenceOperation(id, operationId)
+                .map(applied -> ResponseEntity.ok(Map.of("applied", applied)))
+                .doOnError(e -> log.error("Error fencing operation: {}", e.getMessage()));
+    }
+
+    /**
+     * Transfers money between passive products atomically: both balances change or neither does.
      *
      * @param fromId the source product ID
+     * @param idempotencyKey optional key, a repeated key does not transfer again
      * @param request the transfer request containing toId and amount
-     * @return Mono of ResponseEntity
+     * @return Mono of ResponseEntity with both products after the transfer
      */
     @PostMapping("/{fromId}/transfer")
-    public Mono<ResponseEntity<Map<String, String>>> transfer(
+    public Mono<ResponseEntity<TransferResultDto>> transfer(
             @PathVariable String fromId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Object> request) {
         String toId = (String) request.get("toId");
         BigDecimal amount = new BigDecimal(request.get("amount").toString());
         log.info("POST /passive-products/{}/transfer - Transferring {} to {}", fromId, amount, toId);
-        return passiveProductService.transfer(fromId, toId, amount)
-                .then(Mono.just(ResponseEntity.ok(Map.of("message", "Transfer successful"))))
+        return passiveProductService.transfer(fromId, toId, amount, idempotencyKey)
+                .map(ResponseEntity::ok)
                 .doOnSuccess(r -> log.info("Transfer successful from {} to {}", fromId, toId))
                 .doOnError(e -> log.error("Error during transfer: {}", e.getMessage()));
     }
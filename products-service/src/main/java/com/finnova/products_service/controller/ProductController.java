@@ -0,0 +1,55 @@
+package com.finnova.products_service.controller;
+
+import com.finnova.products_service.model.dto.ProductLookupDto;
+import com.finnova.products_service.model.dto.ProductLookupRequest;
+import com.finnova.products_service.service.ProductLookupService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lookups for callers that only know a product ID, not whether it is passive or active.
+ */
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductController {
+
+    private final ProductLookupService productLookupService;
+
+    /**
+     * Gets a product of either category by ID.
+     *
+     * @param id the product ID
+     * @return Mono of ResponseEntity with ProductLookupDto
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductLookupDto>> getProductById(@PathVariable String id) {
+        log.info("GET /products/{} - Looking up product by ID", id);
+        return productLookupService.findById(id)
+                .map(ResponseEntity::ok)
+                .doOnError(e -> log.error("Error looking up product {}: {}", id, e.getMessage()));
+    }
+
+    /**
+     * Gets the products of either category with the given IDs. Unknown IDs are skipped.
+     *
+     * @param request the product IDs
+     * @return Flux of ProductLookupDto
+     */
+    @PostMapping("/lookup")
+    public Flux<ProductLookupDto> lookupProducts(@Valid @RequestBody ProductLookupRequest request) {
+        log.info("POST /products/lookup - Looking up {} products", request.getIds().size());
+        return productLookupService.findByIds(request.getIds());
+    }
+}
@@ -18,6 +18,7 @@ public class ActiveProductUpdatedEvent {
     private String productId;
     private String creditNumber;
     private String customerId;
+    private BigDecimal creditLimit;
     private BigDecimal availableCredit;
     private BigDecimal outstandingBalance;
     private ProductStatus status;
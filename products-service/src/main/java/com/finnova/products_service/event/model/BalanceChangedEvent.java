@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class BalanceChangedEvent {
 
+    private String eventId; // lets consumers skip redeliveries
     private String productId;
     private String productNumber; // accountNumber or creditNumber
     private String customerId;
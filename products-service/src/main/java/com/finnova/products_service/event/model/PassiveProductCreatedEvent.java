@@ -21,6 +21,8 @@ public class PassiveProductCreatedEvent {
     private String customerId;
     private PassiveProductType productType;
     private BigDecimal balance;
+    private Integer maxTransactionsWithoutFee;
+    private BigDecimal minimumDailyAverage;
     private Currency currency;
     private LocalDateTime timestamp;
 }
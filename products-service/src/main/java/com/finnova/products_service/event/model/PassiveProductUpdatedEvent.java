@@ -19,6 +19,8 @@ public class PassiveProductUpdatedEvent {
     private String accountNumber;
     private String customerId;
     private BigDecimal balance;
+    private Integer maxTransactionsWithoutFee;
+    private BigDecimal minimumDailyAverage;
     private ProductStatus status;
     private LocalDateTime timestamp;
 }
@@ -0,0 +1,20 @@
+package com.finnova.products_service.event.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDeletedEvent {
+
+    private String productId;
+    private String productNumber; // accountNumber or creditNumber
+    private String customerId;
+    private LocalDateTime timestamp;
+}
@@ -8,6 +8,7 @@ import com.finnova.products_service.event.model.ActiveProductUpdatedEvent;
 import com.finnova.products_service.event.model.BalanceChangedEvent;
 import com.finnova.products_service.event.model.PassiveProductCreatedEvent;
 import com.finnova.products_service.event.model.PassiveProductUpdatedEvent;
+import com.finnova.products_service.event.model.ProductDeletedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -68,6 +69,24 @@ public class ProductEventPublisher {
         });
     }
 
+    /**
+     * Publishes a passive product deleted event.
+     *
+     * @param event the product deleted event
+     * @return Mono of Void
+     */
+    public Mono<Void> publishPassiveProductDeletedEvent(ProductDeletedEvent event) {
+        return Mono.fromRunnable(() -> {
+            try {
+                String message = objectMapper.writeValueAsString(event);
+                kafkaTemplate.send(passiveProductEventsTopic, "passive-product.deleted", message);
+                log.info("Published passive ProductDeletedEvent for product: {}", event.getProductId());
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing ProductDeletedEvent: {}", e.getMessage());
+            }
+        });
+    }
+
     /**
      * Publishes an active product created event.
      *
@@ -104,6 +123,24 @@ public class ProductEventPublisher {
         });
     }
 
+    /**
+     * Publishes an active product deleted event.
+     *
+     * @param event the product deleted event
+     * @return Mono of Void
+     */
+    public Mono<Void> publishActiveProductDeletedEvent(ProductDeletedEvent event) {
+        return Mono.fromRunnable(() -> {
+            try {
+                String message = objectMapper.writeValueAsString(event);
+                kafkaTemplate.send(activeProductEventsTopic, "active-product.deleted", message);
+                log.info("Published active ProductDeletedEvent for product: {}", event.getProductId());
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing ProductDeletedEvent: {}", e.getMessage());
+            }
+        });
+    }
+
     /**
      * Publishes a balance changed event.
      *
@@ -36,6 +36,7 @@ public interface ActiveProductMapper {
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ActiveProduct toEntity(CreateActiveProductRequest request);
 
     /**
@@ -56,5 +57,6 @@ public interface ActiveProductMapper {
     @Mapping(target = "overdueAmount", ignore = true)
     @Mapping(target = "hasOverdueDebt", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(ActiveProductDto activeProductDto, @MappingTarget ActiveProduct activeProduct);
 }
@@ -32,6 +32,7 @@ public interface PassiveProductMapper {
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     PassiveProduct toEntity(CreatePassiveProductRequest request);
 
     /**
@@ -50,5 +51,6 @@ public interface PassiveProductMapper {
     @Mapping(target = "currentMonthTransactions", ignore = true)
     @Mapping(target = "movementDay", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDto(PassiveProductDto passiveProductDto, @MappingTarget PassiveProduct passiveProduct);
 }
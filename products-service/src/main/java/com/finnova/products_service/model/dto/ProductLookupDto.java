@@ -0,0 +1,32 @@
+package com.finnova.products_service.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.finnova.products_service.model.enums.ProductCategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product of either category. Exactly one of passiveProduct and activeProduct is set,
+ * matching the category.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductLookupDto {
+
+    private ProductCategory category;
+    private PassiveProductDto passiveProduct;
+    private ActiveProductDto activeProduct;
+
+    public static ProductLookupDto of(PassiveProductDto product) {
+        return new ProductLookupDto(ProductCategory.PASSIVE, product, null);
+    }
+
+    public static ProductLookupDto of(ActiveProductDto product) {
+        return new ProductLookupDto(ProductCategory.ACTIVE, null, product);
+    }
+}
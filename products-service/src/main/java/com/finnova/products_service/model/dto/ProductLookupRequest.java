@@ -0,0 +1,21 @@
+package com.finnova.products_service.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupRequest {
+
+    @NotEmpty(message = "Product IDs are required")
+    @Size(max = 500, message = "At most 500 products can be looked up at once")
+    private List<String> ids;
+}
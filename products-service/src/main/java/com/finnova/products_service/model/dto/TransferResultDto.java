@@ -0,0 +1,16 @@
+package com.finnova.products_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResultDto {
+
+    private PassiveProductDto source;
+    private PassiveProductDto destination;
+}
@@ -0,0 +1,62 @@
+package com.finnova.products_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A keyed balance operation applied to, or fenced off on, a passive product. Stored in the
+ * same transaction as the balance change, so each operation key moves money at most once.
+ * Records outlive the idempotency keys and transfer sagas whose retries they fence.
+ */
+@Document(collection = "balance_operations")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BalanceOperation {
+
+    @Id
+    private String id; // productId + ":" + operationId, unique by _id
+
+    private String productId;
+    private String operationId;
+
+    @Indexed(expireAfter = "30d")
+    private LocalDateTime createdAt;
+
+    /**
+     * Creates the record of an operation on a product.
+     *
+     * @param productId the product ID
+     * @param operationId the operation key
+     * @return the balance operation
+     */
+    public static BalanceOperation of(String productId, String operationId) {
+        return BalanceOperation.builder()
+                .id(idOf(productId, operationId))
+                .productId(productId)
+                .operationId(operationId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * ID of the record of an operation on a product.
+     *
+     * @param productId the product ID
+     * @param operationId the operation key
+     * @return the record ID
+     */
+    public static String idOf(String productId, String operationId) {
+        return productId + ":" + operationId;
+    }
+}
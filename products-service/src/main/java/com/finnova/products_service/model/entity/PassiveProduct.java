@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -116,4 +117,10 @@ public class PassiveProduct {
      * Timestamp when the product was last updated.
      */
     private LocalDateTime updatedAt;
+
+    /**
+     * Optimistic locking version, incremented on every write.
+     */
+    @Version
+    private Long version;
 }
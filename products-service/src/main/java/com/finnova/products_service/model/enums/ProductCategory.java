@@ -0,0 +1,14 @@
+package com.finnova.products_service.model.enums;
+
+public enum ProductCategory {
+
+    /**
+     * Bank account: savings, checking or fixed-term.
+     */
+    PASSIVE,
+
+    /**
+     * Credit product: personal loan, business loan or credit card.
+     */
+    ACTIVE
+}
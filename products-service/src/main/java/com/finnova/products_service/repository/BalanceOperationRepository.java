@@ -0,0 +1,9 @@
+package com.finnova.products_service.repository;
+
+import com.finnova.products_service.model.entity.BalanceOperation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceOperationRepository extends ReactiveMongoRepository<BalanceOperation, String> {
+}
@@ -0,0 +1,51 @@
+package com.finnova.products_service.repository;
+
+import com.finnova.products_service.model.entity.PassiveProduct;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Atomic balance mutations for passive products.
+ * Each operation is a single conditional findAndModify: it either applies the change
+ * and returns the updated document, or completes empty when a guard does not hold.
+ * Every applied update also increments the optimistic locking version.
+ * <p>
+ * The updates carry no operation key. Keys live in the balance_operations collection and are
+ * recorded in the same transaction as the update by {@code PassiveBalanceMutationEngine},
+ * which applies a retried operation at most once.
+ */
+public interface PassiveProductBalanceOperations {
+
+    /**
+     * Credits an active account and increments its monthly transaction counter.
+     *
+     * @param id the product ID
+     * @param amount the amount to credit
+     * @param dayOfMonth the current day, checked against the fixed-term movement day
+     * @return Mono of the updated PassiveProduct, empty if the guard did not match
+     */
+    Mono<PassiveProduct> creditIfAllowed(String id, BigDecimal amount, int dayOfMonth);
+
+    /**
+     * Debits an active account while it is still within its fee-free monthly quota.
+     *
+     * @param id the product ID
+     * @param amount the amount to debit
+     * @param dayOfMonth the current day, checked against the fixed-term movement day
+     * @return Mono of the updated PassiveProduct, empty if the guard did not match
+     */
+    Mono<PassiveProduct> debitWithinFreeQuota(String id, BigDecimal amount, int dayOfMonth);
+
+    /**
+     * Debits an active account that has used up its fee-free quota, charging the given fee.
+     * The fee is part of the guard, so a concurrent fee change makes the update miss.
+     *
+     * @param id the product ID
+     * @param amount the amount to debit
+     * @param fee the fee per extra transaction currently configured, may be null
+     * @param dayOfMonth the current day, checked against the fixed-term movement day
+     * @return Mono of the updated PassiveProduct, empty if the guard did not match
+     */
+    Mono<PassiveProduct> debitBeyondFreeQuota(String id, BigDecimal amount, BigDecimal fee, int dayOfMonth);
+}
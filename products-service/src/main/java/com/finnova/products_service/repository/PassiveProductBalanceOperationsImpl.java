@@ -0,0 +1,81 @@
+package com.finnova.products_service.repository;
+
+import com.finnova.products_service.model.entity.PassiveProduct;
+import com.finnova.products_service.model.enums.PassiveProductType;
+import com.finnova.products_service.model.enums.ProductStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class PassiveProductBalanceOperationsImpl implements PassiveProductBalanceOperations {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<PassiveProduct> creditIfAllowed(String id, BigDecimal amount, int dayOfMonth) {
+        Query query = new Query(movableAccount(id, dayOfMonth));
+        return mongoTemplate.findAndModify(query, balanceChange(amount), RETURN_NEW, PassiveProduct.class);
+    }
+
+    @Override
+    public Mono<PassiveProduct> debitWithinFreeQuota(String id, BigDecimal amount, int dayOfMonth) {
+        Query query = new Query(movableAccount(id, dayOfMonth).and("balance").gte(amount))
+                .addCriteria(Criteria.expr(ComparisonOperators.valueOf("currentMonthTransactions")
+                        .lessThan(freeTransactionQuota())));
+        return mongoTemplate.findAndModify(query, balanceChange(amount.negate()), RETURN_NEW,
+                PassiveProduct.class);
+    }
+
+    @Override
+    public Mono<PassiveProduct> debitBeyondFreeQuota(String id, BigDecimal amount, BigDecimal fee,
+                                                     int dayOfMonth) {
+        BigDecimal total = fee == null ? amount : amount.add(fee);
+        Query query = new Query(movableAccount(id, dayOfMonth)
+                .and("balance").gte(total)
+                .and("feePerExtraTransaction").is(fee))
+                .addCriteria(Criteria.expr(ComparisonOperators.valueOf("currentMonthTransactions")
+                        .greaterThanEqualTo(freeTransactionQuota())));
+        return mongoTemplate.findAndModify(query, balanceChange(total.negate()), RETURN_NEW,
+                PassiveProduct.class);
+    }
+
+    /**
+     * Matches an active account that accepts movements today.
+     * Fixed-term accounts only move on their configured movement day.
+     */
+    private Criteria movableAccount(String id, int dayOfMonth) {
+        return Criteria.where("_id").is(id)
+                .and("status").is(ProductStatus.ACTIVE)
+                .orOperator(
+                        Criteria.where("productType").ne(PassiveProductType.FIXED_TERM),
+                        Criteria.where("movementDay").is(dayOfMonth));
+    }
+
+    /**
+     * Monthly fee-free quota, treating a missing limit as unlimited.
+     */
+    private AggregationExpression freeTransactionQuota() {
+        return ConditionalOperators.ifNull("maxTransactionsWithoutFee").then(Integer.MAX_VALUE);
+    }
+
+    private Update balanceChange(BigDecimal delta) {
+        return new Update()
+                .inc("balance", delta)
+                .inc("currentMonthTransactions", 1)
+                .inc("version", 1)
+                .set("updatedAt", LocalDateTime.now());
+    }
+}
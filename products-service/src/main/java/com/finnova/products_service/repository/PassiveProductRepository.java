@@ -8,7 +8,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface PassiveProductRepository extends ReactiveMongoRepository<PassiveProduct, String> {
+public interface PassiveProductRepository extends ReactiveMongoRepository<PassiveProduct, String>,
+        PassiveProductBalanceOperations {
 
     /**
      * Finds a passive product by account number.
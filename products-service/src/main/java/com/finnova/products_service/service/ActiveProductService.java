@@ -8,6 +8,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 public interface ActiveProductService {
 
@@ -44,6 +45,14 @@ public interface ActiveProductService {
      */
     Mono<ActiveProductDto> findById(String id);
 
+    /**
+     * Finds several active products by ID with one cache round trip and one query for the misses.
+     *
+     * @param ids the product IDs
+     * @return Flux of ActiveProductDto, unknown IDs are skipped
+     */
+    Flux<ActiveProductDto> findByIds(Collection<String> ids);
+
     /**
      * Finds all active products.
      *
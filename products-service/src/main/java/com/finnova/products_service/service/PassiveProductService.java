@@ -3,11 +3,13 @@ package com.finnova.products_service.service;
 import com.finnova.products_service.model.dto.BalanceDto;
 import com.finnova.products_service.model.dto.CreatePassiveProductRequest;
 import com.finnova.products_service.model.dto.PassiveProductDto;
+import com.finnova.products_service.model.dto.TransferResultDto;
 import com.finnova.products_service.model.dto.UpdatePassiveProductRequest;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 public interface PassiveProductService {
 
@@ -44,6 +46,14 @@ public interface PassiveProductService {
      */
     Mono<PassiveProductDto> findById(String id);
 
+    /**
+     * Finds several passive products by ID with one cache round trip and one query for the misses.
+     *
+     * @param ids the product IDs
+     * @return Flux of PassiveProductDto, unknown IDs are skipped
+     */
+    Flux<PassiveProductDto> findByIds(Collection<String> ids);
+
     /**
      * Finds all passive products.
      *
@@ -75,6 +85,14 @@ public interface PassiveProductService {
      */
     Mono<BalanceDto> getBalance(String id);
 
+    /**
+     * Gets balances of several passive products.
+     *
+     * @param ids the product IDs
+     * @return Flux of BalanceDto, unknown IDs are skipped
+     */
+    Flux<BalanceDto> getBalances(Collection<String> ids);
+
     /**
      * Deposits money into a passive product.
      *
@@ -84,6 +102,16 @@ public interface PassiveProductService {
      */
     Mono<PassiveProductDto> deposit(String id, BigDecimal amount);
 
+    /**
+     * Deposits money into a passive product at most once per operation key.
+     *
+     * @param id the product ID
+     * @param amount the amount to deposit
+     * @param operationId the operation key, null for an unkeyed deposit
+     * @return Mono of PassiveProductDto, the current product if the key was already applied
+     */
+    Mono<PassiveProductDto> deposit(String id, BigDecimal amount, String operationId);
+
     /**
      * Withdraws money from a passive product.
      *
@@ -93,6 +121,26 @@ public interface PassiveProductService {
      */
     Mono<PassiveProductDto> withdraw(String id, BigDecimal amount);
 
+    /**
+     * Withdraws money from a passive product at most once per operation key.
+     *
+     * @param id the product ID
+     * @param amount the amount to withdraw
+     * @param operationId the operation key, null for an unkeyed withdrawal
+     * @return Mono of PassiveProductDto, the current product if the key was already applied
+     */
+    Mono<PassiveProductDto> withdraw(String id, BigDecimal amount, String operationId);
+
+    /**
+     * Fences off a keyed operation: once fenced, a deposit or withdrawal with this key
+     * no longer moves money.
+     *
+     * @param id the product ID
+     * @param operationId the operation key
+     * @return Mono of true if the operation had already been applied, false if it is now fenced off
+     */
+    Mono<Boolean> fenceOperation(String id, String operationId);
+
     /**
      * Transfers money between passive products.
      *
@@ -102,4 +150,15 @@ public interface PassiveProductService {
      * @return Mono of Void
      */
     Mono<Void> transfer(String fromId, String toId, BigDecimal amount);
+
+    /**
+     * Transfers money between passive products atomically, at most once per operation key.
+     *
+     * @param fromId the source product ID
+     * @param toId the destination product ID
+     * @param amount the amount to transfer
+     * @param operationId the operation key, null for an unkeyed transfer
+     * @return Mono of TransferResultDto with both products after the transfer
+     */
+    Mono<TransferResultDto> transfer(String fromId, String toId, BigDecimal amount, String operationId);
 }
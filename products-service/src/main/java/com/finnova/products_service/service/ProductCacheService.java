@@ -2,8 +2,13 @@ package com.finnova.products_service.service;
 
 import com.finnova.products_service.model.entity.ActiveProduct;
 import com.finnova.products_service.model.entity.PassiveProduct;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 public interface ProductCacheService {
 
     /**
@@ -22,6 +27,27 @@ public interface ProductCacheService {
      */
     Mono<PassiveProduct> getPassiveProductFromCache(String productId);
 
+    /**
+     * Gets a passive product from cache, loading and caching it on a miss.
+     * Concurrent misses for the same product share a single load.
+     *
+     * @param productId the product ID
+     * @param loader loads the product from the database
+     * @return Mono of PassiveProduct, empty if the loader finds nothing
+     */
+    Mono<PassiveProduct> getOrLoadPassiveProduct(String productId, Supplier<Mono<PassiveProduct>> loader);
+
+    /**
+     * Gets several passive products from cache with a single Redis MGET,
+     * loading and caching all misses with a single loader call.
+     *
+     * @param productIds the product IDs
+     * @param loader loads the missing products from the database
+     * @return Flux of PassiveProduct, IDs the loader does not find are skipped
+     */
+    Flux<PassiveProduct> getOrLoadPassiveProducts(Collection<String> productIds,
+                                                  Function<Collection<String>, Flux<PassiveProduct>> loader);
+
     /**
      * Evicts a passive product from cache.
      *
@@ -46,6 +72,27 @@ public interface ProductCacheService {
      */
     Mono<ActiveProduct> getActiveProductFromCache(String productId);
 
+    /**
+     * Gets an active product from cache, loading and caching it on a miss.
+     * Concurrent misses for the same product share a single load.
+     *
+     * @param productId the product ID
+     * @param loader loads the product from the database
+     * @return Mono of ActiveProduct, empty if the loader finds nothing
+     */
+    Mono<ActiveProduct> getOrLoadActiveProduct(String productId, Supplier<Mono<ActiveProduct>> loader);
+
+    /**
+     * Gets several active products from cache with a single Redis MGET,
+     * loading and caching all misses with a single loader call.
+     *
+     * @param productIds the product IDs
+     * @param loader loads the missing products from the database
+     * @return Flux of ActiveProduct, IDs the loader does not find are skipped
+     */
+    Flux<ActiveProduct> getOrLoadActiveProducts(Collection<String> productIds,
+                                                Function<Collection<String>, Flux<ActiveProduct>> loader);
+
     /**
      * Evicts an active product from cache.
      *
@@ -0,0 +1,27 @@
+package com.finnova.products_service.service;
+
+import com.finnova.products_service.model.dto.ProductLookupDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ProductLookupService {
+
+    /**
+     * Finds a product of either category by ID.
+     *
+     * @param id the product ID
+     * @return Mono of ProductLookupDto, error if no product has this ID
+     */
+    Mono<ProductLookupDto> findById(String id);
+
+    /**
+     * Finds the products of either category with the given IDs.
+     * Unknown IDs are skipped.
+     *
+     * @param ids the product IDs
+     * @return Flux of ProductLookupDto, in no particular order
+     */
+    Flux<ProductLookupDto> findByIds(Collection<String> ids);
+}
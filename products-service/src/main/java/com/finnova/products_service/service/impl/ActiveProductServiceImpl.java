@@ -3,7 +3,9 @@ package com.finnova.products_service.service.impl;
 import com.finnova.products_service.client.CustomerClient;
 import com.finnova.products_service.client.dto.CustomerResponse;
 import com.finnova.products_service.event.model.ActiveProductCreatedEvent;
+import com.finnova.products_service.event.model.ActiveProductUpdatedEvent;
 import com.finnova.products_service.event.model.BalanceChangedEvent;
+import com.finnova.products_service.event.model.ProductDeletedEvent;
 import com.finnova.products_service.event.publisher.ProductEventPublisher;
 import com.finnova.products_service.exception.InvalidProductOperationException;
 import com.finnova.products_service.exception.ProductNotFoundException;
@@ -26,6 +28,7 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.UUID;
 
 @Service
@@ -37,6 +40,7 @@ public class ActiveProductServiceImpl implements ActiveProductService {
     private final ProductCacheService cacheService;
     private final CustomerClient customerClient;
     private final ProductEventPublisher eventPublisher;
+    private final OptimisticLockRetrySupport optimisticLockRetry;
 
     @Override
     public Mono<ActiveProductDto> createActiveProduct(CreateActiveProductRequest request) {
@@ -128,8 +132,25 @@ public class ActiveProductServiceImpl implements ActiveProductService {
 
                     return activeProductRepository.save(existingProduct);
                 })
+                .retryWhen(optimisticLockRetry.forProduct(id, "update"))
                 .flatMap(updatedProduct -> cacheService.cacheActiveProduct(updatedProduct)
                         .then(Mono.just(updatedProduct)))
+                .flatMap(updatedProduct -> {
+                    ActiveProductUpdatedEvent event = ActiveProductUpdatedEvent.builder()
+                            .productId(updatedProduct.getId())
+                            .creditNumber(updatedProduct.getCreditNumber())
+                            .customerId(updatedProduct.getCustomerId())
+                            .creditLimit(updatedProduct.getCreditLimit())
+                            .availableCredit(updatedProduct.getAvailableCredit())
+                            .outstandingBalance(updatedProduct.getOutstandingBalance())
+                            .status(updatedProduct.getStatus())
+                            .hasOverdueDebt(updatedProduct.getHasOverdueDebt())
+                            .timestamp(LocalDateTime.now())
+                            .build();
+
+                    return eventPublisher.publishActiveProductUpdatedEvent(event)
+                            .then(Mono.just(updatedProduct));
+                })
                 .map(activeProductMapper::toDto)
                 .doOnSuccess(dto -> log.info("Active product updated successfully: {}", id))
                 .doOnError(e -> log.error("Error updating active product: {}", e.getMessage()));
@@ -148,7 +169,13 @@ public class ActiveProductServiceImpl implements ActiveProductService {
                                 "Cannot delete product with outstanding balance"));
                     }
                     return cacheService.evictActiveProductFromCache(id)
-                            .then(activeProductRepository.delete(product));
+                            .then(activeProductRepository.delete(product))
+                            .then(eventPublisher.publishActiveProductDeletedEvent(ProductDeletedEvent.builder()
+                                    .productId(product.getId())
+                                    .productNumber(product.getCreditNumber())
+                                    .customerId(product.getCustomerId())
+                                    .timestamp(LocalDateTime.now())
+                                    .build()));
                 })
                 .doOnSuccess(v -> log.info("Active product deleted successfully: {}", id))
                 .doOnError(e -> log.error("Error deleting active product: {}", e.getMessage()));
@@ -158,17 +185,20 @@ public class ActiveProductServiceImpl implements ActiveProductService {
     public Mono<ActiveProductDto> findById(String id) {
         log.debug("Finding active product by ID: {}", id);
 
-        return cacheService.getActiveProductFromCache(id)
-                .switchIfEmpty(
-                        activeProductRepository.findById(id)
-                                .flatMap(product -> cacheService.cacheActiveProduct(product)
-                                        .then(Mono.just(product)))
-                )
+        return cacheService.getOrLoadActiveProduct(id, () -> activeProductRepository.findById(id))
                 .map(activeProductMapper::toDto)
                 .switchIfEmpty(Mono.error(new ProductNotFoundException(
                         "Active product not found with ID: " + id)));
     }
 
+    @Override
+    public Flux<ActiveProductDto> findByIds(Collection<String> ids) {
+        log.debug("Finding {} active products by ID", ids.size());
+
+        return cacheService.getOrLoadActiveProducts(ids, activeProductRepository::findAllById)
+                .map(activeProductMapper::toDto);
+    }
+
     @Override
     public Flux<ActiveProductDto> findAll() {
         log.debug("Finding all active products");
@@ -248,6 +278,7 @@ public class ActiveProductServiceImpl implements ActiveProductService {
                             .flatMap(updatedProduct -> {
                                 // Publish balance changed event
                                 BalanceChangedEvent event = BalanceChangedEvent.builder()
+                                        .eventId(UUID.randomUUID().toString())
                                         .productId(updatedProduct.getId())
                                         .productNumber(updatedProduct.getCreditNumber())
                                         .customerId(updatedProduct.getCustomerId())
@@ -263,6 +294,7 @@ public class ActiveProductServiceImpl implements ActiveProductService {
                                         .then(Mono.just(updatedProduct));
                             });
                 })
+                .retryWhen(optimisticLockRetry.forProduct(id, "charge"))
                 .flatMap(updatedProduct -> cacheService.cacheActiveProduct(updatedProduct)
                         .then(Mono.just(updatedProduct)))
                 .map(activeProductMapper::toDto)
@@ -331,6 +363,7 @@ public class ActiveProductServiceImpl implements ActiveProductService {
                             .flatMap(updatedProduct -> {
                                 // Publish balance changed event
                                 BalanceChangedEvent event = BalanceChangedEvent.builder()
+                                        .eventId(UUID.randomUUID().toString())
                                         .productId(updatedProduct.getId())
                                         .productNumber(updatedProduct.getCreditNumber())
                                         .customerId(updatedProduct.getCustomerId())
@@ -346,6 +379,7 @@ public class ActiveProductServiceImpl implements ActiveProductService {
                                         .then(Mono.just(updatedProduct));
                             });
                 })
+                .retryWhen(optimisticLockRetry.forProduct(id, "payment"))
                 .flatMap(updatedProduct -> cacheService.cacheActiveProduct(updatedProduct)
                         .then(Mono.just(updatedProduct)))
                 .map(activeProductMapper::toDto)
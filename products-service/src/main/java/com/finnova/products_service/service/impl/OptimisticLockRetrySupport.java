@@ -0,0 +1,74 @@
+package com.finnova.products_service.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Builds jittered, bounded retry specs for read-modify-write operations that may
+ * lose an optimistic locking race, and records conflicts per product.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetrySupport {
+
+    public static final String CONFLICTS_METRIC = "products.optimistic-lock.conflicts";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+
+    public OptimisticLockRetrySupport(
+            MeterRegistry meterRegistry,
+            @Value("${products.optimistic-lock.max-retries:5}") int maxRetries,
+            @Value("${products.optimistic-lock.min-backoff-ms:5}") long minBackoffMs,
+            @Value("${products.optimistic-lock.max-backoff-ms:200}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.minBackoff = Duration.ofMillis(minBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+    }
+
+    /**
+     * Creates a retry spec for an operation on a single product.
+     * Only OptimisticLockingFailureException is retried; the upstream must re-read the
+     * document on resubscription.
+     *
+     * @param productId the product ID
+     * @param operation the operation name, used as metric tag
+     * @return the retry spec
+     */
+    public Retry forProduct(String productId, String operation) {
+        return Retry.backoff(maxRetries, minBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(0.5)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .doBeforeRetry(signal -> {
+                    conflictCounter(productId, operation, "retried").increment();
+                    log.warn("Optimistic lock conflict on product {} during {}, retry {}",
+                            productId, operation, signal.totalRetries() + 1);
+                })
+                .onRetryExhaustedThrow((spec, signal) -> {
+                    conflictCounter(productId, operation, "exhausted").increment();
+                    log.error("Optimistic lock retries exhausted on product {} during {}",
+                            productId, operation);
+                    return signal.failure();
+                });
+    }
+
+    private Counter conflictCounter(String productId, String operation, String outcome) {
+        return Counter.builder(CONFLICTS_METRIC)
+                .description("Optimistic locking conflicts on product writes")
+                .tag("product.id", productId)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
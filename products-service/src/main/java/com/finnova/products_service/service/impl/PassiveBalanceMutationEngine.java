@@ -0,0 +1,318 @@
+package com.finnova.products_service.service.impl;
+
+import com.finnova.products_service.exception.InsufficientBalanceException;
+import com.finnova.products_service.exception.InvalidProductOperationException;
+import com.finnova.products_service.exception.ProductNotFoundException;
+import com.finnova.products_service.model.entity.BalanceOperation;
+import com.finnova.products_service.model.entity.PassiveProduct;
+import com.finnova.products_service.model.enums.PassiveProductType;
+import com.finnova.products_service.model.enums.ProductStatus;
+import com.finnova.products_service.repository.BalanceOperationRepository;
+import com.finnova.products_service.repository.PassiveProductRepository;
+import com.mongodb.MongoException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Applies deposits and withdrawals to passive products with conditional atomic updates.
+ * The happy path is a single findAndModify; the product is only read when a guard
+ * rejects the update, to report the reason or to charge the extra-transaction fee.
+ * Keyed mutations are applied at most once per operation key: the key is recorded in the
+ * balance_operations collection in the same transaction as the balance change, and repeating
+ * one returns the current product flagged as a replay. Transfers apply both sides in one
+ * transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PassiveBalanceMutationEngine {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration TRANSACTION_RETRY_BACKOFF = Duration.ofMillis(5);
+
+    private final PassiveProductRepository passiveProductRepository;
+    private final BalanceOperationRepository balanceOperationRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Result of an applied balance mutation.
+     *
+     * @param product the product after the update
+     * @param previousBalance the balance right before the update
+     * @param amount the total amount moved, including fees
+     * @param fee the extra-transaction fee charged, zero if none
+     * @param replayed true if the operation key had already been applied and nothing changed
+     */
+    public record BalanceMutation(PassiveProduct product, BigDecimal previousBalance,
+                                  BigDecimal amount, BigDecimal fee, boolean replayed) {
+    }
+
+    /**
+     * Result of an applied transfer.
+     *
+     * @param debit the withdrawal from the source product
+     * @param credit the deposit into the destination product
+     */
+    public record TransferMutation(BalanceMutation debit, BalanceMutation credit) {
+    }
+
+    /**
+     * Deposits an amount into a passive product.
+     *
+     * @param id the product ID
+     * @param amount the amount to deposit
+     * @return Mono of BalanceMutation
+     */
+    public Mono<BalanceMutation> deposit(String id, BigDecimal amount) {
+        return deposit(id, amount, null);
+    }
+
+    /**
+     * Deposits an amount into a passive product at most once per operation key.
+     *
+     * @param id the product ID
+     * @param amount the amount to deposit
+     * @param operationId the operation key, null for an unkeyed deposit
+     * @return Mono of BalanceMutation
+     */
+    public Mono<BalanceMutation> deposit(String id, BigDecimal amount, String operationId) {
+        if (operationId == null) {
+            return depositAttempt(id, amount, 1);
+        }
+        return inTransaction(id, applyOnce(id, operationId, () -> depositAttempt(id, amount, 1)));
+    }
+
+    /**
+     * Withdraws an amount from a passive product, charging the extra-transaction fee
+     * once the monthly fee-free quota is used up.
+     *
+     * @param id the product ID
+     * @param amount the amount to withdraw
+     * @return Mono of BalanceMutation
+     */
+    public Mono<BalanceMutation> withdraw(String id, BigDecimal amount) {
+        return withdraw(id, amount, null);
+    }
+
+    /**
+     * Withdraws an amount from a passive product at most once per operation key.
+     *
+     * @param id the product ID
+     * @param amount the amount to withdraw
+     * @param operationId the operation key, null for an unkeyed withdrawal
+     * @return Mono of BalanceMutation
+     */
+    public Mono<BalanceMutation> withdraw(String id, BigDecimal amount, String operationId) {
+        if (operationId == null) {
+            return withdrawAttempt(id, amount, 1);
+        }
+        return inTransaction(id, applyOnce(id, operationId, () -> withdrawAttempt(id, amount, 1)));
+    }
+
+    /**
+     * Moves an amount between two passive products in one multi-document transaction:
+     * either both balances change or neither does. The withdrawal follows the same rules
+     * and fees as {@link #withdraw(String, BigDecimal, String)}.
+     *
+     * @param fromId the source product ID
+     * @param toId the destination product ID
+     * @param amount the amount to transfer
+     * @param operationId the operation key recorded on both products, null for an unkeyed transfer
+     * @return Mono of TransferMutation
+     */
+    public Mono<TransferMutation> transfer(String fromId, String toId, BigDecimal amount, String operationId) {
+        Mono<TransferMutation> transfer = applyOnce(fromId, operationId, () -> withdrawAttempt(fromId, amount, 1))
+                .flatMap(debit -> applyOnce(toId, operationId, () -> depositAttempt(toId, amount, 1))
+                        .flatMap(credit -> debit.replayed() == credit.replayed()
+                                ? Mono.just(new TransferMutation(debit, credit))
+                                // The key was recorded on the source alone, i.e. the transfer was fenced off
+                                : Mono.<TransferMutation>error(new InvalidProductOperationException(
+                                        "Transfer " + operationId + " can no longer be applied"))));
+
+        return inTransaction(fromId, transfer);
+    }
+
+    /**
+     * Records an operation key on a product without moving money, so the keyed operation
+     * can no longer be applied.
+     *
+     * @param id the product ID
+     * @param operationId the operation key
+     * @return Mono of true if the key was already recorded, by the operation or an earlier fence,
+     *         false if the operation is now fenced off, empty if the product does not exist
+     */
+    public Mono<Boolean> fence(String id, String operationId) {
+        return passiveProductRepository.existsById(id)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> balanceOperationRepository.insert(BalanceOperation.of(id, operationId))
+                        .thenReturn(false)
+                        .onErrorResume(DuplicateKeyException.class, e -> Mono.just(true)));
+    }
+
+    private Mono<BalanceMutation> depositAttempt(String id, BigDecimal amount, int attempt) {
+        return passiveProductRepository.creditIfAllowed(id, amount, today())
+                .map(updated -> new BalanceMutation(updated, updated.getBalance().subtract(amount),
+                        amount, BigDecimal.ZERO, false))
+                .switchIfEmpty(Mono.defer(() -> findProduct(id)
+                        .flatMap(product -> {
+                            if (product.getStatus() != ProductStatus.ACTIVE) {
+                                return Mono.error(new InvalidProductOperationException(
+                                        "Product is not active"));
+                            }
+                            if (!canMoveToday(product)) {
+                                return Mono.error(new InvalidProductOperationException(
+                                        "Fixed-term account can only accept deposits on day " +
+                                                product.getMovementDay()));
+                            }
+                            // The guard missed a concurrent change that has since been reverted
+                            return retry(id, attempt, () -> depositAttempt(id, amount, attempt + 1));
+                        })));
+    }
+
+    private Mono<BalanceMutation> withdrawAttempt(String id, BigDecimal amount, int attempt) {
+        return passiveProductRepository.debitWithinFreeQuota(id, amount, today())
+                .map(updated -> new BalanceMutation(updated, updated.getBalance().add(amount),
+                        amount, BigDecimal.ZERO, false))
+                .switchIfEmpty(Mono.defer(() -> findProduct(id)
+                        .flatMap(product -> withdrawBeyondFreeQuota(product, amount, attempt))));
+    }
+
+    private Mono<BalanceMutation> withdrawBeyondFreeQuota(PassiveProduct product, BigDecimal amount, int attempt) {
+        String id = product.getId();
+
+        if (product.getStatus() != ProductStatus.ACTIVE) {
+            return Mono.error(new InvalidProductOperationException("Product is not active"));
+        }
+
+        if (product.getBalance().compareTo(amount) < 0) {
+            return Mono.error(new InsufficientBalanceException(
+                    "Insufficient balance. Available: " + product.getBalance()));
+        }
+
+        if (!canMoveToday(product)) {
+            return Mono.error(new InvalidProductOperationException(
+                    "Fixed-term account can only accept withdrawals on day " + product.getMovementDay()));
+        }
+
+        if (isWithinFreeQuota(product)) {
+            // Lost a race against a concurrent update, the free path may succeed now
+            return retry(id, attempt, () -> withdrawAttempt(id, amount, attempt + 1));
+        }
+
+        BigDecimal fee = product.getFeePerExtraTransaction();
+        BigDecimal totalAmount = fee == null ? amount : amount.add(fee);
+
+        if (product.getBalance().compareTo(totalAmount) < 0) {
+            return Mono.error(new InsufficientBalanceException(
+                    "Insufficient balance including fees. Required: " + totalAmount));
+        }
+
+        return passiveProductRepository.debitBeyondFreeQuota(id, amount, fee, today())
+                .map(updated -> {
+                    if (fee != null) {
+                        log.info("Extra transaction fee applied: {}", fee);
+                    }
+                    return new BalanceMutation(updated, updated.getBalance().add(totalAmount),
+                            totalAmount, fee == null ? BigDecimal.ZERO : fee, false);
+                })
+                .switchIfEmpty(Mono.defer(() ->
+                        retry(id, attempt, () -> withdrawAttempt(id, amount, attempt + 1))));
+    }
+
+    /**
+     * Runs a keyed mutation unless its key is already recorded for the product, recording the key
+     * in the caller's transaction. A failed mutation rolls the key back with it. A concurrent
+     * attempt recording the same key makes the transaction fail, and its retry replays.
+     */
+    private Mono<BalanceMutation> applyOnce(String id, String operationId,
+                                            Supplier<Mono<BalanceMutation>> mutation) {
+        if (operationId == null) {
+            return Mono.defer(mutation);
+        }
+        return balanceOperationRepository.existsById(BalanceOperation.idOf(id, operationId))
+                .flatMap(applied -> applied
+                        ? findProduct(id).map(this::replay)
+                        : balanceOperationRepository.insert(BalanceOperation.of(id, operationId))
+                                .then(Mono.defer(mutation)));
+    }
+
+    private BalanceMutation replay(PassiveProduct product) {
+        log.info("Balance operation on product {} was already applied, replaying", product.getId());
+        return new BalanceMutation(product, product.getBalance(), BigDecimal.ZERO, BigDecimal.ZERO, true);
+    }
+
+    private Mono<PassiveProduct> findProduct(String id) {
+        return passiveProductRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ProductNotFoundException(
+                        "Passive product not found with ID: " + id)));
+    }
+
+    private <T> Mono<T> inTransaction(String id, Mono<T> body) {
+        return transactionalOperator.transactional(body)
+                .retryWhen(Retry.backoff(MAX_ATTEMPTS - 1, TRANSACTION_RETRY_BACKOFF)
+                        .jitter(0.5)
+                        .filter(this::isRetryableTransactionError)
+                        .doBeforeRetry(signal -> log.debug("Balance operation on product {} hit a write conflict, "
+                                + "retry {}", id, signal.totalRetries() + 1))
+                        .onRetryExhaustedThrow((spec, signal) -> new InvalidProductOperationException(
+                                "Balance of product " + id + " is under heavy concurrent modification, "
+                                        + "please retry")));
+    }
+
+    private Mono<BalanceMutation> retry(String id, int attempt, Supplier<Mono<BalanceMutation>> nextAttempt) {
+        if (attempt >= MAX_ATTEMPTS) {
+            return Mono.error(new InvalidProductOperationException(
+                    "Balance of product " + id + " is under heavy concurrent modification, please retry"));
+        }
+        log.debug("Conditional balance update on product {} lost a race, attempt {}", id, attempt + 1);
+        return nextAttempt.get();
+    }
+
+    /**
+     * A transaction aborted by a write conflict with a concurrent update can be retried as a whole,
+     * as can one whose operation key was recorded by a concurrent attempt: the retry replays it.
+     */
+    private boolean isRetryableTransactionError(Throwable error) {
+        if (error instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isWithinFreeQuota(PassiveProduct product) {
+        Integer maxTransactions = product.getMaxTransactionsWithoutFee();
+        int currentTransactions = product.getCurrentMonthTransactions() == null
+                ? 0 : product.getCurrentMonthTransactions();
+        return maxTransactions == null || currentTransactions < maxTransactions;
+    }
+
+    /**
+     * Checks if a fixed-term transaction can be performed today.
+     */
+    private boolean canMoveToday(PassiveProduct product) {
+        if (product.getProductType() != PassiveProductType.FIXED_TERM) {
+            return true;
+        }
+        return product.getMovementDay() != null && product.getMovementDay() == today();
+    }
+
+    private int today() {
+        return LocalDateTime.now().getDayOfMonth();
+    }
+}
@@ -4,14 +4,16 @@ import com.finnova.products_service.client.CustomerClient;
 import com.finnova.products_service.client.dto.CustomerResponse;
 import com.finnova.products_service.event.model.BalanceChangedEvent;
 import com.finnova.products_service.event.model.PassiveProductCreatedEvent;
+import com.finnova.products_service.event.model.PassiveProductUpdatedEvent;
+import com.finnova.products_service.event.model.ProductDeletedEvent;
 import com.finnova.products_service.event.publisher.ProductEventPublisher;
-import com.finnova.products_service.exception.InsufficientBalanceException;
 import com.finnova.products_service.exception.InvalidProductOperationException;
 import com.finnova.products_service.exception.ProductNotFoundException;
 import com.finnova.products_service.mapper.PassiveProductMapper;
 import com.finnova.products_service.model.dto.BalanceDto;
 import com.finnova.products_service.model.dto.CreatePassiveProductRequest;
 import com.finnova.products_service.model.dto.PassiveProductDto;
+import com.finnova.products_service.model.dto.TransferResultDto;
 import com.finnova.products_service.model.dto.UpdatePassiveProductRequest;
 import com.finnova.products_service.model.entity.PassiveProduct;
 import com.finnova.products_service.model.enums.PassiveProductType;
@@ -27,6 +29,7 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.UUID;
 
 @Service
@@ -39,6 +42,8 @@ public class PassiveProductServiceImpl implements PassiveProductService {
     private final ProductCacheService cacheService;
     private final CustomerClient customerClient;
     private final ProductEventPublisher eventPublisher;
+    private final PassiveBalanceMutationEngine balanceMutationEngine;
+    private final OptimisticLockRetrySupport optimisticLockRetry;
 
     @Override
     public Mono<PassiveProductDto> createPassiveProduct(CreatePassiveProductRequest request) {
@@ -77,6 +82,8 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                             .customerId(savedProduct.getCustomerId())
                             .productType(savedProduct.getProductType())
                             .balance(savedProduct.getBalance())
+                            .maxTransactionsWithoutFee(savedProduct.getMaxTransactionsWithoutFee())
+                            .minimumDailyAverage(savedProduct.getMinimumDailyAverage())
                             .currency(savedProduct.getCurrency())
                             .timestamp(LocalDateTime.now())
                             .build();
@@ -122,8 +129,24 @@ public class PassiveProductServiceImpl implements PassiveProductService {
 
                     return passiveProductRepository.save(existingProduct);
                 })
+                .retryWhen(optimisticLockRetry.forProduct(id, "update"))
                 .flatMap(updatedProduct -> cacheService.cachePassiveProduct(updatedProduct)
                         .then(Mono.just(updatedProduct)))
+                .flatMap(updatedProduct -> {
+                    PassiveProductUpdatedEvent event = PassiveProductUpdatedEvent.builder()
+                            .productId(updatedProduct.getId())
+                            .accountNumber(updatedProduct.getAccountNumber())
+                            .customerId(updatedProduct.getCustomerId())
+                            .balance(updatedProduct.getBalance())
+                            .maxTransactionsWithoutFee(updatedProduct.getMaxTransactionsWithoutFee())
+                            .minimumDailyAverage(updatedProduct.getMinimumDailyAverage())
+                            .status(updatedProduct.getStatus())
+                            .timestamp(LocalDateTime.now())
+                            .build();
+
+                    return eventPublisher.publishPassiveProductUpdatedEvent(event)
+                            .then(Mono.just(updatedProduct));
+                })
                 .map(passiveProductMapper::toDto)
                 .doOnSuccess(dto -> log.info("Passive product updated successfully: {}", id))
                 .doOnError(e -> log.error("Error updating passive product: {}", e.getMessage()));
@@ -142,7 +165,13 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                                 "Cannot delete product with balance greater than zero"));
                     }
                     return cacheService.evictPassiveProductFromCache(id)
-                            .then(passiveProductRepository.delete(product));
+                            .then(passiveProductRepository.delete(product))
+                            .then(eventPublisher.publishPassiveProductDeletedEvent(ProductDeletedEvent.builder()
+                                    .productId(product.getId())
+                                    .productNumber(product.getAccountNumber())
+                                    .customerId(product.getCustomerId())
+                                    .timestamp(LocalDateTime.now())
+                                    .build()));
                 })
                 .doOnSuccess(v -> log.info("Passive product deleted successfully: {}", id))
                 .doOnError(e -> log.error("Error deleting passive product: {}", e.getMessage()));
@@ -152,17 +181,20 @@ public class PassiveProductServiceImpl implements PassiveProductService {
     public Mono<PassiveProductDto> findById(String id) {
         log.debug("Finding passive product by ID: {}", id);
 
-        return cacheService.getPassiveProductFromCache(id)
-                .switchIfEmpty(
-                        passiveProductRepository.findById(id)
-                                .flatMap(product -> cacheService.cachePassiveProduct(product)
-                                        .then(Mono.just(product)))
-                )
+        return cacheService.getOrLoadPassiveProduct(id, () -> passiveProductRepository.findById(id))
                 .map(passiveProductMapper::toDto)
                 .switchIfEmpty(Mono.error(new ProductNotFoundException(
                         "Passive product not found with ID: " + id)));
     }
 
+    @Override
+    public Flux<PassiveProductDto> findByIds(Collection<String> ids) {
+        log.debug("Finding {} passive products by ID", ids.size());
+
+        return cacheService.getOrLoadPassiveProducts(ids, passiveProductRepository::findAllById)
+                .map(passiveProductMapper::toDto);
+    }
+
     @Override
     public Flux<PassiveProductDto> findAll() {
         log.debug("Finding all passive products");
@@ -199,8 +231,26 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                         .build());
     }
 
+    @Override
+    public Flux<BalanceDto> getBalances(Collection<String> ids) {
+        log.debug("Getting balances for {} passive products", ids.size());
+
+        return findByIds(ids)
+                .map(product -> BalanceDto.builder()
+                        .productId(product.getId())
+                        .balance(product.getBalance())
+                        .currency(product.getCurrency())
+                        .availableBalance(product.getBalance())
+                        .build());
+    }
+
     @Override
     public Mono<PassiveProductDto> deposit(String id, BigDecimal amount) {
+        return deposit(id, amount, null);
+    }
+
+    @Override
+    public Mono<PassiveProductDto> deposit(String id, BigDecimal amount, String operationId) {
         log.info("Depositing {} to passive product: {}", amount, id);
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -208,48 +258,8 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                     "Deposit amount must be positive"));
         }
 
-        return passiveProductRepository.findById(id)
-                .switchIfEmpty(Mono.error(new ProductNotFoundException(
-                        "Passive product not found with ID: " + id)))
-                .flatMap(product -> {
-                    if (product.getStatus() != ProductStatus.ACTIVE) {
-                        return Mono.error(new InvalidProductOperationException(
-                                "Product is not active"));
-                    }
-
-                    // Validate fixed-term deposit rules
-                    if (product.getProductType() == PassiveProductType.FIXED_TERM) {
-                        if (!canPerformFixedTermTransaction(product)) {
-                            return Mono.error(new InvalidProductOperationException(
-                                    "Fixed-term account can only accept deposits on day " +
-                                            product.getMovementDay()));
-                        }
-                    }
-
-                    BigDecimal previousBalance = product.getBalance();
-                    product.setBalance(product.getBalance().add(amount));
-                    product.setCurrentMonthTransactions(product.getCurrentMonthTransactions() + 1);
-                    product.setUpdatedAt(LocalDateTime.now());
-
-                    return passiveProductRepository.save(product)
-                            .flatMap(updatedProduct -> {
-                                // Publish balance changed event
-                                BalanceChangedEvent event = BalanceChangedEvent.builder()
-                                        .productId(updatedProduct.getId())
-                                        .productNumber(updatedProduct.getAccountNumber())
-                                        .customerId(updatedProduct.getCustomerId())
-                                        .operationType("DEPOSIT")
-                                        .previousBalance(previousBalance)
-                                        .newBalance(updatedProduct.getBalance())
-                                        .amount(amount)
-                                        .description("Deposit to account")
-                                        .timestamp(LocalDateTime.now())
-                                        .build();
-
-                                return eventPublisher.publishBalanceChangedEvent(event)
-                                        .then(Mono.just(updatedProduct));
-                            });
-                })
+        return balanceMutationEngine.deposit(id, amount, operationId)
+                .flatMap(mutation -> publishBalanceChanged(mutation, "DEPOSIT", "Deposit to account"))
                 .flatMap(updatedProduct -> cacheService.cachePassiveProduct(updatedProduct)
                         .then(Mono.just(updatedProduct)))
                 .map(passiveProductMapper::toDto)
@@ -259,6 +269,11 @@ public class PassiveProductServiceImpl implements PassiveProductService {
 
     @Override
     public Mono<PassiveProductDto> withdraw(String id, BigDecimal amount) {
+        return withdraw(id, amount, null);
+    }
+
+    @Override
+    public Mono<PassiveProductDto> withdraw(String id, BigDecimal amount, String operationId) {
         log.info("Withdrawing {} from passive product: {}", amount, id);
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -266,69 +281,8 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                     "Withdrawal amount must be positive"));
         }
 
-        return passiveProductRepository.findById(id)
-                .switchIfEmpty(Mono.error(new ProductNotFoundException(
-                        "Passive product not found with ID: " + id)))
-                .flatMap(product -> {
-                    if (product.getStatus() != ProductStatus.ACTIVE) {
-                        return Mono.error(new InvalidProductOperationException(
-                                "Product is not active"));
-                    }
-
-                    // Check balance
-                    if (product.getBalance().compareTo(amount) < 0) {
-                        return Mono.error(new InsufficientBalanceException(
-                                "Insufficient balance. Available: " + product.getBalance()));
-                    }
-
-                    // Validate fixed-term withdrawal rules
-                    if (product.getProductType() == PassiveProductType.FIXED_TERM) {
-                        if (!canPerformFixedTermTransaction(product)) {
-                            return Mono.error(new InvalidProductOperationException(
-                                    "Fixed-term account can only accept withdrawals on day " +
-                                            product.getMovementDay()));
-                        }
-                    }
-
-                    // Calculate fees for extra transactions
-                    BigDecimal totalAmount = amount;
-                    if (product.getCurrentMonthTransactions() >= product.getMaxTransactionsWithoutFee() &&
-                            product.getFeePerExtraTransaction() != null) {
-                        totalAmount = totalAmount.add(product.getFeePerExtraTransaction());
-                        log.info("Extra transaction fee applied: {}", product.getFeePerExtraTransaction());
-                    }
-
-                    if (product.getBalance().compareTo(totalAmount) < 0) {
-                        return Mono.error(new InsufficientBalanceException(
-                                "Insufficient balance including fees. Required: " + totalAmount));
-                    }
-
-                    BigDecimal previousBalance = product.getBalance();
-                    product.setBalance(product.getBalance().subtract(totalAmount));
-                    product.setCurrentMonthTransactions(product.getCurrentMonthTransactions() + 1);
-                    product.setUpdatedAt(LocalDateTime.now());
-
-                    BigDecimal totalAmountEvent = totalAmount;
-
-                    return passiveProductRepository.save(product)
-                            .flatMap(updatedProduct -> {
-                                // Publish balance changed event
-                                BalanceChangedEvent event = BalanceChangedEvent.builder()
-                                        .productId(updatedProduct.getId())
-                                        .productNumber(updatedProduct.getAccountNumber())
-                                        .customerId(updatedProduct.getCustomerId())
-                                        .operationType("WITHDRAWAL")
-                                        .previousBalance(previousBalance)
-                                        .newBalance(updatedProduct.getBalance())
-                                        .amount(totalAmountEvent)
-                                        .description("Withdrawal from account")
-                                        .timestamp(LocalDateTime.now())
-                                        .build();
-
-                                return eventPublisher.publishBalanceChangedEvent(event)
-                                        .then(Mono.just(updatedProduct));
-                            });
-                })
+        return balanceMutationEngine.withdraw(id, amount, operationId)
+                .flatMap(mutation -> publishBalanceChanged(mutation, "WITHDRAWAL", "Withdrawal from account"))
                 .flatMap(updatedProduct -> cacheService.cachePassiveProduct(updatedProduct)
                         .then(Mono.just(updatedProduct)))
                 .map(passiveProductMapper::toDto)
@@ -336,8 +290,22 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                 .doOnError(e -> log.error("Error withdrawing from product: {}", e.getMessage()));
     }
 
+    @Override
+    public Mono<Boolean> fenceOperation(String id, String operationId) {
+        log.info("Fencing operation {} on passive product: {}", operationId, id);
+
+        return balanceMutationEngine.fence(id, operationId)
+                .switchIfEmpty(Mono.error(new ProductNotFoundException(
+                        "Passive product not found with ID: " + id)));
+    }
+
     @Override
     public Mono<Void> transfer(String fromId, String toId, BigDecimal amount) {
+        return transfer(fromId, toId, amount, null).then();
+    }
+
+    @Override
+    public Mono<TransferResultDto> transfer(String fromId, String toId, BigDecimal amount, String operationId) {
         log.info("Transferring {} from {} to {}", amount, fromId, toId);
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -345,13 +313,51 @@ public class PassiveProductServiceImpl implements PassiveProductService {
                     "Transfer amount must be positive"));
         }
 
-        return withdraw(fromId, amount)
-                .then(deposit(toId, amount))
-                .then()
-                .doOnSuccess(v -> log.info("Transfer successful from {} to {}", fromId, toId))
+        if (fromId.equals(toId)) {
+            return Mono.error(new InvalidProductOperationException(
+                    "Cannot transfer to the same account"));
+        }
+
+        return balanceMutationEngine.transfer(fromId, toId, amount, operationId)
+                .flatMap(transfer -> Mono.zip(
+                        publishBalanceChanged(transfer.debit(), "WITHDRAWAL", "Transfer to account " + toId),
+                        publishBalanceChanged(transfer.credit(), "DEPOSIT", "Transfer from account " + fromId)))
+                .flatMap(products -> cacheService.cachePassiveProduct(products.getT1())
+                        .then(cacheService.cachePassiveProduct(products.getT2()))
+                        .thenReturn(TransferResultDto.builder()
+                                .source(passiveProductMapper.toDto(products.getT1()))
+                                .destination(passiveProductMapper.toDto(products.getT2()))
+                                .build()))
+                .doOnSuccess(result -> log.info("Transfer successful from {} to {}", fromId, toId))
                 .doOnError(e -> log.error("Error during transfer: {}", e.getMessage()));
     }
 
+    /**
+     * Publishes the balance changed event for an applied mutation; a replayed one was published already.
+     */
+    private Mono<PassiveProduct> publishBalanceChanged(PassiveBalanceMutationEngine.BalanceMutation mutation,
+                                                       String operationType, String description) {
+        PassiveProduct updatedProduct = mutation.product();
+        if (mutation.replayed()) {
+            return Mono.just(updatedProduct);
+        }
+        BalanceChangedEvent event = BalanceChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .productId(updatedProduct.getId())
+                .productNumber(updatedProduct.getAccountNumber())
+                .customerId(updatedProduct.getCustomerId())
+                .operationType(operationType)
+                .previousBalance(mutation.previousBalance())
+                .newBalance(updatedProduct.getBalance())
+                .amount(mutation.amount())
+                .description(description)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return eventPublisher.publishBalanceChangedEvent(event)
+                .then(Mono.just(updatedProduct));
+    }
+
     /**
      * Validates product creation based on customer type and business rules.
      */
@@ -443,17 +449,6 @@ public class PassiveProductServiceImpl implements PassiveProductService {
         }
     }
 
-    /**
-     * Checks if a fixed-term transaction can be performed today.
-     */
-    private boolean canPerformFixedTermTransaction(PassiveProduct product) {
-        if (product.getMovementDay() == null) {
-            return false;
-        }
-        int today = LocalDateTime.now().getDayOfMonth();
-        return today == product.getMovementDay();
-    }
-
     /**
      * Generates a unique account number.
      */
@@ -1,66 +1,149 @@
 package com.finnova.products_service.service.impl;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.cache_support.CacheStampedeProtection;
+import com.finnova.cache_support.codec.VersionedCacheCodec;
 import com.finnova.products_service.model.entity.ActiveProduct;
 import com.finnova.products_service.model.entity.PassiveProduct;
 import com.finnova.products_service.service.ProductCacheService;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Two-tier product cache: a bounded in-process L1 in front of Redis.
+ * Writes and evictions are broadcast on a Redis channel so other replicas drop
+ * their L1 copy; the short L1 TTL bounds staleness if a message is missed.
+ * Products returned from L1 are shared instances and must be treated as read-only.
+ * Redis entries are encoded by {@link VersionedCacheCodec}.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ProductCacheServiceImpl implements ProductCacheService {
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+
+    public static final String CACHE_METRIC = "products.cache.requests";
+    static final String INVALIDATION_CHANNEL = "products:cache-invalidation";
 
     private static final String PASSIVE_PRODUCT_PREFIX = "passive_product:";
     private static final String ACTIVE_PRODUCT_PREFIX = "active_product:";
     private static final Duration CACHE_TTL = Duration.ofHours(1);
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisTemplate<String, byte[]> cacheTemplate;
+    private final VersionedCacheCodec cacheCodec;
+    private final MeterRegistry meterRegistry;
+    private final CacheStampedeProtection stampedeProtection;
+    private final Cache<String, PassiveProduct> localPassiveProducts;
+    private final Cache<String, ActiveProduct> localActiveProducts;
+    private final String instanceId = UUID.randomUUID().toString();
+    private Disposable invalidationSubscription;
+
+    public ProductCacheServiceImpl(ReactiveRedisTemplate<String, String> redisTemplate,
+                                   @Qualifier("productCacheRedisTemplate")
+                                   ReactiveRedisTemplate<String, byte[]> cacheTemplate,
+                                   VersionedCacheCodec cacheCodec,
+                                   MeterRegistry meterRegistry,
+                                   CacheStampedeProtection stampedeProtection,
+                                   @Value("${products.cache.local.max-size:10000}") long localMaxSize,
+                                   @Value("${products.cache.local.ttl:30s}") Duration localTtl) {
+        this.redisTemplate = redisTemplate;
+        this.cacheTemplate = cacheTemplate;
+        this.cacheCodec = cacheCodec;
+        this.meterRegistry = meterRegistry;
+        this.stampedeProtection = stampedeProtection;
+        this.localPassiveProducts = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.localActiveProducts = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidationSubscription = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .doOnNext(message -> onInvalidation(message.getMessage()))
+                .doOnError(e -> log.error("Product cache invalidation listener failed: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void unsubscribeFromInvalidations() {
+        if (invalidationSubscription != null) {
+            invalidationSubscription.dispose();
+        }
+    }
 
     @Override
     public Mono<PassiveProduct> cachePassiveProduct(PassiveProduct product) {
         String key = PASSIVE_PRODUCT_PREFIX + product.getId();
+        Duration ttl = stampedeProtection.jitteredTtl(CACHE_TTL);
 
-        return Mono.fromCallable(() -> objectMapper.writeValueAsString(product))
-                .flatMap(json -> redisTemplate.opsForValue()
-                        .set(key, json, CACHE_TTL)
+        return Mono.fromCallable(() -> cacheCodec.encode(product, Instant.now().plus(ttl)))
+                .flatMap(entry -> cacheTemplate.opsForValue()
+                        .set(key, entry, ttl)
+                        .then(publishInvalidation(key))
                         .thenReturn(product))
-                .doOnSuccess(p -> log.debug("Cached passive product: {}", product.getId()))
+                .doOnSuccess(p -> {
+                    localPassiveProducts.put(key, product);
+                    log.debug("Cached passive product: {}", product.getId());
+                })
                 .doOnError(e -> log.error("Error caching passive product: {}", e.getMessage()));
     }
 
     @Override
     public Mono<PassiveProduct> getPassiveProductFromCache(String productId) {
-        String key = PASSIVE_PRODUCT_PREFIX + productId;
+        return getFromCache(PASSIVE_PRODUCT_PREFIX + productId, localPassiveProducts, PassiveProduct.class, "passive");
+    }
 
-        return redisTemplate.opsForValue()
-                .get(key)
-                .flatMap(json -> {
-                    try {
-                        PassiveProduct product = objectMapper.readValue(json, PassiveProduct.class);
-                        log.debug("Retrieved passive product from cache: {}", productId);
-                        return Mono.just(product);
-                    } catch (JsonProcessingException e) {
-                        log.error("Error deserializing passive product from cache: {}", e.getMessage());
-                        return Mono.empty();
-                    }
-                });
+    @Override
+    public Mono<PassiveProduct> getOrLoadPassiveProduct(String productId, Supplier<Mono<PassiveProduct>> loader) {
+        return getOrLoad(PASSIVE_PRODUCT_PREFIX + productId, localPassiveProducts, PassiveProduct.class, "passive",
+                () -> loader.get().flatMap(this::cachePassiveProduct));
+    }
+
+    @Override
+    public Flux<PassiveProduct> getOrLoadPassiveProducts(Collection<String> productIds,
+                                                         Function<Collection<String>, Flux<PassiveProduct>> loader) {
+        return getOrLoadAll(PASSIVE_PRODUCT_PREFIX, productIds, localPassiveProducts, PassiveProduct.class,
+                "passive", loader, this::cachePassiveProduct);
     }
 
     @Override
     public Mono<Void> evictPassiveProductFromCache(String productId) {
         String key = PASSIVE_PRODUCT_PREFIX + productId;
+        localPassiveProducts.invalidate(key);
 
-        return redisTemplate.opsForValue()
+        return cacheTemplate.opsForValue()
                 .delete(key)
-                .then()
+                .then(publishInvalidation(key))
                 .doOnSuccess(v -> log.debug("Evicted passive product from cache: {}", productId))
                 .doOnError(e -> log.error("Error evicting passive product from cache: {}", e.getMessage()));
     }
@@ -68,41 +151,198 @@ public class ProductCacheServiceImpl implements ProductCacheService {
     @Override
     public Mono<ActiveProduct> cacheActiveProduct(ActiveProduct product) {
         String key = ACTIVE_PRODUCT_PREFIX + product.getId();
+        Duration ttl = stampedeProtection.jitteredTtl(CACHE_TTL);
 
-        return Mono.fromCallable(() -> objectMapper.writeValueAsString(product))
-                .flatMap(json -> redisTemplate.opsForValue()
-                        .set(key, json, CACHE_TTL)
+        return Mono.fromCallable(() -> cacheCodec.encode(product, Instant.now().plus(ttl)))
+                .flatMap(entry -> cacheTemplate.opsForValue()
+                        .set(key, entry, ttl)
+                        .then(publishInvalidation(key))
                         .thenReturn(product))
-                .doOnSuccess(p -> log.debug("Cached active product: {}", product.getId()))
+                .doOnSuccess(p -> {
+                    localActiveProducts.put(key, product);
+                    log.debug("Cached active product: {}", product.getId());
+                })
                 .doOnError(e -> log.error("Error caching active product: {}", e.getMessage()));
     }
 
     @Override
     public Mono<ActiveProduct> getActiveProductFromCache(String productId) {
-        String key = ACTIVE_PRODUCT_PREFIX + productId;
+        return getFromCache(ACTIVE_PRODUCT_PREFIX + productId, localActiveProducts, ActiveProduct.class, "active");
+    }
 
-        return redisTemplate.opsForValue()
-                .get(key)
-                .flatMap(json -> {
-                    try {
-                        ActiveProduct product = objectMapper.readValue(json, ActiveProduct.class);
-                        log.debug("Retrieved active product from cache: {}", productId);
-                        return Mono.just(product);
-                    } catch (JsonProcessingException e) {
-                        log.error("Error deserializing active product from cache: {}", e.getMessage());
-                        return Mono.empty();
-                    }
-                });
+    @Override
+    public Mono<ActiveProduct> getOrLoadActiveProduct(String productId, Supplier<Mono<ActiveProduct>> loader) {
+        return getOrLoad(ACTIVE_PRODUCT_PREFIX + productId, localActiveProducts, ActiveProduct.class, "active",
+                () -> loader.get().flatMap(this::cacheActiveProduct));
+    }
+
+    @Override
+    public Flux<ActiveProduct> getOrLoadActiveProducts(Collection<String> productIds,
+                                                       Function<Collection<String>, Flux<ActiveProduct>> loader) {
+        return getOrLoadAll(ACTIVE_PRODUCT_PREFIX, productIds, localActiveProducts, ActiveProduct.class,
+                "active", loader, this::cacheActiveProduct);
     }
 
     @Override
     public Mono<Void> evictActiveProductFromCache(String productId) {
         String key = ACTIVE_PRODUCT_PREFIX + productId;
+        localActiveProducts.invalidate(key);
 
-        return redisTemplate.opsForValue()
+        return cacheTemplate.opsForValue()
                 .delete(key)
-                .then()
+                .then(publishInvalidation(key))
                 .doOnSuccess(v -> log.debug("Evicted active product from cache: {}", productId))
                 .doOnError(e -> log.error("Error evicting active product from cache: {}", e.getMessage()));
     }
+
+    private <T> Mono<T> getFromCache(String key, Cache<String, T> localCache, Class<T> type, String productType) {
+        T local = getFromLocalCache(key, localCache, productType);
+        if (local != null) {
+            return Mono.just(local);
+        }
+
+        return cacheTemplate.opsForValue()
+                .get(key)
+                .flatMap(entry -> deserialize(key, entry, localCache, type, productType))
+                .doOnSuccess(product -> cacheCounter("redis", product != null ? "hit" : "miss", productType)
+                        .increment());
+    }
+
+    /**
+     * Read-through lookup. Concurrent misses of a key share a single load, and a Redis hit
+     * close to the expiry stored in the entry triggers a background refresh while the cached
+     * value is returned.
+     */
+    private <T> Mono<T> getOrLoad(String key, Cache<String, T> localCache, Class<T> type, String productType,
+                                  Supplier<Mono<T>> loadAndCache) {
+        T local = getFromLocalCache(key, localCache, productType);
+        if (local != null) {
+            return Mono.just(local);
+        }
+
+        return cacheTemplate.opsForValue()
+                .get(key)
+                .flatMap(entry -> deserialize(key, entry, localCache, type, productType)
+                        .doOnNext(product -> {
+                            if (stampedeProtection.shouldRefreshEarly(cacheCodec.expiresAt(entry))) {
+                                log.debug("Refreshing {} product cache entry early: {}", productType, key);
+                                stampedeProtection.singleFlight(key, loadAndCache)
+                                        .subscribe(null, e -> log.warn("Early refresh of {} failed: {}",
+                                                key, e.getMessage()));
+                            }
+                        }))
+                .doOnSuccess(product -> cacheCounter("redis", product != null ? "hit" : "miss", productType)
+                        .increment())
+                .switchIfEmpty(Mono.defer(() -> stampedeProtection.singleFlight(key, loadAndCache)));
+    }
+
+    /**
+     * Batch read-through lookup: L1 first, then one MGET for the remaining keys and one
+     * loader call for the Redis misses. If Redis is unavailable every L1 miss is loaded.
+     */
+    private <T> Flux<T> getOrLoadAll(String prefix, Collection<String> ids, Cache<String, T> localCache,
+                                     Class<T> type, String productType,
+                                     Function<Collection<String>, Flux<T>> loader, Function<T, Mono<T>> cache) {
+        List<T> found = new ArrayList<>();
+        List<String> missingKeys = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            String key = prefix + id;
+            T local = getFromLocalCache(key, localCache, productType);
+            if (local != null) {
+                found.add(local);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        if (missingKeys.isEmpty()) {
+            return Flux.fromIterable(found);
+        }
+
+        return cacheTemplate.opsForValue()
+                .multiGet(missingKeys)
+                .onErrorResume(e -> {
+                    log.warn("Error reading {} {} products from cache: {}", missingKeys.size(), productType,
+                            e.getMessage());
+                    return Mono.just(Collections.nCopies(missingKeys.size(), null));
+                })
+                .flatMapMany(entries -> {
+                    List<T> products = new ArrayList<>(found);
+                    List<String> missingIds = new ArrayList<>();
+                    for (int i = 0; i < missingKeys.size(); i++) {
+                        String key = missingKeys.get(i);
+                        byte[] entry = entries.get(i);
+                        T product = entry == null ? null : decode(key, entry, localCache, type, productType);
+                        cacheCounter("redis", product != null ? "hit" : "miss", productType).increment();
+                        if (product != null) {
+                            products.add(product);
+                        } else {
+                            missingIds.add(key.substring(prefix.length()));
+                        }
+                    }
+                    if (missingIds.isEmpty()) {
+                        return Flux.fromIterable(products);
+                    }
+                    // A failed cache write must not fail the read, the product is simply loaded again next time
+                    return Flux.concat(Flux.fromIterable(products), loader.apply(missingIds)
+                            .flatMap(product -> cache.apply(product).onErrorReturn(product)));
+                });
+    }
+
+    private <T> T getFromLocalCache(String key, Cache<String, T> localCache, String productType) {
+        T local = localCache.getIfPresent(key);
+        cacheCounter("l1", local != null ? "hit" : "miss", productType).increment();
+        return local;
+    }
+
+    private <T> Mono<T> deserialize(String key, byte[] entry, Cache<String, T> localCache, Class<T> type,
+                                    String productType) {
+        return Mono.justOrEmpty(decode(key, entry, localCache, type, productType));
+    }
+
+    private <T> T decode(String key, byte[] entry, Cache<String, T> localCache, Class<T> type,
+                         String productType) {
+        try {
+            T product = cacheCodec.decode(entry, type);
+            localCache.put(key, product);
+            log.debug("Retrieved {} product from cache: {}", productType, key);
+            return product;
+        } catch (IOException e) {
+            log.error("Error deserializing {} product from cache: {}", productType, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tells the other replicas to drop their L1 copy of a key.
+     * A lost message only delays invalidation until the L1 TTL expires, so failures are not propagated.
+     */
+    private Mono<Void> publishInvalidation(String key) {
+        return redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + MESSAGE_SEPARATOR + key)
+                .doOnError(e -> log.warn("Error publishing product cache invalidation for {}: {}", key, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        String key = message.substring(separator + 1);
+        if (key.startsWith(PASSIVE_PRODUCT_PREFIX)) {
+            localPassiveProducts.invalidate(key);
+        } else if (key.startsWith(ACTIVE_PRODUCT_PREFIX)) {
+            localActiveProducts.invalidate(key);
+        }
+        log.debug("Invalidated local product cache entry: {}", key);
+    }
+
+    private Counter cacheCounter(String tier, String result, String productType) {
+        return Counter.builder(CACHE_METRIC)
+                .description("Product cache lookups per tier")
+                .tag("tier", tier)
+                .tag("result", result)
+                .tag("product.type", productType)
+                .register(meterRegistry);
+    }
 }
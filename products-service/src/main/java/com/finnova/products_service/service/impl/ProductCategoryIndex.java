@@ -0,0 +1,112 @@
+package com.finnova.products_service.service.impl;
+
+import com.finnova.products_service.model.enums.ProductCategory;
+import com.finnova.products_service.repository.ActiveProductRepository;
+import com.finnova.products_service.repository.PassiveProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Maps product IDs to their category, so a lookup by ID goes straight to the right
+ * collection. A product never changes category, so entries are never invalidated;
+ * IDs are learned on first lookup and shared between replicas through Redis.
+ */
+@Component
+@Slf4j
+public class ProductCategoryIndex {
+
+    private static final String CATEGORY_PREFIX = "product_category:";
+    private static final Duration CATEGORY_TTL = Duration.ofDays(30);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final PassiveProductRepository passiveProductRepository;
+    private final ActiveProductRepository activeProductRepository;
+    private final Cache<String, ProductCategory> localCategories;
+
+    public ProductCategoryIndex(ReactiveRedisTemplate<String, String> redisTemplate,
+                                PassiveProductRepository passiveProductRepository,
+                                ActiveProductRepository activeProductRepository,
+                                @Value("${products.category-index.local.max-size:100000}") long localMaxSize) {
+        this.redisTemplate = redisTemplate;
+        this.passiveProductRepository = passiveProductRepository;
+        this.activeProductRepository = activeProductRepository;
+        this.localCategories = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .build();
+    }
+
+    /**
+     * Resolves the category of a product.
+     *
+     * @param id the product ID
+     * @return Mono of ProductCategory, empty if no product has this ID
+     */
+    public Mono<ProductCategory> resolve(String id) {
+        ProductCategory local = localCategories.getIfPresent(id);
+        if (local != null) {
+            return Mono.just(local);
+        }
+
+        return redisTemplate.opsForValue()
+                .get(CATEGORY_PREFIX + id)
+                .map(ProductCategory::valueOf)
+                .doOnNext(category -> localCategories.put(id, category))
+                .onErrorResume(e -> {
+                    log.warn("Product category index unavailable for {}: {}", id, e.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> probe(id)));
+    }
+
+    /**
+     * Returns the category if this replica already knows it, without any I/O.
+     *
+     * @param id the product ID
+     * @return the ProductCategory, null if not known locally
+     */
+    public ProductCategory peek(String id) {
+        return localCategories.getIfPresent(id);
+    }
+
+    /**
+     * Records the category of a product that was found by other means.
+     *
+     * @param id the product ID
+     * @param category the product category
+     * @return Mono of Void
+     */
+    public Mono<Void> record(String id, ProductCategory category) {
+        if (localCategories.getIfPresent(id) == category) {
+            return Mono.empty();
+        }
+        localCategories.put(id, category);
+        return redisTemplate.opsForValue()
+                .set(CATEGORY_PREFIX + id, category.name(), CATEGORY_TTL)
+                .doOnError(e -> log.warn("Error indexing product category for {}: {}", id, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * First lookup of an ID: checks both collections in parallel.
+     */
+    private Mono<ProductCategory> probe(String id) {
+        return Mono.firstWithValue(
+                        passiveProductRepository.existsById(id)
+                                .filter(Boolean::booleanValue)
+                                .map(exists -> ProductCategory.PASSIVE),
+                        activeProductRepository.existsById(id)
+                                .filter(Boolean::booleanValue)
+                                .map(exists -> ProductCategory.ACTIVE))
+                .onErrorResume(NoSuchElementException.class, e -> Mono.empty())
+                .flatMap(category -> record(id, category).thenReturn(category));
+    }
+}
@@ -0,0 +1,72 @@
+package com.finnova.products_service.service.impl;
+
+import com.finnova.products_service.exception.ProductNotFoundException;
+import com.finnova.products_service.model.dto.ProductLookupDto;
+import com.finnova.products_service.model.enums.ProductCategory;
+import com.finnova.products_service.service.ActiveProductService;
+import com.finnova.products_service.service.PassiveProductService;
+import com.finnova.products_service.service.ProductLookupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductLookupServiceImpl implements ProductLookupService {
+
+    private final ProductCategoryIndex categoryIndex;
+    private final PassiveProductService passiveProductService;
+    private final ActiveProductService activeProductService;
+
+    @Override
+    public Mono<ProductLookupDto> findById(String id) {
+        log.debug("Looking up product by ID: {}", id);
+
+        return categoryIndex.resolve(id)
+                .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found with ID: " + id)))
+                .flatMap(category -> category == ProductCategory.PASSIVE
+                        ? passiveProductService.findById(id).map(ProductLookupDto::of)
+                        : activeProductService.findById(id).map(ProductLookupDto::of));
+    }
+
+    @Override
+    public Flux<ProductLookupDto> findByIds(Collection<String> ids) {
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        log.debug("Looking up {} products by ID", uniqueIds.size());
+
+        // IDs whose category is known locally are only looked up in their own collection
+        List<String> passiveIds = new ArrayList<>();
+        List<String> activeIds = new ArrayList<>();
+        for (String id : uniqueIds) {
+            ProductCategory category = categoryIndex.peek(id);
+            if (category != ProductCategory.ACTIVE) {
+                passiveIds.add(id);
+            }
+            if (category != ProductCategory.PASSIVE) {
+                activeIds.add(id);
+            }
+        }
+
+        // One MGET per category, plus one $in query per collection for the cache misses
+        Flux<ProductLookupDto> passiveProducts = passiveIds.isEmpty() ? Flux.empty()
+                : passiveProductService.findByIds(passiveIds)
+                        .flatMap(product -> categoryIndex.record(product.getId(), ProductCategory.PASSIVE)
+                                .thenReturn(ProductLookupDto.of(product)));
+
+        Flux<ProductLookupDto> activeProducts = activeIds.isEmpty() ? Flux.empty()
+                : activeProductService.findByIds(activeIds)
+                        .flatMap(product -> categoryIndex.record(product.getId(), ProductCategory.ACTIVE)
+                                .thenReturn(ProductLookupDto.of(product)));
+
+        return Flux.merge(passiveProducts, activeProducts);
+    }
+}
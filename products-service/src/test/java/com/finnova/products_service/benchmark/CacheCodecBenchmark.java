@@ -0,0 +1,193 @@
+package com.finnova.products_service.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finnova.cache_support.codec.VersionedCacheCodec;
+import com.finnova.products_service.model.entity.ActiveProduct;
+import com.finnova.products_service.model.entity.PassiveProduct;
+import com.finnova.products_service.model.enums.ActiveProductType;
+import com.finnova.products_service.model.enums.Currency;
+import com.finnova.products_service.model.enums.PassiveProductType;
+import com.finnova.products_service.model.enums.ProductStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cache entry formats for products: the former JSON string wrapped in a
+ * Jackson2JsonRedisSerializer (double-encoded), versioned JSON and versioned Smile.
+ * Entry sizes are printed before the run.
+ *
+ * <p>Run from the products-service directory:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.finnova.products_service.benchmark.CacheCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({"legacy", "json", "smile"})
+    private String format;
+
+    private EntryFormat entryFormat;
+    private PassiveProduct passiveProduct;
+    private ActiveProduct activeProduct;
+    private byte[] passiveEntry;
+    private byte[] activeEntry;
+
+    @Setup
+    public void setUp() throws IOException {
+        entryFormat = EntryFormat.of(format);
+        passiveProduct = samplePassiveProduct();
+        activeProduct = sampleActiveProduct();
+        passiveEntry = entryFormat.encode(passiveProduct);
+        activeEntry = entryFormat.encode(activeProduct);
+    }
+
+    @Benchmark
+    public byte[] encodePassiveProduct() throws IOException {
+        return entryFormat.encode(passiveProduct);
+    }
+
+    @Benchmark
+    public PassiveProduct decodePassiveProduct() throws IOException {
+        return entryFormat.decode(passiveEntry, PassiveProduct.class);
+    }
+
+    @Benchmark
+    public byte[] encodeActiveProduct() throws IOException {
+        return entryFormat.encode(activeProduct);
+    }
+
+    @Benchmark
+    public ActiveProduct decodeActiveProduct() throws IOException {
+        return entryFormat.decode(activeEntry, ActiveProduct.class);
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        for (String name : List.of("legacy", "json", "smile")) {
+            EntryFormat entryFormat = EntryFormat.of(name);
+            System.out.printf("%-7s passive=%d bytes, active=%d bytes%n", name,
+                    entryFormat.encode(samplePassiveProduct()).length,
+                    entryFormat.encode(sampleActiveProduct()).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(CacheCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private interface EntryFormat {
+
+        byte[] encode(Object value) throws IOException;
+
+        <T> T decode(byte[] entry, Class<T> type) throws IOException;
+
+        static EntryFormat of(String name) {
+            ObjectMapper objectMapper = applicationObjectMapper();
+            if (name.equals("legacy")) {
+                Jackson2JsonRedisSerializer<String> serializer = new Jackson2JsonRedisSerializer<>(String.class);
+                return new EntryFormat() {
+                    @Override
+                    public byte[] encode(Object value) throws IOException {
+                        return serializer.serialize(objectMapper.writeValueAsString(value));
+                    }
+
+                    @Override
+                    public <T> T decode(byte[] entry, Class<T> type) throws IOException {
+                        return objectMapper.readValue(serializer.deserialize(entry), type);
+                    }
+                };
+            }
+            VersionedCacheCodec codec = new VersionedCacheCodec(objectMapper, name);
+            return new EntryFormat() {
+                @Override
+                public byte[] encode(Object value) throws IOException {
+                    return codec.encode(value);
+                }
+
+                @Override
+                public <T> T decode(byte[] entry, Class<T> type) throws IOException {
+                    return codec.decode(entry, type);
+                }
+            };
+        }
+    }
+
+    private static ObjectMapper applicationObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static PassiveProduct samplePassiveProduct() {
+        return PassiveProduct.builder()
+                .id("65f1c2a9e4b0a1b2c3d4e5f6")
+                .accountNumber("191-84736251-0-47")
+                .customerId("65f1c2a9e4b0a1b2c3d4e5f0")
+                .productType(PassiveProductType.SAVINGS)
+                .balance(new BigDecimal("15234.75"))
+                .currency(Currency.PEN)
+                .openingAmount(new BigDecimal("100.00"))
+                .maintenanceFee(BigDecimal.ZERO)
+                .maxTransactionsWithoutFee(20)
+                .currentMonthTransactions(7)
+                .feePerExtraTransaction(new BigDecimal("2.50"))
+                .minimumDailyAverage(new BigDecimal("500.00"))
+                .status(ProductStatus.ACTIVE)
+                .holders(List.of("65f1c2a9e4b0a1b2c3d4e5f0"))
+                .authorizedSigners(List.of())
+                .createdAt(LocalDateTime.of(2024, 3, 13, 9, 30, 15))
+                .updatedAt(LocalDateTime.of(2024, 6, 2, 17, 45, 3))
+                .version(42L)
+                .build();
+    }
+
+    private static ActiveProduct sampleActiveProduct() {
+        return ActiveProduct.builder()
+                .id("65f1c2a9e4b0a1b2c3d4e5f7")
+                .creditNumber("4557-8810-2234-9931")
+                .customerId("65f1c2a9e4b0a1b2c3d4e5f0")
+                .productType(ActiveProductType.CREDIT_CARD)
+                .creditLimit(new BigDecimal("10000.00"))
+                .availableCredit(new BigDecimal("7350.20"))
+                .usedCredit(new BigDecimal("2649.80"))
+                .interestRate(new BigDecimal("0.4599"))
+                .currency(Currency.PEN)
+                .paymentDueDate(15)
+                .minimumPayment(new BigDecimal("132.49"))
+                .outstandingBalance(new BigDecimal("2649.80"))
+                .overdueAmount(BigDecimal.ZERO)
+                .hasOverdueDebt(false)
+                .status(ProductStatus.ACTIVE)
+                .createdAt(LocalDateTime.of(2024, 1, 20, 11, 5, 0))
+                .updatedAt(LocalDateTime.of(2024, 6, 1, 8, 12, 44))
+                .version(17L)
+                .build();
+    }
+}
@@ -0,0 +1,263 @@
+package com.finnova.products_service.repository;
+
+import com.finnova.products_service.config.MongoConfig;
+import com.finnova.products_service.config.ProductDataMigration;
+import com.finnova.products_service.exception.InvalidProductOperationException;
+import com.finnova.products_service.model.entity.BalanceOperation;
+import com.finnova.products_service.model.entity.PassiveProduct;
+import com.finnova.products_service.model.enums.PassiveProductType;
+import com.finnova.products_service.model.enums.ProductStatus;
+import com.finnova.products_service.service.impl.PassiveBalanceMutationEngine;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the conditional balance updates against a real MongoDB, with the service's
+ * Decimal128 mapping, so the guards are those of the queries themselves. Keyed operations
+ * go through the mutation engine, in real transactions.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PassiveProductBalanceOperationsImplTest {
+
+    private static final String ACCOUNT_ID = "acc-1";
+    private static final int TODAY = 10;
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient mongoClient;
+    private static ReactiveMongoDatabaseFactory databaseFactory;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    private PassiveProductBalanceOperationsImpl operations;
+    private PassiveBalanceMutationEngine engine;
+
+    @BeforeAll
+    static void connect() {
+        mongoClient = MongoClients.create(MONGO.getReplicaSetUrl());
+
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        databaseFactory = new SimpleReactiveMongoDatabaseFactory(mongoClient, "passive_product_test");
+        mongoTemplate = new ReactiveMongoTemplate(databaseFactory, converter);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        mongoClient.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(PassiveProduct.class).block();
+        mongoTemplate.dropCollection(BalanceOperation.class).block();
+        operations = new PassiveProductBalanceOperationsImpl(mongoTemplate);
+
+        ReactiveMongoRepositoryFactory repositoryFactory = new ReactiveMongoRepositoryFactory(mongoTemplate);
+        engine = new PassiveBalanceMutationEngine(
+                repositoryFactory.getRepository(PassiveProductRepository.class, RepositoryFragments.just(operations)),
+                repositoryFactory.getRepository(BalanceOperationRepository.class),
+                TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory)));
+    }
+
+    @Test
+    void balancesAreStoredAsDecimal128() {
+        insertAccount(PassiveProductType.SAVINGS, "1000.00", 10, null);
+
+        StepVerifier.create(operations.creditIfAllowed(ACCOUNT_ID, new BigDecimal("0.10"), TODAY))
+                .assertNext(product -> assertThat(product.getBalance()).isEqualByComparingTo("1000.10"))
+                .verifyComplete();
+        assertThat(rawBalance()).isInstanceOf(Decimal128.class);
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverOverdraw() {
+        insertAccount(PassiveProductType.SAVINGS, "1000.00", 100, null);
+
+        Long applied = Flux.range(0, 25)
+                .flatMap(i -> operations.debitWithinFreeQuota(ACCOUNT_ID, new BigDecimal("100.00"), TODAY)
+                        .subscribeOn(Schedulers.parallel()), 25)
+                .count()
+                .block();
+
+        assertThat(applied).isEqualTo(10L);
+        assertThat(balance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void concurrentWithdrawalsChargeFeesOnlyBeyondQuota() {
+        insertAccount(PassiveProductType.SAVINGS, "1000.00", 3, "2.00");
+        BigDecimal amount = new BigDecimal("10.00");
+
+        Long free = Flux.range(0, 10)
+                .flatMap(i -> operations.debitWithinFreeQuota(ACCOUNT_ID, amount, TODAY)
+                        .subscribeOn(Schedulers.parallel()), 10)
+                .count()
+                .block();
+        StepVerifier.create(operations.debitBeyondFreeQuota(ACCOUNT_ID, amount, new BigDecimal("2.00"), TODAY))
+                .assertNext(product -> assertThat(product.getCurrentMonthTransactions()).isEqualTo(4))
+                .verifyComplete();
+
+        assertThat(free).isEqualTo(3L);
+        assertThat(balance()).isEqualByComparingTo("958.00");
+    }
+
+    @Test
+    void withdrawalBeyondQuotaIsRejectedWhenTheFeeChanged() {
+        insertAccount(PassiveProductType.SAVINGS, "100.00", 0, "2.00");
+
+        StepVerifier.create(operations.debitBeyondFreeQuota(ACCOUNT_ID, new BigDecimal("10.00"),
+                        new BigDecimal("1.00"), TODAY))
+                .verifyComplete();
+        assertThat(balance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void fixedTermOnlyMovesOnItsMovementDay() {
+        insertAccount(PassiveProductType.FIXED_TERM, "100.00", 1, null);
+
+        StepVerifier.create(operations.creditIfAllowed(ACCOUNT_ID, BigDecimal.TEN, TODAY + 1))
+                .verifyComplete();
+        StepVerifier.create(operations.creditIfAllowed(ACCOUNT_ID, BigDecimal.TEN, TODAY))
+                .assertNext(product -> assertThat(product.getBalance()).isEqualByComparingTo("110.00"))
+                .verifyComplete();
+    }
+
+    @Test
+    void concurrentRetriesOfAKeyedWithdrawalApplyItOnce() {
+        insertAccount(PassiveProductType.SAVINGS, "100.00", 0, "2.00");
+        AtomicInteger applied = new AtomicInteger();
+
+        Flux.range(0, 10)
+                .flatMap(i -> engine.withdraw(ACCOUNT_ID, BigDecimal.TEN, "op-1")
+                        .subscribeOn(Schedulers.parallel())
+                        .doOnNext(mutation -> {
+                            if (!mutation.replayed()) {
+                                applied.incrementAndGet();
+                            }
+                        })
+                        // Attempts that keep losing write conflicts give up, the operation still applies once
+                        .onErrorResume(InvalidProductOperationException.class, e -> Mono.empty()), 10)
+                .blockLast();
+
+        assertThat(applied.get()).isEqualTo(1);
+        assertThat(balance()).isEqualByComparingTo("88.00");
+        StepVerifier.create(engine.fence(ACCOUNT_ID, "op-1"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void keyedTransferIsAppliedOnceOnBothAccounts() {
+        insertAccount(PassiveProductType.CHECKING, "100.00", 100, null);
+        mongoTemplate.insert(PassiveProduct.builder()
+                        .id("acc-2")
+                        .accountNumber("0011-acc-2")
+                        .customerId("customer-2")
+                        .productType(PassiveProductType.CHECKING)
+                        .status(ProductStatus.ACTIVE)
+                        .balance(new BigDecimal("50.00"))
+                        .maxTransactionsWithoutFee(100)
+                        .currentMonthTransactions(0)
+                        .build())
+                .block();
+
+        StepVerifier.create(engine.transfer(ACCOUNT_ID, "acc-2", BigDecimal.TEN, "transfer-1"))
+                .assertNext(transfer -> assertThat(transfer.debit().replayed()).isFalse())
+                .verifyComplete();
+        StepVerifier.create(engine.transfer(ACCOUNT_ID, "acc-2", BigDecimal.TEN, "transfer-1"))
+                .assertNext(transfer -> assertThat(transfer.credit().replayed()).isTrue())
+                .verifyComplete();
+
+        assertThat(balance()).isEqualByComparingTo("90.00");
+        assertThat(mongoTemplate.findById("acc-2", PassiveProduct.class).block().getBalance())
+                .isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void migrationConvertsStringBalancesSoWithdrawalsMatch() {
+        mongoTemplate.getCollection("passive_products")
+                .flatMap(collection -> Mono.from(collection.insertOne(new Document("_id", ACCOUNT_ID)
+                        .append("productType", PassiveProductType.SAVINGS.name())
+                        .append("status", ProductStatus.ACTIVE.name())
+                        .append("balance", "500.00")
+                        .append("maxTransactionsWithoutFee", 10)
+                        .append("currentMonthTransactions", 0))))
+                .block();
+
+        StepVerifier.create(operations.debitWithinFreeQuota(ACCOUNT_ID, BigDecimal.TEN, TODAY))
+                .verifyComplete();
+
+        new ProductDataMigration(mongoTemplate).run(null);
+
+        assertThat(rawBalance()).isInstanceOf(Decimal128.class);
+        StepVerifier.create(operations.debitWithinFreeQuota(ACCOUNT_ID, BigDecimal.TEN, TODAY))
+                .assertNext(product -> {
+                    assertThat(product.getBalance()).isEqualByComparingTo("490.00");
+                    assertThat(product.getVersion()).isEqualTo(1L);
+                })
+                .verifyComplete();
+    }
+
+    private void insertAccount(PassiveProductType type, String balance, Integer maxFree, String fee) {
+        mongoTemplate.insert(PassiveProduct.builder()
+                        .id(ACCOUNT_ID)
+                        .accountNumber("0011-" + ACCOUNT_ID)
+                        .customerId("customer-1")
+                        .productType(type)
+                        .status(ProductStatus.ACTIVE)
+                        .balance(new BigDecimal(balance))
+                        .maxTransactionsWithoutFee(maxFree)
+                        .currentMonthTransactions(0)
+                        .feePerExtraTransaction(fee != null ? new BigDecimal(fee) : null)
+                        .movementDay(type == PassiveProductType.FIXED_TERM ? TODAY : null)
+                        .build())
+                .block();
+    }
+
+    private BigDecimal balance() {
+        return mongoTemplate.findById(ACCOUNT_ID, PassiveProduct.class).block().getBalance();
+    }
+
+    private Object rawBalance() {
+        return mongoTemplate.getCollection("passive_products")
+                .flatMap(collection -> Mono.from(collection.find(new Document("_id", ACCOUNT_ID)).first()))
+                .map(document -> document.get("balance"))
+                .block();
+    }
+}
@@ -0,0 +1,449 @@
+package com.finnova.products_service.service.impl;
+
+import com.finnova.products_service.exception.InsufficientBalanceException;
+import com.finnova.products_service.exception.InvalidProductOperationException;
+import com.finnova.products_service.model.entity.BalanceOperation;
+import com.finnova.products_service.model.entity.PassiveProduct;
+import com.finnova.products_service.model.enums.PassiveProductType;
+import com.finnova.products_service.model.enums.ProductStatus;
+import com.finnova.products_service.repository.BalanceOperationRepository;
+import com.finnova.products_service.repository.PassiveProductRepository;
+import com.mongodb.MongoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PassiveBalanceMutationEngineTest {
+
+    private static final String ACCOUNT_ID = "acc-1";
+    private static final String OTHER_ACCOUNT_ID = "acc-2";
+
+    private final Map<String, InMemoryAccount> accounts = new HashMap<>();
+    private final Set<String> operations = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger transientFailures = new AtomicInteger();
+    private InMemoryAccount account;
+    private InMemoryAccount otherAccount;
+    private PassiveBalanceMutationEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        account = new InMemoryAccount();
+        otherAccount = new InMemoryAccount();
+        accounts.put(ACCOUNT_ID, account);
+        accounts.put(OTHER_ACCOUNT_ID, otherAccount);
+        PassiveProductRepository repository = mock(PassiveProductRepository.class);
+
+        when(repository.findById(anyString())).thenAnswer(inv ->
+                Mono.fromCallable(() -> account(inv.getArgument(0)).snapshot(inv.getArgument(0))));
+        when(repository.existsById(anyString())).thenAnswer(inv ->
+                Mono.fromCallable(() -> accounts.containsKey(inv.<String>getArgument(0))));
+        when(repository.creditIfAllowed(anyString(), any(), anyInt())).thenAnswer(inv ->
+                Mono.fromCallable(() -> account(inv.getArgument(0)).credit(inv.getArgument(0), inv.getArgument(1),
+                        inv.getArgument(2))));
+        when(repository.debitWithinFreeQuota(anyString(), any(), anyInt())).thenAnswer(inv ->
+                Mono.fromCallable(() -> account(inv.getArgument(0)).debitFree(inv.getArgument(0), inv.getArgument(1),
+                        inv.getArgument(2))));
+        when(repository.debitBeyondFreeQuota(anyString(), any(), any(), anyInt())).thenAnswer(inv ->
+                Mono.fromCallable(() -> account(inv.getArgument(0)).debitWithFee(inv.getArgument(0), inv.getArgument(1),
+                        inv.getArgument(2), inv.getArgument(3))));
+
+        BalanceOperationRepository operationRepository = mock(BalanceOperationRepository.class);
+        when(operationRepository.existsById(anyString())).thenAnswer(inv ->
+                Mono.fromCallable(() -> operations.contains(inv.<String>getArgument(0))));
+        when(operationRepository.insert(any(BalanceOperation.class))).thenAnswer(inv -> {
+            BalanceOperation operation = inv.getArgument(0);
+            return Mono.fromCallable(() -> {
+                if (!operations.add(operation.getId())) {
+                    throw new DuplicateKeyException("Duplicate operation " + operation.getId());
+                }
+                return operation;
+            });
+        });
+
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv ->
+                inTransaction(inv.getArgument(0)));
+
+        engine = new PassiveBalanceMutationEngine(repository, operationRepository, transactionalOperator);
+    }
+
+    @Test
+    void concurrentWithdrawalsChargeFeesOnlyBeyondQuotaAndLoseNoUpdates() {
+        account.reset(PassiveProductType.SAVINGS, new BigDecimal("10000.00"), 5, new BigDecimal("2.00"));
+
+        int withdrawals = 200;
+        Flux.range(0, withdrawals)
+                .flatMap(i -> engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"))
+                        .subscribeOn(Schedulers.parallel()), 64)
+                .blockLast();
+
+        PassiveProduct result = account.snapshot(ACCOUNT_ID);
+        BigDecimal fees = new BigDecimal("2.00").multiply(BigDecimal.valueOf(withdrawals - 5));
+        BigDecimal expected = new BigDecimal("10000.00")
+                .subtract(new BigDecimal("10.00").multiply(BigDecimal.valueOf(withdrawals)))
+                .subtract(fees);
+        assertThat(result.getBalance()).isEqualByComparingTo(expected);
+        assertThat(result.getCurrentMonthTransactions()).isEqualTo(withdrawals);
+    }
+
+    @Test
+    void concurrentMixedTrafficKeepsBalanceConsistent() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("2000.00"), Integer.MAX_VALUE, null);
+
+        AtomicInteger rejected = new AtomicInteger();
+        Flux.range(0, 400)
+                .flatMap(i -> {
+                    Mono<PassiveBalanceMutationEngine.BalanceMutation> op = i % 2 == 0
+                            ? engine.deposit(ACCOUNT_ID, new BigDecimal("5.00"))
+                            : engine.withdraw(ACCOUNT_ID, new BigDecimal("5.00"));
+                    return op.subscribeOn(Schedulers.parallel())
+                            .onErrorResume(InsufficientBalanceException.class, e -> {
+                                rejected.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, 64)
+                .blockLast();
+
+        PassiveProduct result = account.snapshot(ACCOUNT_ID);
+        assertThat(rejected.get()).isZero();
+        assertThat(result.getBalance()).isEqualByComparingTo("2000.00");
+        assertThat(result.getCurrentMonthTransactions()).isEqualTo(400);
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverOverdraw() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+
+        AtomicInteger rejected = new AtomicInteger();
+        Flux.range(0, 50)
+                .flatMap(i -> engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"))
+                        .subscribeOn(Schedulers.parallel())
+                        .onErrorResume(InsufficientBalanceException.class, e -> {
+                            rejected.incrementAndGet();
+                            return Mono.empty();
+                        }), 32)
+                .blockLast();
+
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("0.00");
+        assertThat(rejected.get()).isEqualTo(40);
+    }
+
+    @Test
+    void retriesOfAKeyedWithdrawalApplyItOnce() {
+        account.reset(PassiveProductType.SAVINGS, new BigDecimal("100.00"), 0, new BigDecimal("2.00"));
+
+        AtomicInteger replays = new AtomicInteger();
+        Flux.range(0, 20)
+                .concatMap(i -> engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"), "op-1")
+                        .doOnNext(mutation -> {
+                            if (mutation.replayed()) {
+                                replays.incrementAndGet();
+                            }
+                        }))
+                .blockLast();
+
+        PassiveProduct result = account.snapshot(ACCOUNT_ID);
+        assertThat(result.getBalance()).isEqualByComparingTo("88.00");
+        assertThat(result.getCurrentMonthTransactions()).isEqualTo(1);
+        assertThat(replays.get()).isEqualTo(19);
+    }
+
+    @Test
+    void keyedWithdrawalStaysAppliedAfterManyLaterOperations() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+
+        engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"), "op-0").block();
+        Flux.range(1, 100)
+                .concatMap(i -> engine.deposit(ACCOUNT_ID, BigDecimal.ONE, "op-" + i))
+                .blockLast();
+
+        StepVerifier.create(engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"), "op-0"))
+                .assertNext(mutation -> assertThat(mutation.replayed()).isTrue())
+                .verifyComplete();
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("190.00");
+    }
+
+    @Test
+    void failedKeyedWithdrawalDoesNotRecordItsKey() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("5.00"), Integer.MAX_VALUE, null);
+
+        StepVerifier.create(engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"), "op-1"))
+                .expectError(InsufficientBalanceException.class)
+                .verify();
+        assertThat(operations).isEmpty();
+    }
+
+    @Test
+    void fencedOperationIsNotAppliedAfterwards() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+
+        StepVerifier.create(engine.fence(ACCOUNT_ID, "op-1"))
+                .expectNext(false)
+                .verifyComplete();
+        StepVerifier.create(engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00"), "op-1"))
+                .assertNext(mutation -> assertThat(mutation.replayed()).isTrue())
+                .verifyComplete();
+        StepVerifier.create(engine.fence(ACCOUNT_ID, "op-1"))
+                .expectNext(true)
+                .verifyComplete();
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void withdrawalReportsPreviousBalanceAndFee() {
+        account.reset(PassiveProductType.SAVINGS, new BigDecimal("100.00"), 0, new BigDecimal("2.00"));
+
+        StepVerifier.create(engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00")))
+                .assertNext(mutation -> {
+                    assertThat(mutation.previousBalance()).isEqualByComparingTo("100.00");
+                    assertThat(mutation.amount()).isEqualByComparingTo("12.00");
+                    assertThat(mutation.fee()).isEqualByComparingTo("2.00");
+                    assertThat(mutation.product().getBalance()).isEqualByComparingTo("88.00");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void withdrawalFailsWhenFeeExceedsBalance() {
+        account.reset(PassiveProductType.SAVINGS, new BigDecimal("10.00"), 0, new BigDecimal("2.00"));
+
+        StepVerifier.create(engine.withdraw(ACCOUNT_ID, new BigDecimal("10.00")))
+                .expectErrorMatches(e -> e instanceof InsufficientBalanceException
+                        && e.getMessage().contains("including fees"))
+                .verify();
+    }
+
+    @Test
+    void fixedTermRejectsMovementsOutsideMovementDay() {
+        account.reset(PassiveProductType.FIXED_TERM, new BigDecimal("100.00"), 1, null);
+        account.movementDay = LocalDateTime.now().plusDays(1).getDayOfMonth();
+
+        StepVerifier.create(engine.deposit(ACCOUNT_ID, new BigDecimal("10.00")))
+                .expectError(InvalidProductOperationException.class)
+                .verify();
+    }
+
+    @Test
+    void inactiveProductRejectsDeposit() {
+        account.reset(PassiveProductType.SAVINGS, new BigDecimal("100.00"), 5, null);
+        account.status = ProductStatus.BLOCKED;
+
+        StepVerifier.create(engine.deposit(ACCOUNT_ID, new BigDecimal("10.00")))
+                .expectErrorMatches(e -> e instanceof InvalidProductOperationException
+                        && e.getMessage().equals("Product is not active"))
+                .verify();
+    }
+
+    @Test
+    void transferMovesMoneyBetweenBothAccounts() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+        otherAccount.reset(PassiveProductType.CHECKING, new BigDecimal("50.00"), Integer.MAX_VALUE, null);
+
+        StepVerifier.create(engine.transfer(ACCOUNT_ID, OTHER_ACCOUNT_ID, new BigDecimal("10.00"), "saga-1:transfer"))
+                .assertNext(transfer -> {
+                    assertThat(transfer.debit().replayed()).isFalse();
+                    assertThat(transfer.credit().replayed()).isFalse();
+                })
+                .verifyComplete();
+
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("90.00");
+        assertThat(otherAccount.snapshot(OTHER_ACCOUNT_ID).getBalance()).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void transferFencedOnTheSourceRollsBackTheCredit() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+        otherAccount.reset(PassiveProductType.CHECKING, new BigDecimal("50.00"), Integer.MAX_VALUE, null);
+        operations.add(BalanceOperation.idOf(ACCOUNT_ID, "saga-1:transfer"));
+
+        StepVerifier.create(engine.transfer(ACCOUNT_ID, OTHER_ACCOUNT_ID, new BigDecimal("10.00"), "saga-1:transfer"))
+                .expectErrorMatches(e -> e instanceof InvalidProductOperationException
+                        && e.getMessage().contains("can no longer be applied"))
+                .verify();
+
+        PassiveProduct destination = otherAccount.snapshot(OTHER_ACCOUNT_ID);
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("100.00");
+        assertThat(destination.getBalance()).isEqualByComparingTo("50.00");
+        assertThat(destination.getCurrentMonthTransactions()).isZero();
+        assertThat(operations).doesNotContain(BalanceOperation.idOf(OTHER_ACCOUNT_ID, "saga-1:transfer"));
+    }
+
+    @Test
+    void transferIsRetriedAfterTransientTransactionErrors() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+        otherAccount.reset(PassiveProductType.CHECKING, new BigDecimal("50.00"), Integer.MAX_VALUE, null);
+        transientFailures.set(2);
+
+        StepVerifier.create(engine.transfer(ACCOUNT_ID, OTHER_ACCOUNT_ID, new BigDecimal("10.00"), "saga-1:transfer"))
+                .assertNext(transfer -> assertThat(transfer.debit().replayed()).isFalse())
+                .verifyComplete();
+
+        assertThat(transientFailures.get()).isNegative();
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("90.00");
+        assertThat(account.snapshot(ACCOUNT_ID).getCurrentMonthTransactions()).isEqualTo(1);
+        assertThat(otherAccount.snapshot(OTHER_ACCOUNT_ID).getBalance()).isEqualByComparingTo("60.00");
+        assertThat(otherAccount.snapshot(OTHER_ACCOUNT_ID).getCurrentMonthTransactions()).isEqualTo(1);
+    }
+
+    @Test
+    void transferGivesUpAfterRepeatedTransientTransactionErrors() {
+        account.reset(PassiveProductType.CHECKING, new BigDecimal("100.00"), Integer.MAX_VALUE, null);
+        otherAccount.reset(PassiveProductType.CHECKING, new BigDecimal("50.00"), Integer.MAX_VALUE, null);
+        transientFailures.set(Integer.MAX_VALUE);
+
+        StepVerifier.create(engine.transfer(ACCOUNT_ID, OTHER_ACCOUNT_ID, new BigDecimal("10.00"), "saga-1:transfer"))
+                .expectErrorMatches(e -> e instanceof InvalidProductOperationException
+                        && e.getMessage().contains("heavy concurrent modification"))
+                .verify();
+
+        assertThat(account.snapshot(ACCOUNT_ID).getBalance()).isEqualByComparingTo("100.00");
+        assertThat(otherAccount.snapshot(OTHER_ACCOUNT_ID).getBalance()).isEqualByComparingTo("50.00");
+    }
+
+    private InMemoryAccount account(String id) {
+        return accounts.get(id);
+    }
+
+    /**
+     * Stands in for a Mongo transaction: every account and operation key is restored if the
+     * chain fails, and while
+     * transientFailures is positive the commit fails with a write conflict, as a concurrent
+     * transaction on the same documents would make it.
+     */
+    private <T> Mono<T> inTransaction(Mono<T> body) {
+        return Mono.defer(() -> {
+            Map<String, InMemoryAccount> before = new HashMap<>();
+            accounts.forEach((id, store) -> before.put(id, store.copy()));
+            Set<String> operationsBefore = Set.copyOf(operations);
+            return body
+                    .flatMap(result -> transientFailures.getAndDecrement() > 0
+                            ? Mono.<T>error(writeConflict())
+                            : Mono.just(result))
+                    .doOnError(e -> {
+                        before.forEach((id, saved) -> accounts.get(id).restore(saved));
+                        operations.retainAll(operationsBefore);
+                    });
+        });
+    }
+
+    private static MongoException writeConflict() {
+        MongoException error = new MongoException(112, "WriteConflict");
+        error.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        return error;
+    }
+
+    /**
+     * Single-document store that evaluates the same guards as the Mongo conditional updates,
+     * each one atomically.
+     */
+    private static final class InMemoryAccount {
+
+        private PassiveProductType productType;
+        private ProductStatus status;
+        private BigDecimal balance;
+        private int transactions;
+        private Integer maxTransactionsWithoutFee;
+        private BigDecimal feePerExtraTransaction;
+        private Integer movementDay;
+
+        synchronized void reset(PassiveProductType type, BigDecimal initialBalance, Integer maxFree, BigDecimal fee) {
+            productType = type;
+            status = ProductStatus.ACTIVE;
+            balance = initialBalance;
+            transactions = 0;
+            maxTransactionsWithoutFee = maxFree;
+            feePerExtraTransaction = fee;
+            movementDay = null;
+        }
+
+        synchronized InMemoryAccount copy() {
+            InMemoryAccount copy = new InMemoryAccount();
+            copy.restore(this);
+            return copy;
+        }
+
+        synchronized void restore(InMemoryAccount from) {
+            productType = from.productType;
+            status = from.status;
+            balance = from.balance;
+            transactions = from.transactions;
+            maxTransactionsWithoutFee = from.maxTransactionsWithoutFee;
+            feePerExtraTransaction = from.feePerExtraTransaction;
+            movementDay = from.movementDay;
+        }
+
+        synchronized PassiveProduct snapshot(String id) {
+            return PassiveProduct.builder()
+                    .id(id)
+                    .productType(productType)
+                    .status(status)
+                    .balance(balance)
+                    .currentMonthTransactions(transactions)
+                    .maxTransactionsWithoutFee(maxTransactionsWithoutFee)
+                    .feePerExtraTransaction(feePerExtraTransaction)
+                    .movementDay(movementDay)
+                    .build();
+        }
+
+        synchronized PassiveProduct credit(String id, BigDecimal amount, int day) {
+            if (!movable(day)) {
+                return null;
+            }
+            return apply(id, amount);
+        }
+
+        synchronized PassiveProduct debitFree(String id, BigDecimal amount, int day) {
+            if (!movable(day) || balance.compareTo(amount) < 0 || transactions >= freeQuota()) {
+                return null;
+            }
+            return apply(id, amount.negate());
+        }
+
+        synchronized PassiveProduct debitWithFee(String id, BigDecimal amount, BigDecimal fee, int day) {
+            BigDecimal total = fee == null ? amount : amount.add(fee);
+            boolean sameFee = fee == null ? feePerExtraTransaction == null
+                    : feePerExtraTransaction != null && feePerExtraTransaction.compareTo(fee) == 0;
+            if (!movable(day) || !sameFee || balance.compareTo(total) < 0 || transactions < freeQuota()) {
+                return null;
+            }
+            return apply(id, total.negate());
+        }
+
+        private boolean movable(int day) {
+            return status == ProductStatus.ACTIVE
+                    && (productType != PassiveProductType.FIXED_TERM
+                    || (movementDay != null && movementDay == day));
+        }
+
+        private int freeQuota() {
+            return maxTransactionsWithoutFee == null ? Integer.MAX_VALUE : maxTransactionsWithoutFee;
+        }
+
+        private PassiveProduct apply(String id, BigDecimal delta) {
+            balance = balance.add(delta);
+            transactions++;
+            return snapshot(id);
+        }
+    }
+}
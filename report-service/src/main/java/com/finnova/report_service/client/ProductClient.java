@@ -3,12 +3,14 @@ package com.finnova.report_service.client;
 import com.finnova.report_service.model.dto.ActiveProductDto;
 import com.finnova.report_service.model.dto.PassiveProductDto;
 import com.finnova.report_service.model.dto.ProductDto;
+import com.finnova.report_service.model.dto.ProductLookupDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -20,40 +22,19 @@ public class ProductClient {
     private final WebClient webClient;
 
     /**
-     * Get a product by ID (tries passive first, then active)
+     * Get a product by ID with a single lookup, whichever its category
      */
     @CircuitBreaker(name = "productService", fallbackMethod = "fallbackGetProduct")
     @TimeLimiter(name = "productService")
     public Mono<ProductDto> getProduct(String productId) {
         log.info("Fetching product: {}", productId);
 
-        return getPassiveProduct(productId)
-                .onErrorResume(error -> {
-                    log.debug("Product {} not found in passive products, trying active", productId);
-                    return getActiveProduct(productId);
-                });
-    }
-
-    /**
-     * Get passive product by ID
-     */
-    private Mono<ProductDto> getPassiveProduct(String productId) {
         return webClient.get()
-                .uri("http://products-service/passive-products/{id}", productId)
+                .uri("http://products-service/products/{id}", productId)
                 .retrieve()
-                .bodyToMono(PassiveProductDto.class)
-                .map(this::convertPassiveToProductDto);
-    }
-
-    /**
-     * Get active product by ID
-     */
-    private Mono<ProductDto> getActiveProduct(String productId) {
-        return webClient.get()
-                .uri("http://products-service/active-products/{id}", productId)
-                .retrieve()
-                .bodyToMono(ActiveProductDto.class)
-                .map(this::convertActiveToProductDto);
+                .bodyToMono(ProductLookupDto.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .flatMap(lookup -> Mono.justOrEmpty(convertLookupToProductDto(lookup)));
     }
 
     /**
@@ -87,6 +68,29 @@ public class ProductClient {
         return Flux.concat(passiveProducts, activeProducts);
     }
 
+    /**
+     * Get every product, passive then active. Failures are not replaced by a fallback,
+     * so a caller loading the whole catalogue can tell an error from an empty result.
+     */
+    @CircuitBreaker(name = "productService")
+    public Flux<ProductDto> getAllProducts() {
+        log.info("Fetching all products");
+
+        Flux<ProductDto> passiveProducts = webClient.get()
+                .uri("http://products-service/passive-products")
+                .retrieve()
+                .bodyToFlux(PassiveProductDto.class)
+                .map(this::convertPassiveToProductDto);
+
+        Flux<ProductDto> activeProducts = webClient.get()
+                .uri("http://products-service/active-products")
+                .retrieve()
+                .bodyToFlux(ActiveProductDto.class)
+                .map(this::convertActiveToProductDto);
+
+        return Flux.concat(passiveProducts, activeProducts);
+    }
+
     /**
      * Get products by type
      */
@@ -118,6 +122,16 @@ public class ProductClient {
 
     // ========== CONVERSION METHODS ==========
 
+    private ProductDto convertLookupToProductDto(ProductLookupDto lookup) {
+        if ("ACTIVE".equals(lookup.getCategory()) && lookup.getActiveProduct() != null) {
+            return convertActiveToProductDto(lookup.getActiveProduct());
+        }
+        if ("PASSIVE".equals(lookup.getCategory()) && lookup.getPassiveProduct() != null) {
+            return convertPassiveToProductDto(lookup.getPassiveProduct());
+        }
+        return null;
+    }
+
     private ProductDto convertPassiveToProductDto(PassiveProductDto passive) {
         return ProductDto.builder()
                 .id(passive.getId())
@@ -129,6 +143,7 @@ public class ProductClient {
                 .status(passive.getStatus())
                 .monthlyTransactionCount(passive.getCurrentMonthTransactions())
                 .maxFreeTransactions(passive.getMaxTransactionsWithoutFee())
+                .minimumDailyAverage(passive.getMinimumDailyAverage())
                 .createdAt(passive.getCreatedAt())
                 .build();
     }
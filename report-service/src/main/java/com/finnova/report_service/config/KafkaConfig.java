@@ -0,0 +1,50 @@
+package com.finnova.report_service.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.time.Duration;
+
+@Configuration
+public class KafkaConfig {
+
+    private static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+    /**
+     * Error handler of the read-model listeners, picked up by the auto-configured listener
+     * container factory. A record that fails to apply is retried with exponential backoff,
+     * then published to its topic's dead-letter topic ({@code <topic>.DLT}) so the partition
+     * moves on. Records that cannot be parsed go to the dead-letter topic without retries.
+     *
+     * @param kafkaTemplate the template dead letters are published with
+     * @param maxRetries retries before a record is dead-lettered
+     * @param initialInterval wait before the first retry
+     * @param maxInterval longest wait between retries
+     * @return the error handler
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(
+            KafkaTemplate<Object, Object> kafkaTemplate,
+            @Value("${report.read-model.retry.max-retries:5}") int maxRetries,
+            @Value("${report.read-model.retry.initial-interval:500ms}") Duration initialInterval,
+            @Value("${report.read-model.retry.max-interval:30s}") Duration maxInterval) {
+        // A negative partition lets Kafka pick one, so dead-letter topics need not match the source partitions
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialInterval.toMillis());
+        backOff.setMaxInterval(maxInterval.toMillis());
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(JsonProcessingException.class);
+        return errorHandler;
+    }
+}
@@ -3,6 +3,7 @@ package com.finnova.report_service.controller;
 import com.finnova.report_service.model.dto.CommissionReportDto;
 import com.finnova.report_service.model.dto.ConsolidatedReportDto;
 import com.finnova.report_service.model.dto.DailyAverageReportDto;
+import com.finnova.report_service.model.dto.DailyAverageStatusDto;
 import com.finnova.report_service.model.dto.ProductReportDto;
 import com.finnova.report_service.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -61,6 +62,19 @@ public class ReportController {
                 });
     }
 
+    @GetMapping("/product/{productId}/daily-average")
+    @Operation(summary = "Month-to-date daily average balance of a passive product against its VIP minimum")
+    public Mono<ResponseEntity<DailyAverageStatusDto>> getDailyAverageStatus(@PathVariable String productId) {
+        log.info("Checking daily average of product: {}", productId);
+        return reportService.getDailyAverageStatus(productId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> {
+                    log.error("Error checking daily average", e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+
     // ========== COMMISSION REPORT ==========
 
     @GetMapping("/commissions")
@@ -0,0 +1,42 @@
+package com.finnova.report_service.event.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.report_service.event.model.CustomerEvent;
+import com.finnova.report_service.service.ReportReadModelService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Feeds the report read-model from customer-service events.
+ * Failures are rethrown for the container's error handler to retry and dead-letter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerEventListener {
+
+    private static final Duration APPLY_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReportReadModelService reportReadModelService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = "${spring.kafka.topic.customer-events:customer-events}",
+            groupId = "report-service-customer-read-model",
+            properties = "auto.offset.reset=earliest"
+    )
+    public void handleCustomerEvent(@Header(KafkaHeaders.RECEIVED_KEY) String eventType,
+                                    @Payload String message) throws JsonProcessingException {
+        CustomerEvent event = objectMapper.readValue(message, CustomerEvent.class);
+        log.debug("Received {} event for customer: {}", eventType, event.getCustomerId());
+        reportReadModelService.apply(eventType, event).block(APPLY_TIMEOUT);
+    }
+}
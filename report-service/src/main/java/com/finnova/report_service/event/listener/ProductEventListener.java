@@ -0,0 +1,47 @@
+package com.finnova.report_service.event.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.report_service.event.model.ProductEvent;
+import com.finnova.report_service.service.ReportReadModelService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Feeds the report read-model from products-service product and balance events.
+ * Records are applied one at a time so that events of a partition keep their order.
+ * Failures are rethrown for the container's error handler to retry and dead-letter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventListener {
+
+    private static final Duration APPLY_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReportReadModelService reportReadModelService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = {
+                    "${spring.kafka.topic.passive-product-events:passive-product-events}",
+                    "${spring.kafka.topic.active-product-events:active-product-events}",
+                    "${spring.kafka.topic.balance-events:balance-events}"
+            },
+            groupId = "report-service-product-read-model",
+            properties = "auto.offset.reset=earliest"
+    )
+    public void handleProductEvent(@Header(KafkaHeaders.RECEIVED_KEY) String eventType,
+                                   @Payload String message) throws JsonProcessingException {
+        ProductEvent event = objectMapper.readValue(message, ProductEvent.class);
+        log.debug("Received {} event for product: {}", eventType, event.getProductId());
+        reportReadModelService.apply(eventType, event).block(APPLY_TIMEOUT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.finnova.report_service.event.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.report_service.event.model.TransactionEvent;
+import com.finnova.report_service.service.ReportReadModelService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Feeds the report read-model from transaction-service completed transactions.
+ * Failures are rethrown for the container's error handler to retry and dead-letter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionEventListener {
+
+    private static final Duration APPLY_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReportReadModelService reportReadModelService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = "${spring.kafka.topic.transaction-completed:transaction-completed}",
+            groupId = "report-service-transaction-read-model",
+            properties = "auto.offset.reset=earliest"
+    )
+    public void handleTransactionCompleted(@Payload String message) throws JsonProcessingException {
+        TransactionEvent event = objectMapper.readValue(message, TransactionEvent.class);
+        log.debug("Received completed transaction: {}", event.getTransactionNumber());
+        reportReadModelService.apply(event).block(APPLY_TIMEOUT);
+    }
+}
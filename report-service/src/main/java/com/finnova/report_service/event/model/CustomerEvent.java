@@ -0,0 +1,37 @@
+package com.finnova.report_service.event.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Customer events published by customer-service, read leniently.
+ * Each event type fills a subset of the fields; the Kafka record key names the type.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CustomerEvent {
+
+    public static final String CUSTOMER_CREATED = "customer.created";
+    public static final String CUSTOMER_UPDATED = "customer.updated";
+    public static final String CUSTOMER_DELETED = "customer.deleted";
+
+    private String customerId;
+    private String documentType;
+    private String documentNumber;
+    private String customerType; // PERSONAL, BUSINESS
+    private String profileType; // STANDARD, VIP, PYME
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+    private Boolean active;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,50 @@
+package com.finnova.report_service.event.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Product and balance events published by products-service, read leniently.
+ * Each event type fills a subset of the fields; the Kafka record key names the type.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductEvent {
+
+    public static final String PASSIVE_PRODUCT_CREATED = "passive-product.created";
+    public static final String PASSIVE_PRODUCT_UPDATED = "passive-product.updated";
+    public static final String ACTIVE_PRODUCT_CREATED = "active-product.created";
+    public static final String ACTIVE_PRODUCT_UPDATED = "active-product.updated";
+    public static final String PASSIVE_PRODUCT_DELETED = "passive-product.deleted";
+    public static final String ACTIVE_PRODUCT_DELETED = "active-product.deleted";
+    public static final String BALANCE_CHANGED = "balance.changed";
+
+    private String eventId; // balance events
+    private String productId;
+    private String customerId;
+    private String productType;
+    private String accountNumber; // passive products
+    private String creditNumber; // active products
+    private String productNumber; // balance and deleted events, accountNumber or creditNumber
+    private String currency;
+    private String status;
+    private BigDecimal balance;
+    private Integer maxTransactionsWithoutFee;
+    private BigDecimal minimumDailyAverage; // passive products, VIP accounts
+    private BigDecimal creditLimit;
+    private BigDecimal availableCredit;
+    private String operationType; // balance events: DEPOSIT, WITHDRAWAL, CHARGE, PAYMENT
+    private BigDecimal previousBalance; // balance events
+    private BigDecimal newBalance; // balance events: balance, or available credit for CHARGE/PAYMENT
+    private BigDecimal amount; // balance events
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,40 @@
+package com.finnova.report_service.event.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction events published by transaction-service, read leniently.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TransactionEvent {
+
+    public static final String TRANSACTION_COMPLETED = "TRANSACTION_COMPLETED";
+
+    private String eventId;
+    private String eventType;
+    private LocalDateTime timestamp;
+    private String transactionId;
+    private String transactionNumber;
+    private String customerId;
+    private String productId;
+    private String productType;
+    private String transactionType;
+    private BigDecimal amount;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+    private BigDecimal commission;
+    private String description;
+    private String status;
+    private LocalDateTime transactionDate;
+}
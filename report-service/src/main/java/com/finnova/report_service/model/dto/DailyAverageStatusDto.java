@@ -0,0 +1,33 @@
+package com.finnova.report_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Month-to-date daily average balance of a passive product and its VIP requirement
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyAverageStatusDto {
+
+    private String productId;
+    private String accountNumber;
+    private Integer month;
+    private Integer year;
+
+    private BigDecimal averageDailyBalance;       // time-weighted, from the start of the month to now
+    private BigDecimal minimumDailyAverage;       // required for VIP accounts, null if none
+    private Boolean meetsMinimumDailyAverage;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    private LocalDateTime generatedAt;
+}
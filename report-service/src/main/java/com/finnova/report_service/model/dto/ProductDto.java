@@ -23,5 +23,6 @@ public class ProductDto {
     private String status;
     private Integer monthlyTransactionCount;
     private Integer maxFreeTransactions;
+    private BigDecimal minimumDailyAverage;
     private LocalDateTime createdAt;
 }
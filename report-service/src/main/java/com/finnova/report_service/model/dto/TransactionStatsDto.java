@@ -0,0 +1,21 @@
+package com.finnova.report_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatsDto {
+    private String productId;
+    private String transactionType;
+    private String day;
+    private Long count;
+    private BigDecimal totalAmount;
+    private BigDecimal totalCommission;
+}
@@ -0,0 +1,61 @@
+package com.finnova.report_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Balance of a passive product over one day, folded from the balance changes of that day.
+ * Days without a change have no document; their balance is the previous closing balance
+ * all day long. The changes are kept so that a late or redelivered one can be placed.
+ */
+@Document(collection = "product_daily_balances")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProductDailyBalance {
+
+    @Id
+    private String id; // productId:date
+
+    private String productId;
+    private LocalDate date;
+    @Builder.Default
+    private List<Change> changes = new ArrayList<>(); // by time
+    private BigDecimal openingBalance; // balance before the first change of the day
+    private BigDecimal closingBalance; // balance after the last change of the day so far
+    private LocalDateTime closingAt; // time of the last change of the day so far
+    private BigDecimal balanceSeconds; // time-weighted balance from midnight to closingAt, in balance x seconds
+    private BigDecimal minBalance;
+    private BigDecimal maxBalance;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String productId, LocalDate date) {
+        return productId + ":" + date;
+    }
+
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class Change {
+        private String id; // event ID
+        private LocalDateTime changedAt;
+        private BigDecimal previousBalance; // null if unknown
+        private BigDecimal newBalance;
+    }
+}
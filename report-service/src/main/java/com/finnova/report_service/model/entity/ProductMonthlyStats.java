@@ -0,0 +1,42 @@
+package com.finnova.report_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Completed transactions of a product in one month, counted from transaction-service events.
+ */
+@Document(collection = "product_monthly_stats")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProductMonthlyStats {
+
+    @Id
+    private String id; // productId:yyyy-MM
+
+    private String productId;
+    private String customerId;
+    private String productType;
+    private String month; // yyyy-MM
+    private Long transactionCount;
+    private BigDecimal totalAmount;
+    private BigDecimal totalCommission;
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String productId, YearMonth month) {
+        return productId + ":" + month;
+    }
+}
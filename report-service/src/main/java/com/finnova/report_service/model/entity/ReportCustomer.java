@@ -0,0 +1,43 @@
+package com.finnova.report_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A customer in the report read-model, kept up to date from customer-service events.
+ */
+@Document(collection = "report_customers")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ReportCustomer {
+
+    @Id
+    private String id; // customerId
+
+    // Identity, fixed once the customer exists
+    private String documentType;
+    private String documentNumber;
+    private String customerType; // PERSONAL, BUSINESS
+    private String firstName;
+    private String lastName;
+
+    // State, only overwritten by newer changes
+    private String profileType; // STANDARD, VIP, PYME
+    private String email;
+    private String phone;
+    private Boolean active;
+    private Boolean deleted;
+    private LocalDateTime stateAt; // time of the change the state was taken from
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+package com.finnova.report_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A product in the report read-model, kept up to date from products-service events.
+ * Indexed by customer, it is the customer to products index of the consolidated report.
+ */
+@Document(collection = "report_products")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ReportProduct {
+
+    public static final String DELETED = "DELETED";
+
+    @Id
+    private String id; // productId
+
+    // Identity, fixed once the product exists
+    private String customerId;
+    private String productType; // SAVINGS, CHECKING, FIXED_TERM, PERSONAL_LOAN, BUSINESS_LOAN, CREDIT_CARD
+    private String accountNumber; // accountNumber or creditNumber
+    private String currency;
+
+    // State, only overwritten by newer changes
+    private String status; // DELETED once products-service deleted the product
+    private BigDecimal creditLimit; // active products only
+    private Integer maxFreeTransactions; // passive products only
+    private BigDecimal minimumDailyAverage; // passive VIP accounts only
+    private BigDecimal balance; // passive products only
+    private BigDecimal availableCredit; // active products only
+    private LocalDateTime stateAt; // time of the change the state was taken from
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
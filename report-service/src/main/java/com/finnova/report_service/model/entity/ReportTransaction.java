@@ -0,0 +1,43 @@
+package com.finnova.report_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A completed transaction in the report read-model. Written once per transaction ID,
+ * which also makes redelivered events count once in the monthly statistics.
+ */
+@Document(collection = "report_transactions")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ReportTransaction {
+
+    @Id
+    private String id; // transactionId
+
+    private String transactionNumber;
+    private String customerId;
+    private String productId;
+    private String productType;
+    private String transactionType;
+    private BigDecimal amount;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+    private BigDecimal commission;
+    private String description;
+    private String status;
+    private LocalDateTime transactionDate;
+
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,33 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ProductDailyBalance;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Ordered writes and range reads on daily balances.
+ */
+public interface ProductDailyBalanceOperations {
+
+    /**
+     * Stores a day folded from the stored one, unless another change was folded into
+     * that day in the meantime.
+     *
+     * @param day the day to store
+     * @param expectedChanges the number of changes of the day it was folded from, null for a new day
+     * @return Mono of the stored day, or an OptimisticLockingFailureException on a conflict
+     */
+    Mono<ProductDailyBalance> saveIfUnchanged(ProductDailyBalance day, Integer expectedChanges);
+
+    /**
+     * Days of a product with at least one balance change in a date range, oldest first.
+     *
+     * @param productId the product ID
+     * @param from the first day, inclusive
+     * @param to the last day, inclusive
+     * @return Flux of days
+     */
+    Flux<ProductDailyBalance> findDays(String productId, LocalDate from, LocalDate to);
+}
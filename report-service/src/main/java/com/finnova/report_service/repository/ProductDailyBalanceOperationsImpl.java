@@ -0,0 +1,49 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ProductDailyBalance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class ProductDailyBalanceOperationsImpl implements ProductDailyBalanceOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<ProductDailyBalance> saveIfUnchanged(ProductDailyBalance day, Integer expectedChanges) {
+        day.setUpdatedAt(LocalDateTime.now());
+
+        if (expectedChanges == null) {
+            return mongoTemplate.insert(day)
+                    .onErrorMap(DuplicateKeyException.class, e -> new OptimisticLockingFailureException(
+                            "Day " + day.getId() + " was created concurrently", e));
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(day.getId())
+                .and("changes").size(expectedChanges));
+
+        return mongoTemplate.findAndReplace(query, day, FindAndReplaceOptions.options().returnNew())
+                .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException(
+                        "Day " + day.getId() + " was changed concurrently")));
+    }
+
+    @Override
+    public Flux<ProductDailyBalance> findDays(String productId, LocalDate from, LocalDate to) {
+        Query query = Query.query(Criteria.where("productId").is(productId)
+                        .and("date").gte(from).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "date"));
+
+        return mongoTemplate.find(query, ProductDailyBalance.class);
+    }
+}
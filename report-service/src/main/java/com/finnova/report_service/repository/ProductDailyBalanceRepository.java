@@ -0,0 +1,17 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ProductDailyBalance;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ProductDailyBalanceRepository
+        extends ReactiveMongoRepository<ProductDailyBalance, String>, ProductDailyBalanceOperations {
+
+    Mono<ProductDailyBalance> findFirstByProductIdAndDateLessThanOrderByDateDesc(String productId, LocalDate date);
+
+    Mono<ProductDailyBalance> findFirstByProductIdAndDateGreaterThanEqualOrderByDateAsc(String productId, LocalDate date);
+}
@@ -0,0 +1,28 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.dto.TransactionStatsDto;
+import com.finnova.report_service.model.entity.ReportTransaction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counters on the monthly product statistics.
+ */
+public interface ProductMonthlyStatsOperations {
+
+    /**
+     * Adds a transaction to the statistics of its product and month, creating them if needed.
+     *
+     * @param transaction the transaction, counted once by the caller
+     * @return Mono of Void
+     */
+    Mono<Void> record(ReportTransaction transaction);
+
+    /**
+     * All-time count, amount and commission per product of a customer, summed over the months.
+     *
+     * @param customerId the customer ID
+     * @return Flux of stats, one per product with transactions
+     */
+    Flux<TransactionStatsDto> totalsByCustomer(String customerId);
+}
@@ -0,0 +1,64 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.dto.TransactionStatsDto;
+import com.finnova.report_service.model.entity.ProductMonthlyStats;
+import com.finnova.report_service.model.entity.ReportTransaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@RequiredArgsConstructor
+public class ProductMonthlyStatsOperationsImpl implements ProductMonthlyStatsOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> record(ReportTransaction transaction) {
+        YearMonth month = YearMonth.from(transaction.getTransactionDate());
+
+        Update update = new Update()
+                .setOnInsert("productId", transaction.getProductId())
+                .setOnInsert("customerId", transaction.getCustomerId())
+                .setOnInsert("productType", transaction.getProductType())
+                .setOnInsert("month", month.toString())
+                .inc("transactionCount", 1L)
+                .inc("totalAmount", orZero(transaction.getAmount()))
+                .inc("totalCommission", orZero(transaction.getCommission()))
+                .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(
+                                ProductMonthlyStats.idOf(transaction.getProductId(), month))),
+                        update,
+                        ProductMonthlyStats.class)
+                .then();
+    }
+
+    @Override
+    public Flux<TransactionStatsDto> totalsByCustomer(String customerId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("customerId").is(customerId)),
+                Aggregation.group("productId")
+                        .sum("transactionCount").as("count")
+                        .sum("totalAmount").as("totalAmount")
+                        .sum("totalCommission").as("totalCommission"),
+                Aggregation.project("count", "totalAmount", "totalCommission")
+                        .and("_id").as("productId")
+                        .andExclude("_id"));
+
+        return mongoTemplate.aggregate(aggregation, ProductMonthlyStats.class, TransactionStatsDto.class);
+    }
+
+    private BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
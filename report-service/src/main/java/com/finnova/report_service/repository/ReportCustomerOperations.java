@@ -0,0 +1,32 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ReportCustomer;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field-level upserts on read-model customers, written like read-model products.
+ */
+public interface ReportCustomerOperations {
+
+    /**
+     * Sets the non-null identity fields of a customer, creating it if needed.
+     *
+     * @param customerId the customer ID
+     * @param identity carries the identity fields to set
+     * @return Mono of Void
+     */
+    Mono<Void> upsertIdentity(String customerId, ReportCustomer identity);
+
+    /**
+     * Sets the non-null state fields of a customer unless it already holds state
+     * from a later change, creating the customer if needed.
+     *
+     * @param customerId the customer ID
+     * @param stateAt the time of the change
+     * @param state carries the state fields to set
+     * @return Mono of true if applied, false if the customer already holds newer state
+     */
+    Mono<Boolean> applyState(String customerId, LocalDateTime stateAt, ReportCustomer state);
+}
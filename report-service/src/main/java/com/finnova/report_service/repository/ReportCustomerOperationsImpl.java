@@ -0,0 +1,63 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ReportCustomer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class ReportCustomerOperationsImpl implements ReportCustomerOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> upsertIdentity(String customerId, ReportCustomer identity) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        setIfPresent(update, "documentType", identity.getDocumentType());
+        setIfPresent(update, "documentNumber", identity.getDocumentNumber());
+        setIfPresent(update, "customerType", identity.getCustomerType());
+        setIfPresent(update, "firstName", identity.getFirstName());
+        setIfPresent(update, "lastName", identity.getLastName());
+
+        return mongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(customerId)),
+                        update,
+                        ReportCustomer.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> applyState(String customerId, LocalDateTime stateAt, ReportCustomer state) {
+        Query query = Query.query(Criteria.where("_id").is(customerId)
+                .orOperator(
+                        Criteria.where("stateAt").exists(false),
+                        Criteria.where("stateAt").lte(stateAt)));
+
+        Update update = new Update()
+                .set("stateAt", stateAt)
+                .set("updatedAt", LocalDateTime.now());
+        setIfPresent(update, "profileType", state.getProfileType());
+        setIfPresent(update, "email", state.getEmail());
+        setIfPresent(update, "phone", state.getPhone());
+        setIfPresent(update, "active", state.getActive());
+        setIfPresent(update, "deleted", state.getDeleted());
+
+        // When the customer holds newer state the filter misses and the upsert
+        // collides with the existing _id
+        return mongoTemplate.upsert(query, update, ReportCustomer.class)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    private void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+}
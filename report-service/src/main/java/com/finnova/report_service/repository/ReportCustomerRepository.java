@@ -0,0 +1,10 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ReportCustomer;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReportCustomerRepository
+        extends ReactiveMongoRepository<ReportCustomer, String>, ReportCustomerOperations {
+}
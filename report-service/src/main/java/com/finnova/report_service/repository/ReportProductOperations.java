@@ -0,0 +1,34 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ReportProduct;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field-level upserts on read-model products. Events from different topics arrive
+ * in no particular order, so identity and state are written separately.
+ */
+public interface ReportProductOperations {
+
+    /**
+     * Sets the non-null identity fields of a product, creating it if needed.
+     * Identity fields never change, so these writes are not ordered.
+     *
+     * @param productId the product ID
+     * @param identity carries the identity fields to set
+     * @return Mono of Void
+     */
+    Mono<Void> upsertIdentity(String productId, ReportProduct identity);
+
+    /**
+     * Sets the non-null state fields of a product unless it already holds state
+     * from a later change, creating the product if needed.
+     *
+     * @param productId the product ID
+     * @param stateAt the time of the change
+     * @param state carries the state fields to set
+     * @return Mono of true if applied, false if the product already holds newer state
+     */
+    Mono<Boolean> applyState(String productId, LocalDateTime stateAt, ReportProduct state);
+}
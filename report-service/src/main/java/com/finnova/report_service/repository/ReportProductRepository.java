@@ -0,0 +1,15 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ReportProduct;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReportProductRepository
+        extends ReactiveMongoRepository<ReportProduct, String>, ReportProductOperations {
+
+    Flux<ReportProduct> findByCustomerIdAndStatusNot(String customerId, String status);
+
+    Flux<ReportProduct> findByProductTypeAndStatusNot(String productType, String status);
+}
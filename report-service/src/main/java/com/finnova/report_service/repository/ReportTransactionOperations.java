@@ -0,0 +1,34 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.dto.TransactionStatsDto;
+import com.finnova.report_service.model.entity.ReportTransaction;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes and aggregations on read-model transactions.
+ */
+public interface ReportTransactionOperations {
+
+    /**
+     * Transactions of a product in a date range that charged a commission, oldest first.
+     *
+     * @param productId the product ID
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return Flux of transactions
+     */
+    Flux<ReportTransaction> findWithCommission(String productId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Count, amount and commission per product of the given type in a date range.
+     * Products without transactions in the range are absent.
+     *
+     * @param productType the product type
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return Flux of stats, one per product
+     */
+    Flux<TransactionStatsDto> statsByProductType(String productType, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,46 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.dto.TransactionStatsDto;
+import com.finnova.report_service.model.entity.ReportTransaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class ReportTransactionOperationsImpl implements ReportTransactionOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<ReportTransaction> findWithCommission(String productId, LocalDateTime from, LocalDateTime to) {
+        Query query = Query.query(Criteria.where("productId").is(productId)
+                        .and("transactionDate").gte(from).lte(to)
+                        .and("commission").gt(BigDecimal.ZERO))
+                .with(Sort.by(Sort.Direction.ASC, "transactionDate"));
+
+        return mongoTemplate.find(query, ReportTransaction.class);
+    }
+
+    @Override
+    public Flux<TransactionStatsDto> statsByProductType(String productType, LocalDateTime from, LocalDateTime to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("productType").is(productType)
+                        .and("transactionDate").gte(from).lte(to)),
+                Aggregation.group("productId")
+                        .count().as("count")
+                        .sum("amount").as("totalAmount")
+                        .sum("commission").as("totalCommission"),
+                Aggregation.project("count", "totalAmount", "totalCommission")
+                        .and("_id").as("productId")
+                        .andExclude("_id"));
+
+        return mongoTemplate.aggregate(aggregation, ReportTransaction.class, TransactionStatsDto.class);
+    }
+}
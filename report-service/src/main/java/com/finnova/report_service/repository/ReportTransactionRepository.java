@@ -0,0 +1,13 @@
+package com.finnova.report_service.repository;
+
+import com.finnova.report_service.model.entity.ReportTransaction;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReportTransactionRepository
+        extends ReactiveMongoRepository<ReportTransaction, String>, ReportTransactionOperations {
+
+    Flux<ReportTransaction> findTop20ByCustomerIdOrderByTransactionDateDesc(String customerId);
+}
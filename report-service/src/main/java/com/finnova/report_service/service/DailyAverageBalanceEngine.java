@@ -0,0 +1,195 @@
+package com.finnova.report_service.service;
+
+import com.finnova.report_service.model.entity.ProductDailyBalance;
+import com.finnova.report_service.repository.ProductDailyBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Time-weighted average balances of passive products. Every balance change is folded into
+ * the day it happened on as it arrives, so an average over a period reads one document per
+ * day with changes instead of replaying the transactions of the period.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DailyAverageBalanceEngine {
+
+    private static final int MAX_CONFLICT_RETRIES = 3;
+
+    private final ProductDailyBalanceRepository productDailyBalanceRepository;
+
+    /**
+     * Average balance of a product over a period.
+     *
+     * @param average the time-weighted average balance
+     * @param minBalance the lowest balance held in the period
+     * @param maxBalance the highest balance held in the period
+     * @param from the start of the period
+     * @param to the end of the period, now for the current month
+     */
+    public record BalanceAverage(BigDecimal average, BigDecimal minBalance, BigDecimal maxBalance,
+                                 LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * Folds a balance change into its day. A change already folded, by event ID, is a redelivery
+     * and is skipped; a change older than the last one of its day is placed by its time and the
+     * day is folded again.
+     *
+     * @param productId the product ID
+     * @param changeId the ID of the event carrying the change
+     * @param changedAt the time of the change
+     * @param previousBalance the balance before the change, null if unknown
+     * @param newBalance the balance after the change
+     * @return Mono of true if folded, false if skipped
+     */
+    public Mono<Boolean> apply(String productId, String changeId, LocalDateTime changedAt,
+                               BigDecimal previousBalance, BigDecimal newBalance) {
+        LocalDate date = changedAt.toLocalDate();
+        ProductDailyBalance.Change change = new ProductDailyBalance.Change(
+                changeId, changedAt, previousBalance, newBalance);
+
+        return Mono.defer(() -> productDailyBalanceRepository.findById(ProductDailyBalance.idOf(productId, date))
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(stored -> {
+                            ProductDailyBalance day = stored.orElseGet(() -> ProductDailyBalance.builder()
+                                    .id(ProductDailyBalance.idOf(productId, date))
+                                    .productId(productId)
+                                    .date(date)
+                                    .build());
+                            Integer expectedChanges = stored.isPresent() ? day.getChanges().size() : null;
+
+                            if (day.getChanges().stream().anyMatch(folded -> folded.getId().equals(changeId))) {
+                                log.debug("Skipped balance change {} of product {}, already folded",
+                                        changeId, productId);
+                                return Mono.just(false);
+                            }
+
+                            day.getChanges().add(change);
+                            fold(day);
+                            return productDailyBalanceRepository.saveIfUnchanged(day, expectedChanges)
+                                    .thenReturn(true);
+                        }))
+                .retryWhen(Retry.max(MAX_CONFLICT_RETRIES)
+                        .filter(OptimisticLockingFailureException.class::isInstance));
+    }
+
+    /**
+     * Time-weighted average balance of a product over a month, up to now for the current month.
+     * Reads the days of the month with changes plus one day on either side.
+     *
+     * @param productId the product ID
+     * @param month the month
+     * @param currentBalance the balance to assume when the product has no recorded changes
+     * @return Mono of the average, empty for a month that has not started
+     */
+    public Mono<BalanceAverage> monthAverage(String productId, YearMonth month, BigDecimal currentBalance) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+        LocalDateTime to = now.isBefore(monthEnd) ? now : monthEnd;
+        if (!to.isAfter(from)) {
+            return Mono.empty();
+        }
+
+        // Balance held at the start of the month: the last closing before it, else the opening
+        // of the first change since, else the current balance
+        Mono<BigDecimal> startBalance = productDailyBalanceRepository
+                .findFirstByProductIdAndDateLessThanOrderByDateDesc(productId, month.atDay(1))
+                .map(ProductDailyBalance::getClosingBalance)
+                .switchIfEmpty(Mono.defer(() -> productDailyBalanceRepository
+                        .findFirstByProductIdAndDateGreaterThanEqualOrderByDateAsc(productId, month.atDay(1))
+                        .map(ProductDailyBalance::getOpeningBalance)))
+                .defaultIfEmpty(currentBalance != null ? currentBalance : BigDecimal.ZERO);
+
+        return Mono.zip(startBalance,
+                        productDailyBalanceRepository.findDays(productId, month.atDay(1), to.toLocalDate())
+                                .collectList())
+                .map(tuple -> average(tuple.getT1(), tuple.getT2(), from, to));
+    }
+
+    /**
+     * Folds the changes of a day in time order, from the balance before the first one, which
+     * held since midnight.
+     */
+    static void fold(ProductDailyBalance day) {
+        List<ProductDailyBalance.Change> changes = day.getChanges();
+        changes.sort(Comparator.comparing(ProductDailyBalance.Change::getChangedAt));
+
+        ProductDailyBalance.Change first = changes.get(0);
+        BigDecimal balance = first.getPreviousBalance() != null ? first.getPreviousBalance() : first.getNewBalance();
+        LocalDateTime balanceSince = day.getDate().atStartOfDay();
+        BigDecimal balanceSeconds = BigDecimal.ZERO;
+        BigDecimal minBalance = balance;
+        BigDecimal maxBalance = balance;
+        day.setOpeningBalance(balance);
+
+        for (ProductDailyBalance.Change change : changes) {
+            balanceSeconds = balanceSeconds.add(balance.multiply(seconds(balanceSince, change.getChangedAt())));
+            balance = change.getNewBalance();
+            balanceSince = change.getChangedAt();
+            minBalance = minBalance.min(balance);
+            maxBalance = maxBalance.max(balance);
+        }
+
+        day.setClosingBalance(balance);
+        day.setClosingAt(balanceSince);
+        day.setBalanceSeconds(balanceSeconds);
+        day.setMinBalance(minBalance);
+        day.setMaxBalance(maxBalance);
+    }
+
+    private BalanceAverage average(BigDecimal startBalance, List<ProductDailyBalance> days,
+                                   LocalDateTime from, LocalDateTime to) {
+        Map<LocalDate, ProductDailyBalance> daysByDate = days.stream()
+                .collect(Collectors.toMap(ProductDailyBalance::getDate, Function.identity()));
+
+        BigDecimal balance = startBalance;
+        BigDecimal minBalance = startBalance;
+        BigDecimal maxBalance = startBalance;
+        BigDecimal balanceSeconds = BigDecimal.ZERO;
+
+        for (LocalDate date = from.toLocalDate(); date.atStartOfDay().isBefore(to); date = date.plusDays(1)) {
+            LocalDateTime dayEnd = date.plusDays(1).atStartOfDay().isBefore(to) ? date.plusDays(1).atStartOfDay() : to;
+            ProductDailyBalance day = daysByDate.get(date);
+
+            if (day == null || day.getClosingAt().isAfter(dayEnd)) {
+                // No change folded before the end of the period, the carried balance held all along
+                balanceSeconds = balanceSeconds.add(balance.multiply(seconds(date.atStartOfDay(), dayEnd)));
+                continue;
+            }
+            balanceSeconds = balanceSeconds
+                    .add(day.getBalanceSeconds())
+                    .add(day.getClosingBalance().multiply(seconds(day.getClosingAt(), dayEnd)));
+            balance = day.getClosingBalance();
+            minBalance = minBalance.min(day.getMinBalance());
+            maxBalance = maxBalance.max(day.getMaxBalance());
+        }
+
+        BigDecimal average = balanceSeconds.divide(seconds(from, to), 2, RoundingMode.HALF_UP);
+        return new BalanceAverage(average, minBalance, maxBalance, from, to);
+    }
+
+    private static BigDecimal seconds(LocalDateTime from, LocalDateTime to) {
+        return BigDecimal.valueOf(Duration.between(from, to).toMillis(), 3);
+    }
+}
@@ -0,0 +1,34 @@
+package com.finnova.report_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Time reports have to be answered in, configured per report as report.deadline.{report}
+ * or report.deadline.default.
+ */
+@Component
+public class ReportDeadlines {
+
+    private final Environment environment;
+    private final Duration defaultDeadline;
+
+    public ReportDeadlines(Environment environment,
+                           @Value("${report.deadline.default:10s}") Duration defaultDeadline) {
+        this.environment = environment;
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    /**
+     * Time a report has to be answered in.
+     *
+     * @param report the report name, e.g. "product"
+     * @return the timeout of the report
+     */
+    public Duration timeout(String report) {
+        return environment.getProperty("report.deadline." + report, Duration.class, defaultDeadline);
+    }
+}
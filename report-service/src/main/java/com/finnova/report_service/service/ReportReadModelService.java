@@ -0,0 +1,455 @@
+package com.finnova.report_service.service;
+
+import com.finnova.report_service.client.CustomerClient;
+import com.finnova.report_service.client.ProductClient;
+import com.finnova.report_service.event.model.CustomerEvent;
+import com.finnova.report_service.event.model.ProductEvent;
+import com.finnova.report_service.event.model.TransactionEvent;
+import com.finnova.report_service.model.dto.CustomerDto;
+import com.finnova.report_service.model.dto.ProductDto;
+import com.finnova.report_service.model.entity.ReportCustomer;
+import com.finnova.report_service.model.entity.ReportProduct;
+import com.finnova.report_service.model.entity.ReportTransaction;
+import com.finnova.report_service.repository.ProductMonthlyStatsRepository;
+import com.finnova.report_service.repository.ReportCustomerRepository;
+import com.finnova.report_service.repository.ReportProductRepository;
+import com.finnova.report_service.repository.ReportTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the report read-model from customer, product, balance and transaction events,
+ * and serves the customers and products reports are built from. Customers and products the
+ * read-model has not seen yet are loaded once from their services and recorded.
+ *
+ * <p>Products created before the events were consumed are loaded from products-service when
+ * the application starts. Until that backfill has completed, product lists are read from
+ * products-service, since the read-model may be missing some of them.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportReadModelService {
+
+    private static final Set<String> PASSIVE_TYPES = Set.of("SAVINGS", "CHECKING", "FIXED_TERM");
+    private static final Set<String> CREDIT_OPERATIONS = Set.of("CHARGE", "PAYMENT");
+    private static final Duration BACKFILL_RETRY_MIN_BACKOFF = Duration.ofSeconds(5);
+    private static final Duration BACKFILL_RETRY_MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final ReportProductRepository reportProductRepository;
+    private final ReportCustomerRepository reportCustomerRepository;
+    private final ReportTransactionRepository reportTransactionRepository;
+    private final ProductMonthlyStatsRepository productMonthlyStatsRepository;
+    private final DailyAverageBalanceEngine dailyAverageBalanceEngine;
+    private final ProductClient productClient;
+    private final CustomerClient customerClient;
+    private final TransactionalOperator transactionalOperator;
+    private final AtomicBoolean backfilled = new AtomicBoolean();
+
+    // ========== READS ==========
+
+    /**
+     * Get a product from the read-model, loading it from products-service on a miss
+     */
+    public Mono<ProductDto> getProduct(String productId) {
+        return reportProductRepository.findById(productId)
+                .filter(product -> !ReportProduct.DELETED.equals(product.getStatus()))
+                .filter(this::isComplete)
+                .map(this::toProductDto)
+                .switchIfEmpty(Mono.defer(() -> productClient.getProduct(productId)
+                        .flatMap(product -> record(product).thenReturn(product))));
+    }
+
+    /**
+     * Get the products of a customer from the read-model once it has been backfilled,
+     * otherwise from products-service. A customer without known products is loaded from
+     * products-service, later products arrive as events.
+     */
+    public Flux<ProductDto> getProductsByCustomer(String customerId) {
+        if (!backfilled.get()) {
+            return loadProductsByCustomer(customerId);
+        }
+        return reportProductRepository.findByCustomerIdAndStatusNot(customerId, ReportProduct.DELETED)
+                .concatMap(this::resolve)
+                .switchIfEmpty(Flux.defer(() -> loadProductsByCustomer(customerId)));
+    }
+
+    /**
+     * Get the products of a type from the read-model once it has been backfilled,
+     * otherwise from products-service
+     */
+    public Flux<ProductDto> getProductsByType(String productType) {
+        if (!backfilled.get()) {
+            return productClient.getProductsByType(productType);
+        }
+        return reportProductRepository.findByProductTypeAndStatusNot(productType, ReportProduct.DELETED)
+                .concatMap(this::resolve);
+    }
+
+    /**
+     * Get a customer from the read-model, falling back to customer-service for customers
+     * whose creation event has not been seen
+     */
+    public Mono<CustomerDto> getCustomer(String customerId) {
+        return reportCustomerRepository.findById(customerId)
+                .filter(customer -> customer.getCustomerType() != null)
+                .map(this::toCustomerDto)
+                .switchIfEmpty(Mono.defer(() -> customerClient.getCustomer(customerId)));
+    }
+
+    /**
+     * Store a product returned by products-service. Failures are logged only,
+     * the read-model catches up with the next event.
+     */
+    public Mono<Void> record(ProductDto product) {
+        return store(product)
+                .onErrorResume(e -> {
+                    log.warn("Error recording product {} in read-model: {}", product.getId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Load every product from products-service into the read-model, retrying until it
+     * succeeds. Product lists are served from the read-model from then on.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        productClient.getAllProducts()
+                .concatMap(this::store)
+                .then(Mono.fromRunnable(() -> backfilled.set(true)))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, BACKFILL_RETRY_MIN_BACKOFF)
+                        .maxBackoff(BACKFILL_RETRY_MAX_BACKOFF)
+                        .doBeforeRetry(signal -> log.warn("Read-model backfill failed, retrying: {}",
+                                signal.failure().getMessage())))
+                .subscribe(null, e -> log.error("Read-model backfill stopped: {}", e.getMessage()),
+                        () -> log.info("Read-model backfilled from products-service"));
+    }
+
+    // ========== EVENTS ==========
+
+    /**
+     * Apply a products-service event to the read-model
+     */
+    public Mono<Void> apply(String eventType, ProductEvent event) {
+        if (event.getProductId() == null) {
+            return Mono.empty();
+        }
+        LocalDateTime stateAt = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+
+        return switch (eventType) {
+            case ProductEvent.PASSIVE_PRODUCT_CREATED -> applyProduct(event.getProductId(),
+                    ReportProduct.builder()
+                            .customerId(event.getCustomerId())
+                            .productType(event.getProductType())
+                            .accountNumber(event.getAccountNumber())
+                            .currency(event.getCurrency())
+                            .build(),
+                    stateAt,
+                    ReportProduct.builder()
+                            .status("ACTIVE")
+                            .balance(event.getBalance())
+                            .maxFreeTransactions(event.getMaxTransactionsWithoutFee())
+                            .minimumDailyAverage(event.getMinimumDailyAverage())
+                            .build())
+                    // A new account holds nothing until it is opened with its opening balance
+                    .then(event.getBalance() == null ? Mono.<Void>empty()
+                            : dailyAverageBalanceEngine.apply(event.getProductId(), eventType, stateAt,
+                                    BigDecimal.ZERO, event.getBalance()).then());
+            case ProductEvent.PASSIVE_PRODUCT_UPDATED -> applyProduct(event.getProductId(),
+                    ReportProduct.builder()
+                            .customerId(event.getCustomerId())
+                            .accountNumber(event.getAccountNumber())
+                            .build(),
+                    stateAt,
+                    ReportProduct.builder()
+                            .status(event.getStatus())
+                            .balance(event.getBalance())
+                            .maxFreeTransactions(event.getMaxTransactionsWithoutFee())
+                            .minimumDailyAverage(event.getMinimumDailyAverage())
+                            .build());
+            case ProductEvent.ACTIVE_PRODUCT_CREATED -> applyProduct(event.getProductId(),
+                    ReportProduct.builder()
+                            .customerId(event.getCustomerId())
+                            .productType(event.getProductType())
+                            .accountNumber(event.getCreditNumber())
+                            .currency(event.getCurrency())
+                            .build(),
+                    stateAt,
+                    ReportProduct.builder()
+                            .status("ACTIVE")
+                            .creditLimit(event.getCreditLimit())
+                            .availableCredit(event.getCreditLimit())
+                            .build());
+            case ProductEvent.ACTIVE_PRODUCT_UPDATED -> applyProduct(event.getProductId(),
+                    ReportProduct.builder()
+                            .customerId(event.getCustomerId())
+                            .accountNumber(event.getCreditNumber())
+                            .build(),
+                    stateAt,
+                    ReportProduct.builder()
+                            .status(event.getStatus())
+                            .creditLimit(event.getCreditLimit())
+                            .availableCredit(event.getAvailableCredit())
+                            .build());
+            // Deleted products leave the reports but keep their history
+            case ProductEvent.PASSIVE_PRODUCT_DELETED, ProductEvent.ACTIVE_PRODUCT_DELETED ->
+                    applyProduct(event.getProductId(),
+                            ReportProduct.builder().build(),
+                            stateAt,
+                            ReportProduct.builder().status(ReportProduct.DELETED).build());
+            case ProductEvent.BALANCE_CHANGED -> {
+                boolean credit = CREDIT_OPERATIONS.contains(event.getOperationType());
+                Mono<Void> product = applyProduct(event.getProductId(),
+                        ReportProduct.builder()
+                                .customerId(event.getCustomerId())
+                                .accountNumber(event.getProductNumber())
+                                .build(),
+                        stateAt,
+                        ReportProduct.builder()
+                                .balance(credit ? null : event.getNewBalance())
+                                .availableCredit(credit ? event.getNewBalance() : null)
+                                .build());
+                // Daily balances are kept for passive products, whose events carry the balance
+                yield credit || event.getNewBalance() == null
+                        ? product
+                        : product.then(dailyAverageBalanceEngine.apply(event.getProductId(), changeId(event, stateAt),
+                                stateAt, event.getPreviousBalance(), event.getNewBalance()).then());
+            }
+            default -> {
+                log.debug("Ignoring product event of type {}", eventType);
+                yield Mono.empty();
+            }
+        };
+    }
+
+    /**
+     * Apply a transaction-service event to the read-model. Completed transactions are stored
+     * once per transaction ID and added to the monthly statistics in the same Mongo transaction,
+     * so a redelivered event is not counted twice and a failed write is not counted at all.
+     */
+    public Mono<Void> apply(TransactionEvent event) {
+        if (!TransactionEvent.TRANSACTION_COMPLETED.equals(event.getEventType())
+                || event.getTransactionId() == null || event.getProductId() == null) {
+            return Mono.empty();
+        }
+
+        ReportTransaction transaction = ReportTransaction.builder()
+                .id(event.getTransactionId())
+                .transactionNumber(event.getTransactionNumber())
+                .customerId(event.getCustomerId())
+                .productId(event.getProductId())
+                .productType(event.getProductType())
+                .transactionType(event.getTransactionType())
+                .amount(event.getAmount())
+                .balanceBefore(event.getBalanceBefore())
+                .balanceAfter(event.getBalanceAfter())
+                .commission(event.getCommission())
+                .description(event.getDescription())
+                .status(event.getStatus())
+                .transactionDate(event.getTransactionDate() != null
+                        ? event.getTransactionDate() : event.getTimestamp())
+                .recordedAt(LocalDateTime.now())
+                .build();
+
+        return transactionalOperator.transactional(reportTransactionRepository.existsById(transaction.getId())
+                .flatMap(exists -> {
+                    if (exists) {
+                        log.debug("Transaction {} already in read-model", transaction.getId());
+                        return Mono.<Void>empty();
+                    }
+                    return reportTransactionRepository.insert(transaction)
+                            .then(productMonthlyStatsRepository.record(transaction));
+                }));
+    }
+
+    /**
+     * Apply a customer-service event to the read-model
+     */
+    public Mono<Void> apply(String eventType, CustomerEvent event) {
+        if (event.getCustomerId() == null) {
+            return Mono.empty();
+        }
+        LocalDateTime stateAt = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+
+        return switch (eventType) {
+            case CustomerEvent.CUSTOMER_CREATED -> applyCustomer(event.getCustomerId(),
+                    ReportCustomer.builder()
+                            .documentType(event.getDocumentType())
+                            .documentNumber(event.getDocumentNumber())
+                            .customerType(event.getCustomerType())
+                            .firstName(event.getFirstName())
+                            .lastName(event.getLastName())
+                            .build(),
+                    stateAt,
+                    ReportCustomer.builder()
+                            .profileType(event.getProfileType())
+                            .email(event.getEmail())
+                            .phone(event.getPhone())
+                            .active(true)
+                            .build());
+            case CustomerEvent.CUSTOMER_UPDATED -> applyCustomer(event.getCustomerId(),
+                    ReportCustomer.builder()
+                            .documentNumber(event.getDocumentNumber())
+                            .build(),
+                    stateAt,
+                    ReportCustomer.builder()
+                            .profileType(event.getProfileType())
+                            .email(event.getEmail())
+                            .phone(event.getPhone())
+                            .active(event.getActive())
+                            .build());
+            case CustomerEvent.CUSTOMER_DELETED -> applyCustomer(event.getCustomerId(),
+                    ReportCustomer.builder()
+                            .documentNumber(event.getDocumentNumber())
+                            .build(),
+                    stateAt,
+                    ReportCustomer.builder()
+                            .active(false)
+                            .deleted(true)
+                            .build());
+            default -> {
+                log.debug("Ignoring customer event of type {}", eventType);
+                yield Mono.empty();
+            }
+        };
+    }
+
+    // ========== HELPER METHODS ==========
+
+    private Flux<ProductDto> loadProductsByCustomer(String customerId) {
+        return productClient.getProductsByCustomer(customerId)
+                .concatMap(product -> record(product).thenReturn(product));
+    }
+
+    /**
+     * The read-model product, or the product loaded from products-service while the
+     * read-model still lacks some of its fields
+     */
+    private Mono<ProductDto> resolve(ReportProduct product) {
+        if (isComplete(product)) {
+            return Mono.just(toProductDto(product));
+        }
+        return productClient.getProduct(product.getId())
+                .flatMap(loaded -> record(loaded).thenReturn(loaded));
+    }
+
+    private Mono<Void> store(ProductDto product) {
+        boolean passive = PASSIVE_TYPES.contains(product.getProductType());
+
+        ReportProduct identity = ReportProduct.builder()
+                .customerId(product.getCustomerId())
+                .productType(product.getProductType())
+                .accountNumber(product.getAccountNumber())
+                .build();
+
+        ReportProduct state = ReportProduct.builder()
+                .status(product.getStatus())
+                .creditLimit(passive ? null : product.getCreditLimit())
+                .maxFreeTransactions(passive ? product.getMaxFreeTransactions() : null)
+                .minimumDailyAverage(passive ? product.getMinimumDailyAverage() : null)
+                .balance(passive ? product.getBalance() : null)
+                .availableCredit(passive ? null : product.getAvailableBalance())
+                .build();
+
+        return applyProduct(product.getId(), identity, LocalDateTime.now(), state);
+    }
+
+    private Mono<Void> applyProduct(String productId, ReportProduct identity, LocalDateTime stateAt,
+                                    ReportProduct state) {
+        return reportProductRepository.upsertIdentity(productId, identity)
+                .then(reportProductRepository.applyState(productId, stateAt, state))
+                .doOnNext(applied -> {
+                    if (!applied) {
+                        log.debug("Skipped stale state for product {} at {}", productId, stateAt);
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> applyCustomer(String customerId, ReportCustomer identity, LocalDateTime stateAt,
+                                     ReportCustomer state) {
+        return reportCustomerRepository.upsertIdentity(customerId, identity)
+                .then(reportCustomerRepository.applyState(customerId, stateAt, state))
+                .doOnNext(applied -> {
+                    if (!applied) {
+                        log.debug("Skipped stale state for customer {} at {}", customerId, stateAt);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * ID a balance change is deduplicated by. Events published before they carried an ID are
+     * told apart by their time and resulting balance.
+     */
+    private String changeId(ProductEvent event, LocalDateTime stateAt) {
+        return event.getEventId() != null ? event.getEventId() : stateAt + ":" + event.getNewBalance();
+    }
+
+    /**
+     * A product built from events alone may lack fields until its creation event or a
+     * first load from products-service has been seen.
+     */
+    private boolean isComplete(ReportProduct product) {
+        if (product.getProductType() == null || product.getCustomerId() == null
+                || product.getStatus() == null) {
+            return false;
+        }
+        if (PASSIVE_TYPES.contains(product.getProductType())) {
+            return product.getBalance() != null;
+        }
+        return product.getAvailableCredit() != null && product.getCreditLimit() != null;
+    }
+
+    private ProductDto toProductDto(ReportProduct product) {
+        ProductDto.ProductDtoBuilder dto = ProductDto.builder()
+                .id(product.getId())
+                .customerId(product.getCustomerId())
+                .productType(product.getProductType())
+                .accountNumber(product.getAccountNumber())
+                .status(product.getStatus())
+                .createdAt(product.getCreatedAt());
+
+        if (PASSIVE_TYPES.contains(product.getProductType())) {
+            return dto
+                    .balance(product.getBalance())
+                    .availableBalance(product.getBalance())
+                    .maxFreeTransactions(product.getMaxFreeTransactions())
+                    .minimumDailyAverage(product.getMinimumDailyAverage())
+                    .build();
+        }
+        return dto
+                .balance(product.getCreditLimit().subtract(product.getAvailableCredit()))
+                .creditLimit(product.getCreditLimit())
+                .availableBalance(product.getAvailableCredit())
+                .build();
+    }
+
+    private CustomerDto toCustomerDto(ReportCustomer customer) {
+        return CustomerDto.builder()
+                .id(customer.getId())
+                .documentType(customer.getDocumentType())
+                .documentNumber(customer.getDocumentNumber())
+                .firstName(customer.getFirstName())
+                .lastName(customer.getLastName())
+                .email(customer.getEmail())
+                .phoneNumber(customer.getPhone())
+                .customerType(customer.getCustomerType())
+                .customerProfile(customer.getProfileType())
+                .build();
+    }
+}
@@ -1,14 +1,13 @@
 package com.finnova.report_service.service;
 
 import com.finnova.report_service.client.CardClient;
-import com.finnova.report_service.client.CustomerClient;
-import com.finnova.report_service.client.ProductClient;
-import com.finnova.report_service.client.TransactionClient;
 import com.finnova.report_service.model.dto.*;
+import com.finnova.report_service.model.entity.ReportTransaction;
+import com.finnova.report_service.repository.ProductMonthlyStatsRepository;
+import com.finnova.report_service.repository.ReportTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
@@ -16,8 +15,8 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -26,32 +25,37 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReportService {
 
-    private final CustomerClient customerClient;
-    private final ProductClient productClient;
-    private final TransactionClient transactionClient;
     private final CardClient cardClient;
+    private final ReportDeadlines reportDeadlines;
+    private final ReportReadModelService reportReadModelService;
+    private final ReportTransactionRepository reportTransactionRepository;
+    private final ProductMonthlyStatsRepository productMonthlyStatsRepository;
+    private final DailyAverageBalanceEngine dailyAverageBalanceEngine;
 
     // ========== CONSOLIDATED REPORT ==========
 
     /**
-     * Generate consolidated report for a customer (Proyecto III)
+     * Generate consolidated report for a customer (Proyecto III).
+     * Everything but the debit cards is read from the local read-model
      */
     public Mono<ConsolidatedReportDto> getConsolidatedReport(String customerId) {
         log.info("Generating consolidated report for customer: {}", customerId);
 
         return Mono.zip(
-                customerClient.getCustomer(customerId),
-                productClient.getProductsByCustomer(customerId).collectList(),
-                transactionClient.getTransactionsByCustomer(customerId)
-                        .sort((t1, t2) -> t2.getTransactionDate().compareTo(t1.getTransactionDate()))
-                        .take(20)
+                reportReadModelService.getCustomer(customerId),
+                reportReadModelService.getProductsByCustomer(customerId).collectList(),
+                reportTransactionRepository.findTop20ByCustomerIdOrderByTransactionDateDesc(customerId)
+                        .map(this::toTransactionDto)
                         .collectList(),
+                productMonthlyStatsRepository.totalsByCustomer(customerId)
+                        .collectMap(TransactionStatsDto::getProductId, t -> t.getCount().intValue()),
                 cardClient.getDebitCardsByCustomer(customerId).collectList()
-        ).flatMap(tuple -> {
+        ).timeout(reportDeadlines.timeout("consolidated")).map(tuple -> {
             CustomerDto customer = tuple.getT1();
             List<ProductDto> products = tuple.getT2();
             List<TransactionDto> recentTransactions = tuple.getT3();
-            List<DebitCardDto> debitCards = tuple.getT4();
+            Map<String, Integer> transactionCounts = tuple.getT4();
+            List<DebitCardDto> debitCards = tuple.getT5();
 
             // Separate passive and active products
             List<ProductDto> passiveProducts = products.stream()
@@ -63,93 +67,81 @@ public class ReportService {
                     .collect(Collectors.toList());
 
             // Convert to summaries
-            return Flux.fromIterable(passiveProducts)
-                    .flatMap(product -> countProductTransactions(product.getId())
-                            .map(count -> ConsolidatedReportDto.ProductSummary.builder()
-                                    .productId(product.getId())
-                                    .productType(product.getProductType())
-                                    .accountNumber(product.getAccountNumber())
-                                    .balance(product.getBalance())
-                                    .status(product.getStatus())
-                                    .transactionCount(count)
-                                    .build())
-                    )
-                    .collectList()
-                    .flatMap(passiveSummaries ->
-                            Flux.fromIterable(activeProducts)
-                                    .flatMap(product -> countProductTransactions(product.getId())
-                                            .map(count -> ConsolidatedReportDto.ProductSummary.builder()
-                                                    .productId(product.getId())
-                                                    .productType(product.getProductType())
-                                                    .accountNumber(product.getAccountNumber())
-                                                    .creditLimit(product.getCreditLimit())
-                                                    .availableBalance(product.getAvailableBalance())
-                                                    .balance(product.getCreditLimit().subtract(product.getAvailableBalance()))
-                                                    .status(product.getStatus())
-                                                    .transactionCount(count)
-                                                    .build())
-                                    )
-                                    .collectList()
-                                    .map(activeSummaries -> {
-                                        // Calculate totals
-                                        BigDecimal totalBalance = passiveSummaries.stream()
-                                                .map(ConsolidatedReportDto.ProductSummary::getBalance)
-                                                .filter(Objects::nonNull)
-                                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                                        BigDecimal totalAvailableCredit = activeSummaries.stream()
-                                                .map(ConsolidatedReportDto.ProductSummary::getAvailableBalance)
-                                                .filter(Objects::nonNull)
-                                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                                        BigDecimal totalDebt = activeSummaries.stream()
-                                                .map(ConsolidatedReportDto.ProductSummary::getBalance)
-                                                .filter(Objects::nonNull)
-                                                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                                        BigDecimal netWorth = totalBalance.subtract(totalDebt);
-
-                                        return ConsolidatedReportDto.builder()
-                                                .customer(customer)
-                                                .passiveProducts(passiveSummaries)
-                                                .activeProducts(activeSummaries)
-                                                .debitCards(debitCards)
-                                                .recentTransactions(recentTransactions)
-                                                .totalBalance(totalBalance)
-                                                .totalAvailableCredit(totalAvailableCredit)
-                                                .totalDebt(totalDebt)
-                                                .netWorth(netWorth)
-                                                .generatedAt(LocalDateTime.now())
-                                                .build();
-                                    })
-                    );
+            List<ConsolidatedReportDto.ProductSummary> passiveSummaries = passiveProducts.stream()
+                    .map(product -> ConsolidatedReportDto.ProductSummary.builder()
+                            .productId(product.getId())
+                            .productType(product.getProductType())
+                            .accountNumber(product.getAccountNumber())
+                            .balance(product.getBalance())
+                            .status(product.getStatus())
+                            .transactionCount(transactionCounts.getOrDefault(product.getId(), 0))
+                            .build())
+                    .collect(Collectors.toList());
+
+            List<ConsolidatedReportDto.ProductSummary> activeSummaries = activeProducts.stream()
+                    .map(product -> ConsolidatedReportDto.ProductSummary.builder()
+                            .productId(product.getId())
+                            .productType(product.getProductType())
+                            .accountNumber(product.getAccountNumber())
+                            .creditLimit(product.getCreditLimit())
+                            .availableBalance(product.getAvailableBalance())
+                            .balance(product.getCreditLimit().subtract(product.getAvailableBalance()))
+                            .status(product.getStatus())
+                            .transactionCount(transactionCounts.getOrDefault(product.getId(), 0))
+                            .build())
+                    .collect(Collectors.toList());
+
+            // Calculate totals
+            BigDecimal totalBalance = passiveSummaries.stream()
+                    .map(ConsolidatedReportDto.ProductSummary::getBalance)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            BigDecimal totalAvailableCredit = activeSummaries.stream()
+                    .map(ConsolidatedReportDto.ProductSummary::getAvailableBalance)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            BigDecimal totalDebt = activeSummaries.stream()
+                    .map(ConsolidatedReportDto.ProductSummary::getBalance)
+                    .filter(Objects::nonNull)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            BigDecimal netWorth = totalBalance.subtract(totalDebt);
+
+            return ConsolidatedReportDto.builder()
+                    .customer(customer)
+                    .passiveProducts(passiveSummaries)
+                    .activeProducts(activeSummaries)
+                    .debitCards(debitCards)
+                    .recentTransactions(recentTransactions)
+                    .totalBalance(totalBalance)
+                    .totalAvailableCredit(totalAvailableCredit)
+                    .totalDebt(totalDebt)
+                    .netWorth(netWorth)
+                    .generatedAt(LocalDateTime.now())
+                    .build();
         });
     }
 
     // ========== DAILY AVERAGE REPORT ==========
 
     /**
-     * Generate daily average balance report (Proyecto II)
+     * Generate daily average balance report (Proyecto II). Passive products are averaged over
+     * the month, up to now for the current month, from the daily balances of the read-model;
+     * active products report their current balance
      */
     public Mono<DailyAverageReportDto> getDailyAverageBalanceReport(String customerId, Integer month, Integer year) {
         log.info("Generating daily average report for customer: {} - {}/{}", customerId, month, year);
 
         YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDateTime startDate = yearMonth.atDay(1).atStartOfDay();
-        LocalDateTime endDate = yearMonth.atEndOfMonth().atTime(23, 59, 59);
         int daysInMonth = yearMonth.lengthOfMonth();
 
-        return productClient.getProductsByCustomer(customerId)
+        return reportReadModelService.getProductsByCustomer(customerId)
                 .filter(product -> isPassiveProduct(product.getProductType()) || isActiveProduct(product.getProductType()))
-                .flatMap(product ->
-                        transactionClient.getTransactionsByProductAndDateRange(product.getId(), startDate, endDate)
-                                .collectList()
-                                .map(transactions -> calculateDailyAverage(product, transactions, daysInMonth))
-                )
-                .collectMap(
-                        avg -> avg.getProductId(),
-                        avg -> avg
-                )
+                .flatMap(product -> calculateDailyAverage(product, yearMonth, daysInMonth))
+                .collectMap(DailyAverageReportDto.ProductDailyAverage::getProductId)
+                .timeout(reportDeadlines.timeout("daily-average"))
                 .map(productAverages -> {
                     BigDecimal overallAverage = productAverages.values().stream()
                             .map(DailyAverageReportDto.ProductDailyAverage::getAverageDailyBalance)
@@ -166,71 +158,69 @@ public class ReportService {
                 });
     }
 
+    /**
+     * Month-to-date daily average of a passive product against its VIP minimum daily average
+     */
+    public Mono<DailyAverageStatusDto> getDailyAverageStatus(String productId) {
+        log.info("Checking daily average of product: {}", productId);
+
+        YearMonth currentMonth = YearMonth.now();
+
+        return reportReadModelService.getProduct(productId)
+                .filter(product -> isPassiveProduct(product.getProductType()))
+                .flatMap(product -> dailyAverageBalanceEngine.monthAverage(
+                                product.getId(), currentMonth, product.getBalance())
+                        .map(average -> DailyAverageStatusDto.builder()
+                                .productId(product.getId())
+                                .accountNumber(product.getAccountNumber())
+                                .month(currentMonth.getMonthValue())
+                                .year(currentMonth.getYear())
+                                .averageDailyBalance(average.average())
+                                .minimumDailyAverage(product.getMinimumDailyAverage())
+                                .meetsMinimumDailyAverage(product.getMinimumDailyAverage() == null
+                                        || average.average().compareTo(product.getMinimumDailyAverage()) >= 0)
+                                .from(average.from())
+                                .to(average.to())
+                                .generatedAt(LocalDateTime.now())
+                                .build()));
+    }
+
     /**
      * Calculate daily average for a product
      */
-    private DailyAverageReportDto.ProductDailyAverage calculateDailyAverage(
+    private Mono<DailyAverageReportDto.ProductDailyAverage> calculateDailyAverage(
             ProductDto product,
-            List<TransactionDto> transactions,
+            YearMonth month,
             int daysInMonth
     ) {
-        if (transactions.isEmpty()) {
-            return DailyAverageReportDto.ProductDailyAverage.builder()
-                    .productId(product.getId())
-                    .productType(product.getProductType())
-                    .accountNumber(product.getAccountNumber())
-                    .averageDailyBalance(product.getBalance())
-                    .minBalance(product.getBalance())
-                    .maxBalance(product.getBalance())
-                    .daysInMonth(daysInMonth)
-                    .build();
-        }
-
-        // Sort transactions by date
-        List<TransactionDto> sortedTransactions = transactions.stream()
-                .sorted(Comparator.comparing(TransactionDto::getTransactionDate))
-                .collect(Collectors.toList());
-
-        // Calculate daily balances
-        BigDecimal sumOfDailyBalances = BigDecimal.ZERO;
-        BigDecimal currentBalance = sortedTransactions.get(0).getBalanceBefore();
-        BigDecimal minBalance = currentBalance;
-        BigDecimal maxBalance = currentBalance;
-
-        for (TransactionDto tx : sortedTransactions) {
-            currentBalance = tx.getBalanceAfter();
-            sumOfDailyBalances = sumOfDailyBalances.add(currentBalance);
-
-            if (currentBalance.compareTo(minBalance) < 0) {
-                minBalance = currentBalance;
-            }
-            if (currentBalance.compareTo(maxBalance) > 0) {
-                maxBalance = currentBalance;
-            }
-        }
-
-        // Calculate average
-        BigDecimal averageDailyBalance = sumOfDailyBalances.divide(
-                BigDecimal.valueOf(daysInMonth),
-                2,
-                RoundingMode.HALF_UP
-        );
-
-        return DailyAverageReportDto.ProductDailyAverage.builder()
+        DailyAverageReportDto.ProductDailyAverage current = DailyAverageReportDto.ProductDailyAverage.builder()
                 .productId(product.getId())
                 .productType(product.getProductType())
                 .accountNumber(product.getAccountNumber())
-                .averageDailyBalance(averageDailyBalance)
-                .minBalance(minBalance)
-                .maxBalance(maxBalance)
+                .averageDailyBalance(product.getBalance())
+                .minBalance(product.getBalance())
+                .maxBalance(product.getBalance())
                 .daysInMonth(daysInMonth)
                 .build();
+
+        if (!isPassiveProduct(product.getProductType())) {
+            return Mono.just(current);
+        }
+
+        return dailyAverageBalanceEngine.monthAverage(product.getId(), month, product.getBalance())
+                .map(average -> {
+                    current.setAverageDailyBalance(average.average());
+                    current.setMinBalance(average.minBalance());
+                    current.setMaxBalance(average.maxBalance());
+                    return current;
+                })
+                .defaultIfEmpty(current);
     }
 
     // ========== COMMISSION REPORT ==========
 
     /**
-     * Generate commission report for a product (Proyecto II)
+     * Generate commission report for a product (Proyecto II), read from the local read-model
      */
     public Mono<CommissionReportDto> getCommissionReport(
             String productId,
@@ -242,10 +232,9 @@ public class ReportService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
 
-        return productClient.getProduct(productId)
+        return reportReadModelService.getProduct(productId)
                 .flatMap(product ->
-                        transactionClient.getTransactionsByProductAndDateRange(productId, startDateTime, endDateTime)
-                                .filter(tx -> tx.getCommission() != null && tx.getCommission().compareTo(BigDecimal.ZERO) > 0)
+                        reportTransactionRepository.findWithCommission(productId, startDateTime, endDateTime)
                                 .map(tx -> CommissionReportDto.CommissionDetail.builder()
                                         .transactionId(tx.getId())
                                         .transactionNumber(tx.getTransactionNumber())
@@ -274,13 +263,14 @@ public class ReportService {
                                             .generatedAt(LocalDateTime.now())
                                             .build();
                                 })
-                );
+                )
+                .timeout(reportDeadlines.timeout("commission"));
     }
 
     // ========== PRODUCT REPORT ==========
 
     /**
-     * Generate general product report (Proyecto III)
+     * Generate general product report (Proyecto III), read from the local read-model
      */
     public Mono<ProductReportDto> getProductReport(
             String productType,
@@ -292,29 +282,30 @@ public class ReportService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
 
-        return productClient.getProductsByType(productType)
-                .flatMap(product ->
-                        transactionClient.getTransactionsByProductAndDateRange(product.getId(), startDateTime, endDateTime)
-                                .collectList()
-                                .map(transactions -> {
-                                    BigDecimal totalCommissions = transactions.stream()
-                                            .map(TransactionDto::getCommission)
-                                            .filter(Objects::nonNull)
-                                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Mono.zip(
+                        reportReadModelService.getProductsByType(productType).collectList(),
+                        reportTransactionRepository.statsByProductType(productType, startDateTime, endDateTime)
+                                .collectMap(TransactionStatsDto::getProductId))
+                .timeout(reportDeadlines.timeout("product"))
+                .map(tuple -> {
+                    Map<String, TransactionStatsDto> statsByProduct = tuple.getT2();
+
+                    List<ProductReportDto.ProductStats> productStats = tuple.getT1().stream()
+                            .map(product -> {
+                                TransactionStatsDto stats = statsByProduct.get(product.getId());
+
+                                return ProductReportDto.ProductStats.builder()
+                                        .productId(product.getId())
+                                        .accountNumber(product.getAccountNumber())
+                                        .customerId(product.getCustomerId())
+                                        .currentBalance(product.getBalance())
+                                        .transactionCount(stats == null ? 0 : stats.getCount().intValue())
+                                        .totalCommissions(stats == null ? BigDecimal.ZERO : stats.getTotalCommission())
+                                        .status(product.getStatus())
+                                        .build();
+                            })
+                            .collect(Collectors.toList());
 
-                                    return ProductReportDto.ProductStats.builder()
-                                            .productId(product.getId())
-                                            .accountNumber(product.getAccountNumber())
-                                            .customerId(product.getCustomerId())
-                                            .currentBalance(product.getBalance())
-                                            .transactionCount(transactions.size())
-                                            .totalCommissions(totalCommissions)
-                                            .status(product.getStatus())
-                                            .build();
-                                })
-                )
-                .collectList()
-                .map(productStats -> {
                     int totalProducts = productStats.size();
                     int activeProducts = (int) productStats.stream()
                             .filter(p -> "ACTIVE".equals(p.getStatus()))
@@ -334,8 +325,14 @@ public class ReportService {
                             .mapToInt(ProductReportDto.ProductStats::getTransactionCount)
                             .sum();
 
+                    BigDecimal totalTransactionAmount = statsByProduct.values().stream()
+                            .map(TransactionStatsDto::getTotalAmount)
+                            .filter(Objects::nonNull)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
                     BigDecimal totalCommissions = productStats.stream()
                             .map(ProductReportDto.ProductStats::getTotalCommissions)
+                            .filter(Objects::nonNull)
                             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
                     return ProductReportDto.builder()
@@ -349,6 +346,7 @@ public class ReportService {
                             .averageBalance(averageBalance)
                             .productStatistics(productStats)
                             .totalTransactions(totalTransactions)
+                            .totalTransactionAmount(totalTransactionAmount)
                             .totalCommissions(totalCommissions)
                             .generatedAt(LocalDateTime.now())
                             .build();
@@ -357,10 +355,22 @@ public class ReportService {
 
     // ========== HELPER METHODS ==========
 
-    private Mono<Integer> countProductTransactions(String productId) {
-        return transactionClient.getTransactionsByProduct(productId)
-                .count()
-                .map(Long::intValue);
+    private TransactionDto toTransactionDto(ReportTransaction transaction) {
+        return TransactionDto.builder()
+                .id(transaction.getId())
+                .transactionNumber(transaction.getTransactionNumber())
+                .customerId(transaction.getCustomerId())
+                .productId(transaction.getProductId())
+                .productType(transaction.getProductType())
+                .transactionType(transaction.getTransactionType())
+                .amount(transaction.getAmount())
+                .balanceBefore(transaction.getBalanceBefore())
+                .balanceAfter(transaction.getBalanceAfter())
+                .commission(transaction.getCommission())
+                .description(transaction.getDescription())
+                .status(transaction.getStatus())
+                .transactionDate(transaction.getTransactionDate())
+                .build();
     }
 
     private boolean isPassiveProduct(String productType) {
@@ -0,0 +1,241 @@
+package com.finnova.report_service.service;
+
+import com.finnova.report_service.model.entity.ProductDailyBalance;
+import com.finnova.report_service.repository.ProductDailyBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DailyAverageBalanceEngineTest {
+
+    private static final String PRODUCT_ID = "acc-1";
+    private static final LocalDate DAY = LocalDate.of(2024, 2, 15);
+    private static final YearMonth MONTH = YearMonth.of(2024, 2);
+
+    private final Map<String, ProductDailyBalance> days = new HashMap<>();
+    private final AtomicInteger concurrentCreations = new AtomicInteger();
+    private ProductDailyBalanceRepository repository;
+    private DailyAverageBalanceEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ProductDailyBalanceRepository.class);
+
+        when(repository.findById(anyString())).thenAnswer(inv ->
+                Mono.justOrEmpty(days.get(inv.<String>getArgument(0))).map(this::copy));
+        when(repository.saveIfUnchanged(any(), any())).thenAnswer(inv -> {
+            ProductDailyBalance day = inv.getArgument(0);
+            Integer expectedChanges = inv.getArgument(1);
+            ProductDailyBalance stored = days.get(day.getId());
+            if (expectedChanges == null && concurrentCreations.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                return Mono.error(new OptimisticLockingFailureException("Day " + day.getId() + " created"));
+            }
+            if (expectedChanges == null ? stored != null : stored.getChanges().size() != expectedChanges) {
+                return Mono.error(new OptimisticLockingFailureException("Day " + day.getId() + " changed"));
+            }
+            days.put(day.getId(), copy(day));
+            return Mono.just(day);
+        });
+
+        engine = new DailyAverageBalanceEngine(repository);
+    }
+
+    @Test
+    void dayIntegratesEachBalanceOverTheTimeItWasHeld() {
+        apply("e-1", 6, "0.00", "100.00");
+        apply("e-2", 18, "100.00", "50.00");
+
+        ProductDailyBalance day = day();
+        assertThat(day.getOpeningBalance()).isEqualByComparingTo("0.00");
+        assertThat(day.getClosingBalance()).isEqualByComparingTo("50.00");
+        assertThat(day.getClosingAt()).isEqualTo(DAY.atTime(18, 0));
+        // 0 from midnight to 06:00, 100 from 06:00 to 18:00
+        assertThat(day.getBalanceSeconds()).isEqualByComparingTo(hours("100.00", 12));
+        assertThat(day.getMinBalance()).isEqualByComparingTo("0.00");
+        assertThat(day.getMaxBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void outOfOrderChangeRebuildsTheDay() {
+        apply("e-2", 18, "100.00", "50.00");
+        apply("e-1", 6, "0.00", "100.00");
+
+        ProductDailyBalance day = day();
+        assertThat(day.getOpeningBalance()).isEqualByComparingTo("0.00");
+        assertThat(day.getClosingBalance()).isEqualByComparingTo("50.00");
+        assertThat(day.getClosingAt()).isEqualTo(DAY.atTime(18, 0));
+        assertThat(day.getBalanceSeconds()).isEqualByComparingTo(hours("100.00", 12));
+        assertThat(day.getChanges()).extracting(ProductDailyBalance.Change::getId).containsExactly("e-1", "e-2");
+    }
+
+    @Test
+    void redeliveredChangeIsSkipped() {
+        apply("e-1", 6, "0.00", "100.00");
+
+        StepVerifier.create(engine.apply(PRODUCT_ID, "e-1", DAY.atTime(6, 0),
+                        new BigDecimal("0.00"), new BigDecimal("100.00")))
+                .expectNext(false)
+                .verifyComplete();
+        assertThat(day().getChanges()).hasSize(1);
+    }
+
+    @Test
+    void changesAtTheSameTimeWithDifferentIdsAreBothFolded() {
+        apply("e-1", 6, "0.00", "100.00");
+        apply("e-2", 6, "100.00", "150.00");
+
+        assertThat(day().getClosingBalance()).isEqualByComparingTo("150.00");
+        assertThat(day().getChanges()).hasSize(2);
+    }
+
+    @Test
+    void concurrentChangeOfTheDayIsRetried() {
+        apply("e-1", 6, "0.00", "100.00");
+        ProductDailyBalance stale = copy(day());
+        doReturn(Mono.just(stale))
+                .doAnswer(inv -> Mono.justOrEmpty(days.get(inv.<String>getArgument(0))).map(this::copy))
+                .when(repository).findById(anyString());
+        // Another instance folds a change after this one read the day
+        days.get(ProductDailyBalance.idOf(PRODUCT_ID, DAY)).getChanges()
+                .add(new ProductDailyBalance.Change("e-3", DAY.atTime(9, 0), new BigDecimal("100.00"),
+                        new BigDecimal("100.00")));
+
+        apply("e-2", 18, "100.00", "50.00");
+
+        assertThat(day().getChanges()).extracting(ProductDailyBalance.Change::getId)
+                .containsExactly("e-1", "e-3", "e-2");
+    }
+
+    @Test
+    void newDayCreatedConcurrentlyIsRetried() {
+        concurrentCreations.set(1);
+
+        apply("e-1", 6, "0.00", "100.00");
+
+        assertThat(day().getClosingBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void monthAverageCarriesTheClosingBalanceOverDaysWithoutChanges() {
+        when(repository.findFirstByProductIdAndDateLessThanOrderByDateDesc(PRODUCT_ID, MONTH.atDay(1)))
+                .thenReturn(Mono.just(storedDay(MONTH.atDay(1).minusDays(1), "100.00")));
+        when(repository.findDays(PRODUCT_ID, MONTH.atDay(1), MONTH.plusMonths(1).atDay(1)))
+                .thenReturn(Flux.just(halfDay(DAY, "100.00", "200.00")));
+
+        // 100 for 14.5 days, 200 for 14.5 days of the 29 of February 2024
+        StepVerifier.create(engine.monthAverage(PRODUCT_ID, MONTH, BigDecimal.ZERO))
+                .assertNext(average -> {
+                    assertThat(average.average()).isEqualByComparingTo("150.00");
+                    assertThat(average.minBalance()).isEqualByComparingTo("100.00");
+                    assertThat(average.maxBalance()).isEqualByComparingTo("200.00");
+                    assertThat(average.from()).isEqualTo(MONTH.atDay(1).atStartOfDay());
+                    assertThat(average.to()).isEqualTo(MONTH.plusMonths(1).atDay(1).atStartOfDay());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void monthAverageStartsFromTheOpeningBalanceOfAFirstChangeInTheMonth() {
+        when(repository.findFirstByProductIdAndDateLessThanOrderByDateDesc(PRODUCT_ID, MONTH.atDay(1)))
+                .thenReturn(Mono.empty());
+        when(repository.findFirstByProductIdAndDateGreaterThanEqualOrderByDateAsc(PRODUCT_ID, MONTH.atDay(1)))
+                .thenReturn(Mono.just(halfDay(DAY, "100.00", "200.00")));
+        when(repository.findDays(PRODUCT_ID, MONTH.atDay(1), MONTH.plusMonths(1).atDay(1)))
+                .thenReturn(Flux.just(halfDay(DAY, "100.00", "200.00")));
+
+        StepVerifier.create(engine.monthAverage(PRODUCT_ID, MONTH, new BigDecimal("999.00")))
+                .assertNext(average -> assertThat(average.average()).isEqualByComparingTo("150.00"))
+                .verifyComplete();
+    }
+
+    @Test
+    void monthAverageWithoutChangesIsTheCurrentBalance() {
+        when(repository.findFirstByProductIdAndDateLessThanOrderByDateDesc(PRODUCT_ID, MONTH.atDay(1)))
+                .thenReturn(Mono.empty());
+        when(repository.findFirstByProductIdAndDateGreaterThanEqualOrderByDateAsc(PRODUCT_ID, MONTH.atDay(1)))
+                .thenReturn(Mono.empty());
+        when(repository.findDays(PRODUCT_ID, MONTH.atDay(1), MONTH.plusMonths(1).atDay(1)))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(engine.monthAverage(PRODUCT_ID, MONTH, new BigDecimal("80.00")))
+                .assertNext(average -> {
+                    assertThat(average.average()).isEqualByComparingTo("80.00");
+                    assertThat(average.minBalance()).isEqualByComparingTo("80.00");
+                    assertThat(average.maxBalance()).isEqualByComparingTo("80.00");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void monthThatHasNotStartedHasNoAverage() {
+        StepVerifier.create(engine.monthAverage(PRODUCT_ID, YearMonth.now().plusMonths(1), BigDecimal.TEN))
+                .verifyComplete();
+    }
+
+    private void apply(String changeId, int hour, String previousBalance, String newBalance) {
+        StepVerifier.create(engine.apply(PRODUCT_ID, changeId, DAY.atTime(hour, 0),
+                        new BigDecimal(previousBalance), new BigDecimal(newBalance)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    private ProductDailyBalance day() {
+        return days.get(ProductDailyBalance.idOf(PRODUCT_ID, DAY));
+    }
+
+    /**
+     * A day whose balance changed once, at noon.
+     */
+    private ProductDailyBalance halfDay(LocalDate date, String before, String after) {
+        ProductDailyBalance day = ProductDailyBalance.builder()
+                .id(ProductDailyBalance.idOf(PRODUCT_ID, date))
+                .productId(PRODUCT_ID)
+                .date(date)
+                .build();
+        day.getChanges().add(new ProductDailyBalance.Change("e-1", date.atTime(12, 0),
+                new BigDecimal(before), new BigDecimal(after)));
+        DailyAverageBalanceEngine.fold(day);
+        return day;
+    }
+
+    private ProductDailyBalance storedDay(LocalDate date, String closingBalance) {
+        return halfDay(date, closingBalance, closingBalance);
+    }
+
+    private ProductDailyBalance copy(ProductDailyBalance day) {
+        return ProductDailyBalance.builder()
+                .id(day.getId())
+                .productId(day.getProductId())
+                .date(day.getDate())
+                .changes(new ArrayList<>(day.getChanges()))
+                .openingBalance(day.getOpeningBalance())
+                .closingBalance(day.getClosingBalance())
+                .closingAt(day.getClosingAt())
+                .balanceSeconds(day.getBalanceSeconds())
+                .minBalance(day.getMinBalance())
+                .maxBalance(day.getMaxBalance())
+                .build();
+    }
+
+    private static BigDecimal hours(String balance, int hours) {
+        return new BigDecimal(balance).multiply(BigDecimal.valueOf(hours * 3600L));
+    }
+}
@@ -3,9 +3,11 @@ package com.finnova.transaction_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableReactiveMongoRepositories
+@EnableScheduling
 public class TransactionServiceApplication {
 
 	public static void main(String[] args) {
@@ -4,14 +4,21 @@ import com.finnova.transaction_service.exception.ProductNotFoundException;
 import com.finnova.transaction_service.model.dto.ActiveProductDto;
 import com.finnova.transaction_service.model.dto.PassiveProductDto;
 import com.finnova.transaction_service.model.dto.ProductDto;
+import com.finnova.transaction_service.model.dto.ProductLookupDto;
+import com.finnova.transaction_service.model.dto.ProductTransferResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Map;
 
 @Component
@@ -19,55 +26,51 @@ import java.util.Map;
 @Slf4j
 public class ProductClient {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final WebClient webClient;
 
     @Value("${services.products-service.url:http://products-service}")
     private String productsServiceUrl;
 
     /**
-     * Get a product by ID (tries active first, then passive)
+     * Get a product by ID with a single lookup, whichever its category
      */
     public Mono<ProductDto> getProduct(String productId) {
         log.debug("Getting product: {}", productId);
 
-        return Mono.firstWithValue(
-                getPassiveProduct(productId),
-                getActiveProduct(productId)
-        ).switchIfEmpty(Mono.error(new ProductNotFoundException(
-                "Product not found with ID: " + productId
-        )));
-    }
-
-    /**
-     * Get an active product (credit/credit card)
-     */
-    public Mono<ProductDto> getActiveProduct(String productId) {
-        log.debug("Getting active product: {}", productId);
-
         return webClient
                 .get()
-                .uri(productsServiceUrl + "/active-products/{id}", productId)
+                .uri(productsServiceUrl + "/products/{id}", productId)
                 .retrieve()
-                .bodyToMono(ActiveProductDto.class)
-                .map(this::convertActiveToProductDto)
-                .doOnSuccess(product -> log.debug("Retrieved active product {}: {}", productId, product))
-                .doOnError(error -> log.error("Error retrieving active product {}: {}", productId, error.getMessage()));
+                .bodyToMono(ProductLookupDto.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .flatMap(lookup -> Mono.justOrEmpty(convertLookupToProductDto(lookup)))
+                .doOnSuccess(product -> log.debug("Retrieved product {}: {}", productId, product))
+                .doOnError(error -> log.error("Error retrieving product {}: {}", productId, error.getMessage()))
+                .switchIfEmpty(Mono.error(new ProductNotFoundException(
+                        "Product not found with ID: " + productId
+                )));
     }
 
     /**
-     * Get a passive product (savings/checking/fixed-term)
+     * Get several products in one round trip; unknown IDs are skipped
      */
-    public Mono<ProductDto> getPassiveProduct(String productId) {
-        log.debug("Getting passive product: {}", productId);
+    public Flux<ProductDto> getProducts(Collection<String> productIds) {
+        log.debug("Getting {} products", productIds.size());
+
+        if (productIds.isEmpty()) {
+            return Flux.empty();
+        }
 
         return webClient
-                .get()
-                .uri(productsServiceUrl + "/passive-products/{id}", productId)
+                .post()
+                .uri(productsServiceUrl + "/products/lookup")
+                .bodyValue(Map.of("ids", productIds))
                 .retrieve()
-                .bodyToMono(PassiveProductDto.class)
-                .map(this::convertPassiveToProductDto)
-                .doOnSuccess(product -> log.debug("Retrieved passive product {}: {}", productId, product))
-                .doOnError(error -> log.error("Error retrieving passive product {}: {}", productId, error.getMessage()));
+                .bodyToFlux(ProductLookupDto.class)
+                .flatMap(lookup -> Mono.justOrEmpty(convertLookupToProductDto(lookup)))
+                .doOnError(error -> log.error("Error retrieving products {}: {}", productIds, error.getMessage()));
     }
 
     /**
@@ -121,6 +124,50 @@ public class ProductClient {
                 .doOnError(error -> log.error("Error withdrawing from product {}: {}", productId, error.getMessage()));
     }
 
+    /**
+     * Transfer between two passive products in one atomic operation, applied at most once per operation key
+     */
+    public Mono<ProductTransferResult> transfer(String fromProductId, String toProductId, BigDecimal amount,
+                                                String operationId) {
+        log.debug("Transferring {} from product {} to {}", amount, fromProductId, toProductId);
+
+        return webClient
+                .post()
+                .uri(productsServiceUrl + "/passive-products/{id}/transfer", fromProductId)
+                .headers(headers -> setIdempotencyKey(headers, operationId))
+                .bodyValue(Map.of("toId", toProductId, "amount", amount))
+                .retrieve()
+                .bodyToMono(TransferResponse.class)
+                .map(response -> ProductTransferResult.builder()
+                        .source(convertPassiveToProductDto(response.source()))
+                        .destination(convertPassiveToProductDto(response.destination()))
+                        .build())
+                .doOnSuccess(result -> log.debug("Transfer successful from product {} to {}",
+                        fromProductId, toProductId))
+                .doOnError(error -> log.error("Error transferring from product {} to {}: {}",
+                        fromProductId, toProductId, error.getMessage()));
+    }
+
+    /**
+     * Fence off a keyed operation on a passive product so it can no longer be applied
+     *
+     * @return true if the operation had already been applied before the fence
+     */
+    public Mono<Boolean> fenceOperation(String productId, String operationId) {
+        log.debug("Fencing operation {} on product {}", operationId, productId);
+
+        return webClient
+                .post()
+                .uri(productsServiceUrl + "/passive-products/{id}/operations/{operationId}/fence",
+                        productId, operationId)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Boolean>>() {
+                })
+                .map(response -> Boolean.TRUE.equals(response.get("applied")))
+                .doOnError(error -> log.error("Error fencing operation {} on product {}: {}",
+                        operationId, productId, error.getMessage()));
+    }
+
     /**
      * Make charge to active product (credit/credit card)
      */
@@ -155,6 +202,25 @@ public class ProductClient {
                 .doOnError(error -> log.error("Error making payment to product {}: {}", productId, error.getMessage()));
     }
 
+    private void setIdempotencyKey(HttpHeaders headers, String operationId) {
+        if (operationId != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, operationId);
+        }
+    }
+
+    /**
+     * Convert a lookup result to ProductDto according to its category
+     */
+    private ProductDto convertLookupToProductDto(ProductLookupDto lookup) {
+        if ("ACTIVE".equals(lookup.getCategory()) && lookup.getActiveProduct() != null) {
+            return convertActiveToProductDto(lookup.getActiveProduct());
+        }
+        if ("PASSIVE".equals(lookup.getCategory()) && lookup.getPassiveProduct() != null) {
+            return convertPassiveToProductDto(lookup.getPassiveProduct());
+        }
+        return null;
+    }
+
     /**
      * Convert ActiveProductDto to ProductDto for compatibility
      */
@@ -189,4 +255,7 @@ public class ProductClient {
                 .maxFreeTransactions(passive.getMaxTransactionsWithoutFee())
                 .build();
     }
+
+    record TransferResponse(PassiveProductDto source, PassiveProductDto destination) {
+    }
 }
@@ -0,0 +1,23 @@
+package com.finnova.transaction_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+public class MongoConfig {
+
+    /**
+     * Runs a reactive chain in a multi-document transaction, used to write a transaction
+     * and the outbox event describing it atomically. Requires MongoDB to run as a replica set.
+     *
+     * @param databaseFactory the reactive database factory
+     * @return the transactional operator
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveMongoDatabaseFactory databaseFactory) {
+        return TransactionalOperator.create(new ReactiveMongoTransactionManager(databaseFactory));
+    }
+}
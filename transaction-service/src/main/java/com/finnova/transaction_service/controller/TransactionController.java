@@ -1,21 +1,32 @@
 package com.finnova.transaction_service.controller;
 
 
+import com.finnova.transaction_service.exception.IdempotencyConflictException;
 import com.finnova.transaction_service.model.dto.BalanceResponse;
 import com.finnova.transaction_service.model.dto.CreditChargeRequest;
 import com.finnova.transaction_service.model.dto.DepositRequest;
 import com.finnova.transaction_service.model.dto.PaymentRequest;
+import com.finnova.transaction_service.model.dto.TransactionFilter;
+import com.finnova.transaction_service.model.dto.TransactionPage;
+import com.finnova.transaction_service.model.dto.TransactionStats;
+import com.finnova.transaction_service.model.dto.TransactionStatsRequest;
 import com.finnova.transaction_service.model.dto.TransactionResponse;
 import com.finnova.transaction_service.model.dto.TransferRequest;
 import com.finnova.transaction_service.model.dto.WithdrawalRequest;
 import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.enums.StatsDimension;
+import com.finnova.transaction_service.model.enums.TransactionStatus;
+import com.finnova.transaction_service.model.enums.TransactionType;
+import com.finnova.transaction_service.service.IdempotencyService;
 import com.finnova.transaction_service.service.TransactionService;
 import com.finnova.transaction_service.service.TransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,29 +34,44 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/transactions")
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TransactionService transactionService;
     private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
 
     // ========== DEPOSIT ==========
 
     @PostMapping("/deposit")
     @Operation(summary = "Process a deposit")
-    public Mono<ResponseEntity<TransactionResponse>> deposit(@Valid @RequestBody DepositRequest request) {
+    public Mono<ResponseEntity<TransactionResponse>> deposit(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody DepositRequest request
+    ) {
         log.info("Received deposit request for product: {}", request.getProductId());
-        return transactionService.deposit(request)
-                .map(this::toResponse)
+        return idempotencyService.execute(idempotencyKey, userId, "deposit", request,
+                        () -> transactionService.deposit(request).map(this::toResponse))
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IdempotencyConflictException.class, this::conflict)
                 .onErrorResume(e -> {
                     log.error("Error processing deposit", e);
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
@@ -56,11 +82,16 @@ public class TransactionController {
 
     @PostMapping("/withdrawal")
     @Operation(summary = "Process a withdrawal")
-    public Mono<ResponseEntity<TransactionResponse>> withdrawal(@Valid @RequestBody WithdrawalRequest request) {
+    public Mono<ResponseEntity<TransactionResponse>> withdrawal(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody WithdrawalRequest request
+    ) {
         log.info("Received withdrawal request for product: {}", request.getProductId());
-        return transactionService.withdrawal(request)
-                .map(this::toResponse)
+        return idempotencyService.execute(idempotencyKey, userId, "withdrawal", request,
+                        () -> transactionService.withdrawal(request).map(this::toResponse))
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IdempotencyConflictException.class, this::conflict)
                 .onErrorResume(e -> {
                     log.error("Error processing withdrawal", e);
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
@@ -71,11 +102,16 @@ public class TransactionController {
 
     @PostMapping("/payment")
     @Operation(summary = "Process a payment to credit or credit card")
-    public Mono<ResponseEntity<TransactionResponse>> payment(@Valid @RequestBody PaymentRequest request) {
+    public Mono<ResponseEntity<TransactionResponse>> payment(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody PaymentRequest request
+    ) {
         log.info("Received payment request for product: {}", request.getProductId());
-        return transactionService.payment(request)
-                .map(this::toResponse)
+        return idempotencyService.execute(idempotencyKey, userId, "payment", request,
+                        () -> transactionService.payment(request).map(this::toResponse))
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IdempotencyConflictException.class, this::conflict)
                 .onErrorResume(e -> {
                     log.error("Error processing payment", e);
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
@@ -86,11 +122,16 @@ public class TransactionController {
 
     @PostMapping("/credit-charge")
     @Operation(summary = "Process a credit card charge")
-    public Mono<ResponseEntity<TransactionResponse>> creditCharge(@Valid @RequestBody CreditChargeRequest request) {
+    public Mono<ResponseEntity<TransactionResponse>> creditCharge(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody CreditChargeRequest request
+    ) {
         log.info("Received credit charge request for card: {}", request.getCreditCardId());
-        return transactionService.creditCharge(request)
-                .map(this::toResponse)
+        return idempotencyService.execute(idempotencyKey, userId, "credit-charge", request,
+                        () -> transactionService.creditCharge(request).map(this::toResponse))
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IdempotencyConflictException.class, this::conflict)
                 .onErrorResume(e -> {
                     log.error("Error processing credit charge", e);
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
@@ -101,12 +142,17 @@ public class TransactionController {
 
     @PostMapping("/transfer/own")
     @Operation(summary = "Transfer between own accounts")
-    public Mono<ResponseEntity<TransactionResponse>> transferOwnAccounts(@Valid @RequestBody TransferRequest request) {
+    public Mono<ResponseEntity<TransactionResponse>> transferOwnAccounts(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody TransferRequest request
+    ) {
         log.info("Received transfer request between own accounts: {} -> {}",
                 request.getSourceProductId(), request.getDestinationProductId());
-        return transferService.transferBetweenOwnAccounts(request)
-                .map(this::toResponse)
+        return idempotencyService.execute(idempotencyKey, userId, "transfer-own", request,
+                        () -> transferService.transferBetweenOwnAccounts(request).map(this::toResponse))
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IdempotencyConflictException.class, this::conflict)
                 .onErrorResume(e -> {
                     log.error("Error processing transfer", e);
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
@@ -115,12 +161,17 @@ public class TransactionController {
 
     @PostMapping("/transfer/third-party")
     @Operation(summary = "Transfer to third party account")
-    public Mono<ResponseEntity<TransactionResponse>> transferThirdParty(@Valid @RequestBody TransferRequest request) {
+    public Mono<ResponseEntity<TransactionResponse>> transferThirdParty(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody TransferRequest request
+    ) {
         log.info("Received transfer request to third party: {} -> {}",
                 request.getSourceProductId(), request.getDestinationProductId());
-        return transferService.transferToThirdParty(request)
-                .map(this::toResponse)
+        return idempotencyService.execute(idempotencyKey, userId, "transfer-third-party", request,
+                        () -> transferService.transferToThirdParty(request).map(this::toResponse))
                 .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IdempotencyConflictException.class, this::conflict)
                 .onErrorResume(e -> {
                     log.error("Error processing transfer", e);
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
@@ -140,18 +191,110 @@ public class TransactionController {
     }
 
     @GetMapping("/product/{productId}")
-    @Operation(summary = "Get all transactions for a product")
-    public Flux<TransactionResponse> getTransactionsByProduct(@PathVariable String productId) {
+    @Operation(summary = "Get all transactions for a product; with cursor or size, one page of them, newest first")
+    public Mono<ResponseEntity<Flux<TransactionResponse>>> getTransactionsByProduct(
+            @PathVariable String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
         log.info("Fetching transactions for product: {}", productId);
-        return transactionService.getTransactionsByProduct(productId)
-                .map(this::toResponse);
+        TransactionFilter filter = TransactionFilter.builder()
+                .productId(productId)
+                .from(from)
+                .to(to)
+                .transactionType(type)
+                .status(status)
+                .build();
+        return listTransactions(filter, cursor, size);
     }
 
     @GetMapping("/customer/{customerId}")
-    @Operation(summary = "Get all transactions for a customer")
-    public Flux<TransactionResponse> getTransactionsByCustomer(@PathVariable String customerId) {
+    @Operation(summary = "Get all transactions for a customer; with cursor or size, one page of them, newest first")
+    public Mono<ResponseEntity<Flux<TransactionResponse>>> getTransactionsByCustomer(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
         log.info("Fetching transactions for customer: {}", customerId);
-        return transactionService.getTransactionsByCustomer(customerId)
+        TransactionFilter filter = TransactionFilter.builder()
+                .customerId(customerId)
+                .from(from)
+                .to(to)
+                .transactionType(type)
+                .status(status)
+                .build();
+        return listTransactions(filter, cursor, size);
+    }
+
+    @GetMapping("/product/{productId}/range")
+    @Operation(summary = "Get transactions for a product within a date range")
+    public Flux<TransactionResponse> getTransactionsByProductAndDateRange(
+            @PathVariable String productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.info("Fetching transactions for product: {} between {} and {}", productId, from, to);
+        return transactionService.getTransactionsByProductAndDateRange(productId, from, to)
+                .map(this::toResponse);
+    }
+
+    @GetMapping("/product/{productId}/stats")
+    @Operation(summary = "Get transaction count, amount and commission totals for a product")
+    public Flux<TransactionStats> getProductStats(
+            @PathVariable String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) List<StatsDimension> groupBy
+    ) {
+        log.info("Fetching transaction stats for product: {}", productId);
+        return transactionService.getTransactionStats(TransactionStatsRequest.builder()
+                .productIds(List.of(productId))
+                .from(from)
+                .to(to)
+                .status(status)
+                .groupBy(groupBy)
+                .build());
+    }
+
+    @PostMapping("/stats")
+    @Operation(summary = "Get transaction count, amount and commission totals for several products")
+    public Flux<TransactionStats> getTransactionStats(@Valid @RequestBody TransactionStatsRequest request) {
+        log.info("Fetching transaction stats for {} products", request.getProductIds().size());
+        return transactionService.getTransactionStats(request);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream transaction history as NDJSON, oldest first")
+    public Flux<TransactionResponse> exportTransactions(
+            @RequestParam(required = false) String productId,
+            @RequestParam(required = false) List<String> productIds,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status
+    ) {
+        log.info("Exporting transactions for product: {}, customer: {}", productId != null ? productId : productIds,
+                customerId);
+        TransactionFilter filter = TransactionFilter.builder()
+                .productId(productId)
+                .productIds(productIds)
+                .customerId(customerId)
+                .from(from)
+                .to(to)
+                .transactionType(type)
+                .status(status)
+                .build();
+        return transactionService.exportTransactions(filter)
                 .map(this::toResponse);
     }
 
@@ -178,11 +321,23 @@ public class TransactionController {
     // ========== CRUD Operations ==========
 
     @GetMapping
-    @Operation(summary = "Get all transactions")
-    public Flux<TransactionResponse> getAllTransactions() {
+    @Operation(summary = "Get all transactions; with cursor or size, one page of them, newest first")
+    public Mono<ResponseEntity<Flux<TransactionResponse>>> getAllTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
         log.info("Fetching all transactions");
-        return transactionService.getAllTransactions()
-                .map(this::toResponse);
+        TransactionFilter filter = TransactionFilter.builder()
+                .from(from)
+                .to(to)
+                .transactionType(type)
+                .status(status)
+                .build();
+        return listTransactions(filter, cursor, size);
     }
 
     @PutMapping("/{id}")
@@ -209,6 +364,36 @@ public class TransactionController {
 
     // ========== Helper Methods ==========
 
+    private Mono<ResponseEntity<TransactionResponse>> conflict(IdempotencyConflictException e) {
+        log.warn("Idempotency conflict: {}", e.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Streams every matching transaction, oldest first, as these listings always did. Paging is
+     * opt-in: a request with a cursor or a size gets one page, newest first.
+     */
+    private Mono<ResponseEntity<Flux<TransactionResponse>>> listTransactions(TransactionFilter filter,
+                                                                              String cursor, Integer size) {
+        if (cursor == null && size == null) {
+            return Mono.just(ResponseEntity.ok(transactionService.exportTransactions(filter)
+                    .map(this::toResponse)));
+        }
+        return transactionService.getTransactions(filter, cursor, size)
+                .map(this::toPageResponse);
+    }
+
+    /**
+     * Page body stays a plain JSON array; the cursor of the next page travels in a header.
+     */
+    private ResponseEntity<Flux<TransactionResponse>> toPageResponse(TransactionPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(Flux.fromIterable(page.getTransactions()).map(this::toResponse));
+    }
+
     private TransactionResponse toResponse(Transaction transaction) {
         return TransactionResponse.builder()
                 .id(transaction.getId())
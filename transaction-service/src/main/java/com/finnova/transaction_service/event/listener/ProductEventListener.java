@@ -0,0 +1,49 @@
+package com.finnova.transaction_service.event.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.transaction_service.event.model.ProductEvent;
+import com.finnova.transaction_service.service.ProductProjectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Feeds the local product projection from products-service events.
+ * Records are applied one at a time so that events of a partition keep their order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventListener {
+
+    private static final Duration APPLY_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ProductProjectionService productProjectionService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = {
+                    "${spring.kafka.topic.passive-product-events:passive-product-events}",
+                    "${spring.kafka.topic.active-product-events:active-product-events}",
+                    "${spring.kafka.topic.balance-events:balance-events}"
+            },
+            groupId = "transaction-service-product-projection"
+    )
+    public void handleProductEvent(@Header(KafkaHeaders.RECEIVED_KEY) String eventType,
+                                   @Payload String message) {
+        try {
+            ProductEvent event = objectMapper.readValue(message, ProductEvent.class);
+            log.debug("Received {} event for product: {}", eventType, event.getProductId());
+            productProjectionService.apply(eventType, event).block(APPLY_TIMEOUT);
+        } catch (Exception e) {
+            // The projection is a cache, a missed event is repaired by the next one or a read-through load
+            log.error("Error applying {} event to product projection: {}", eventType, e.getMessage());
+        }
+    }
+}
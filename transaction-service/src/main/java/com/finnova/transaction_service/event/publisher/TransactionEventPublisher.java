@@ -3,150 +3,123 @@ package com.finnova.transaction_service.event.publisher;
 import com.finnova.transaction_service.config.KafkaTopicConfig;
 import com.finnova.transaction_service.event.model.TransactionEvent;
 import com.finnova.transaction_service.event.model.TransferEvent;
+import com.finnova.transaction_service.event.relay.OutboxRelay;
+import com.finnova.transaction_service.model.entity.OutboxEvent;
 import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.enums.OutboxStatus;
+import com.finnova.transaction_service.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Writes transaction events to the outbox collection; {@link OutboxRelay} publishes them to Kafka.
+ * Callers queue an event in the same Mongo transaction as the write it describes, so a failed
+ * outbox write is propagated and rolls that write back.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
 
     /**
      * Publish transaction created event
      */
     public Mono<Void> publishTransactionCreated(Transaction transaction) {
-        return Mono.fromRunnable(() -> {
-            TransactionEvent event = buildTransactionEvent(transaction, "TRANSACTION_CREATED");
-
-            kafkaTemplate.send(KafkaTopicConfig.TRANSACTION_CREATED_TOPIC,
-                            transaction.getTransactionNumber(),
-                            event)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("Transaction created event published: {}", transaction.getTransactionNumber());
-                        } else {
-                            log.error("Failed to publish transaction created event: {}", transaction.getTransactionNumber(), ex);
-                        }
-                    });
-        });
+        TransactionEvent event = buildTransactionEvent(transaction, "TRANSACTION_CREATED");
+
+        return enqueue(KafkaTopicConfig.TRANSACTION_CREATED_TOPIC, transaction.getTransactionNumber(), event)
+                .doOnSuccess(saved -> log.info("Transaction created event queued: {}", transaction.getTransactionNumber()));
     }
 
     /**
      * Publish transaction completed event
      */
     public Mono<Void> publishTransactionCompleted(Transaction transaction) {
-        return Mono.fromRunnable(() -> {
-            TransactionEvent event = buildTransactionEvent(transaction, "TRANSACTION_COMPLETED");
-
-            kafkaTemplate.send(KafkaTopicConfig.TRANSACTION_COMPLETED_TOPIC,
-                            transaction.getTransactionNumber(),
-                            event)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("Transaction completed event published: {}", transaction.getTransactionNumber());
-                        } else {
-                            log.error("Failed to publish transaction completed event: {}", transaction.getTransactionNumber(), ex);
-                        }
-                    });
-        });
+        TransactionEvent event = buildTransactionEvent(transaction, "TRANSACTION_COMPLETED");
+
+        return enqueue(KafkaTopicConfig.TRANSACTION_COMPLETED_TOPIC, transaction.getTransactionNumber(), event)
+                .doOnSuccess(saved -> log.info("Transaction completed event queued: {}", transaction.getTransactionNumber()));
     }
 
     /**
      * Publish transaction failed event
      */
     public Mono<Void> publishTransactionFailed(Transaction transaction, String reason) {
-        return Mono.fromRunnable(() -> {
-            TransactionEvent event = buildTransactionEvent(transaction, "TRANSACTION_FAILED");
-            event.setDescription(event.getDescription() + " - Failed reason: " + reason);
-
-            kafkaTemplate.send(KafkaTopicConfig.TRANSACTION_FAILED_TOPIC,
-                            transaction.getTransactionNumber(),
-                            event)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("Transaction failed event published: {}", transaction.getTransactionNumber());
-                        } else {
-                            log.error("Failed to publish transaction failed event: {}", transaction.getTransactionNumber(), ex);
-                        }
-                    });
-        });
+        TransactionEvent event = buildTransactionEvent(transaction, "TRANSACTION_FAILED");
+        event.setDescription(event.getDescription() + " - Failed reason: " + reason);
+
+        return enqueue(KafkaTopicConfig.TRANSACTION_FAILED_TOPIC, transaction.getTransactionNumber(), event)
+                .doOnSuccess(saved -> log.info("Transaction failed event queued: {}", transaction.getTransactionNumber()));
     }
 
     /**
      * Publish transfer completed event
      */
     public Mono<Void> publishTransferCompleted(Transaction sourceTransaction, Transaction destTransaction) {
-        return Mono.fromRunnable(() -> {
-            TransferEvent event = TransferEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("TRANSFER_COMPLETED")
-                    .timestamp(LocalDateTime.now())
-                    .source("transaction-service")
-                    .transferId(sourceTransaction.getId())
-                    .transactionNumber(sourceTransaction.getTransactionNumber())
-                    .sourceCustomerId(sourceTransaction.getCustomerId())
-                    .sourceProductId(sourceTransaction.getProductId())
-                    .destinationCustomerId(sourceTransaction.getDestinationCustomerId())
-                    .destinationProductId(sourceTransaction.getDestinationProductId())
-                    .amount(sourceTransaction.getAmount())
-                    .transferType(determineTransferType(sourceTransaction, destTransaction))
-                    .description(sourceTransaction.getDescription())
-                    .status("COMPLETED")
-                    .build();
-
-            kafkaTemplate.send(KafkaTopicConfig.TRANSFER_COMPLETED_TOPIC,
-                            sourceTransaction.getTransactionNumber(),
-                            event)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("Transfer completed event published: {}", sourceTransaction.getTransactionNumber());
-                        } else {
-                            log.error("Failed to publish transfer completed event: {}", sourceTransaction.getTransactionNumber(), ex);
-                        }
-                    });
-        });
+        TransferEvent event = TransferEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("TRANSFER_COMPLETED")
+                .timestamp(LocalDateTime.now())
+                .source("transaction-service")
+                .transferId(sourceTransaction.getId())
+                .transactionNumber(sourceTransaction.getTransactionNumber())
+                .sourceCustomerId(sourceTransaction.getCustomerId())
+                .sourceProductId(sourceTransaction.getProductId())
+                .destinationCustomerId(sourceTransaction.getDestinationCustomerId())
+                .destinationProductId(sourceTransaction.getDestinationProductId())
+                .amount(sourceTransaction.getAmount())
+                .transferType(determineTransferType(sourceTransaction, destTransaction))
+                .description(sourceTransaction.getDescription())
+                .status("COMPLETED")
+                .build();
+
+        return enqueue(KafkaTopicConfig.TRANSFER_COMPLETED_TOPIC, sourceTransaction.getTransactionNumber(), event)
+                .doOnSuccess(saved -> log.info("Transfer completed event queued: {}", sourceTransaction.getTransactionNumber()));
     }
 
     /**
      * Publish transfer failed event
      */
     public Mono<Void> publishTransferFailed(String transactionNumber, String reason) {
-        return Mono.fromRunnable(() -> {
-            TransferEvent event = TransferEvent.builder()
-                    .eventId(UUID.randomUUID().toString())
-                    .eventType("TRANSFER_FAILED")
-                    .timestamp(LocalDateTime.now())
-                    .source("transaction-service")
-                    .transactionNumber(transactionNumber)
-                    .description(reason)
-                    .status("FAILED")
-                    .build();
-
-            kafkaTemplate.send(
-                            KafkaTopicConfig.TRANSFER_FAILED_TOPIC,
-                            transactionNumber,
-                            event)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("Transfer failed event published: {}", transactionNumber);
-                        } else {
-                            log.error("Failed to publish transfer failed event: {}", transactionNumber, ex);
-                        }
-                    });
-        });
+        TransferEvent event = TransferEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType("TRANSFER_FAILED")
+                .timestamp(LocalDateTime.now())
+                .source("transaction-service")
+                .transactionNumber(transactionNumber)
+                .description(reason)
+                .status("FAILED")
+                .build();
+
+        return enqueue(KafkaTopicConfig.TRANSFER_FAILED_TOPIC, transactionNumber, event)
+                .doOnSuccess(saved -> log.info("Transfer failed event queued: {}", transactionNumber));
     }
 
     // Helper methods
 
+    private Mono<Void> enqueue(String topic, String key, Object event) {
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payload(event)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return outboxEventRepository.insert(outboxEvent)
+                .doOnError(e -> log.error("Failed to queue event for topic {} with key {}: {}",
+                        topic, key, e.getMessage()))
+                .then();
+    }
+
     private TransactionEvent buildTransactionEvent(Transaction transaction, String eventType) {
         return TransactionEvent.builder()
                 .eventId(UUID.randomUUID().toString())
@@ -0,0 +1,120 @@
+package com.finnova.transaction_service.event.relay;
+
+import com.finnova.transaction_service.model.entity.OutboxEvent;
+import com.finnova.transaction_service.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes events stored in the outbox to Kafka.
+ * Each run leases a batch of pending events, hands all of them to the producer
+ * at once and marks the acknowledged ones as sent. Delivery is at-least-once:
+ * an event whose acknowledgement is lost is published again after its lease expires.
+ * Events are not guaranteed to be published in order, even for the same key.
+ * A failed event is retried with exponential backoff and moved to DEAD_LETTER
+ * once it has failed {@code outbox.relay.max-attempts} times.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.lease:30s}") Duration lease,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.retry-backoff:1s}") Duration retryBackoff,
+                       @Value("${outbox.relay.max-retry-backoff:5m}") Duration maxRetryBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    /**
+     * Relays one batch of pending events; the next run starts once this one completes.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500ms}")
+    public Mono<Void> relayPendingEvents() {
+        return outboxEventRepository.claimBatch(instanceId, batchSize, lease)
+                .collectList()
+                .filter(batch -> !batch.isEmpty())
+                .flatMap(this::publishBatch)
+                .onErrorResume(e -> {
+                    log.error("Error relaying outbox events: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> publishBatch(List<OutboxEvent> batch) {
+        // send() may block on a metadata fetch, keep it off the event loop
+        return Mono.fromCallable(() -> batch.stream().map(this::send).toList())
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::merge)
+                .collectList()
+                .flatMap(sentIds -> sentIds.isEmpty()
+                        ? Mono.empty()
+                        : outboxEventRepository.markSent(sentIds))
+                .doOnNext(sent -> log.info("Relayed {} of {} outbox events", sent, batch.size()))
+                .then();
+    }
+
+    private Mono<String> send(OutboxEvent event) {
+        CompletableFuture<?> future;
+        try {
+            future = kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload());
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return Mono.fromFuture(future)
+                .thenReturn(event.getId())
+                .onErrorResume(e -> onSendFailure(event, e).then(Mono.empty()));
+    }
+
+    private Mono<Void> onSendFailure(OutboxEvent event, Throwable error) {
+        int attempts = (event.getAttempts() == null ? 0 : event.getAttempts()) + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Outbox event {} to {} failed {} times, moving it to the dead letter state: {}",
+                    event.getId(), event.getTopic(), attempts, error.getMessage());
+            return outboxEventRepository.markDeadLetter(event.getId(), error.getMessage());
+        }
+
+        Duration backoff = retryBackoff(attempts);
+        log.error("Failed to publish outbox event {} to {}, retrying in {}: {}",
+                event.getId(), event.getTopic(), backoff, error.getMessage());
+        return outboxEventRepository.markFailed(event.getId(), error.getMessage(), LocalDateTime.now().plus(backoff));
+    }
+
+    /**
+     * Doubles the backoff with every failed attempt, up to the configured maximum.
+     */
+    private Duration retryBackoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+}
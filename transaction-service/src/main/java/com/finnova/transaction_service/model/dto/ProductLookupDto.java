@@ -0,0 +1,21 @@
+package com.finnova.transaction_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of products-service /products lookups: category is PASSIVE or ACTIVE
+ * and only the matching product field is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLookupDto {
+
+    private String category;
+    private PassiveProductDto passiveProduct;
+    private ActiveProductDto activeProduct;
+}
@@ -0,0 +1,19 @@
+package com.finnova.transaction_service.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Both passive products after an atomic transfer in products-service.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTransferResult {
+
+    private ProductDto source;
+    private ProductDto destination;
+}
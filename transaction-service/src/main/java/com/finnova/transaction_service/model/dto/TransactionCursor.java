@@ -0,0 +1,39 @@
+package com.finnova.transaction_service.model.dto;
+
+import com.finnova.transaction_service.exception.InvalidTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a transaction listing sorted by transactionDate and _id, newest first.
+ * Travels to clients as an opaque URL-safe token.
+ *
+ * @param transactionDate the transactionDate of the last returned transaction
+ * @param id the _id of the last returned transaction
+ */
+public record TransactionCursor(LocalDateTime transactionDate, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = transactionDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidTransactionException("Invalid cursor");
+            }
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidTransactionException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.finnova.transaction_service.model.dto;
+
+import com.finnova.transaction_service.model.enums.TransactionStatus;
+import com.finnova.transaction_service.model.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional criteria for transaction queries, null fields are not filtered on.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionFilter {
+
+    private String productId;
+    private List<String> productIds; // any of these products
+    private String customerId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private TransactionType transactionType;
+    private TransactionStatus status;
+}
@@ -0,0 +1,19 @@
+package com.finnova.transaction_service.model.dto;
+
+import com.finnova.transaction_service.model.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+
+    private List<Transaction> transactions;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,27 @@
+package com.finnova.transaction_service.model.dto;
+
+import com.finnova.transaction_service.model.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated totals of one group; dimensions that were not grouped on are null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStats {
+
+    private String productId;
+    private TransactionType transactionType;
+    private String day; // yyyy-MM-dd in the service time zone
+
+    private Long count;
+    private BigDecimal totalAmount;
+    private BigDecimal totalCommission;
+}
@@ -0,0 +1,30 @@
+package com.finnova.transaction_service.model.dto;
+
+import com.finnova.transaction_service.model.enums.StatsDimension;
+import com.finnova.transaction_service.model.enums.TransactionStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionStatsRequest {
+
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 1000, message = "At most 1000 product IDs per request")
+    private List<String> productIds;
+
+    private LocalDateTime from; // inclusive, optional
+    private LocalDateTime to; // inclusive, optional
+    private TransactionStatus status; // optional
+
+    private List<StatsDimension> groupBy; // PRODUCT, TYPE, DAY; empty for a single total
+}
@@ -0,0 +1,37 @@
+package com.finnova.transaction_service.model.entity;
+
+import com.finnova.transaction_service.model.dto.TransactionResponse;
+import com.finnova.transaction_service.model.enums.IdempotencyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "idempotency_keys")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    @Id
+    private String key; // operation + ":" + caller + ":" + Idempotency-Key header, unique by _id
+
+    private String operation;
+    private String requestHash; // SHA-256 of the request body
+    private IdempotencyStatus status;
+
+    private TransactionResponse response;
+
+    @Indexed(expireAfter = "24h")
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
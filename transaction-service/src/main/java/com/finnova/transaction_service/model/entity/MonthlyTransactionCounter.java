@@ -0,0 +1,35 @@
+package com.finnova.transaction_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Document(collection = "monthly_transaction_counters")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class MonthlyTransactionCounter {
+
+    @Id
+    private String id; // productId + ":" + yearMonth
+
+    private String productId;
+    private String yearMonth; // yyyy-MM
+
+    private Long count; // COMPLETED deposits and withdrawals in the month
+
+    private LocalDateTime updatedAt;
+
+    public static String idOf(String productId, YearMonth yearMonth) {
+        return productId + ":" + yearMonth;
+    }
+}
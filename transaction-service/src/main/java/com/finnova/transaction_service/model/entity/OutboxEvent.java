@@ -0,0 +1,45 @@
+package com.finnova.transaction_service.model.entity;
+
+import com.finnova.transaction_service.model.enums.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "outbox_events")
+@CompoundIndex(name = "status_created_idx", def = "{'status': 1, 'createdAt': 1}")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private String topic;
+    private String messageKey;
+    private Object payload; // TransactionEvent or TransferEvent, stored with its _class
+
+    private OutboxStatus status;
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime nextAttemptAt; // a failed event is not retried before this time
+
+    // Lease held by the relay instance publishing this event
+    private String lockedBy;
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime createdAt;
+
+    @Indexed(expireAfter = "7d")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,45 @@
+package com.finnova.transaction_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of the product fields transaction-service validates against, kept up to date
+ * from products-service events. Balances are the last known values; products-service
+ * remains the authority and re-checks them on every mutation.
+ */
+@Document(collection = "product_projections")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProductProjection {
+
+    @Id
+    private String id; // productId
+
+    // Identity, fixed once the product exists
+    private String customerId;
+    private String productType; // SAVINGS, CHECKING, FIXED_TERM, PERSONAL_LOAN, BUSINESS_LOAN, CREDIT_CARD
+    private String accountNumber; // accountNumber or creditNumber
+    private String currency;
+
+    // State, only overwritten by newer changes
+    private String status;
+    private BigDecimal creditLimit; // active products only
+    private Integer maxFreeTransactions; // passive products only
+    private BigDecimal balance; // passive products only
+    private BigDecimal availableCredit; // active products only
+    private LocalDateTime stateAt; // time of the change the state was taken from
+
+    private LocalDateTime updatedAt;
+}
@@ -8,6 +8,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -15,6 +17,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Document(collection = "transactions")
+@CompoundIndexes({
+        @CompoundIndex(name = "product_status_type_date_idx",
+                def = "{'productId': 1, 'status': 1, 'transactionType': 1, 'transactionDate': 1}"),
+        @CompoundIndex(name = "product_date_idx", def = "{'productId': 1, 'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "customer_date_idx", def = "{'customerId': 1, 'transactionDate': -1, '_id': -1}")
+})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
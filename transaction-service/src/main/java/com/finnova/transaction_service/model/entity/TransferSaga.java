@@ -0,0 +1,59 @@
+package com.finnova.transaction_service.model.entity;
+
+import com.finnova.transaction_service.model.enums.TransferSagaState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of a transfer between two passive products.
+ * The transfer is sent to products-service with a key derived from the saga ID,
+ * so resuming a saga after a crash never moves money twice.
+ */
+@Document(collection = "transfer_sagas")
+@CompoundIndex(name = "state_locked_idx", def = "{'state': 1, 'lockedUntil': 1}")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TransferSaga {
+
+    @Id
+    private String id; // transfer transaction number
+
+    private String sourceProductId;
+    private String destinationProductId;
+    private BigDecimal amount;
+
+    private String debitTransactionId; // TRANSFER_OUT
+    private String creditTransactionId; // TRANSFER_IN
+
+    private TransferSagaState state;
+    private Integer attempts; // failed step attempts
+    private String lastError;
+
+    // Lease held by the execution currently driving the saga
+    private String lockedBy;
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime deadline; // past it the transfer is fenced off and the saga fails
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Indexed(expireAfter = "30d")
+    private LocalDateTime finishedAt;
+
+    public String transferOperationId() {
+        return id + ":transfer";
+    }
+}
@@ -0,0 +1,7 @@
+package com.finnova.transaction_service.model.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED,
+    UNKNOWN // failed after it may have moved money, never run again
+}
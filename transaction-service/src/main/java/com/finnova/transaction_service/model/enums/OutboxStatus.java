@@ -0,0 +1,7 @@
+package com.finnova.transaction_service.model.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    DEAD_LETTER // publishing failed outbox.relay.max-attempts times, needs manual replay
+}
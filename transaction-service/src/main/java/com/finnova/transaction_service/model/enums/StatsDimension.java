@@ -0,0 +1,7 @@
+package com.finnova.transaction_service.model.enums;
+
+public enum StatsDimension {
+    PRODUCT,
+    TYPE,
+    DAY
+}
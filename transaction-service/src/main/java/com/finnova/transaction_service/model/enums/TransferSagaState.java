@@ -0,0 +1,14 @@
+package com.finnova.transaction_service.model.enums;
+
+/**
+ * Steps of a transfer saga. COMPLETED and FAILED are final.
+ */
+public enum TransferSagaState {
+    STARTED, // transfer not confirmed yet
+    COMPLETED,
+    FAILED; // the transfer was never applied
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,9 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyRecordRepository extends ReactiveMongoRepository<IdempotencyRecord, String> {
+}
@@ -0,0 +1,32 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.MonthlyTransactionCounter;
+import reactor.core.publisher.Mono;
+
+import java.time.YearMonth;
+
+/**
+ * Atomic updates on the per-product monthly transaction counters.
+ */
+public interface MonthlyTransactionCounterOperations {
+
+    /**
+     * Increments the counter of a product for a month.
+     *
+     * @param productId the product ID
+     * @param yearMonth the month of the transaction
+     * @return Mono of the updated counter, empty if the counter does not exist yet
+     */
+    Mono<MonthlyTransactionCounter> increment(String productId, YearMonth yearMonth);
+
+    /**
+     * Creates or raises a counter to a count computed on the transactions collection.
+     * Never lowers a counter that concurrent updates have already moved past the given value.
+     *
+     * @param productId the product ID
+     * @param yearMonth the month being counted
+     * @param count the number of transactions counted
+     * @return Mono of the updated counter
+     */
+    Mono<MonthlyTransactionCounter> seed(String productId, YearMonth yearMonth, long count);
+}
@@ -0,0 +1,56 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.MonthlyTransactionCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@RequiredArgsConstructor
+public class MonthlyTransactionCounterOperationsImpl implements MonthlyTransactionCounterOperations {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options()
+            .returnNew(true);
+
+    private static final FindAndModifyOptions UPSERT_RETURN_NEW = FindAndModifyOptions.options()
+            .upsert(true)
+            .returnNew(true);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<MonthlyTransactionCounter> increment(String productId, YearMonth yearMonth) {
+        Update update = new Update()
+                .inc("count", 1L)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(
+                byId(productId, yearMonth),
+                update,
+                RETURN_NEW,
+                MonthlyTransactionCounter.class);
+    }
+
+    @Override
+    public Mono<MonthlyTransactionCounter> seed(String productId, YearMonth yearMonth, long count) {
+        Update update = new Update()
+                .max("count", count)
+                .set("updatedAt", LocalDateTime.now())
+                .setOnInsert("productId", productId)
+                .setOnInsert("yearMonth", yearMonth.toString());
+        return mongoTemplate.findAndModify(
+                byId(productId, yearMonth),
+                update,
+                UPSERT_RETURN_NEW,
+                MonthlyTransactionCounter.class);
+    }
+
+    private Query byId(String productId, YearMonth yearMonth) {
+        return Query.query(Criteria.where("_id").is(MonthlyTransactionCounter.idOf(productId, yearMonth)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.OutboxEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Batch claiming and acknowledgement of outbox events for the relay.
+ */
+public interface OutboxEventOperations {
+
+    /**
+     * Leases the oldest pending events that are due and that no other relay instance holds.
+     *
+     * @param owner the relay instance ID
+     * @param batchSize maximum number of events to claim
+     * @param lease how long the claim is held before other instances may take over
+     * @return Flux of the claimed events, oldest first
+     */
+    Flux<OutboxEvent> claimBatch(String owner, int batchSize, Duration lease);
+
+    /**
+     * Marks events as published.
+     *
+     * @param ids the event IDs
+     * @return Mono of the number of events updated
+     */
+    Mono<Long> markSent(Collection<String> ids);
+
+    /**
+     * Releases the lease of an event that could not be published so it is retried once due.
+     *
+     * @param id the event ID
+     * @param error the publish error
+     * @param nextAttemptAt the earliest time the event is claimed again
+     * @return Mono of Void
+     */
+    Mono<Void> markFailed(String id, String error, LocalDateTime nextAttemptAt);
+
+    /**
+     * Stops retrying an event that could not be published, leaving it for manual replay.
+     *
+     * @param id the event ID
+     * @param error the last publish error
+     * @return Mono of Void
+     */
+    Mono<Void> markDeadLetter(String id, String error);
+}
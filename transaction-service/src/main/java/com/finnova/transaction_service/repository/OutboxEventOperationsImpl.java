@@ -0,0 +1,100 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.OutboxEvent;
+import com.finnova.transaction_service.model.enums.OutboxStatus;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class OutboxEventOperationsImpl implements OutboxEventOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<OutboxEvent> claimBatch(String owner, int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = Criteria.where("status").is(OutboxStatus.PENDING)
+                .andOperator(
+                        new Criteria().orOperator(
+                                Criteria.where("lockedUntil").is(null),
+                                Criteria.where("lockedUntil").lt(now)),
+                        new Criteria().orOperator(
+                                Criteria.where("nextAttemptAt").is(null),
+                                Criteria.where("nextAttemptAt").lte(now)));
+
+        Query candidates = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+
+        Update claim = new Update()
+                .set("lockedBy", owner)
+                .set("lockedUntil", now.plus(lease));
+
+        // Re-checking claimable in the update makes concurrent relays skip rows already taken
+        return mongoTemplate.find(candidates, OutboxEvent.class)
+                .map(OutboxEvent::getId)
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMap(ids -> mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(ids).andOperator(claimable)),
+                        claim,
+                        OutboxEvent.class))
+                .flatMapMany(result -> mongoTemplate.find(
+                        Query.query(Criteria.where("lockedBy").is(owner)
+                                        .and("status").is(OutboxStatus.PENDING)
+                                        .and("lockedUntil").gt(now))
+                                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                                .limit(batchSize),
+                        OutboxEvent.class));
+    }
+
+    @Override
+    public Mono<Long> markSent(Collection<String> ids) {
+        Update update = new Update()
+                .set("status", OutboxStatus.SENT)
+                .set("sentAt", LocalDateTime.now())
+                .unset("lockedBy")
+                .unset("lockedUntil")
+                .unset("nextAttemptAt")
+                .inc("attempts", 1);
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), update, OutboxEvent.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Void> markFailed(String id, String error, LocalDateTime nextAttemptAt) {
+        Update update = new Update()
+                .set("lastError", error)
+                .set("nextAttemptAt", nextAttemptAt)
+                .unset("lockedBy")
+                .unset("lockedUntil")
+                .inc("attempts", 1);
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, OutboxEvent.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> markDeadLetter(String id, String error) {
+        Update update = new Update()
+                .set("status", OutboxStatus.DEAD_LETTER)
+                .set("lastError", error)
+                .unset("lockedBy")
+                .unset("lockedUntil")
+                .unset("nextAttemptAt")
+                .inc("attempts", 1);
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, OutboxEvent.class)
+                .then();
+    }
+}
@@ -0,0 +1,34 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.ProductProjection;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field-level upserts on the product projection. Events from different topics arrive
+ * in no particular order, so identity and state are written separately.
+ */
+public interface ProductProjectionOperations {
+
+    /**
+     * Sets the non-null identity fields of a projection, creating it if needed.
+     * Identity fields never change, so these writes are not ordered.
+     *
+     * @param productId the product ID
+     * @param identity carries the identity fields to set
+     * @return Mono of Void
+     */
+    Mono<Void> upsertIdentity(String productId, ProductProjection identity);
+
+    /**
+     * Sets the non-null state fields of a projection unless it already holds state
+     * from a later change, creating the projection if needed.
+     *
+     * @param productId the product ID
+     * @param stateAt the time of the change
+     * @param state carries the state fields to set
+     * @return Mono of true if applied, false if the projection already holds newer state
+     */
+    Mono<Boolean> applyState(String productId, LocalDateTime stateAt, ProductProjection state);
+}
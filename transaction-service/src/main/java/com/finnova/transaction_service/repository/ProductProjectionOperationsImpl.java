@@ -0,0 +1,62 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.ProductProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class ProductProjectionOperationsImpl implements ProductProjectionOperations {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> upsertIdentity(String productId, ProductProjection identity) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        setIfPresent(update, "customerId", identity.getCustomerId());
+        setIfPresent(update, "productType", identity.getProductType());
+        setIfPresent(update, "accountNumber", identity.getAccountNumber());
+        setIfPresent(update, "currency", identity.getCurrency());
+
+        return mongoTemplate.upsert(
+                        Query.query(Criteria.where("_id").is(productId)),
+                        update,
+                        ProductProjection.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> applyState(String productId, LocalDateTime stateAt, ProductProjection state) {
+        Query query = Query.query(Criteria.where("_id").is(productId)
+                .orOperator(
+                        Criteria.where("stateAt").exists(false),
+                        Criteria.where("stateAt").lte(stateAt)));
+
+        Update update = new Update()
+                .set("stateAt", stateAt)
+                .set("updatedAt", LocalDateTime.now());
+        setIfPresent(update, "status", state.getStatus());
+        setIfPresent(update, "creditLimit", state.getCreditLimit());
+        setIfPresent(update, "maxFreeTransactions", state.getMaxFreeTransactions());
+        setIfPresent(update, "balance", state.getBalance());
+        setIfPresent(update, "availableCredit", state.getAvailableCredit());
+
+        // When the projection holds newer state the filter misses and the upsert
+        // collides with the existing _id
+        return mongoTemplate.upsert(query, update, ProductProjection.class)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    private void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+}
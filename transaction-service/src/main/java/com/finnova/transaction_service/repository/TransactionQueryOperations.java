@@ -0,0 +1,42 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.dto.TransactionCursor;
+import com.finnova.transaction_service.model.dto.TransactionFilter;
+import com.finnova.transaction_service.model.dto.TransactionStats;
+import com.finnova.transaction_service.model.dto.TransactionStatsRequest;
+import com.finnova.transaction_service.model.entity.Transaction;
+import reactor.core.publisher.Flux;
+
+/**
+ * Filtered transaction queries with keyset pagination.
+ */
+public interface TransactionQueryOperations {
+
+    /**
+     * Finds transactions matching a filter, newest first, strictly after a cursor.
+     *
+     * @param filter the query criteria
+     * @param after the cursor to continue from, null for the first page
+     * @param limit maximum number of transactions to return
+     * @return Flux of Transaction sorted by transactionDate and _id descending
+     */
+    Flux<Transaction> findPage(TransactionFilter filter, TransactionCursor after, int limit);
+
+    /**
+     * Streams every transaction matching a filter, oldest first.
+     * Documents are pulled from the cursor in batches as the subscriber requests them.
+     *
+     * @param filter the query criteria
+     * @param batchSize number of documents fetched per cursor batch
+     * @return Flux of Transaction sorted by transactionDate and _id ascending
+     */
+    Flux<Transaction> stream(TransactionFilter filter, int batchSize);
+
+    /**
+     * Computes count, amount and commission totals of the given products with a $group pipeline.
+     *
+     * @param request the products, optional date range and status, and the dimensions to group by
+     * @return Flux of TransactionStats, one per group
+     */
+    Flux<TransactionStats> aggregateStats(TransactionStatsRequest request);
+}
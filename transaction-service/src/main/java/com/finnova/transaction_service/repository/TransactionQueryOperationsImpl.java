@@ -0,0 +1,163 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.dto.TransactionCursor;
+import com.finnova.transaction_service.model.dto.TransactionFilter;
+import com.finnova.transaction_service.model.dto.TransactionStats;
+import com.finnova.transaction_service.model.dto.TransactionStatsRequest;
+import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.enums.StatsDimension;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransactionQueryOperationsImpl implements TransactionQueryOperations {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "transactionDate")
+            .and(Sort.by(Sort.Direction.DESC, "_id"));
+
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "transactionDate")
+            .and(Sort.by(Sort.Direction.ASC, "_id"));
+
+    private static final String DAY_FORMAT = "%Y-%m-%d";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Transaction> findPage(TransactionFilter filter, TransactionCursor after, int limit) {
+        Query query = Query.query(toCriteria(filter, after))
+                .with(NEWEST_FIRST)
+                .limit(limit);
+        return mongoTemplate.find(query, Transaction.class);
+    }
+
+    @Override
+    public Flux<Transaction> stream(TransactionFilter filter, int batchSize) {
+        Query query = Query.query(toCriteria(filter, null))
+                .with(OLDEST_FIRST)
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.find(query, Transaction.class);
+    }
+
+    @Override
+    public Flux<TransactionStats> aggregateStats(TransactionStatsRequest request) {
+        return mongoTemplate.aggregate(statsAggregation(request), Transaction.class, TransactionStats.class);
+    }
+
+    static Aggregation statsAggregation(TransactionStatsRequest request) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("productId").in(request.getProductIds()));
+        if (request.getFrom() != null || request.getTo() != null) {
+            Criteria date = Criteria.where("transactionDate");
+            if (request.getFrom() != null) {
+                date.gte(request.getFrom());
+            }
+            if (request.getTo() != null) {
+                date.lte(request.getTo());
+            }
+            criteria.add(date);
+        }
+        if (request.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(request.getStatus()));
+        }
+
+        String[] groupFields = request.getGroupBy() == null ? new String[0] : request.getGroupBy().stream()
+                .distinct()
+                .map(TransactionQueryOperationsImpl::groupField)
+                .toArray(String[]::new);
+
+        // Amounts may be stored as strings or Decimal128, $toDecimal sums both exactly
+        ProjectionOperation fields = Aggregation.project("productId", "transactionType")
+                .and(ConvertOperators.valueOf("amount").convertToDecimal()).as("amount")
+                .and(ConvertOperators.valueOf("commission").convertToDecimal()).as("commission");
+        if (List.of(groupFields).contains("day")) {
+            fields = fields.and(DateOperators.dateOf("transactionDate")
+                    .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                    .toString(DAY_FORMAT)).as("day");
+        }
+
+        GroupOperation group = (groupFields.length == 0 ? Aggregation.group() : Aggregation.group(groupFields))
+                .count().as("count")
+                .sum("amount").as("totalAmount")
+                .sum("commission").as("totalCommission");
+
+        ProjectionOperation result = Aggregation.project("count", "totalAmount", "totalCommission");
+        if (groupFields.length == 1) {
+            // A single group field is the _id itself rather than a field of it
+            result = result.and("_id").as(groupFields[0]);
+        } else {
+            result = result.andInclude(groupFields);
+        }
+        result = result.andExclude("_id");
+
+        List<AggregationOperation> pipeline = new ArrayList<>(List.of(
+                Aggregation.match(new Criteria().andOperator(criteria)),
+                fields,
+                group,
+                result));
+        if (groupFields.length > 0) {
+            pipeline.add(Aggregation.sort(Sort.by(Sort.Direction.ASC, groupFields)));
+        }
+
+        return Aggregation.newAggregation(pipeline);
+    }
+
+    private static String groupField(StatsDimension dimension) {
+        return switch (dimension) {
+            case PRODUCT -> "productId";
+            case TYPE -> "transactionType";
+            case DAY -> "day";
+        };
+    }
+
+    static Criteria toCriteria(TransactionFilter filter, TransactionCursor after) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (filter.getProductId() != null) {
+            criteria.add(Criteria.where("productId").is(filter.getProductId()));
+        }
+        if (filter.getProductIds() != null && !filter.getProductIds().isEmpty()) {
+            criteria.add(Criteria.where("productId").in(filter.getProductIds()));
+        }
+        if (filter.getCustomerId() != null) {
+            criteria.add(Criteria.where("customerId").is(filter.getCustomerId()));
+        }
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            Criteria date = Criteria.where("transactionDate");
+            if (filter.getFrom() != null) {
+                date.gte(filter.getFrom());
+            }
+            if (filter.getTo() != null) {
+                date.lte(filter.getTo());
+            }
+            criteria.add(date);
+        }
+        if (filter.getTransactionType() != null) {
+            criteria.add(Criteria.where("transactionType").is(filter.getTransactionType()));
+        }
+        if (filter.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(filter.getStatus()));
+        }
+        if (after != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("transactionDate").lt(after.transactionDate()),
+                    Criteria.where("transactionDate").is(after.transactionDate())
+                            .and("_id").lt(after.id())));
+        }
+
+        return criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria);
+    }
+}
@@ -1,15 +1,21 @@
 package com.finnova.transaction_service.repository;
 
 import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.enums.TransactionStatus;
+import com.finnova.transaction_service.model.enums.TransactionType;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Repository
-public interface TransactionRepository extends ReactiveMongoRepository<Transaction, String> {
+public interface TransactionRepository
+        extends ReactiveMongoRepository<Transaction, String>, TransactionQueryOperations {
 
     Flux<Transaction> findByProductId(String productId);
 
@@ -17,6 +23,14 @@ public interface TransactionRepository extends ReactiveMongoRepository<Transacti
 
     Flux<Transaction> findByProductIdAndTransactionDateBetween(
             String productId,
+            Range<LocalDateTime> transactionDate,
+            Sort sort
+    );
+
+    Mono<Long> countByProductIdAndStatusAndTransactionTypeInAndTransactionDateBetween(
+            String productId,
+            TransactionStatus status,
+            Collection<TransactionType> transactionTypes,
             LocalDateTime start,
             LocalDateTime end
     );
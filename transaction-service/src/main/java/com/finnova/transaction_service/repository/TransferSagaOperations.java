@@ -0,0 +1,50 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.TransferSaga;
+import com.finnova.transaction_service.model.enums.TransferSagaState;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Lease-guarded state changes of transfer sagas. Every change is conditional on the
+ * caller still holding the lease, so only one execution drives a saga at a time.
+ */
+public interface TransferSagaOperations {
+
+    /**
+     * Moves a saga to its next state and renews the lease.
+     *
+     * @param id the saga ID
+     * @param owner the lease holder
+     * @param from the expected current state
+     * @param to the new state
+     * @param error why the saga is failing, null to keep the last error
+     * @param lease how long the lease is held from now
+     * @return Mono of the updated saga, empty if the state changed or the lease was lost
+     */
+    Mono<TransferSaga> transition(String id, String owner, TransferSagaState from, TransferSagaState to,
+                                  String error, Duration lease);
+
+    /**
+     * Records a failed step attempt and releases the lease early, leaving the state unchanged.
+     *
+     * @param id the saga ID
+     * @param owner the lease holder
+     * @param error the step error
+     * @param retryAfter when another execution may resume the saga
+     * @return Mono of Void
+     */
+    Mono<Void> recordFailure(String id, String owner, String error, Duration retryAfter);
+
+    /**
+     * Leases unfinished sagas whose lease has expired, the ones closest to their deadline first.
+     *
+     * @param owner the new lease holder
+     * @param batchSize maximum number of sagas to claim
+     * @param lease how long the claim is held
+     * @return Flux of the claimed sagas
+     */
+    Flux<TransferSaga> claimStalled(String owner, int batchSize, Duration lease);
+}
@@ -0,0 +1,90 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.TransferSaga;
+import com.finnova.transaction_service.model.enums.TransferSagaState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransferSagaOperationsImpl implements TransferSagaOperations {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+    private static final List<TransferSagaState> UNFINISHED = Arrays.stream(TransferSagaState.values())
+            .filter(state -> !state.isFinal())
+            .toList();
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<TransferSaga> transition(String id, String owner, TransferSagaState from, TransferSagaState to,
+                                         String error, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("state").is(from)
+                .and("lockedBy").is(owner));
+
+        Update update = new Update()
+                .set("state", to)
+                .set("updatedAt", now);
+        if (error != null) {
+            update.set("lastError", error);
+        }
+        if (to.isFinal()) {
+            update.set("finishedAt", now).unset("lockedBy").unset("lockedUntil");
+        } else {
+            update.set("lockedUntil", now.plus(lease));
+        }
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, TransferSaga.class);
+    }
+
+    @Override
+    public Mono<Void> recordFailure(String id, String owner, String error, Duration retryAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("lastError", error)
+                .set("lockedUntil", now.plus(retryAfter))
+                .set("updatedAt", now)
+                .inc("attempts", 1);
+        return mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(id).and("lockedBy").is(owner)),
+                        update,
+                        TransferSaga.class)
+                .then();
+    }
+
+    @Override
+    public Flux<TransferSaga> claimStalled(String owner, int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = Criteria.where("state").in(UNFINISHED)
+                .and("lockedUntil").lt(now);
+
+        Query candidates = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "deadline"))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+
+        Update claim = new Update()
+                .set("lockedBy", owner)
+                .set("lockedUntil", now.plus(lease));
+
+        // Each claim re-checks the expired lease, so a saga is taken by one instance only
+        return mongoTemplate.find(candidates, TransferSaga.class)
+                .concatMap(candidate -> mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(candidate.getId()).andOperator(claimable)),
+                        claim,
+                        RETURN_NEW,
+                        TransferSaga.class));
+    }
+}
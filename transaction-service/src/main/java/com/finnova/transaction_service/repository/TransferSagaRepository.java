@@ -0,0 +1,10 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.TransferSaga;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransferSagaRepository
+        extends ReactiveMongoRepository<TransferSaga, String>, TransferSagaOperations {
+}
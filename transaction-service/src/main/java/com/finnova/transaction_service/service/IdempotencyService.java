@@ -0,0 +1,240 @@
+package com.finnova.transaction_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.transaction_service.exception.CustomerNotFoundException;
+import com.finnova.transaction_service.exception.IdempotencyConflictException;
+import com.finnova.transaction_service.exception.InsufficientBalanceException;
+import com.finnova.transaction_service.exception.InvalidTransactionException;
+import com.finnova.transaction_service.exception.OverdueDebtException;
+import com.finnova.transaction_service.exception.ProductNotFoundException;
+import com.finnova.transaction_service.model.dto.TransactionResponse;
+import com.finnova.transaction_service.model.entity.IdempotencyRecord;
+import com.finnova.transaction_service.model.enums.IdempotencyStatus;
+import com.finnova.transaction_service.repository.IdempotencyRecordRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final String CACHE_PREFIX = "idempotency:";
+    private static final String ANONYMOUS_CALLER = "anonymous";
+    private static final List<Class<? extends Throwable>> REJECTIONS = List.of(
+            ProductNotFoundException.class, CustomerNotFoundException.class, InvalidTransactionException.class,
+            InsufficientBalanceException.class, OverdueDebtException.class, CallNotPermittedException.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration cacheTtl;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ReactiveRedisTemplate<String, String> redisTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache-ttl:10m}") Duration cacheTtl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * Runs a money-moving operation at most once per Idempotency-Key.
+     * A repeated key returns the stored response without running the operation again.
+     * Requests without a key are executed as before.
+     *
+     * <p>A key is released for a retry only when the operation was rejected before it moved
+     * any money. After any other failure the outcome is unknown, e.g. a timeout after
+     * products-service applied the change, so the key is kept and repeated requests are
+     * rejected instead of running the operation twice.</p>
+     *
+     * @param idempotencyKey the Idempotency-Key header, may be null
+     * @param callerId the X-User-Id set by the gateway from the verified token, may be null;
+     *                 keys are scoped per caller, so one client can neither replay nor block
+     *                 another client's key
+     * @param operation the operation name, keys are scoped per operation
+     * @param request the request body, used to detect key reuse with a different payload
+     * @param action the operation to run on first use of the key
+     * @return Mono of TransactionResponse
+     */
+    public Mono<TransactionResponse> execute(String idempotencyKey, String callerId, String operation,
+                                             Object request, Supplier<Mono<TransactionResponse>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String caller = callerId == null || callerId.isBlank() ? ANONYMOUS_CALLER : callerId;
+        String key = operation + ":" + caller + ":" + idempotencyKey;
+
+        return Mono.fromCallable(() -> hash(request))
+                .flatMap(requestHash -> getCachedResponse(key, requestHash)
+                        .switchIfEmpty(Mono.defer(() -> {
+                            IdempotencyRecord record = IdempotencyRecord.builder()
+                                    .key(key)
+                                    .operation(operation)
+                                    .requestHash(requestHash)
+                                    .status(IdempotencyStatus.IN_PROGRESS)
+                                    .createdAt(LocalDateTime.now())
+                                    .build();
+
+                            return claim(record)
+                                    .flatMap(claimed -> claimed
+                                            ? action.get()
+                                                    .flatMap(response -> complete(record, response))
+                                                    .onErrorResume(error -> abandon(record, error)
+                                                            .then(Mono.error(error)))
+                                            : replay(key, requestHash));
+                        })));
+    }
+
+    /**
+     * Redis fast path for keys completed recently.
+     */
+    private Mono<TransactionResponse> getCachedResponse(String key, String requestHash) {
+        return redisTemplate.opsForValue()
+                .get(CACHE_PREFIX + key)
+                .flatMap(json -> {
+                    try {
+                        IdempotencyRecord record = objectMapper.readValue(json, IdempotencyRecord.class);
+                        return replayRecord(record, requestHash);
+                    } catch (JsonProcessingException e) {
+                        log.error("Error deserializing idempotency record {}: {}", key, e.getMessage());
+                        return Mono.empty();
+                    }
+                })
+                .onErrorResume(e -> !(e instanceof IdempotencyConflictException), e -> {
+                    log.warn("Idempotency cache unavailable for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Inserts the IN_PROGRESS record; the unique _id makes the first request win.
+     *
+     * @return true if this request owns the key, false if it was already taken
+     */
+    private Mono<Boolean> claim(IdempotencyRecord record) {
+        return idempotencyRecordRepository.insert(record)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    private Mono<TransactionResponse> complete(IdempotencyRecord record, TransactionResponse response) {
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setResponse(response);
+        record.setCompletedAt(LocalDateTime.now());
+
+        return idempotencyRecordRepository.save(record)
+                .flatMap(this::cacheRecord)
+                .thenReturn(response);
+    }
+
+    private Mono<Void> abandon(IdempotencyRecord record, Throwable error) {
+        return isRejection(error) ? release(record.getKey()) : markUnknown(record, error);
+    }
+
+    /**
+     * Errors that reject an operation without moving any money: failed validations, a failed
+     * transfer saga and an open circuit. Resilience4j fallbacks keep the original error as the cause.
+     */
+    private boolean isRejection(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> rejection : REJECTIONS) {
+                if (rejection.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Frees the key after a rejected operation so the client can retry with it.
+     */
+    private Mono<Void> release(String key) {
+        return idempotencyRecordRepository.deleteById(key)
+                .doOnError(e -> log.error("Error releasing idempotency key {}: {}", key, e.getMessage()))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Keeps the key of an operation that failed after it may have moved money.
+     */
+    private Mono<Void> markUnknown(IdempotencyRecord record, Throwable error) {
+        log.warn("Outcome of idempotency key {} is unknown after: {}", record.getKey(), error.getMessage());
+        record.setStatus(IdempotencyStatus.UNKNOWN);
+        record.setResponse(null);
+        record.setCompletedAt(LocalDateTime.now());
+
+        return idempotencyRecordRepository.save(record)
+                .doOnError(e -> log.error("Error marking idempotency key {} unknown: {}",
+                        record.getKey(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<TransactionResponse> replay(String key, String requestHash) {
+        return idempotencyRecordRepository.findById(key)
+                .flatMap(record -> {
+                    if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                        return cacheRecord(record).then(replayRecord(record, requestHash));
+                    }
+                    return replayRecord(record, requestHash);
+                })
+                // The concurrent owner was rejected and released the key in the meantime
+                .switchIfEmpty(Mono.error(new IdempotencyConflictException(
+                        "A request with this Idempotency-Key failed concurrently, please retry")));
+    }
+
+    private Mono<TransactionResponse> replayRecord(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            return Mono.error(new IdempotencyConflictException(
+                    "Idempotency-Key was already used with a different request"));
+        }
+        if (record.getStatus() == IdempotencyStatus.UNKNOWN) {
+            return Mono.error(new IdempotencyConflictException(
+                    "A request with this Idempotency-Key failed with an unknown outcome, "
+                            + "check the transactions before retrying with a new key"));
+        }
+        if (record.getStatus() != IdempotencyStatus.COMPLETED) {
+            return Mono.error(new IdempotencyConflictException(
+                    "A request with this Idempotency-Key is still being processed"));
+        }
+        log.info("Replaying stored response for idempotency key: {}", record.getKey());
+        return Mono.just(record.getResponse());
+    }
+
+    private Mono<Boolean> cacheRecord(IdempotencyRecord record) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(record))
+                .flatMap(json -> redisTemplate.opsForValue().set(CACHE_PREFIX + record.getKey(), json, cacheTtl))
+                .onErrorResume(e -> {
+                    log.warn("Error caching idempotency record {}: {}", record.getKey(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash request for idempotency check", e);
+        }
+    }
+}
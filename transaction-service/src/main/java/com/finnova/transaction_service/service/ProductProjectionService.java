@@ -0,0 +1,222 @@
+package com.finnova.transaction_service.service;
+
+import com.finnova.transaction_service.client.ProductClient;
+import com.finnova.transaction_service.event.model.ProductEvent;
+import com.finnova.transaction_service.model.dto.ProductDto;
+import com.finnova.transaction_service.model.entity.ProductProjection;
+import com.finnova.transaction_service.repository.ProductProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Read-through product lookups for validation and routing. Products are read from the
+ * local projection fed by products-service events; products-service is only called
+ * when the projection does not know a product yet, or to confirm a rejection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductProjectionService {
+
+    private static final Set<String> PASSIVE_TYPES = Set.of("SAVINGS", "CHECKING", "FIXED_TERM");
+    private static final Set<String> CREDIT_OPERATIONS = Set.of("CHARGE", "PAYMENT");
+
+    private final ProductProjectionRepository productProjectionRepository;
+    private final ProductClient productClient;
+
+    /**
+     * Get a product from the projection, loading it from products-service on a miss
+     */
+    public Mono<ProductDto> getProduct(String productId) {
+        return productProjectionRepository.findById(productId)
+                .filter(this::isComplete)
+                .map(this::toProductDto)
+                .switchIfEmpty(Mono.defer(() -> refresh(productId)));
+    }
+
+    /**
+     * Get a product from the projection, re-reading it from products-service when the
+     * projected copy fails the check. Balances in the projection may lag behind, so a
+     * request is only rejected on the authoritative data.
+     */
+    public Mono<ProductDto> getProduct(String productId, Predicate<ProductDto> check) {
+        return getProduct(productId)
+                .flatMap(product -> check.test(product)
+                        ? Mono.just(product)
+                        : refresh(productId));
+    }
+
+    /**
+     * Load a product from products-service and store it in the projection
+     */
+    public Mono<ProductDto> refresh(String productId) {
+        log.debug("Loading product {} from products-service", productId);
+        return productClient.getProduct(productId)
+                .flatMap(product -> record(product).thenReturn(product));
+    }
+
+    /**
+     * Store a product returned by products-service, e.g. the result of a mutation.
+     * Failures are logged only, the projection catches up with the next event.
+     */
+    public Mono<Void> record(ProductDto product) {
+        boolean passive = PASSIVE_TYPES.contains(product.getProductType());
+
+        ProductProjection identity = ProductProjection.builder()
+                .customerId(product.getCustomerId())
+                .productType(product.getProductType())
+                .accountNumber(product.getAccountNumber())
+                .currency(product.getCurrency())
+                .build();
+
+        ProductProjection state = ProductProjection.builder()
+                .status(product.getStatus())
+                .creditLimit(passive ? null : product.getCreditLimit())
+                .maxFreeTransactions(passive ? product.getMaxFreeTransactions() : null)
+                .balance(passive ? product.getBalance() : null)
+                .availableCredit(passive ? null : product.getAvailableBalance())
+                .build();
+
+        return apply(product.getId(), identity, LocalDateTime.now(), state)
+                .onErrorResume(e -> {
+                    log.warn("Error recording product {} in projection: {}", product.getId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Apply a products-service event to the projection
+     */
+    public Mono<Void> apply(String eventType, ProductEvent event) {
+        if (event.getProductId() == null) {
+            return Mono.empty();
+        }
+        LocalDateTime stateAt = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+
+        return switch (eventType) {
+            case ProductEvent.PASSIVE_PRODUCT_CREATED -> apply(event.getProductId(),
+                    ProductProjection.builder()
+                            .customerId(event.getCustomerId())
+                            .productType(event.getProductType())
+                            .accountNumber(event.getAccountNumber())
+                            .currency(event.getCurrency())
+                            .build(),
+                    stateAt,
+                    ProductProjection.builder()
+                            .status("ACTIVE")
+                            .balance(event.getBalance())
+                            .maxFreeTransactions(event.getMaxTransactionsWithoutFee())
+                            .build());
+            case ProductEvent.PASSIVE_PRODUCT_UPDATED -> apply(event.getProductId(),
+                    ProductProjection.builder()
+                            .customerId(event.getCustomerId())
+                            .accountNumber(event.getAccountNumber())
+                            .build(),
+                    stateAt,
+                    ProductProjection.builder()
+                            .status(event.getStatus())
+                            .balance(event.getBalance())
+                            .maxFreeTransactions(event.getMaxTransactionsWithoutFee())
+                            .build());
+            case ProductEvent.ACTIVE_PRODUCT_CREATED -> apply(event.getProductId(),
+                    ProductProjection.builder()
+                            .customerId(event.getCustomerId())
+                            .productType(event.getProductType())
+                            .accountNumber(event.getCreditNumber())
+                            .currency(event.getCurrency())
+                            .build(),
+                    stateAt,
+                    ProductProjection.builder()
+                            .status("ACTIVE")
+                            .creditLimit(event.getCreditLimit())
+                            .availableCredit(event.getCreditLimit())
+                            .build());
+            case ProductEvent.ACTIVE_PRODUCT_UPDATED -> apply(event.getProductId(),
+                    ProductProjection.builder()
+                            .customerId(event.getCustomerId())
+                            .accountNumber(event.getCreditNumber())
+                            .build(),
+                    stateAt,
+                    ProductProjection.builder()
+                            .status(event.getStatus())
+                            .creditLimit(event.getCreditLimit())
+                            .availableCredit(event.getAvailableCredit())
+                            .build());
+            case ProductEvent.PASSIVE_PRODUCT_DELETED, ProductEvent.ACTIVE_PRODUCT_DELETED ->
+                    productProjectionRepository.deleteById(event.getProductId());
+            case ProductEvent.BALANCE_CHANGED -> {
+                boolean credit = CREDIT_OPERATIONS.contains(event.getOperationType());
+                yield apply(event.getProductId(),
+                        ProductProjection.builder()
+                                .customerId(event.getCustomerId())
+                                .accountNumber(event.getProductNumber())
+                                .build(),
+                        stateAt,
+                        ProductProjection.builder()
+                                .balance(credit ? null : event.getNewBalance())
+                                .availableCredit(credit ? event.getNewBalance() : null)
+                                .build());
+            }
+            default -> {
+                log.debug("Ignoring product event of type {}", eventType);
+                yield Mono.empty();
+            }
+        };
+    }
+
+    private Mono<Void> apply(String productId, ProductProjection identity, LocalDateTime stateAt,
+                             ProductProjection state) {
+        return productProjectionRepository.upsertIdentity(productId, identity)
+                .then(productProjectionRepository.applyState(productId, stateAt, state))
+                .doOnNext(applied -> {
+                    if (!applied) {
+                        log.debug("Skipped stale state for product {} at {}", productId, stateAt);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * A projection built from events alone may lack fields until the creation event or a
+     * first load from products-service has been seen.
+     */
+    private boolean isComplete(ProductProjection projection) {
+        if (projection.getProductType() == null || projection.getCustomerId() == null
+                || projection.getStatus() == null) {
+            return false;
+        }
+        if (PASSIVE_TYPES.contains(projection.getProductType())) {
+            return projection.getBalance() != null;
+        }
+        return projection.getAvailableCredit() != null && projection.getCreditLimit() != null;
+    }
+
+    private ProductDto toProductDto(ProductProjection projection) {
+        ProductDto.ProductDtoBuilder product = ProductDto.builder()
+                .id(projection.getId())
+                .customerId(projection.getCustomerId())
+                .productType(projection.getProductType())
+                .accountNumber(projection.getAccountNumber())
+                .currency(projection.getCurrency())
+                .status(projection.getStatus());
+
+        if (PASSIVE_TYPES.contains(projection.getProductType())) {
+            return product
+                    .balance(projection.getBalance())
+                    .availableBalance(projection.getBalance())
+                    .maxFreeTransactions(projection.getMaxFreeTransactions())
+                    .build();
+        }
+        return product
+                .balance(projection.getCreditLimit().subtract(projection.getAvailableCredit()))
+                .creditLimit(projection.getCreditLimit())
+                .availableBalance(projection.getAvailableCredit())
+                .build();
+    }
+}
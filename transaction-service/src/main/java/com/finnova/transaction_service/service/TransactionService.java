@@ -10,33 +10,61 @@ import com.finnova.transaction_service.model.dto.CreditChargeRequest;
 import com.finnova.transaction_service.model.dto.DepositRequest;
 import com.finnova.transaction_service.model.dto.PaymentRequest;
 import com.finnova.transaction_service.model.dto.ProductDto;
+import com.finnova.transaction_service.model.dto.TransactionCursor;
+import com.finnova.transaction_service.model.dto.TransactionFilter;
+import com.finnova.transaction_service.model.dto.TransactionPage;
+import com.finnova.transaction_service.model.dto.TransactionStats;
+import com.finnova.transaction_service.model.dto.TransactionStatsRequest;
 import com.finnova.transaction_service.model.dto.WithdrawalRequest;
+import com.finnova.transaction_service.model.entity.MonthlyTransactionCounter;
 import com.finnova.transaction_service.model.entity.Transaction;
 import com.finnova.transaction_service.model.enums.TransactionStatus;
 import com.finnova.transaction_service.model.enums.TransactionType;
+import com.finnova.transaction_service.repository.MonthlyTransactionCounterRepository;
 import com.finnova.transaction_service.repository.TransactionRepository;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    private static final List<TransactionType> COUNTED_TRANSACTION_TYPES =
+            List.of(TransactionType.DEPOSIT, TransactionType.WITHDRAWAL);
+
     private final TransactionRepository transactionRepository;
     private final ProductClient productClient;
+    private final ProductProjectionService productProjectionService;
     private final CustomerClient customerClient;
     private final TransactionEventPublisher eventPublisher;
+    private final MonthlyTransactionCounterRepository monthlyTransactionCounterRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${transactions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${transactions.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${transactions.export.batch-size:256}")
+    private int exportBatchSize;
 
     // ========== DEPOSIT ==========
 
@@ -48,7 +76,7 @@ public class TransactionService {
     public Mono<Transaction> deposit(DepositRequest request) {
         log.info("Processing deposit for product: {}", request.getProductId());
 
-        return productClient.getProduct(request.getProductId())
+        return productProjectionService.getProduct(request.getProductId())
                 .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found")))
                 .flatMap(product -> {
                     // Validate product is a passive account (SAVINGS, CHECKING, FIXED_TERM)
@@ -80,28 +108,26 @@ public class TransactionService {
                             .createdAt(LocalDateTime.now())
                             .build();
 
-                    return transactionRepository.save(transaction)
+                    return saveWithEvent(transaction, eventPublisher::publishTransactionCreated)
                             .flatMap(savedTransaction ->
-                                    eventPublisher.publishTransactionCreated(savedTransaction)
-                                            .then(productClient.deposit(request.getProductId(), request.getAmount()))
+                                    productClient.deposit(request.getProductId(), request.getAmount())
                                             .flatMap(updatedProduct -> {
+                                                // The projection balance may lag, record the authoritative one
+                                                savedTransaction.setBalanceAfter(updatedProduct.getBalance());
+                                                savedTransaction.setBalanceBefore(
+                                                        updatedProduct.getBalance().subtract(request.getAmount()));
                                                 savedTransaction.setStatus(TransactionStatus.COMPLETED);
                                                 savedTransaction.setUpdatedAt(LocalDateTime.now());
-                                                return transactionRepository.save(savedTransaction);
+                                                return productProjectionService.record(updatedProduct)
+                                                        .then(saveCompleted(savedTransaction));
                                             })
                             )
-                            .flatMap(completedTransaction ->
-                                    eventPublisher.publishTransactionCompleted(completedTransaction)
-                                            .thenReturn(completedTransaction)
-                            )
                             .onErrorResume(error -> {
                                 transaction.setStatus(TransactionStatus.FAILED);
                                 transaction.setDescription(transaction.getDescription() + " - Error: " + error.getMessage());
-                                return transactionRepository.save(transaction)
-                                        .flatMap(failedTx ->
-                                                eventPublisher.publishTransactionFailed(failedTx, error.getMessage())
-                                                        .then(Mono.error(error))
-                                        );
+                                return saveWithEvent(transaction,
+                                                failedTx -> eventPublisher.publishTransactionFailed(failedTx, error.getMessage()))
+                                        .then(Mono.error(error));
                             });
                 });
     }
@@ -116,7 +142,9 @@ public class TransactionService {
     public Mono<Transaction> withdrawal(WithdrawalRequest request) {
         log.info("Processing withdrawal for product: {}", request.getProductId());
 
-        return productClient.getProduct(request.getProductId())
+        return productProjectionService.getProduct(request.getProductId(), product ->
+                        !isPassiveProduct(product.getProductType())
+                                || product.getBalance().compareTo(request.getAmount()) >= 0)
                 .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found")))
                 .flatMap(product -> {
                     // Validate product is a passive account
@@ -136,58 +164,56 @@ public class TransactionService {
 
                     // Calculate commission based on monthly transaction count
                     return getMonthlyTransactionCount(request.getProductId())
-                            .flatMap(transactionCount -> {
-                                BigDecimal commission = calculateCommission(product, transactionCount);
-                                BigDecimal totalAmount = request.getAmount().add(commission);
-
-                                // Validate balance including commission
-                                if (product.getBalance().compareTo(totalAmount) < 0) {
-                                    return Mono.error(new InsufficientBalanceException(
-                                            "Insufficient balance including commission"));
-                                }
-
-                                BigDecimal newBalance = product.getBalance().subtract(totalAmount);
-
-                                Transaction transaction = Transaction.builder()
-                                        .transactionNumber(generateTransactionNumber("WTH"))
-                                        .customerId(product.getCustomerId())
-                                        .productId(request.getProductId())
-                                        .productType(product.getProductType())
-                                        .transactionType(TransactionType.WITHDRAWAL)
-                                        .amount(request.getAmount())
-                                        .balanceBefore(product.getBalance())
-                                        .balanceAfter(newBalance)
-                                        .commission(commission)
-                                        .description(request.getDescription())
-                                        .status(TransactionStatus.PENDING)
-                                        .transactionDate(LocalDateTime.now())
-                                        .createdAt(LocalDateTime.now())
-                                        .build();
-
-                                return transactionRepository.save(transaction)
-                                        .flatMap(savedTransaction ->
-                                                eventPublisher.publishTransactionCreated(savedTransaction)
-                                                        .then(productClient.withdraw(request.getProductId(), totalAmount))
-                                                        .flatMap(updatedProduct -> {
-                                                            savedTransaction.setStatus(TransactionStatus.COMPLETED);
-                                                            savedTransaction.setUpdatedAt(LocalDateTime.now());
-                                                            return transactionRepository.save(savedTransaction);
-                                                        })
-                                        )
-                                        .flatMap(completedTransaction ->
-                                                eventPublisher.publishTransactionCompleted(completedTransaction)
-                                                        .thenReturn(completedTransaction)
-                                        )
-                                        .onErrorResume(error -> {
-                                            transaction.setStatus(TransactionStatus.FAILED);
-                                            transaction.setDescription(transaction.getDescription() + " - Error: " + error.getMessage());
-                                            return transactionRepository.save(transaction)
-                                                    .flatMap(failedTx ->
-                                                            eventPublisher.publishTransactionFailed(failedTx, error.getMessage())
-                                                                    .then(Mono.error(error))
-                                                    );
-                                        });
-                            });
+                            .flatMap(transactionCount -> confirmFunds(product, request.getAmount(), transactionCount)
+                                    .flatMap(current -> {
+                                        BigDecimal commission = calculateCommission(current, transactionCount);
+                                        BigDecimal totalAmount = request.getAmount().add(commission);
+
+                                        // Validate balance including commission
+                                        if (current.getBalance().compareTo(totalAmount) < 0) {
+                                            return Mono.error(new InsufficientBalanceException(
+                                                    "Insufficient balance including commission"));
+                                        }
+
+                                        BigDecimal newBalance = current.getBalance().subtract(totalAmount);
+
+                                        Transaction transaction = Transaction.builder()
+                                                .transactionNumber(generateTransactionNumber("WTH"))
+                                                .customerId(current.getCustomerId())
+                                                .productId(request.getProductId())
+                                                .productType(current.getProductType())
+                                                .transactionType(TransactionType.WITHDRAWAL)
+                                                .amount(request.getAmount())
+                                                .balanceBefore(current.getBalance())
+                                                .balanceAfter(newBalance)
+                                                .commission(commission)
+                                                .description(request.getDescription())
+                                                .status(TransactionStatus.PENDING)
+                                                .transactionDate(LocalDateTime.now())
+                                                .createdAt(LocalDateTime.now())
+                                                .build();
+
+                                        return saveWithEvent(transaction, eventPublisher::publishTransactionCreated)
+                                                .flatMap(savedTransaction ->
+                                                        productClient.withdraw(request.getProductId(), totalAmount)
+                                                                .flatMap(updatedProduct -> {
+                                                                    savedTransaction.setBalanceAfter(updatedProduct.getBalance());
+                                                                    savedTransaction.setBalanceBefore(
+                                                                            updatedProduct.getBalance().add(totalAmount));
+                                                                    savedTransaction.setStatus(TransactionStatus.COMPLETED);
+                                                                    savedTransaction.setUpdatedAt(LocalDateTime.now());
+                                                                    return productProjectionService.record(updatedProduct)
+                                                                            .then(saveCompleted(savedTransaction));
+                                                                })
+                                                )
+                                                .onErrorResume(error -> {
+                                                    transaction.setStatus(TransactionStatus.FAILED);
+                                                    transaction.setDescription(transaction.getDescription() + " - Error: " + error.getMessage());
+                                                    return saveWithEvent(transaction,
+                                                                    failedTx -> eventPublisher.publishTransactionFailed(failedTx, error.getMessage()))
+                                                            .then(Mono.error(error));
+                                                });
+                                    }));
                 });
     }
 
@@ -201,7 +227,10 @@ public class TransactionService {
     public Mono<Transaction> payment(PaymentRequest request) {
         log.info("Processing payment for product: {}", request.getProductId());
 
-        return productClient.getProduct(request.getProductId())
+        return productProjectionService.getProduct(request.getProductId(), product ->
+                        !isActiveProduct(product.getProductType())
+                                || request.getAmount().compareTo(
+                                product.getCreditLimit().subtract(product.getAvailableBalance())) <= 0)
                 .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found")))
                 .flatMap(product -> {
                     // Validate product is active (CREDIT, CREDIT_CARD)
@@ -244,28 +273,26 @@ public class TransactionService {
                             .createdAt(LocalDateTime.now())
                             .build();
 
-                    return transactionRepository.save(transaction)
+                    return saveWithEvent(transaction, eventPublisher::publishTransactionCreated)
                             .flatMap(savedTransaction ->
-                                    eventPublisher.publishTransactionCreated(savedTransaction)
-                                            .then(productClient.makePayment(request.getProductId(), request.getAmount()))
+                                    productClient.makePayment(request.getProductId(), request.getAmount())
                                             .flatMap(updatedProduct -> {
+                                                savedTransaction.setBalanceAfter(updatedProduct.getAvailableBalance());
+                                                savedTransaction.setBalanceBefore(
+                                                        updatedProduct.getAvailableBalance().subtract(request.getAmount()));
                                                 savedTransaction.setStatus(TransactionStatus.COMPLETED);
                                                 savedTransaction.setUpdatedAt(LocalDateTime.now());
-                                                return transactionRepository.save(savedTransaction);
+                                                return productProjectionService.record(updatedProduct)
+                                                        .then(saveWithEvent(savedTransaction,
+                                                                eventPublisher::publishTransactionCompleted));
                                             })
                             )
-                            .flatMap(completedTransaction ->
-                                    eventPublisher.publishTransactionCompleted(completedTransaction)
-                                            .thenReturn(completedTransaction)
-                            )
                             .onErrorResume(error -> {
                                 transaction.setStatus(TransactionStatus.FAILED);
                                 transaction.setDescription(transaction.getDescription() + " - Error: " + error.getMessage());
-                                return transactionRepository.save(transaction)
-                                        .flatMap(failedTx ->
-                                                eventPublisher.publishTransactionFailed(failedTx, error.getMessage())
-                                                        .then(Mono.error(error))
-                                        );
+                                return saveWithEvent(transaction,
+                                                failedTx -> eventPublisher.publishTransactionFailed(failedTx, error.getMessage()))
+                                        .then(Mono.error(error));
                             });
                 });
     }
@@ -280,7 +307,9 @@ public class TransactionService {
     public Mono<Transaction> creditCharge(CreditChargeRequest request) {
         log.info("Processing credit charge for card: {}", request.getCreditCardId());
 
-        return productClient.getProduct(request.getCreditCardId())
+        return productProjectionService.getProduct(request.getCreditCardId(), product ->
+                        !"CREDIT_CARD".equals(product.getProductType())
+                                || product.getAvailableBalance().compareTo(request.getAmount()) >= 0)
                 .switchIfEmpty(Mono.error(new ProductNotFoundException("Credit card not found")))
                 .flatMap(product -> {
                     // Validate product is a credit card
@@ -312,28 +341,26 @@ public class TransactionService {
                             .createdAt(LocalDateTime.now())
                             .build();
 
-                    return transactionRepository.save(transaction)
+                    return saveWithEvent(transaction, eventPublisher::publishTransactionCreated)
                             .flatMap(savedTransaction ->
-                                    eventPublisher.publishTransactionCreated(savedTransaction)
-                                            .then(productClient.makeCharge(request.getCreditCardId(), request.getAmount()))
+                                    productClient.makeCharge(request.getCreditCardId(), request.getAmount())
                                             .flatMap(updatedProduct -> {
+                                                savedTransaction.setBalanceAfter(updatedProduct.getAvailableBalance());
+                                                savedTransaction.setBalanceBefore(
+                                                        updatedProduct.getAvailableBalance().add(request.getAmount()));
                                                 savedTransaction.setStatus(TransactionStatus.COMPLETED);
                                                 savedTransaction.setUpdatedAt(LocalDateTime.now());
-                                                return transactionRepository.save(savedTransaction);
+                                                return productProjectionService.record(updatedProduct)
+                                                        .then(saveWithEvent(savedTransaction,
+                                                                eventPublisher::publishTransactionCompleted));
                                             })
                             )
-                            .flatMap(completedTransaction ->
-                                    eventPublisher.publishTransactionCompleted(completedTransaction)
-                                            .thenReturn(completedTransaction)
-                            )
                             .onErrorResume(error -> {
                                 transaction.setStatus(TransactionStatus.FAILED);
                                 transaction.setDescription(transaction.getDescription() + " - Error: " + error.getMessage());
-                                return transactionRepository.save(transaction)
-                                        .flatMap(failedTx ->
-                                                eventPublisher.publishTransactionFailed(failedTx, error.getMessage())
-                                                        .then(Mono.error(error))
-                                        );
+                                return saveWithEvent(transaction,
+                                                failedTx -> eventPublisher.publishTransactionFailed(failedTx, error.getMessage()))
+                                        .then(Mono.error(error));
                             });
                 });
     }
@@ -341,19 +368,62 @@ public class TransactionService {
     // ========== QUERIES ==========
 
     /**
-     * Get all transactions for a product
+     * Get one page of transactions matching a filter, newest first.
+     * The next page starts after the returned cursor.
      */
-    public Flux<Transaction> getTransactionsByProduct(String productId) {
-        log.info("Fetching transactions for product: {}", productId);
-        return transactionRepository.findByProductId(productId);
+    public Mono<TransactionPage> getTransactions(TransactionFilter filter, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        log.info("Fetching transactions page of {} for filter: {}", pageSize, filter);
+
+        // One extra row tells whether a next page exists
+        return transactionRepository.findPage(filter, after, pageSize + 1)
+                .collectList()
+                .map(transactions -> {
+                    if (transactions.size() <= pageSize) {
+                        return TransactionPage.builder().transactions(transactions).build();
+                    }
+                    List<Transaction> page = transactions.subList(0, pageSize);
+                    Transaction last = page.get(pageSize - 1);
+                    return TransactionPage.builder()
+                            .transactions(page)
+                            .nextCursor(new TransactionCursor(last.getTransactionDate(), last.getId()).encode())
+                            .build();
+                });
     }
 
     /**
-     * Get all transactions for a customer
+     * Get transactions of a product with transactionDate in [from, to], oldest first
      */
-    public Flux<Transaction> getTransactionsByCustomer(String customerId) {
-        log.info("Fetching transactions for customer: {}", customerId);
-        return transactionRepository.findByCustomerId(customerId);
+    public Flux<Transaction> getTransactionsByProductAndDateRange(String productId, LocalDateTime from,
+                                                                  LocalDateTime to) {
+        log.info("Fetching transactions for product: {} between {} and {}", productId, from, to);
+        if (from.isAfter(to)) {
+            return Flux.error(new InvalidTransactionException("'from' must not be after 'to'"));
+        }
+        return transactionRepository.findByProductIdAndTransactionDateBetween(
+                productId, Range.closed(from, to), Sort.by(Sort.Direction.ASC, "transactionDate", "_id"));
+    }
+
+    /**
+     * Get count, amount and commission totals for one or more products, computed in Mongo
+     */
+    public Flux<TransactionStats> getTransactionStats(TransactionStatsRequest request) {
+        log.info("Aggregating transaction stats for {} products grouped by {}",
+                request.getProductIds().size(), request.getGroupBy());
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            return Flux.error(new InvalidTransactionException("'from' must not be after 'to'"));
+        }
+        return transactionRepository.aggregateStats(request);
+    }
+
+    /**
+     * Stream all transactions matching a filter, oldest first, for exports.
+     * The Mongo cursor is read only as fast as the subscriber consumes it.
+     */
+    public Flux<Transaction> exportTransactions(TransactionFilter filter) {
+        log.info("Exporting transactions for filter: {}", filter);
+        return transactionRepository.stream(filter, exportBatchSize);
     }
 
     /**
@@ -383,14 +453,6 @@ public class TransactionService {
                 .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found")));
     }
 
-    /**
-     * Get all transactions
-     */
-    public Flux<Transaction> getAllTransactions() {
-        log.info("Fetching all transactions");
-        return transactionRepository.findAll();
-    }
-
     // ========== CRUD Operations ==========
 
     /**
@@ -429,19 +491,76 @@ public class TransactionService {
     // ========== HELPER METHODS ==========
 
     /**
-     * Get monthly transaction count for a product
+     * Get monthly transaction count for a product.
+     * Reads the maintained counter document; the transactions collection is only
+     * counted (server-side, on the compound index) the first time a month is queried.
      */
     private Mono<Long> getMonthlyTransactionCount(String productId) {
         YearMonth currentMonth = YearMonth.now();
-        LocalDateTime startOfMonth = currentMonth.atDay(1).atStartOfDay();
-        LocalDateTime endOfMonth = currentMonth.atEndOfMonth().atTime(23, 59, 59);
+
+        return monthlyTransactionCounterRepository
+                .findById(MonthlyTransactionCounter.idOf(productId, currentMonth))
+                .map(MonthlyTransactionCounter::getCount)
+                .switchIfEmpty(Mono.defer(() -> seedMonthlyTransactionCount(productId, currentMonth)));
+    }
+
+    private Mono<Long> seedMonthlyTransactionCount(String productId, YearMonth month) {
+        LocalDateTime startOfMonth = month.atDay(1).atStartOfDay();
+        LocalDateTime endOfMonth = month.atEndOfMonth().atTime(23, 59, 59);
 
         return transactionRepository
-                .findByProductIdAndTransactionDateBetween(productId, startOfMonth, endOfMonth)
-                .filter(tx -> tx.getTransactionType() == TransactionType.DEPOSIT
-                        || tx.getTransactionType() == TransactionType.WITHDRAWAL)
-                .filter(tx -> tx.getStatus() == TransactionStatus.COMPLETED)
-                .count();
+                .countByProductIdAndStatusAndTransactionTypeInAndTransactionDateBetween(
+                        productId, TransactionStatus.COMPLETED, COUNTED_TRANSACTION_TYPES,
+                        startOfMonth, endOfMonth)
+                .flatMap(count -> monthlyTransactionCounterRepository.seed(productId, month, count))
+                .map(MonthlyTransactionCounter::getCount);
+    }
+
+    /**
+     * Save a transaction and queue the event describing it in one Mongo transaction,
+     * so the event is queued if and only if the write commits.
+     */
+    private Mono<Transaction> saveWithEvent(Transaction transaction, Function<Transaction, Mono<Void>> publish) {
+        return transactionalOperator.transactional(transactionRepository.save(transaction)
+                .flatMap(saved -> publish.apply(saved).thenReturn(saved)));
+    }
+
+    /**
+     * Save a completed deposit or withdrawal, queue its event and add it to its product's
+     * monthly counter in one Mongo transaction, so the counter moves if and only if the
+     * transaction is recorded as completed.
+     */
+    private Mono<Transaction> saveCompleted(Transaction transaction) {
+        return transactionalOperator.transactional(transactionRepository.save(transaction)
+                .flatMap(saved -> eventPublisher.publishTransactionCompleted(saved).thenReturn(saved))
+                .flatMap(this::recordMonthlyTransaction));
+    }
+
+    /**
+     * Add a completed deposit or withdrawal to its product's monthly counter.
+     * A missing counter is seeded instead; the seed counts inside the same Mongo transaction,
+     * so it already includes this transaction.
+     */
+    private Mono<Transaction> recordMonthlyTransaction(Transaction transaction) {
+        YearMonth month = YearMonth.from(transaction.getTransactionDate());
+        return monthlyTransactionCounterRepository.increment(transaction.getProductId(), month)
+                .map(MonthlyTransactionCounter::getCount)
+                .switchIfEmpty(Mono.defer(() -> seedMonthlyTransactionCount(transaction.getProductId(), month)))
+                .thenReturn(transaction);
+    }
+
+    /**
+     * The projected product when its balance covers the amount and the commission, otherwise
+     * the product re-read from products-service, so a withdrawal is only rejected on the
+     * authoritative balance
+     */
+    private Mono<ProductDto> confirmFunds(ProductDto product, BigDecimal amount, Long transactionCount) {
+        BigDecimal totalAmount = amount.add(calculateCommission(product, transactionCount));
+        if (product.getBalance().compareTo(totalAmount) >= 0) {
+            return Mono.just(product);
+        }
+        return productProjectionService.refresh(product.getId())
+                .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found")));
     }
 
     /**
@@ -516,21 +635,21 @@ public class TransactionService {
 
     public Mono<Transaction> fallbackDeposit(DepositRequest request, Exception ex) {
         log.error("Fallback: deposit failed for product: {}", request.getProductId(), ex);
-        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
+        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later.", ex));
     }
 
     public Mono<Transaction> fallbackWithdrawal(WithdrawalRequest request, Exception ex) {
         log.error("Fallback: withdrawal failed for product: {}", request.getProductId(), ex);
-        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
+        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later.", ex));
     }
 
     public Mono<Transaction> fallbackPayment(PaymentRequest request, Exception ex) {
         log.error("Fallback: payment failed for product: {}", request.getProductId(), ex);
-        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
+        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later.", ex));
     }
 
     public Mono<Transaction> fallbackCreditCharge(CreditChargeRequest request, Exception ex) {
         log.error("Fallback: credit charge failed for card: {}", request.getCreditCardId(), ex);
-        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
+        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later.", ex));
     }
 }
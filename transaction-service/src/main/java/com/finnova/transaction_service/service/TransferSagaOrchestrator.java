@@ -0,0 +1,225 @@
+package com.finnova.transaction_service.service;
+
+import com.finnova.transaction_service.client.ProductClient;
+import com.finnova.transaction_service.event.publisher.TransactionEventPublisher;
+import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.entity.TransferSaga;
+import com.finnova.transaction_service.model.enums.TransactionStatus;
+import com.finnova.transaction_service.model.enums.TransferSagaState;
+import com.finnova.transaction_service.repository.TransactionRepository;
+import com.finnova.transaction_service.repository.TransferSagaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Drives transfer sagas. A saga moves the money with one transfer call to products-service,
+ * which applies both sides in a single transaction, so there is never a half-applied transfer
+ * to compensate. Past the saga deadline the transfer is fenced off and the saga fails, unless
+ * the transfer got through in the meantime.
+ * The transfer holds the saga lease and is sent to products-service with the saga's operation key,
+ * so a saga resumed by another instance after a crash or lease expiry never moves money twice.
+ * A transfer that fails transiently keeps the saga STARTED for the recovery worker to resume.
+ */
+@Service
+@Slf4j
+public class TransferSagaOrchestrator {
+
+    private final TransferSagaRepository transferSagaRepository;
+    private final TransactionRepository transactionRepository;
+    private final ProductClient productClient;
+    private final ProductProjectionService productProjectionService;
+    private final TransactionEventPublisher eventPublisher;
+    private final TransactionalOperator transactionalOperator;
+    private final Duration lease;
+    private final Duration timeout;
+    private final Duration retryBackoff;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public TransferSagaOrchestrator(TransferSagaRepository transferSagaRepository,
+                                    TransactionRepository transactionRepository,
+                                    ProductClient productClient,
+                                    ProductProjectionService productProjectionService,
+                                    TransactionEventPublisher eventPublisher,
+                                    TransactionalOperator transactionalOperator,
+                                    @Value("${transfer.saga.lease:30s}") Duration lease,
+                                    @Value("${transfer.saga.timeout:2m}") Duration timeout,
+                                    @Value("${transfer.saga.retry-backoff:5s}") Duration retryBackoff) {
+        this.transferSagaRepository = transferSagaRepository;
+        this.transactionRepository = transactionRepository;
+        this.productClient = productClient;
+        this.productProjectionService = productProjectionService;
+        this.eventPublisher = eventPublisher;
+        this.transactionalOperator = transactionalOperator;
+        this.lease = lease;
+        this.timeout = timeout;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Persists a new saga leased to this instance and drives it as far as it goes.
+     *
+     * @param saga the saga with its products, amount and transaction IDs set
+     * @return Mono of the saga in its latest state, empty if the lease was lost
+     */
+    public Mono<TransferSaga> start(TransferSaga saga) {
+        LocalDateTime now = LocalDateTime.now();
+        saga.setState(TransferSagaState.STARTED);
+        saga.setAttempts(0);
+        saga.setLockedBy(instanceId);
+        saga.setLockedUntil(now.plus(lease));
+        saga.setDeadline(now.plus(timeout));
+        saga.setCreatedAt(now);
+        saga.setUpdatedAt(now);
+
+        return transferSagaRepository.insert(saga)
+                .flatMap(this::drive);
+    }
+
+    /**
+     * Claims sagas abandoned by a crashed or timed out execution and drives them,
+     * the ones closest to or past their deadline first.
+     *
+     * @param batchSize maximum number of sagas to claim
+     * @param concurrency maximum number of sagas driven at the same time
+     * @return Flux of the resumed sagas in their latest state
+     */
+    public Flux<TransferSaga> resumeStalled(int batchSize, int concurrency) {
+        return transferSagaRepository.claimStalled(instanceId, batchSize, lease)
+                .doOnNext(saga -> log.info("Resuming transfer saga {} in state {}", saga.getId(), saga.getState()))
+                .flatMap(this::drive, concurrency);
+    }
+
+    /**
+     * Runs steps until the saga is final, a step has to be retried later, or the lease is lost.
+     */
+    private Mono<TransferSaga> drive(TransferSaga saga) {
+        return step(saga)
+                .flatMap(next -> next.getState() == saga.getState() || next.getState().isFinal()
+                        ? Mono.just(next)
+                        : drive(next));
+    }
+
+    private Mono<TransferSaga> step(TransferSaga saga) {
+        return switch (saga.getState()) {
+            case STARTED -> isOverdue(saga) ? timeOutTransfer(saga) : transfer(saga);
+            case COMPLETED, FAILED -> Mono.just(saga);
+        };
+    }
+
+    // Transfer
+
+    private Mono<TransferSaga> transfer(TransferSaga saga) {
+        return productClient.transfer(saga.getSourceProductId(), saga.getDestinationProductId(),
+                        saga.getAmount(), saga.transferOperationId())
+                .flatMap(result -> productProjectionService.record(result.getSource())
+                        .then(productProjectionService.record(result.getDestination()))
+                        .then(complete(saga, result.getSource().getBalance(),
+                                result.getDestination().getBalance())))
+                .onErrorResume(e -> isRejection(e)
+                        ? fail(saga, "Transfer rejected: " + rejectionMessage(e))
+                        : retryLater(saga, e));
+    }
+
+    /**
+     * Completes both transactions; a null balance leaves the transaction balance unchanged.
+     */
+    private Mono<TransferSaga> complete(TransferSaga saga, BigDecimal sourceBalance, BigDecimal destinationBalance) {
+        // The transactions and their events commit together before the final transition,
+        // a crash in between only repeats them
+        Mono<Void> completeTransactions = updateTransaction(saga.getDebitTransactionId(),
+                TransactionStatus.COMPLETED, sourceBalance)
+                .flatMap(debit -> updateTransaction(saga.getCreditTransactionId(), TransactionStatus.COMPLETED,
+                                destinationBalance)
+                        .flatMap(credit -> eventPublisher.publishTransferCompleted(debit, credit)
+                                .then(eventPublisher.publishTransactionCompleted(debit))
+                                .then(eventPublisher.publishTransactionCompleted(credit))));
+
+        return transactionalOperator.transactional(completeTransactions)
+                .then(transition(saga, TransferSagaState.COMPLETED, null))
+                .doOnNext(completed -> log.info("Transfer saga {} completed", completed.getId()));
+    }
+
+    // Deadline handling
+
+    /**
+     * Fences the transfer on the source so a delayed request can no longer apply it, then fails
+     * the saga or, if the transfer got through in the meantime, completes it.
+     */
+    private Mono<TransferSaga> timeOutTransfer(TransferSaga saga) {
+        return productClient.fenceOperation(saga.getSourceProductId(), saga.transferOperationId())
+                .flatMap(applied -> applied
+                        ? complete(saga, null, null)
+                        : fail(saga, "Transfer timed out"))
+                .onErrorResume(e -> retryLater(saga, e));
+    }
+
+    /**
+     * Ends a saga whose transfer was never applied.
+     */
+    private Mono<TransferSaga> fail(TransferSaga saga, String reason) {
+        Mono<Void> failTransactions = updateTransaction(saga.getDebitTransactionId(), TransactionStatus.FAILED, null)
+                .then(updateTransaction(saga.getCreditTransactionId(), TransactionStatus.FAILED, null))
+                .then(eventPublisher.publishTransferFailed(saga.getId(), reason));
+
+        return transactionalOperator.transactional(failTransactions)
+                .then(transition(saga, TransferSagaState.FAILED, reason))
+                .doOnNext(failed -> log.warn("Transfer saga {} failed: {}", failed.getId(), reason));
+    }
+
+    // Helper methods
+
+    private Mono<TransferSaga> transition(TransferSaga saga, TransferSagaState to, String error) {
+        return transferSagaRepository.transition(saga.getId(), instanceId, saga.getState(), to, error, lease)
+                .switchIfEmpty(Mono.fromRunnable(() ->
+                        log.warn("Lost the lease of transfer saga {} in state {}", saga.getId(), saga.getState())));
+    }
+
+    private Mono<TransferSaga> retryLater(TransferSaga saga, Throwable error) {
+        log.warn("Transfer saga {} step {} failed, retrying later: {}",
+                saga.getId(), saga.getState(), error.getMessage());
+        return transferSagaRepository.recordFailure(saga.getId(), instanceId, error.getMessage(), retryBackoff)
+                .thenReturn(saga);
+    }
+
+    /**
+     * Updates a saga transaction; the balance is left unchanged when null.
+     */
+    private Mono<Transaction> updateTransaction(String transactionId, TransactionStatus status,
+                                                BigDecimal balanceAfter) {
+        return transactionRepository.findById(transactionId)
+                .flatMap(transaction -> {
+                    transaction.setStatus(status);
+                    if (balanceAfter != null) {
+                        transaction.setBalanceAfter(balanceAfter);
+                    }
+                    transaction.setUpdatedAt(LocalDateTime.now());
+                    return transactionRepository.save(transaction);
+                });
+    }
+
+    private boolean isOverdue(TransferSaga saga) {
+        return saga.getDeadline() != null && LocalDateTime.now().isAfter(saga.getDeadline());
+    }
+
+    /**
+     * A 4xx from products-service is a definitive answer, anything else may still have been applied.
+     */
+    private boolean isRejection(Throwable error) {
+        return error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+
+    private String rejectionMessage(Throwable error) {
+        String body = ((WebClientResponseException) error).getResponseBodyAsString();
+        return body.isBlank() ? error.getMessage() : body;
+    }
+}
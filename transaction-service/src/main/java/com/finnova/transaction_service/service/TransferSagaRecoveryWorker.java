@@ -0,0 +1,48 @@
+package com.finnova.transaction_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resumes transfer sagas that no execution is driving anymore: sagas left behind by a
+ * restarted or crashed instance and sagas waiting to retry their transfer call. A resumed saga
+ * past its deadline has its transfer fenced on the source and fails, or completes if the
+ * transfer was applied in the meantime; there is nothing to compensate, since the transfer
+ * moves both sides at once. Claims go through the saga lease, so every transaction-service
+ * replica can run the worker.
+ */
+@Component
+@Slf4j
+public class TransferSagaRecoveryWorker {
+
+    private final TransferSagaOrchestrator transferSagaOrchestrator;
+    private final int batchSize;
+    private final int concurrency;
+
+    public TransferSagaRecoveryWorker(TransferSagaOrchestrator transferSagaOrchestrator,
+                                      @Value("${transfer.saga.recovery.batch-size:50}") int batchSize,
+                                      @Value("${transfer.saga.recovery.concurrency:8}") int concurrency) {
+        this.transferSagaOrchestrator = transferSagaOrchestrator;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Resumes one batch of stalled sagas; the next run starts once this one completes.
+     */
+    @Scheduled(fixedDelayString = "${transfer.saga.recovery.poll-interval:5s}")
+    public Mono<Void> resumeStalledSagas() {
+        return transferSagaOrchestrator.resumeStalled(batchSize, concurrency)
+                .count()
+                .filter(resumed -> resumed > 0)
+                .doOnNext(resumed -> log.info("Resumed {} transfer sagas", resumed))
+                .onErrorResume(e -> {
+                    log.error("Error resuming transfer sagas: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -1,6 +1,5 @@
 package com.finnova.transaction_service.service;
 
-import com.finnova.transaction_service.client.ProductClient;
 import com.finnova.transaction_service.event.publisher.TransactionEventPublisher;
 import com.finnova.transaction_service.exception.InsufficientBalanceException;
 import com.finnova.transaction_service.exception.InvalidTransactionException;
@@ -8,6 +7,7 @@ import com.finnova.transaction_service.exception.ProductNotFoundException;
 import com.finnova.transaction_service.model.dto.ProductDto;
 import com.finnova.transaction_service.model.dto.TransferRequest;
 import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.entity.TransferSaga;
 import com.finnova.transaction_service.model.enums.TransactionStatus;
 import com.finnova.transaction_service.model.enums.TransactionType;
 import com.finnova.transaction_service.repository.TransactionRepository;
@@ -17,9 +17,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -28,7 +30,8 @@ import java.util.UUID;
 public class TransferService {
 
     private final TransactionRepository transactionRepository;
-    private final ProductClient productClient;
+    private final ProductProjectionService productProjectionService;
+    private final TransferSagaOrchestrator transferSagaOrchestrator;
     private final TransactionEventPublisher eventPublisher;
 
     /**
@@ -62,11 +65,12 @@ public class TransferService {
         String transactionNumber = generateTransactionNumber();
 
         return Mono.zip(
-                        productClient.getProduct(request.getSourceProductId())
+                        productProjectionService.getProduct(request.getSourceProductId(), product ->
+                                        product.getBalance().compareTo(request.getAmount()) >= 0)
                                 .switchIfEmpty(Mono.error(new ProductNotFoundException(
                                         "Source product not found: " + request.getSourceProductId()
                                 ))),
-                        productClient.getProduct(request.getDestinationProductId())
+                        productProjectionService.getProduct(request.getDestinationProductId())
                                 .switchIfEmpty(Mono.error(new ProductNotFoundException(
                                         "Destination product not found: " + request.getDestinationProductId()
                                 )))
@@ -114,79 +118,48 @@ public class TransferService {
                             transactionNumber, destProduct, request, sourceProduct.getCustomerId()
                     );
 
-                    // Ejecutar transferencia
-                    return executeTransfer(debitTransaction, creditTransaction, sourceProduct, destProduct, request);
+                    return Mono.just(Tuples.of(debitTransaction, creditTransaction));
                 })
                 .onErrorResume(ex -> {
                     log.error("Transfer failed: {}", ex.getMessage());
                     return eventPublisher.publishTransferFailed(transactionNumber, ex.getMessage())
                             .then(Mono.error(ex));
-                });
+                })
+                // Ejecutar transferencia, la saga publica su propio resultado
+                .flatMap(transactions -> executeTransfer(
+                        transactionNumber, transactions.getT1(), transactions.getT2(), request));
     }
 
     /**
-     * Execute the transfer by updating balances and saving transactions
+     * Execute the transfer as a saga: products-service moves the money between both accounts
+     * in one atomic call, and the saga resumes it after a crash or timeout without moving
+     * money twice. A transfer still in flight is returned PENDING and finished by the recovery worker.
      */
     private Mono<Transaction> executeTransfer(
+            String transactionNumber,
             Transaction debitTransaction,
             Transaction creditTransaction,
-            ProductDto sourceProduct,
-            ProductDto destProduct,
             TransferRequest request
     ) {
-        // Guardar transacción de débito (PENDING)
-        return transactionRepository.save(debitTransaction)
-                .flatMap(savedDebit -> {
-                    // 1️⃣ RETIRAR de cuenta origen
-                    return productClient.withdraw(
-                                    request.getSourceProductId(),
-                                    request.getAmount()
-                            )
-                            .flatMap(updatedSource -> {
-                                // Actualizar transacción débito a COMPLETED
-                                savedDebit.setStatus(TransactionStatus.COMPLETED);
-                                savedDebit.setBalanceAfter(updatedSource.getBalance());
-                                savedDebit.setUpdatedAt(LocalDateTime.now());
-
-                                // Guardar transacción de crédito (PENDING)
-                                return transactionRepository.save(savedDebit)
-                                        .then(transactionRepository.save(creditTransaction))
-                                        .flatMap(savedCredit -> {
-                                            // 2️⃣ DEPOSITAR en cuenta destino
-                                            return productClient.deposit(
-                                                            request.getDestinationProductId(),
-                                                            request.getAmount()
-                                                    )
-                                                    .flatMap(updatedDest -> {
-                                                        // Actualizar transacción crédito a COMPLETED
-                                                        savedCredit.setStatus(TransactionStatus.COMPLETED);
-                                                        savedCredit.setBalanceAfter(updatedDest.getBalance());
-                                                        savedCredit.setUpdatedAt(LocalDateTime.now());
-
-                                                        // Guardar transacción actualizada
-                                                        return transactionRepository.save(savedCredit)
-                                                                .flatMap(finalCredit ->
-                                                                        eventPublisher.publishTransferCompleted(savedDebit, finalCredit)
-                                                                                .thenReturn(savedDebit)
-                                                                );
-                                                    });
-                                        });
-                            });
-                })
-                .onErrorResume(ex -> {
-                    log.error("Transfer execution failed: {}", ex.getMessage());
-
-                    // Marcar transacciones como FAILED
-                    debitTransaction.setStatus(TransactionStatus.FAILED);
-                    creditTransaction.setStatus(TransactionStatus.FAILED);
-
-                    return transactionRepository.save(debitTransaction)
-                            .then(transactionRepository.save(creditTransaction))
-                            .then(Mono.error(ex));
-                });
+        // Guardar transacciones de débito y crédito (PENDING) en una sola escritura
+        return transactionRepository.insert(List.of(debitTransaction, creditTransaction))
+                .collectList()
+                .flatMap(saved -> transferSagaOrchestrator.start(TransferSaga.builder()
+                                .id(transactionNumber)
+                                .sourceProductId(request.getSourceProductId())
+                                .destinationProductId(request.getDestinationProductId())
+                                .amount(request.getAmount())
+                                .debitTransactionId(saved.get(0).getId())
+                                .creditTransactionId(saved.get(1).getId())
+                                .build())
+                        .flatMap(saga -> switch (saga.getState()) {
+                            case FAILED -> Mono.<Transaction>error(new InvalidTransactionException(
+                                    "Transfer failed: " + saga.getLastError()));
+                            default -> Mono.<Transaction>empty();
+                        })
+                        .switchIfEmpty(Mono.defer(() -> transactionRepository.findById(saved.get(0).getId()))));
     }
 
-
     /**
      * Create debit transaction (TRANSFER_OUT)
      */
@@ -255,6 +228,6 @@ public class TransferService {
 
     public Mono<Transaction> fallbackTransfer(TransferRequest request, Exception ex) {
         log.error("Fallback: transfer failed", ex);
-        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later."));
+        return Mono.error(new RuntimeException("Product service is unavailable. Please try again later.", ex));
     }
 }
@@ -0,0 +1,141 @@
+package com.finnova.transaction_service.event.relay;
+
+import com.finnova.transaction_service.model.entity.OutboxEvent;
+import com.finnova.transaction_service.model.enums.OutboxStatus;
+import com.finnova.transaction_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private static final String TOPIC = "transaction-events";
+    private static final String BROKEN_KEY = "broken";
+
+    private final List<String> sent = new ArrayList<>();
+    private final Map<String, LocalDateTime> retries = new HashMap<>();
+    private final List<String> deadLetters = new ArrayList<>();
+    private OutboxEventRepository repository;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        when(repository.markSent(any())).thenAnswer(inv -> {
+            Collection<String> ids = inv.getArgument(0);
+            sent.addAll(ids);
+            return Mono.just((long) ids.size());
+        });
+        when(repository.markFailed(anyString(), anyString(), any())).thenAnswer(inv -> {
+            retries.put(inv.getArgument(0), inv.getArgument(2));
+            return Mono.empty();
+        });
+        when(repository.markDeadLetter(anyString(), anyString())).thenAnswer(inv -> {
+            deadLetters.add(inv.getArgument(0));
+            return Mono.empty();
+        });
+
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(inv -> BROKEN_KEY.equals(inv.getArgument(1))
+                ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                : CompletableFuture.completedFuture(null));
+
+        // 1s, 2s, then capped at 3s; the fifth failure dead-letters the event
+        relay = new OutboxRelay(repository, kafkaTemplate, 100, Duration.ofSeconds(30), 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(3));
+    }
+
+    @Test
+    void acknowledgedEventsAreMarkedSentTogether() {
+        claims(event("e-1", "acc-1", 0), event("e-2", "acc-2", 0));
+
+        StepVerifier.create(relay.relayPendingEvents()).verifyComplete();
+
+        assertThat(sent).containsExactlyInAnyOrder("e-1", "e-2");
+        verify(repository, never()).markFailed(anyString(), anyString(), any());
+    }
+
+    @Test
+    void failedEventIsRetriedWithExponentialBackoff() {
+        claims(event("e-1", "acc-1", 0), event("e-2", BROKEN_KEY, 1));
+
+        LocalDateTime before = LocalDateTime.now();
+        StepVerifier.create(relay.relayPendingEvents()).verifyComplete();
+
+        assertThat(sent).containsExactly("e-1");
+        // Second failed attempt: twice the base backoff
+        assertThat(retries.get("e-2")).isCloseTo(before.plusSeconds(2), within(500, ChronoUnit.MILLIS));
+        assertThat(deadLetters).isEmpty();
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximum() {
+        claims(event("e-1", BROKEN_KEY, 3));
+
+        LocalDateTime before = LocalDateTime.now();
+        StepVerifier.create(relay.relayPendingEvents()).verifyComplete();
+
+        assertThat(retries.get("e-1")).isCloseTo(before.plusSeconds(3), within(500, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void eventFailingItsLastAttemptIsDeadLettered() {
+        claims(event("e-1", BROKEN_KEY, 4));
+
+        StepVerifier.create(relay.relayPendingEvents()).verifyComplete();
+
+        assertThat(deadLetters).containsExactly("e-1");
+        assertThat(retries).isEmpty();
+        verify(repository, never()).markSent(any());
+    }
+
+    @Test
+    void failingClaimIsLoggedAndRetriedOnTheNextRun() {
+        when(repository.claimBatch(anyString(), anyInt(), any()))
+                .thenReturn(Flux.error(new IllegalStateException("mongo unavailable")));
+
+        StepVerifier.create(relay.relayPendingEvents()).verifyComplete();
+
+        verify(repository, never()).markSent(any());
+    }
+
+    private void claims(OutboxEvent... events) {
+        when(repository.claimBatch(anyString(), anyInt(), any())).thenReturn(Flux.just(events));
+    }
+
+    private static OutboxEvent event(String id, String messageKey, int attempts) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .messageKey(messageKey)
+                .payload(Map.of("id", id))
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
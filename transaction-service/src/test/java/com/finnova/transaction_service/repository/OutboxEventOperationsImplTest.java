@@ -0,0 +1,181 @@
+package com.finnova.transaction_service.repository;
+
+import com.finnova.transaction_service.model.entity.OutboxEvent;
+import com.finnova.transaction_service.model.enums.OutboxStatus;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the relay's claim and acknowledgement queries against a real MongoDB, so the lease
+ * guards are those of the queries themselves.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxEventOperationsImplTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient mongoClient;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    private OutboxEventOperationsImpl operations;
+
+    @BeforeAll
+    static void connect() {
+        mongoClient = MongoClients.create(MONGO.getReplicaSetUrl());
+        mongoTemplate = new ReactiveMongoTemplate(mongoClient, "outbox_test");
+    }
+
+    @AfterAll
+    static void disconnect() {
+        mongoClient.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(OutboxEvent.class).block();
+        operations = new OutboxEventOperationsImpl(mongoTemplate);
+    }
+
+    @Test
+    void claimLeasesTheOldestPendingEvents() {
+        insert(pending("e-3", 3), pending("e-1", 1), pending("e-2", 2));
+
+        List<OutboxEvent> claimed = operations.claimBatch("relay-1", 2, LEASE).collectList().block();
+
+        assertThat(claimed).extracting(OutboxEvent::getId).containsExactly("e-1", "e-2");
+        assertThat(claimed).allSatisfy(event -> {
+            assertThat(event.getLockedBy()).isEqualTo("relay-1");
+            assertThat(event.getLockedUntil()).isAfter(LocalDateTime.now());
+        });
+    }
+
+    @Test
+    void leasedEventsAreNotClaimedByAnotherRelay() {
+        insert(pending("e-1", 1), pending("e-2", 2));
+        operations.claimBatch("relay-1", 10, LEASE).blockLast();
+
+        assertThat(operations.claimBatch("relay-2", 10, LEASE).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void expiredLeaseIsClaimedAgain() {
+        OutboxEvent abandoned = pending("e-1", 1);
+        abandoned.setLockedBy("crashed-relay");
+        abandoned.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+        insert(abandoned);
+
+        assertThat(operations.claimBatch("relay-2", 10, LEASE).collectList().block())
+                .extracting(OutboxEvent::getLockedBy)
+                .containsExactly("relay-2");
+    }
+
+    @Test
+    void eventsNotDueOrNotPendingAreNotClaimed() {
+        OutboxEvent backingOff = pending("e-1", 1);
+        backingOff.setNextAttemptAt(LocalDateTime.now().plusMinutes(1));
+        OutboxEvent sent = pending("e-2", 2);
+        sent.setStatus(OutboxStatus.SENT);
+        OutboxEvent deadLetter = pending("e-3", 3);
+        deadLetter.setStatus(OutboxStatus.DEAD_LETTER);
+        OutboxEvent due = pending("e-4", 4);
+        due.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        insert(backingOff, sent, deadLetter, due);
+
+        assertThat(operations.claimBatch("relay-1", 10, LEASE).collectList().block())
+                .extracting(OutboxEvent::getId)
+                .containsExactly("e-4");
+    }
+
+    @Test
+    void concurrentRelaysNeverClaimTheSameEvent() {
+        insert(IntStream.range(0, 50).mapToObj(i -> pending("e-" + i, i)).toArray(OutboxEvent[]::new));
+
+        List<Set<String>> claims = Flux.range(0, 4)
+                .flatMap(relay -> operations.claimBatch("relay-" + relay, 50, LEASE)
+                        .map(OutboxEvent::getId)
+                        .collect(Collectors.toSet())
+                        .subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block();
+
+        Set<String> all = new HashSet<>();
+        int total = 0;
+        for (Set<String> claim : claims) {
+            all.addAll(claim);
+            total += claim.size();
+        }
+        assertThat(total).isEqualTo(all.size());
+        assertThat(all).hasSize(50);
+    }
+
+    @Test
+    void failedEventReleasesItsLeaseUntilItIsDue() {
+        insert(pending("e-1", 1));
+        operations.claimBatch("relay-1", 10, LEASE).blockLast();
+
+        operations.markFailed("e-1", "broker unavailable", LocalDateTime.now().plusMinutes(1)).block();
+
+        OutboxEvent failed = mongoTemplate.findById("e-1", OutboxEvent.class).block();
+        assertThat(failed.getLockedBy()).isNull();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).isEqualTo("broker unavailable");
+        assertThat(operations.claimBatch("relay-2", 10, LEASE).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void sentEventsAreAcknowledgedInOneUpdate() {
+        insert(pending("e-1", 1), pending("e-2", 2), pending("e-3", 3));
+        operations.claimBatch("relay-1", 10, LEASE).blockLast();
+
+        assertThat(operations.markSent(List.of("e-1", "e-2")).block()).isEqualTo(2L);
+
+        assertThat(mongoTemplate.findById("e-1", OutboxEvent.class).block().getStatus())
+                .isEqualTo(OutboxStatus.SENT);
+        assertThat(mongoTemplate.findById("e-3", OutboxEvent.class).block().getStatus())
+                .isEqualTo(OutboxStatus.PENDING);
+    }
+
+    private static void insert(OutboxEvent... events) {
+        Flux.just(events).concatMap(mongoTemplate::insert).blockLast();
+    }
+
+    /**
+     * A pending event created the given number of seconds after a fixed origin, so the
+     * creation order is the order of the argument.
+     */
+    private static OutboxEvent pending(String id, int createdSecond) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("transaction-events")
+                .messageKey(id)
+                .payload(Map.of("id", id))
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .createdAt(LocalDateTime.now().minusHours(1).plusSeconds(createdSecond))
+                .build();
+    }
+}
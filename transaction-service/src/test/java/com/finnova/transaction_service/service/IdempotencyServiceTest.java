@@ -0,0 +1,208 @@
+package com.finnova.transaction_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finnova.transaction_service.exception.IdempotencyConflictException;
+import com.finnova.transaction_service.exception.InsufficientBalanceException;
+import com.finnova.transaction_service.exception.ProductNotFoundException;
+import com.finnova.transaction_service.model.dto.TransactionResponse;
+import com.finnova.transaction_service.model.entity.IdempotencyRecord;
+import com.finnova.transaction_service.model.enums.IdempotencyStatus;
+import com.finnova.transaction_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final String KEY = "key-1";
+    private static final String CALLER = "user-1";
+    private static final Body BODY = new Body("acc-1", "100.00");
+
+    private record Body(String productId, String amount) {
+    }
+
+    private final Map<String, IdempotencyRecord> records = new HashMap<>();
+    private final Map<String, String> cache = new HashMap<>();
+    private final AtomicInteger runs = new AtomicInteger();
+    private ReactiveValueOperations<String, String> cacheOperations;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.insert(any(IdempotencyRecord.class))).thenAnswer(inv -> {
+            IdempotencyRecord record = inv.getArgument(0);
+            if (records.putIfAbsent(record.getKey(), record) != null) {
+                return Mono.error(new DuplicateKeyException("E11000 duplicate key " + record.getKey()));
+            }
+            return Mono.just(record);
+        });
+        when(repository.save(any(IdempotencyRecord.class))).thenAnswer(inv -> {
+            IdempotencyRecord record = inv.getArgument(0);
+            records.put(record.getKey(), record);
+            return Mono.just(record);
+        });
+        when(repository.findById(anyString())).thenAnswer(inv ->
+                Mono.justOrEmpty(records.get(inv.<String>getArgument(0))));
+        when(repository.deleteById(anyString())).thenAnswer(inv -> {
+            records.remove(inv.<String>getArgument(0));
+            return Mono.empty();
+        });
+
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+        cacheOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(cacheOperations);
+        when(cacheOperations.get(any())).thenAnswer(inv -> Mono.justOrEmpty(cache.get(inv.<String>getArgument(0))));
+        when(cacheOperations.set(anyString(), anyString(), any(Duration.class))).thenAnswer(inv -> {
+            cache.put(inv.getArgument(0), inv.getArgument(1));
+            return Mono.just(true);
+        });
+
+        idempotencyService = new IdempotencyService(repository, redisTemplate,
+                new ObjectMapper().findAndRegisterModules(), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void repeatedKeyReplaysTheStoredResponse() {
+        StepVerifier.create(deposit(KEY, CALLER, BODY))
+                .assertNext(response -> assertThat(response.getId()).isEqualTo("tx-1"))
+                .verifyComplete();
+        StepVerifier.create(deposit(KEY, CALLER, BODY))
+                .assertNext(response -> assertThat(response.getId()).isEqualTo("tx-1"))
+                .verifyComplete();
+
+        assertThat(runs).hasValue(1);
+        assertThat(cache).hasSize(1);
+    }
+
+    @Test
+    void repeatedKeyIsReplayedFromMongoWhenTheCacheIsDown() {
+        StepVerifier.create(deposit(KEY, CALLER, BODY)).expectNextCount(1).verifyComplete();
+        doReturn(Mono.error(new IllegalStateException("redis unavailable"))).when(cacheOperations).get(any());
+
+        StepVerifier.create(deposit(KEY, CALLER, BODY))
+                .assertNext(response -> assertThat(response.getId()).isEqualTo("tx-1"))
+                .verifyComplete();
+
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keyReusedWithAnotherRequestIsAConflict() {
+        StepVerifier.create(deposit(KEY, CALLER, BODY)).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(deposit(KEY, CALLER, new Body("acc-1", "999.00")))
+                .expectError(IdempotencyConflictException.class)
+                .verify();
+
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keysAreScopedPerCaller() {
+        StepVerifier.create(deposit(KEY, CALLER, BODY)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(deposit(KEY, "user-2", BODY)).expectNextCount(1).verifyComplete();
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void requestWithoutKeyRunsEveryTime() {
+        StepVerifier.create(deposit(null, CALLER, BODY)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(deposit(null, CALLER, BODY)).expectNextCount(1).verifyComplete();
+
+        assertThat(runs).hasValue(2);
+        assertThat(records).isEmpty();
+    }
+
+    @Test
+    void rejectedOperationReleasesTheKey() {
+        StepVerifier.create(execute(KEY, BODY, Mono.error(new InsufficientBalanceException("Insufficient balance"))))
+                .expectError(InsufficientBalanceException.class)
+                .verify();
+        assertThat(records).isEmpty();
+
+        StepVerifier.create(deposit(KEY, CALLER, BODY)).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void rejectionWrappedByAFallbackReleasesTheKey() {
+        RuntimeException fallback = new RuntimeException("Product service is unavailable. Please try again later.",
+                new ProductNotFoundException("Product not found"));
+
+        StepVerifier.create(execute(KEY, BODY, Mono.error(fallback)))
+                .expectErrorMessage(fallback.getMessage())
+                .verify();
+
+        assertThat(records).isEmpty();
+    }
+
+    @Test
+    void failureThatMayHaveMovedMoneyKeepsTheKeyUnknown() {
+        RuntimeException timeout = new RuntimeException("Product service is unavailable. Please try again later.",
+                new TimeoutException("products-service did not answer"));
+
+        StepVerifier.create(execute(KEY, BODY, Mono.error(timeout)))
+                .expectErrorMessage(timeout.getMessage())
+                .verify();
+        assertThat(records.values()).singleElement()
+                .extracting(IdempotencyRecord::getStatus)
+                .isEqualTo(IdempotencyStatus.UNKNOWN);
+
+        StepVerifier.create(deposit(KEY, CALLER, BODY))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IdempotencyConflictException.class)
+                        .hasMessageContaining("unknown outcome"))
+                .verify();
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void requestRacingAnInProgressOneIsAConflict() {
+        StepVerifier.create(execute(KEY, BODY, Mono.never())).thenCancel().verify();
+        assertThat(records.values()).singleElement()
+                .extracting(IdempotencyRecord::getStatus)
+                .isEqualTo(IdempotencyStatus.IN_PROGRESS);
+
+        StepVerifier.create(deposit(KEY, CALLER, BODY))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IdempotencyConflictException.class)
+                        .hasMessageContaining("still being processed"))
+                .verify();
+        assertThat(runs).hasValue(0);
+    }
+
+    private Mono<TransactionResponse> deposit(String idempotencyKey, String callerId, Body body) {
+        return idempotencyService.execute(idempotencyKey, callerId, "deposit", body, () -> {
+            int run = runs.incrementAndGet();
+            return Mono.just(TransactionResponse.builder()
+                    .id("tx-" + run)
+                    .productId(body.productId())
+                    .transactionDate(LocalDateTime.now())
+                    .build());
+        });
+    }
+
+    private Mono<TransactionResponse> execute(String idempotencyKey, Body body, Mono<TransactionResponse> outcome) {
+        return idempotencyService.execute(idempotencyKey, CALLER, "deposit", body, () -> outcome);
+    }
+}
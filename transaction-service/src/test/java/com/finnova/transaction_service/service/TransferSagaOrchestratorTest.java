@@ -0,0 +1,322 @@
+package com.finnova.transaction_service.service;
+
+import com.finnova.transaction_service.client.ProductClient;
+import com.finnova.transaction_service.event.publisher.TransactionEventPublisher;
+import com.finnova.transaction_service.model.dto.ProductDto;
+import com.finnova.transaction_service.model.dto.ProductTransferResult;
+import com.finnova.transaction_service.model.entity.Transaction;
+import com.finnova.transaction_service.model.entity.TransferSaga;
+import com.finnova.transaction_service.model.enums.TransactionStatus;
+import com.finnova.transaction_service.model.enums.TransferSagaState;
+import com.finnova.transaction_service.repository.TransactionRepository;
+import com.finnova.transaction_service.repository.TransferSagaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransferSagaOrchestratorTest {
+
+    private static final String SAGA_ID = "saga-1";
+    private static final String SOURCE_ID = "acc-1";
+    private static final String DESTINATION_ID = "acc-2";
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final Map<String, TransferSaga> sagas = new HashMap<>();
+    private final Map<String, Transaction> transactions = new HashMap<>();
+    private final List<String> retries = new ArrayList<>();
+    private final List<String> events = new ArrayList<>();
+    private TransferSagaRepository transferSagaRepository;
+    private ProductClient productClient;
+    private TransferSagaOrchestrator orchestrator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        transferSagaRepository = mock(TransferSagaRepository.class);
+        when(transferSagaRepository.insert(any(TransferSaga.class))).thenAnswer(inv -> {
+            TransferSaga saga = inv.getArgument(0);
+            sagas.put(saga.getId(), saga);
+            return Mono.just(saga);
+        });
+        // Deferred, so the transition happens when the step gets there and not when it is assembled
+        when(transferSagaRepository.transition(anyString(), anyString(), any(), any(), any(), any()))
+                .thenAnswer(inv -> Mono.defer(() -> {
+                    TransferSaga saga = sagas.get(inv.<String>getArgument(0));
+                    if (saga == null || saga.getState() != inv.getArgument(2)) {
+                        return Mono.empty();
+                    }
+                    TransferSagaState to = inv.getArgument(3);
+                    saga.setState(to);
+                    if (inv.getArgument(4) != null) {
+                        saga.setLastError(inv.getArgument(4));
+                    }
+                    if (to.isFinal()) {
+                        saga.setFinishedAt(LocalDateTime.now());
+                    }
+                    return Mono.just(saga);
+                }));
+        when(transferSagaRepository.recordFailure(anyString(), anyString(), anyString(), any()))
+                .thenAnswer(inv -> Mono.fromRunnable(() -> {
+                    retries.add(inv.getArgument(0));
+                    assertThat(inv.<Duration>getArgument(3)).isEqualTo(RETRY_BACKOFF);
+                }));
+
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.findById(anyString())).thenAnswer(inv ->
+                Mono.justOrEmpty(transactions.get(inv.<String>getArgument(0))));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(inv -> {
+            Transaction transaction = inv.getArgument(0);
+            transactions.put(transaction.getId(), transaction);
+            return Mono.just(transaction);
+        });
+
+        productClient = mock(ProductClient.class);
+
+        ProductProjectionService productProjectionService = mock(ProductProjectionService.class);
+        when(productProjectionService.record(any())).thenReturn(Mono.empty());
+
+        TransactionEventPublisher eventPublisher = mock(TransactionEventPublisher.class);
+        when(eventPublisher.publishTransferCompleted(any(), any())).thenAnswer(inv ->
+                Mono.fromRunnable(() -> events.add("transfer-completed")));
+        when(eventPublisher.publishTransactionCompleted(any())).thenAnswer(inv ->
+                Mono.fromRunnable(() -> events.add("transaction-completed:" + inv.<Transaction>getArgument(0).getId())));
+        when(eventPublisher.publishTransferFailed(anyString(), anyString())).thenAnswer(inv ->
+                Mono.fromRunnable(() -> events.add("transfer-failed:" + inv.getArgument(1))));
+
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        orchestrator = new TransferSagaOrchestrator(transferSagaRepository, transactionRepository, productClient,
+                productProjectionService, eventPublisher, transactionalOperator,
+                Duration.ofSeconds(30), Duration.ofMinutes(2), RETRY_BACKOFF);
+
+        transactions.put("tx-debit", pending("tx-debit", SOURCE_ID));
+        transactions.put("tx-credit", pending("tx-credit", DESTINATION_ID));
+    }
+
+    @Test
+    void appliedTransferCompletesBothTransactions() {
+        when(productClient.transfer(SOURCE_ID, DESTINATION_ID, new BigDecimal("100.00"), SAGA_ID + ":transfer"))
+                .thenReturn(Mono.just(transferResult("900.00", "1100.00")));
+
+        StepVerifier.create(orchestrator.start(saga()))
+                .assertNext(saga -> {
+                    assertThat(saga.getState()).isEqualTo(TransferSagaState.COMPLETED);
+                    assertThat(saga.getFinishedAt()).isNotNull();
+                })
+                .verifyComplete();
+
+        assertThat(transactions.get("tx-debit").getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(transactions.get("tx-debit").getBalanceAfter()).isEqualByComparingTo("900.00");
+        assertThat(transactions.get("tx-credit").getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(transactions.get("tx-credit").getBalanceAfter()).isEqualByComparingTo("1100.00");
+        assertThat(events).containsExactly("transfer-completed",
+                "transaction-completed:tx-debit", "transaction-completed:tx-credit");
+    }
+
+    @Test
+    void rejectedTransferFailsTheSaga() {
+        when(productClient.transfer(anyString(), anyString(), any(), anyString()))
+                .thenReturn(Mono.error(WebClientResponseException.create(422, "Unprocessable Entity",
+                        HttpHeaders.EMPTY, "Insufficient balance".getBytes(StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8)));
+
+        StepVerifier.create(orchestrator.start(saga()))
+                .assertNext(saga -> {
+                    assertThat(saga.getState()).isEqualTo(TransferSagaState.FAILED);
+                    assertThat(saga.getLastError()).isEqualTo("Transfer rejected: Insufficient balance");
+                })
+                .verifyComplete();
+
+        assertThat(transactions.values()).extracting(Transaction::getStatus)
+                .containsOnly(TransactionStatus.FAILED);
+        assertThat(events).containsExactly("transfer-failed:Transfer rejected: Insufficient balance");
+        assertThat(retries).isEmpty();
+    }
+
+    @Test
+    void transferThatMayHaveBeenAppliedIsLeftForTheRecoveryWorker() {
+        when(productClient.transfer(anyString(), anyString(), any(), anyString()))
+                .thenReturn(Mono.error(new TimeoutException("products-service did not answer")));
+
+        StepVerifier.create(orchestrator.start(saga()))
+                .assertNext(saga -> assertThat(saga.getState()).isEqualTo(TransferSagaState.STARTED))
+                .verifyComplete();
+
+        assertThat(retries).containsExactly(SAGA_ID);
+        assertThat(transactions.values()).extracting(Transaction::getStatus)
+                .containsOnly(TransactionStatus.PENDING);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void serverErrorIsRetriedRatherThanFailed() {
+        when(productClient.transfer(anyString(), anyString(), any(), anyString()))
+                .thenReturn(Mono.error(WebClientResponseException.create(503, "Service Unavailable",
+                        HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8)));
+
+        StepVerifier.create(orchestrator.start(saga()))
+                .assertNext(saga -> assertThat(saga.getState()).isEqualTo(TransferSagaState.STARTED))
+                .verifyComplete();
+
+        assertThat(retries).containsExactly(SAGA_ID);
+    }
+
+    @Test
+    void resumedSagaRetriesTheTransferWithTheSameOperationKey() {
+        claims(stalled(LocalDateTime.now().plusMinutes(1)));
+        when(productClient.transfer(SOURCE_ID, DESTINATION_ID, new BigDecimal("100.00"), SAGA_ID + ":transfer"))
+                .thenReturn(Mono.just(transferResult("900.00", "1100.00")));
+
+        StepVerifier.create(orchestrator.resumeStalled(10, 2))
+                .assertNext(saga -> assertThat(saga.getState()).isEqualTo(TransferSagaState.COMPLETED))
+                .verifyComplete();
+
+        verify(productClient, never()).fenceOperation(anyString(), anyString());
+    }
+
+    @Test
+    void overdueSagaWhoseTransferGotThroughCompletes() {
+        claims(stalled(LocalDateTime.now().minusSeconds(1)));
+        when(productClient.fenceOperation(SOURCE_ID, SAGA_ID + ":transfer")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(orchestrator.resumeStalled(10, 2))
+                .assertNext(saga -> assertThat(saga.getState()).isEqualTo(TransferSagaState.COMPLETED))
+                .verifyComplete();
+
+        verify(productClient, never()).transfer(anyString(), anyString(), any(), anyString());
+        // The balances after the transfer are unknown once fenced, so they are left as they were
+        assertThat(transactions.values()).allSatisfy(transaction -> {
+            assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+            assertThat(transaction.getBalanceAfter()).isNull();
+        });
+    }
+
+    @Test
+    void overdueSagaWhoseTransferNeverGotThroughFails() {
+        claims(stalled(LocalDateTime.now().minusSeconds(1)));
+        when(productClient.fenceOperation(SOURCE_ID, SAGA_ID + ":transfer")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(orchestrator.resumeStalled(10, 2))
+                .assertNext(saga -> {
+                    assertThat(saga.getState()).isEqualTo(TransferSagaState.FAILED);
+                    assertThat(saga.getLastError()).isEqualTo("Transfer timed out");
+                })
+                .verifyComplete();
+
+        verify(productClient, never()).transfer(anyString(), anyString(), any(), anyString());
+        assertThat(transactions.values()).extracting(Transaction::getStatus)
+                .containsOnly(TransactionStatus.FAILED);
+    }
+
+    @Test
+    void failingFenceIsRetriedLater() {
+        claims(stalled(LocalDateTime.now().minusSeconds(1)));
+        when(productClient.fenceOperation(anyString(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("products-service unavailable")));
+
+        StepVerifier.create(orchestrator.resumeStalled(10, 2))
+                .assertNext(saga -> assertThat(saga.getState()).isEqualTo(TransferSagaState.STARTED))
+                .verifyComplete();
+
+        assertThat(retries).containsExactly(SAGA_ID);
+        assertThat(transactions.values()).extracting(Transaction::getStatus)
+                .containsOnly(TransactionStatus.PENDING);
+    }
+
+    @Test
+    void sagaWhoseLeaseWasLostIsLeftToItsNewOwner() {
+        when(productClient.transfer(anyString(), anyString(), any(), anyString()))
+                .thenReturn(Mono.just(transferResult("900.00", "1100.00")));
+        doReturn(Mono.empty()).when(transferSagaRepository)
+                .transition(anyString(), anyString(), any(), any(), any(), any());
+
+        StepVerifier.create(orchestrator.start(saga())).verifyComplete();
+
+        assertThat(sagas.get(SAGA_ID).getState()).isEqualTo(TransferSagaState.STARTED);
+    }
+
+    @Test
+    void claimUsesTheRequestedBatchSizeAndTheLease() {
+        claims();
+
+        StepVerifier.create(orchestrator.resumeStalled(25, 4)).verifyComplete();
+
+        verify(transferSagaRepository).claimStalled(anyString(), eq(25), eq(Duration.ofSeconds(30)));
+    }
+
+    private void claims(TransferSaga... claimed) {
+        for (TransferSaga saga : claimed) {
+            sagas.put(saga.getId(), saga);
+        }
+        when(transferSagaRepository.claimStalled(anyString(), anyInt(), any())).thenReturn(Flux.just(claimed));
+    }
+
+    private static TransferSaga saga() {
+        return TransferSaga.builder()
+                .id(SAGA_ID)
+                .sourceProductId(SOURCE_ID)
+                .destinationProductId(DESTINATION_ID)
+                .amount(new BigDecimal("100.00"))
+                .debitTransactionId("tx-debit")
+                .creditTransactionId("tx-credit")
+                .build();
+    }
+
+    /**
+     * A saga abandoned by another instance, with the given deadline.
+     */
+    private static TransferSaga stalled(LocalDateTime deadline) {
+        TransferSaga saga = saga();
+        saga.setState(TransferSagaState.STARTED);
+        saga.setAttempts(1);
+        saga.setLockedBy("claiming-instance");
+        saga.setLockedUntil(LocalDateTime.now().plusSeconds(30));
+        saga.setDeadline(deadline);
+        saga.setCreatedAt(deadline.minusMinutes(2));
+        return saga;
+    }
+
+    private static Transaction pending(String id, String productId) {
+        return Transaction.builder()
+                .id(id)
+                .productId(productId)
+                .amount(new BigDecimal("100.00"))
+                .status(TransactionStatus.PENDING)
+                .transactionDate(LocalDateTime.now())
+                .build();
+    }
+
+    private static ProductTransferResult transferResult(String sourceBalance, String destinationBalance) {
+        return ProductTransferResult.builder()
+                .source(ProductDto.builder().id(SOURCE_ID).balance(new BigDecimal(sourceBalance)).build())
+                .destination(ProductDto.builder().id(DESTINATION_ID).balance(new BigDecimal(destinationBalance)).build())
+                .build();
+    }
+}
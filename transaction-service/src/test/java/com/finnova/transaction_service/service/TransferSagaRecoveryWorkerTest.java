@@ -0,0 +1,49 @@
+package com.finnova.transaction_service.service;
+
+import com.finnova.transaction_service.model.entity.TransferSaga;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransferSagaRecoveryWorkerTest {
+
+    private TransferSagaOrchestrator orchestrator;
+    private TransferSagaRecoveryWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        orchestrator = mock(TransferSagaOrchestrator.class);
+        worker = new TransferSagaRecoveryWorker(orchestrator, 50, 8);
+    }
+
+    @Test
+    void runResumesOneBatchOfStalledSagas() {
+        when(orchestrator.resumeStalled(50, 8))
+                .thenReturn(Flux.just(TransferSaga.builder().id("saga-1").build(),
+                        TransferSaga.builder().id("saga-2").build()));
+
+        StepVerifier.create(worker.resumeStalledSagas()).verifyComplete();
+
+        verify(orchestrator).resumeStalled(50, 8);
+    }
+
+    @Test
+    void runWithNothingToResumeCompletes() {
+        when(orchestrator.resumeStalled(50, 8)).thenReturn(Flux.empty());
+
+        StepVerifier.create(worker.resumeStalledSagas()).verifyComplete();
+    }
+
+    @Test
+    void failingRunIsLoggedAndRetriedOnTheNextRun() {
+        when(orchestrator.resumeStalled(50, 8))
+                .thenReturn(Flux.error(new IllegalStateException("mongo unavailable")));
+
+        StepVerifier.create(worker.resumeStalledSagas()).verifyComplete();
+    }
+}